@@ -1,26 +1,27 @@
 package uk.gov.justice.services.common.converter;
 
 import uk.gov.justice.services.common.converter.exception.ConverterException;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
 
 import java.io.IOException;
 
 import javax.inject.Inject;
 import javax.json.JsonObject;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 /**
  * Converts JsonObject to the given Pojo type.
  */
 public class JsonObjectToObjectConverter implements TypedConverter<JsonObject, Object> {
 
     @Inject
-    ObjectMapper mapper;
+    ObjectMapperRegistry objectMapperRegistry;
+
+    private JsonValueMapper jsonValueMapper;
 
     @Override
     public <R> R convert(final JsonObject source, final Class<R> clazz) {
         try {
-            final R object = mapper.readValue(mapper.writeValueAsString(source), clazz);
+            final R object = jsonValueMapper().fromJsonValue(source, clazz);
 
             if (object == null) {
                 throw new ConverterException(String.format("Failed to convert %s to Object", source));
@@ -31,4 +32,11 @@ public class JsonObjectToObjectConverter implements TypedConverter<JsonObject, O
             throw new IllegalArgumentException(String.format("Error while converting %s to JsonObject", source), e);
         }
     }
+
+    private JsonValueMapper jsonValueMapper() {
+        if (jsonValueMapper == null) {
+            jsonValueMapper = new JsonValueMapper(objectMapperRegistry);
+        }
+        return jsonValueMapper;
+    }
 }
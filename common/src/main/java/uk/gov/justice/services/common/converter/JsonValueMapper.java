@@ -0,0 +1,117 @@
+package uk.gov.justice.services.common.converter;
+
+import uk.gov.justice.services.common.converter.codec.JsonCodec;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Maps objects to and from JSR-353 values by passing the JSON tokens written by the {@link
+ * ObjectMapper} through a {@link TokenBuffer}, so the JSON is never written out as text and parsed
+ * again. The readers and writers are taken from the {@link ObjectMapperRegistry}.
+ *
+ * A float held in the buffer is read back as the decimal written by {@link Float#toString(float)},
+ * as it would be from JSON text, rather than as its exact double value, so 0.1f maps to 0.1 and not
+ * 0.10000000149011612.
+ *
+ * Objects of a class with a generated {@link JsonCodec} are converted by the codec instead, without
+ * going through the mapper.
+ */
+final class JsonValueMapper {
+
+    private final ObjectMapperRegistry registry;
+
+    JsonValueMapper(final ObjectMapperRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Map an object to the given JSR-353 type.
+     *
+     * @param source the object to map
+     * @param clazz  the JsonValue type to map to
+     * @return the mapped value
+     * @throws IOException if the object cannot be mapped
+     */
+    @SuppressWarnings("unchecked")
+    <R extends JsonValue> R toJsonValue(final Object source, final Class<R> clazz) throws IOException {
+        if (source != null && clazz.isAssignableFrom(JsonObject.class)) {
+            final Optional<JsonCodec<Object>> codec = registry.codecFor((Class<Object>) source.getClass());
+            if (codec.isPresent()) {
+                return clazz.cast(codec.get().toJsonObject(source));
+            }
+        }
+        return map(source, source == null ? Object.class : source.getClass(), clazz);
+    }
+
+    /**
+     * Map a JSR-353 value to an object of the given class.
+     *
+     * @param source the value to map
+     * @param clazz  the class to map to
+     * @return the mapped object
+     * @throws IOException if the value cannot be mapped
+     */
+    <R> R fromJsonValue(final JsonValue source, final Class<R> clazz) throws IOException {
+        if (source instanceof JsonObject) {
+            final Optional<JsonCodec<R>> codec = registry.codecFor(clazz);
+            if (codec.isPresent()) {
+                return codec.get().fromJsonObject((JsonObject) source);
+            }
+        }
+        return map(source, JsonValue.class, clazz);
+    }
+
+    private <R> R map(final Object source, final Class<?> sourceClass, final Class<R> clazz) throws IOException {
+        final TokenBuffer buffer = new TokenBuffer(registry.mapper(), false);
+        registry.writerFor(sourceClass).writeValue(buffer, source);
+        try (final JsonParser parser = new FloatAsTextParser(buffer.asParser())) {
+            return registry.readerFor(clazz).readValue(parser);
+        }
+    }
+
+    /**
+     * Reads the floats of a {@link TokenBuffer} as the decimals of their text form.
+     */
+    private static final class FloatAsTextParser extends JsonParserDelegate {
+
+        private FloatAsTextParser(final JsonParser parser) {
+            super(parser);
+        }
+
+        @Override
+        public NumberType getNumberType() throws IOException {
+            return isFloat() ? NumberType.DOUBLE : super.getNumberType();
+        }
+
+        @Override
+        public Number getNumberValue() throws IOException {
+            return isFloat() ? getDoubleValue() : super.getNumberValue();
+        }
+
+        @Override
+        public double getDoubleValue() throws IOException {
+            return isFloat() ? Double.parseDouble(Float.toString(getFloatValue())) : super.getDoubleValue();
+        }
+
+        @Override
+        public BigDecimal getDecimalValue() throws IOException {
+            return isFloat() ? new BigDecimal(Float.toString(getFloatValue())) : super.getDecimalValue();
+        }
+
+        private boolean isFloat() throws IOException {
+            return getCurrentToken() == JsonToken.VALUE_NUMBER_FLOAT && super.getNumberType() == NumberType.FLOAT;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import static java.lang.String.format;
 import static javax.json.Json.createArrayBuilder;
 
 import uk.gov.justice.services.common.converter.exception.ConverterException;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
 
 import java.io.IOException;
 import java.util.List;
@@ -11,8 +12,7 @@ import java.util.List;
 import javax.inject.Inject;
 import javax.json.JsonArray;
 import javax.json.JsonArrayBuilder;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
+import javax.json.JsonObject;
 
 /**
  * Converts a List of Type <T> to JsonArray
@@ -21,10 +21,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  */
 public class ListToJsonArrayConverter<T> implements Converter<List<T>, JsonArray> {
     @Inject
-    ObjectMapper mapper;
+    ObjectMapperRegistry objectMapperRegistry;
 
-    @Inject
-    StringToJsonObjectConverter stringToJsonObjectConverter;
+    private JsonValueMapper jsonValueMapper;
 
     public JsonArray convert(final List<T> sourceList) {
         final JsonArrayBuilder jsonArrayBuilder = createArrayBuilder();
@@ -33,7 +32,7 @@ public class ListToJsonArrayConverter<T> implements Converter<List<T>, JsonArray
         }
         sourceList.forEach((object) -> {
             try {
-                jsonArrayBuilder.add(stringToJsonObjectConverter.convert(mapper.writeValueAsString(object)));
+                jsonArrayBuilder.add(jsonValueMapper().toJsonValue(object, JsonObject.class));
             } catch (IOException e) {
                 throw new ConverterException(format("Error while converting list item %s to JsonValue", object), e);
             }
@@ -41,4 +40,10 @@ public class ListToJsonArrayConverter<T> implements Converter<List<T>, JsonArray
         return jsonArrayBuilder.build();
     }
 
+    private JsonValueMapper jsonValueMapper() {
+        if (jsonValueMapper == null) {
+            jsonValueMapper = new JsonValueMapper(objectMapperRegistry);
+        }
+        return jsonValueMapper;
+    }
 }
@@ -1,26 +1,27 @@
 package uk.gov.justice.services.common.converter;
 
 import uk.gov.justice.services.common.converter.exception.ConverterException;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
 
 import java.io.IOException;
 
 import javax.inject.Inject;
 import javax.json.JsonObject;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 /**
  * Converts a Pojo to a JsonObject
  */
 public class ObjectToJsonObjectConverter implements Converter<Object, JsonObject> {
 
     @Inject
-    ObjectMapper mapper;
+    ObjectMapperRegistry objectMapperRegistry;
+
+    private JsonValueMapper jsonValueMapper;
 
     @Override
     public JsonObject convert(final Object source) {
         try {
-            final JsonObject jsonObject = mapper.readValue(mapper.writeValueAsString(source), JsonObject.class);
+            final JsonObject jsonObject = jsonValueMapper().toJsonValue(source, JsonObject.class);
 
             if (jsonObject == null) {
                 throw new ConverterException(String.format("Failed to convert %s to JsonObject", source));
@@ -32,4 +33,10 @@ public class ObjectToJsonObjectConverter implements Converter<Object, JsonObject
         }
     }
 
+    private JsonValueMapper jsonValueMapper() {
+        if (jsonValueMapper == null) {
+            jsonValueMapper = new JsonValueMapper(objectMapperRegistry);
+        }
+        return jsonValueMapper;
+    }
 }
@@ -3,6 +3,7 @@ package uk.gov.justice.services.common.converter;
 import static javax.json.JsonValue.NULL;
 
 import uk.gov.justice.services.common.converter.exception.ConverterException;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
 
 import java.io.IOException;
 
@@ -16,11 +17,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  */
 public class ObjectToJsonValueConverter implements Converter<Object, JsonValue> {
 
-    private final ObjectMapper mapper;
+    private final JsonValueMapper jsonValueMapper;
 
-    @Inject
     public ObjectToJsonValueConverter(final ObjectMapper mapper) {
-        this.mapper = mapper;
+        this(new ObjectMapperRegistry(mapper));
+    }
+
+    @Inject
+    public ObjectToJsonValueConverter(final ObjectMapperRegistry objectMapperRegistry) {
+        this.jsonValueMapper = new JsonValueMapper(objectMapperRegistry);
     }
 
     @Override
@@ -30,7 +35,7 @@ public class ObjectToJsonValueConverter implements Converter<Object, JsonValue>
                 return NULL;
             }
 
-            final JsonValue jsonValue = mapper.readValue(mapper.writeValueAsString(source), JsonValue.class);
+            final JsonValue jsonValue = jsonValueMapper.toJsonValue(source, JsonValue.class);
 
             if (jsonValue == null) {
                 throw new ConverterException(String.format("Failed to convert %s to JsonValue", source));
@@ -0,0 +1,38 @@
+package uk.gov.justice.services.common.converter.codec;
+
+import javax.json.JsonObject;
+
+/**
+ * Converts objects of one class to and from a {@link JsonObject} without reflection.
+ *
+ * Codecs are generated at compile time for classes annotated with
+ * <code>uk.gov.justice.domain.annotation.Event</code> and listed in
+ * <code>META-INF/services/uk.gov.justice.services.common.converter.codec.JsonCodec</code>, where
+ * the {@link JsonCodecRegistry} finds them.
+ *
+ * @param <T> the class converted
+ */
+public interface JsonCodec<T> {
+
+    /**
+     * @return the class converted by the codec
+     */
+    Class<T> type();
+
+    /**
+     * Convert the object to JSON, leaving out null properties.
+     *
+     * @param value the object to convert
+     * @return the JSON of the object
+     */
+    JsonObject toJsonObject(T value);
+
+    /**
+     * Convert the JSON to an object.
+     *
+     * @param jsonObject the JSON to convert
+     * @return the object
+     * @throws IllegalArgumentException if the JSON does not match the class
+     */
+    T fromJsonObject(JsonObject jsonObject);
+}
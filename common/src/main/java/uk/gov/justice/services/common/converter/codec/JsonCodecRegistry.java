@@ -0,0 +1,39 @@
+package uk.gov.justice.services.common.converter.codec;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * Holds the generated {@link JsonCodec} of each class that has one.
+ */
+public class JsonCodecRegistry {
+
+    private final Map<Class<?>, JsonCodec<?>> codecs = new HashMap<>();
+
+    public JsonCodecRegistry(final Iterable<? extends JsonCodec<?>> codecs) {
+        codecs.forEach(codec -> this.codecs.put(codec.type(), codec));
+    }
+
+    /**
+     * Load the codecs listed as services on the class path of the given class loader.
+     *
+     * @param classLoader the class loader to load the codecs with
+     * @return the registry of the codecs
+     */
+    @SuppressWarnings("unchecked")
+    public static JsonCodecRegistry load(final ClassLoader classLoader) {
+        return new JsonCodecRegistry((Iterable<JsonCodec<?>>) (Iterable<?>) ServiceLoader.load(JsonCodec.class, classLoader));
+    }
+
+    /**
+     * @param clazz the class to convert
+     * @param <T>   the class to convert
+     * @return the codec of the class, or empty if it has none
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<JsonCodec<T>> codecFor(final Class<T> clazz) {
+        return Optional.ofNullable((JsonCodec<T>) codecs.get(clazz));
+    }
+}
@@ -0,0 +1,251 @@
+package uk.gov.justice.services.common.converter.codec;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+import static javax.json.JsonValue.ValueType.NULL;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * Functions called by generated {@link JsonCodec}s to read and write property values.
+ *
+ * Values are written and read the way the framework's ObjectMapper does: null properties are left
+ * out, a missing or null primitive reads as its default value, UUIDs are strings, enums are written
+ * by name, and an unrecognized property fails the conversion.
+ */
+public final class JsonCodecs {
+
+    /**
+     * Private constructor to avoid misuse of utility class.
+     */
+    private JsonCodecs() {
+    }
+
+    /**
+     * @param names the property names of a class
+     * @return the set of the names
+     */
+    public static Set<String> properties(final String... names) {
+        return unmodifiableSet(new HashSet<>(asList(names)));
+    }
+
+    /**
+     * Check that the JSON only has properties of the class.
+     *
+     * @param jsonObject the JSON to check
+     * @param properties the property names of the class
+     * @param clazz      the class converted
+     * @throws IllegalArgumentException if the JSON has a property the class does not
+     */
+    public static void checkProperties(final JsonObject jsonObject, final Set<String> properties, final Class<?> clazz) {
+        for (final String key : jsonObject.keySet()) {
+            if (!properties.contains(key)) {
+                throw new IllegalArgumentException(format("Unrecognized property %s of %s", key, clazz.getName()));
+            }
+        }
+    }
+
+    /**
+     * @param jsonObject the JSON to read from
+     * @param key        the property name
+     * @param reader     reads the value
+     * @param <T>        the type of the value
+     * @return the value, or null if the property is missing or null
+     */
+    public static <T> T get(final JsonObject jsonObject, final String key, final Function<JsonValue, T> reader) {
+        final JsonValue value = jsonObject.get(key);
+        return value == null ? null : reader.apply(value);
+    }
+
+    /**
+     * @param jsonObject    the JSON to read from
+     * @param key           the property name
+     * @param elementReader reads each element of the list
+     * @param <T>           the type of the elements
+     * @return the list, or null if the property is missing or null
+     */
+    public static <T> List<T> getList(final JsonObject jsonObject, final String key, final Function<JsonValue, T> elementReader) {
+        final JsonValue value = jsonObject.get(key);
+        if (value == null || value.getValueType() == NULL) {
+            return null;
+        }
+        final JsonArray array = as(value, JsonArray.class);
+        final List<T> list = new ArrayList<>(array.size());
+        for (final JsonValue element : array) {
+            list.add(element.getValueType() == NULL ? null : elementReader.apply(element));
+        }
+        return list;
+    }
+
+    public static boolean getBooleanValue(final JsonObject jsonObject, final String key) {
+        final Boolean value = get(jsonObject, key, JsonCodecs::booleanOf);
+        return value != null && value;
+    }
+
+    public static int getIntValue(final JsonObject jsonObject, final String key) {
+        final Integer value = get(jsonObject, key, JsonCodecs::integerOf);
+        return value == null ? 0 : value;
+    }
+
+    public static long getLongValue(final JsonObject jsonObject, final String key) {
+        final Long value = get(jsonObject, key, JsonCodecs::longOf);
+        return value == null ? 0L : value;
+    }
+
+    public static double getDoubleValue(final JsonObject jsonObject, final String key) {
+        final Double value = get(jsonObject, key, JsonCodecs::doubleOf);
+        return value == null ? 0.0 : value;
+    }
+
+    public static String stringOf(final JsonValue value) {
+        return value.getValueType() == NULL ? null : as(value, JsonString.class).getString();
+    }
+
+    public static UUID uuidOf(final JsonValue value) {
+        final String string = stringOf(value);
+        return string == null ? null : UUID.fromString(string);
+    }
+
+    public static Boolean booleanOf(final JsonValue value) {
+        switch (value.getValueType()) {
+            case TRUE:
+                return true;
+            case FALSE:
+                return false;
+            case NULL:
+                return null;
+            default:
+                throw new IllegalArgumentException(format("Expected a boolean but was %s", value.getValueType()));
+        }
+    }
+
+    public static Integer integerOf(final JsonValue value) {
+        return value.getValueType() == NULL ? null : as(value, JsonNumber.class).intValue();
+    }
+
+    public static Long longOf(final JsonValue value) {
+        return value.getValueType() == NULL ? null : as(value, JsonNumber.class).longValue();
+    }
+
+    public static Double doubleOf(final JsonValue value) {
+        return value.getValueType() == NULL ? null : as(value, JsonNumber.class).doubleValue();
+    }
+
+    public static BigDecimal bigDecimalOf(final JsonValue value) {
+        return value.getValueType() == NULL ? null : as(value, JsonNumber.class).bigDecimalValue();
+    }
+
+    public static <E extends Enum<E>> E enumOf(final JsonValue value, final Class<E> enumClass) {
+        final String string = stringOf(value);
+        return string == null ? null : Enum.valueOf(enumClass, string);
+    }
+
+    public static <T> T objectOf(final JsonValue value, final JsonCodec<T> codec) {
+        return value.getValueType() == NULL ? null : codec.fromJsonObject(as(value, JsonObject.class));
+    }
+
+    public static void addString(final JsonObjectBuilder builder, final String key, final String value) {
+        if (value != null) {
+            builder.add(key, value);
+        }
+    }
+
+    public static void addUuid(final JsonObjectBuilder builder, final String key, final UUID value) {
+        if (value != null) {
+            builder.add(key, value.toString());
+        }
+    }
+
+    public static void addBoolean(final JsonObjectBuilder builder, final String key, final Boolean value) {
+        if (value != null) {
+            builder.add(key, value);
+        }
+    }
+
+    public static void addInteger(final JsonObjectBuilder builder, final String key, final Integer value) {
+        if (value != null) {
+            builder.add(key, value);
+        }
+    }
+
+    public static void addLong(final JsonObjectBuilder builder, final String key, final Long value) {
+        if (value != null) {
+            builder.add(key, value);
+        }
+    }
+
+    public static void addDouble(final JsonObjectBuilder builder, final String key, final Double value) {
+        if (value != null) {
+            builder.add(key, value);
+        }
+    }
+
+    public static void addBigDecimal(final JsonObjectBuilder builder, final String key, final BigDecimal value) {
+        if (value != null) {
+            builder.add(key, value);
+        }
+    }
+
+    public static void addEnum(final JsonObjectBuilder builder, final String key, final Enum<?> value) {
+        if (value != null) {
+            builder.add(key, value.name());
+        }
+    }
+
+    public static <T> void addObject(final JsonObjectBuilder builder, final String key, final T value, final JsonCodec<T> codec) {
+        if (value != null) {
+            builder.add(key, codec.toJsonObject(value));
+        }
+    }
+
+    /**
+     * Add a list, writing each non-null element with the given writer and each null element as
+     * a JSON null.
+     *
+     * @param builder       the builder to add to
+     * @param key           the property name
+     * @param value         the list, which is left out if null
+     * @param elementWriter adds an element to the array
+     * @param <T>           the type of the elements
+     */
+    public static <T> void addList(final JsonObjectBuilder builder,
+                                   final String key,
+                                   final List<T> value,
+                                   final BiConsumer<JsonArrayBuilder, T> elementWriter) {
+        if (value != null) {
+            final JsonArrayBuilder array = Json.createArrayBuilder();
+            for (final T element : value) {
+                if (element == null) {
+                    array.addNull();
+                } else {
+                    elementWriter.accept(array, element);
+                }
+            }
+            builder.add(key, array);
+        }
+    }
+
+    private static <V extends JsonValue> V as(final JsonValue value, final Class<V> type) {
+        if (!type.isInstance(value)) {
+            throw new IllegalArgumentException(format("Expected %s but was %s", type.getSimpleName(), value.getValueType()));
+        }
+        return type.cast(value);
+    }
+}
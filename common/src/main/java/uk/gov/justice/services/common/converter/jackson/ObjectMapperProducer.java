@@ -4,6 +4,7 @@ import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_ABSENT;
 import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS;
 import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_WITH_ZONE_ID;
 import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_NULL_MAP_VALUES;
+import static java.lang.String.format;
 import static java.time.ZoneOffset.UTC;
 import static java.util.TimeZone.getTimeZone;
 import static uk.gov.justice.services.common.converter.ZonedDateTimes.ISO_8601;
@@ -11,24 +12,36 @@ import static uk.gov.justice.services.common.converter.ZonedDateTimes.ISO_8601;
 import uk.gov.justice.services.common.converter.jackson.jsr353.InclusionAwareJSR353Module;
 
 import java.text.SimpleDateFormat;
+import java.util.Optional;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
+import javax.inject.Singleton;
 
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 
 /**
- * Produces the configured {@link ObjectMapper}.
+ * Produces the configured {@link ObjectMapper}. The mapper is a singleton, so every injection
+ * point shares its serializer and deserializer caches.
+ *
+ * If the Jackson Afterburner module is on the classpath it is registered too, replacing the
+ * reflective property accessors with generated bytecode.
  */
 @ApplicationScoped
 public class ObjectMapperProducer {
 
+    private static final String AFTERBURNER_MODULE = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
     @Produces
+    @Singleton
     public ObjectMapper objectMapper() {
-        return new ObjectMapper()
+        final ObjectMapper mapper = new ObjectMapper();
+        afterburnerModule().ifPresent(mapper::registerModule);
+        return mapper
                 .registerModule(new Jdk8Module())
                 .registerModule(new JavaTimeModule())
                 .registerModule(new ParameterNamesModule())
@@ -40,4 +53,14 @@ public class ObjectMapperProducer {
                 .setTimeZone(getTimeZone(UTC))
                 .setSerializationInclusion(NON_ABSENT);
     }
+
+    private static Optional<Module> afterburnerModule() {
+        try {
+            return Optional.of((Module) Class.forName(AFTERBURNER_MODULE).newInstance());
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException(format("Failed to create %s", AFTERBURNER_MODULE), e);
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package uk.gov.justice.services.common.converter.jackson;
+
+import uk.gov.justice.services.common.converter.codec.JsonCodec;
+import uk.gov.justice.services.common.converter.codec.JsonCodecRegistry;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Holds the configured {@link ObjectMapper} of the application with an {@link ObjectReader} and an
+ * {@link ObjectWriter} per class, so the root serializers and deserializers of a class are only
+ * looked up once and are shared by every converter.
+ *
+ * It also holds the {@link JsonCodec}s generated at compile time, found on the class path of the
+ * context class loader, which converters use in place of the mapper for the classes they cover.
+ */
+@ApplicationScoped
+public class ObjectMapperRegistry {
+
+    private final ObjectMapper mapper;
+    private final JsonCodecRegistry codecRegistry;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    //for CDI proxying only
+    protected ObjectMapperRegistry() {
+        this.mapper = null;
+        this.codecRegistry = null;
+    }
+
+    @Inject
+    public ObjectMapperRegistry(final ObjectMapper mapper) {
+        this(mapper, JsonCodecRegistry.load(Thread.currentThread().getContextClassLoader()));
+    }
+
+    public ObjectMapperRegistry(final ObjectMapper mapper, final JsonCodecRegistry codecRegistry) {
+        this.mapper = mapper;
+        this.codecRegistry = codecRegistry;
+    }
+
+    /**
+     * @return the configured mapper
+     */
+    public ObjectMapper mapper() {
+        return mapper;
+    }
+
+    /**
+     * @param clazz the class to read
+     * @return the reader of the class
+     */
+    public ObjectReader readerFor(final Class<?> clazz) {
+        return readers.computeIfAbsent(clazz, mapper::readerFor);
+    }
+
+    /**
+     * @param clazz the class to write
+     * @return the writer of the class
+     */
+    public ObjectWriter writerFor(final Class<?> clazz) {
+        return writers.computeIfAbsent(clazz, mapper::writerFor);
+    }
+
+    /**
+     * @param clazz the class to convert
+     * @param <T>   the class to convert
+     * @return the generated codec of the class, or empty if it has none
+     */
+    public <T> Optional<JsonCodec<T>> codecFor(final Class<T> clazz) {
+        return codecRegistry.codecFor(clazz);
+    }
+
+    /**
+     * Create the reader and writer of the class ahead of the first conversion. Creating them
+     * resolves the serializer and deserializer of the class.
+     *
+     * @param clazz the class to warm up
+     */
+    public void warmUp(final Class<?> clazz) {
+        readerFor(clazz);
+        writerFor(clazz);
+    }
+}
@@ -0,0 +1,117 @@
+package uk.gov.justice.services.common.converter;
+
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperProducer;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares converting between a POJO and JSR-353 values through a JSON string, as the converters
+ * used to, with the token buffer used by the converters.
+ *
+ * Run from the IDE, or with the JMH runner on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private ObjectMapper mapper;
+    private ObjectToJsonValueConverter objectToJsonValueConverter;
+    private JsonObjectToObjectConverter jsonObjectToObjectConverter;
+
+    private Recipe recipe;
+    private JsonObject recipeJson;
+
+    @Setup
+    public void setup() {
+        mapper = new ObjectMapperProducer().objectMapper();
+        objectToJsonValueConverter = new ObjectToJsonValueConverter(mapper);
+        jsonObjectToObjectConverter = new JsonObjectToObjectConverter();
+        jsonObjectToObjectConverter.objectMapperRegistry = new ObjectMapperRegistry(mapper);
+
+        recipe = new Recipe(UUID.randomUUID(), "Victoria sponge", true, ZonedDateTime.now(),
+                Arrays.asList("flour", "butter", "sugar", "eggs", "jam"));
+        recipeJson = (JsonObject) objectToJsonValueConverter.convert(recipe);
+    }
+
+    @Benchmark
+    public JsonValue objectToJsonValueThroughString() throws IOException {
+        return mapper.readValue(mapper.writeValueAsString(recipe), JsonValue.class);
+    }
+
+    @Benchmark
+    public JsonValue objectToJsonValue() {
+        return objectToJsonValueConverter.convert(recipe);
+    }
+
+    @Benchmark
+    public Recipe jsonObjectToObjectThroughString() throws IOException {
+        return mapper.readValue(mapper.writeValueAsString(recipeJson), Recipe.class);
+    }
+
+    @Benchmark
+    public Recipe jsonObjectToObject() {
+        return jsonObjectToObjectConverter.convert(recipeJson, Recipe.class);
+    }
+
+    public static class Recipe {
+
+        private final UUID recipeId;
+        private final String name;
+        private final boolean glutenFree;
+        private final ZonedDateTime created;
+        private final List<String> ingredients;
+
+        public Recipe(final UUID recipeId, final String name, final boolean glutenFree, final ZonedDateTime created, final List<String> ingredients) {
+            this.recipeId = recipeId;
+            this.name = name;
+            this.glutenFree = glutenFree;
+            this.created = created;
+            this.ingredients = ingredients;
+        }
+
+        public UUID getRecipeId() {
+            return recipeId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isGlutenFree() {
+            return glutenFree;
+        }
+
+        public ZonedDateTime getCreated() {
+            return created;
+        }
+
+        public List<String> getIngredients() {
+            return ingredients;
+        }
+    }
+}
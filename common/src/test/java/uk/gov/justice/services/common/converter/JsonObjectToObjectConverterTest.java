@@ -1,14 +1,22 @@
 package uk.gov.justice.services.common.converter;
 
+import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import uk.gov.justice.services.common.converter.codec.JsonCodec;
+import uk.gov.justice.services.common.converter.codec.JsonCodecRegistry;
 import uk.gov.justice.services.common.converter.exception.ConverterException;
 import uk.gov.justice.services.common.converter.jackson.ObjectMapperProducer;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
 
 import java.io.IOException;
 import java.time.ZoneId;
@@ -19,9 +27,14 @@ import java.util.UUID;
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.JsonValue;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -40,10 +53,19 @@ public class JsonObjectToObjectConverterTest {
     @Mock
     private ObjectMapper mapper;
 
+    @Mock
+    private ObjectWriter writer;
+
+    @Mock
+    private ObjectReader reader;
+
+    @Mock
+    private JsonCodec<Pojo> codec;
+
     @Test
     public void shouldConvertPojoToJsonObject() throws Exception {
         JsonObjectToObjectConverter jsonObjectToObjectConverter = new JsonObjectToObjectConverter();
-        jsonObjectToObjectConverter.mapper = new ObjectMapperProducer().objectMapper();
+        jsonObjectToObjectConverter.objectMapperRegistry = new ObjectMapperRegistry(new ObjectMapperProducer().objectMapper());
 
         JsonObject jsonObject = jsonObject();
         Pojo pojo = jsonObjectToObjectConverter.convert(jsonObject, Pojo.class);
@@ -59,7 +81,7 @@ public class JsonObjectToObjectConverterTest {
     @Test
     public void shouldConvertToPojoWithUTCDateTime() throws Exception {
         JsonObjectToObjectConverter converter = new JsonObjectToObjectConverter();
-        converter.mapper = new ObjectMapperProducer().objectMapper();
+        converter.objectMapperRegistry = new ObjectMapperRegistry(new ObjectMapperProducer().objectMapper());
 
         assertThat(converter.convert(Json.createObjectBuilder().add("dateTime", "2016-07-25T13:09:01.0+00:00").build(), PojoWithDateTime.class).getDateTime(),
                 equalTo(ZonedDateTime.of(2016, 7, 25, 13, 9, 1, 0, ZoneId.of("UTC"))));
@@ -72,13 +94,29 @@ public class JsonObjectToObjectConverterTest {
 
     }
 
+    @Test
+    public void shouldConvertWithGeneratedCodecWhenRegistered() throws Exception {
+        JsonObject jsonObject = jsonObject();
+        Pojo pojo = new Pojo(ID, NAME, null, null);
+        when(codec.type()).thenReturn(Pojo.class);
+        when(codec.fromJsonObject(jsonObject)).thenReturn(pojo);
+
+        JsonObjectToObjectConverter jsonObjectToObjectConverter = new JsonObjectToObjectConverter();
+        jsonObjectToObjectConverter.objectMapperRegistry = new ObjectMapperRegistry(mapper, new JsonCodecRegistry(singletonList(codec)));
+
+        assertThat(jsonObjectToObjectConverter.convert(jsonObject, Pojo.class), sameInstance(pojo));
+        verifyZeroInteractions(mapper);
+    }
+
     @Test(expected = ConverterException.class)
     public void shouldThrowExceptionOnConversionError() throws IOException {
         JsonObjectToObjectConverter jsonObjectToObjectConverter = new JsonObjectToObjectConverter();
-        jsonObjectToObjectConverter.mapper = mapper;
+        jsonObjectToObjectConverter.objectMapperRegistry = new ObjectMapperRegistry(mapper);
         JsonObject jsonObject = jsonObject();
 
-        when(mapper.writeValueAsString(jsonObject)).thenReturn(null);
+        when(mapper.writerFor(JsonValue.class)).thenReturn(writer);
+        when(mapper.readerFor(Pojo.class)).thenReturn(reader);
+        when(reader.readValue(any(JsonParser.class))).thenReturn(null);
 
         jsonObjectToObjectConverter.convert(jsonObject, Pojo.class);
     }
@@ -86,10 +124,11 @@ public class JsonObjectToObjectConverterTest {
     @Test(expected = IllegalArgumentException.class)
     public void shouldThrowExceptionOnNullResult() throws IOException {
         JsonObjectToObjectConverter jsonObjectToObjectConverter = new JsonObjectToObjectConverter();
-        jsonObjectToObjectConverter.mapper = mapper;
+        jsonObjectToObjectConverter.objectMapperRegistry = new ObjectMapperRegistry(mapper);
         JsonObject jsonObject = jsonObject();
 
-        doThrow(IOException.class).when(mapper).writeValueAsString(jsonObject);
+        when(mapper.writerFor(JsonValue.class)).thenReturn(writer);
+        doThrow(IOException.class).when(writer).writeValue(any(JsonGenerator.class), eq(jsonObject));
 
         jsonObjectToObjectConverter.convert(jsonObject, Pojo.class);
     }
@@ -3,10 +3,14 @@ package uk.gov.justice.services.common.converter;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.isA;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
 
 import uk.gov.justice.services.common.converter.exception.ConverterException;
 import uk.gov.justice.services.common.converter.jackson.ObjectMapperProducer;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -16,8 +20,9 @@ import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -39,11 +44,13 @@ public class ListToJsonArrayConverterTest {
     @Mock
     private ObjectMapper mapperMock;
 
+    @Mock
+    private ObjectWriter writer;
+
     @Test
     public void shouldConvertListToJsonArray() {
         ListToJsonArrayConverter<Pojo> listToJsonArraysConverter = new ListToJsonArrayConverter<Pojo>();
-        listToJsonArraysConverter.mapper = new ObjectMapperProducer().objectMapper();
-        listToJsonArraysConverter.stringToJsonObjectConverter = new StringToJsonObjectConverter();
+        listToJsonArraysConverter.objectMapperRegistry = new ObjectMapperRegistry(new ObjectMapperProducer().objectMapper());
 
         Pojo pojoOne = new Pojo(ID_ONE, NAME_ONE);
         Pojo pojoTwo = new Pojo(ID_TWO, NAME_TWO);
@@ -61,13 +68,13 @@ public class ListToJsonArrayConverterTest {
     }
 
     @Test
-    public void shouldThrowExceptionOnIOException() throws JsonProcessingException {
+    public void shouldThrowExceptionOnIOException() throws IOException {
         ListToJsonArrayConverter<Pojo> listToJsonArraysConverter = new ListToJsonArrayConverter<Pojo>();
-        listToJsonArraysConverter.mapper = mapperMock;
-        listToJsonArraysConverter.stringToJsonObjectConverter = new StringToJsonObjectConverter();
+        listToJsonArraysConverter.objectMapperRegistry = new ObjectMapperRegistry(mapperMock);
 
         Pojo pojoOne = new Pojo(null, null);
-        doThrow(IOException.class).when(mapperMock).writeValueAsString(pojoOne);
+        when(mapperMock.writerFor(Pojo.class)).thenReturn(writer);
+        doThrow(IOException.class).when(writer).writeValue(any(JsonGenerator.class), eq(pojoOne));
 
         exception.expect(ConverterException.class);
         exception.expectCause(isA(IOException.class));
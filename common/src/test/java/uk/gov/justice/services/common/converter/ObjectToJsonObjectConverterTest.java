@@ -1,16 +1,25 @@
 package uk.gov.justice.services.common.converter;
 
+import static java.util.Collections.singletonList;
 import static javax.json.Json.createArrayBuilder;
 import static javax.json.Json.createObjectBuilder;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.isA;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import uk.gov.justice.services.common.converter.codec.JsonCodec;
+import uk.gov.justice.services.common.converter.codec.JsonCodecRegistry;
 import uk.gov.justice.services.common.converter.exception.ConverterException;
 import uk.gov.justice.services.common.converter.jackson.ObjectMapperProducer;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
@@ -19,8 +28,12 @@ import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -41,11 +54,20 @@ public class ObjectToJsonObjectConverterTest {
     @Mock
     private ObjectMapper mapper;
 
+    @Mock
+    private ObjectWriter writer;
+
+    @Mock
+    private ObjectReader reader;
+
+    @Mock
+    private JsonCodec<Pojo> codec;
+
     @Test
     public void shouldConvertPojoToJsonObject() throws Exception {
         Pojo pojo = new Pojo(ID, NAME, ATTRIBUTES);
         ObjectToJsonObjectConverter objectToJsonObjectConverter = new ObjectToJsonObjectConverter();
-        objectToJsonObjectConverter.mapper = new ObjectMapperProducer().objectMapper();
+        objectToJsonObjectConverter.objectMapperRegistry = new ObjectMapperRegistry(new ObjectMapperProducer().objectMapper());
 
         JsonObject jsonObject = objectToJsonObjectConverter.convert(pojo);
 
@@ -53,12 +75,27 @@ public class ObjectToJsonObjectConverterTest {
     }
 
     @Test
-    public void shouldThrowExceptionOnConversionError() throws JsonProcessingException {
+    public void shouldConvertWithGeneratedCodecWhenRegistered() throws Exception {
+        Pojo pojo = new Pojo(ID, NAME, ATTRIBUTES);
+        JsonObject jsonObject = expectedJsonObject();
+        when(codec.type()).thenReturn(Pojo.class);
+        when(codec.toJsonObject(pojo)).thenReturn(jsonObject);
+
+        ObjectToJsonObjectConverter objectToJsonObjectConverter = new ObjectToJsonObjectConverter();
+        objectToJsonObjectConverter.objectMapperRegistry = new ObjectMapperRegistry(mapper, new JsonCodecRegistry(singletonList(codec)));
+
+        assertThat(objectToJsonObjectConverter.convert(pojo), sameInstance(jsonObject));
+        verifyZeroInteractions(mapper);
+    }
+
+    @Test
+    public void shouldThrowExceptionOnConversionError() throws IOException {
         ObjectToJsonObjectConverter objectToJsonObjectConverter = new ObjectToJsonObjectConverter();
-        objectToJsonObjectConverter.mapper = mapper;
+        objectToJsonObjectConverter.objectMapperRegistry = new ObjectMapperRegistry(mapper);
 
         Pojo pojo = new Pojo(ID, NAME, ATTRIBUTES);
-        doThrow(JsonProcessingException.class).when(mapper).writeValueAsString(pojo);
+        when(mapper.writerFor(Pojo.class)).thenReturn(writer);
+        doThrow(JsonProcessingException.class).when(writer).writeValue(any(JsonGenerator.class), eq(pojo));
 
         exception.expect(IllegalArgumentException.class);
         exception.expectCause(isA(JsonProcessingException.class));
@@ -67,12 +104,14 @@ public class ObjectToJsonObjectConverterTest {
     }
 
     @Test(expected = ConverterException.class)
-    public void shouldThrowExceptionOnNullResult() throws JsonProcessingException {
+    public void shouldThrowExceptionOnNullResult() throws IOException {
         ObjectToJsonObjectConverter objectToJsonObjectConverter = new ObjectToJsonObjectConverter();
-        objectToJsonObjectConverter.mapper = mapper;
+        objectToJsonObjectConverter.objectMapperRegistry = new ObjectMapperRegistry(mapper);
 
         Pojo pojo = new Pojo(ID, NAME, ATTRIBUTES);
-        when(mapper.writeValueAsString(pojo)).thenReturn(null);
+        when(mapper.writerFor(Pojo.class)).thenReturn(writer);
+        when(mapper.readerFor(JsonObject.class)).thenReturn(reader);
+        when(reader.readValue(any(JsonParser.class))).thenReturn(null);
 
         objectToJsonObjectConverter.convert(pojo);
     }
@@ -1,15 +1,19 @@
 package uk.gov.justice.services.common.converter;
 
+import static java.util.Collections.singletonMap;
 import static javax.json.JsonValue.NULL;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.isA;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 import uk.gov.justice.services.common.converter.exception.ConverterException;
 import uk.gov.justice.services.common.converter.jackson.ObjectMapperProducer;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
@@ -18,8 +22,12 @@ import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonValue;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -43,6 +51,12 @@ public class ObjectToJsonValueConverterTest {
     @Mock
     private ObjectMapper mapper;
 
+    @Mock
+    private ObjectWriter writer;
+
+    @Mock
+    private ObjectReader reader;
+
     @Test
     public void shouldConvertPojoToJsonValue() throws Exception {
         Pojo pojo = new Pojo(ID, NAME, BOOL_FLAG, ATTRIBUTES);
@@ -65,6 +79,16 @@ public class ObjectToJsonValueConverterTest {
     }
 
 
+    @Test
+    public void shouldConvertFloatToTheDecimalOfItsTextForm() throws Exception {
+        ObjectToJsonValueConverter objectToJsonValueConverter =
+                new ObjectToJsonValueConverter(new ObjectMapperProducer().objectMapper());
+
+        JsonValue jsonValue = objectToJsonValueConverter.convert(singletonMap("price", 0.1f));
+
+        assertThat(jsonValue, equalTo(Json.createObjectBuilder().add("price", 0.1).build()));
+    }
+
     @Test
     public void shouldConvertNullToJsonValueNull() throws Exception {
         ObjectToJsonValueConverter objectToJsonValueConverter =
@@ -86,11 +110,12 @@ public class ObjectToJsonValueConverterTest {
     }
 
     @Test
-    public void shouldThrowExceptionOnConversionError() throws JsonProcessingException {
+    public void shouldThrowExceptionOnConversionError() throws IOException {
         ObjectToJsonValueConverter objectToJsonValueConverter = new ObjectToJsonValueConverter(mapper);
 
         Pojo pojo = new Pojo(ID, NAME, false, ATTRIBUTES);
-        doThrow(JsonProcessingException.class).when(mapper).writeValueAsString(pojo);
+        when(mapper.writerFor(Pojo.class)).thenReturn(writer);
+        doThrow(JsonProcessingException.class).when(writer).writeValue(any(JsonGenerator.class), eq(pojo));
 
         exception.expect(IllegalArgumentException.class);
         exception.expectCause(isA(JsonProcessingException.class));
@@ -99,12 +124,14 @@ public class ObjectToJsonValueConverterTest {
     }
 
     @Test(expected = ConverterException.class)
-    public void shouldThrowExceptionOnNullResult() throws JsonProcessingException {
+    public void shouldThrowExceptionOnNullResult() throws IOException {
         ObjectToJsonValueConverter objectToJsonValueConverter = new ObjectToJsonValueConverter(mapper);
 
 
         Pojo pojo = new Pojo(ID, NAME, false, ATTRIBUTES);
-        when(mapper.writeValueAsString(pojo)).thenReturn(null);
+        when(mapper.writerFor(Pojo.class)).thenReturn(writer);
+        when(mapper.readerFor(JsonValue.class)).thenReturn(reader);
+        when(reader.readValue(any(JsonParser.class))).thenReturn(null);
 
         objectToJsonValueConverter.convert(pojo);
     }
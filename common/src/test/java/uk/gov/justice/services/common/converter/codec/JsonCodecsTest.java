@@ -0,0 +1,68 @@
+package uk.gov.justice.services.common.converter.codec;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.UUID;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+
+import org.junit.Test;
+
+public class JsonCodecsTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    @Test
+    public void shouldLeaveOutNullValues() throws Exception {
+        final JsonObjectBuilder builder = Json.createObjectBuilder();
+
+        JsonCodecs.addString(builder, "name", null);
+        JsonCodecs.addUuid(builder, "id", null);
+        JsonCodecs.addList(builder, "list", null, (array, element) -> array.add(element.toString()));
+
+        assertThat(builder.build().isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void shouldWriteListElementsAndNulls() throws Exception {
+        final JsonObjectBuilder builder = Json.createObjectBuilder();
+
+        JsonCodecs.addList(builder, "ids", asList(ID, null), (array, element) -> array.add(element.toString()));
+
+        assertThat(builder.build(), equalTo(Json.createObjectBuilder()
+                .add("ids", Json.createArrayBuilder().add(ID.toString()).addNull())
+                .build()));
+    }
+
+    @Test
+    public void shouldReadValuesAndDefaultMissingPrimitives() throws Exception {
+        final JsonObject jsonObject = Json.createObjectBuilder()
+                .add("id", ID.toString())
+                .add("count", 3)
+                .addNull("name")
+                .add("ids", Json.createArrayBuilder().add(ID.toString()).addNull())
+                .build();
+
+        assertThat(JsonCodecs.get(jsonObject, "id", JsonCodecs::uuidOf), equalTo(ID));
+        assertThat(JsonCodecs.get(jsonObject, "name", JsonCodecs::stringOf), nullValue());
+        assertThat(JsonCodecs.getIntValue(jsonObject, "count"), equalTo(3));
+        assertThat(JsonCodecs.getLongValue(jsonObject, "missing"), equalTo(0L));
+        assertThat(JsonCodecs.getBooleanValue(jsonObject, "missing"), equalTo(false));
+        assertThat(JsonCodecs.getList(jsonObject, "ids", JsonCodecs::uuidOf), equalTo(asList(ID, null)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnValueOfWrongType() throws Exception {
+        JsonCodecs.get(Json.createObjectBuilder().add("count", "three").build(), "count", JsonCodecs::integerOf);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnUnrecognizedProperty() throws Exception {
+        JsonCodecs.checkProperties(Json.createObjectBuilder().add("other", 1).build(), JsonCodecs.properties("name"), Object.class);
+    }
+}
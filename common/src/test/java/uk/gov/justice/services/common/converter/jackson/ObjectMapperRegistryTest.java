@@ -0,0 +1,63 @@
+package uk.gov.justice.services.common.converter.jackson;
+
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ObjectMapperRegistryTest {
+
+    @Mock
+    private ObjectMapper mapper;
+
+    @Mock
+    private ObjectReader reader;
+
+    @Mock
+    private ObjectWriter writer;
+
+    @Test
+    public void shouldCacheReaderAndWriterPerClass() {
+        when(mapper.readerFor(Pojo.class)).thenReturn(reader);
+        when(mapper.writerFor(Pojo.class)).thenReturn(writer);
+        final ObjectMapperRegistry registry = new ObjectMapperRegistry(mapper);
+
+        assertThat(registry.readerFor(Pojo.class), sameInstance(reader));
+        assertThat(registry.readerFor(Pojo.class), sameInstance(reader));
+        assertThat(registry.writerFor(Pojo.class), sameInstance(writer));
+        assertThat(registry.writerFor(Pojo.class), sameInstance(writer));
+
+        verify(mapper, times(1)).readerFor(Pojo.class);
+        verify(mapper, times(1)).writerFor(Pojo.class);
+    }
+
+    @Test
+    public void shouldCreateReaderAndWriterOnWarmUp() {
+        final ObjectMapperRegistry registry = new ObjectMapperRegistry(mapper);
+
+        registry.warmUp(Pojo.class);
+
+        verify(mapper).readerFor(Pojo.class);
+        verify(mapper).writerFor(Pojo.class);
+    }
+
+    @Test
+    public void shouldShareConfiguredMapper() {
+        final ObjectMapper configuredMapper = new ObjectMapperProducer().objectMapper();
+
+        assertThat(new ObjectMapperRegistry(configuredMapper).mapper(), sameInstance(configuredMapper));
+    }
+
+    public static class Pojo {
+    }
+}
@@ -1,6 +1,7 @@
 package uk.gov.justice.services.core.aggregate;
 
 import static java.lang.String.format;
+import static java.lang.invoke.MethodType.methodType;
 
 import uk.gov.justice.domain.aggregate.Aggregate;
 import uk.gov.justice.services.common.converter.JsonObjectToObjectConverter;
@@ -8,7 +9,10 @@ import uk.gov.justice.services.core.extension.EventFoundEvent;
 import uk.gov.justice.services.eventsourcing.source.core.EventStream;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
@@ -16,6 +20,10 @@ import javax.inject.Inject;
 
 /**
  * Service for replaying event streams on aggregates.
+ *
+ * Events are converted and replayed on the aggregate one at a time as the event stream is read, so
+ * rehydrating an aggregate from a long stream never holds all of its events at once. Aggregates
+ * are created through a constructor handle looked up once per aggregate class.
  */
 @ApplicationScoped
 public class AggregateService {
@@ -25,6 +33,8 @@ public class AggregateService {
 
     private ConcurrentHashMap<String, Class<?>> eventMap = new ConcurrentHashMap<>();
 
+    private final ConcurrentHashMap<Class<?>, MethodHandle> constructors = new ConcurrentHashMap<>();
+
     /**
      * Recreate an aggregate of the specified type by replaying the events from an event stream.
      *
@@ -34,15 +44,11 @@ public class AggregateService {
      * @return the recreated aggregate
      */
     public <T extends Aggregate> T get(final EventStream stream, final Class<T> clazz) {
-
-        try {
-            final T aggregate = clazz.newInstance();
-            aggregate.apply(stream.read().map(this::convertEnvelopeToEvent));
-            return aggregate;
-
-        } catch (InstantiationException | IllegalAccessException ex) {
-            throw new RuntimeException(format("Could not instantiate aggregate of class %s", clazz.getName()), ex);
+        final T aggregate = newInstance(clazz);
+        try (final Stream<JsonEnvelope> events = stream.read()) {
+            aggregate.replay(events.map(this::convertEnvelopeToEvent));
         }
+        return aggregate;
     }
 
     /**
@@ -54,12 +60,33 @@ public class AggregateService {
         eventMap.putIfAbsent(event.getEventName(), event.getClazz());
     }
 
+    private <T extends Aggregate> T newInstance(final Class<T> clazz) {
+        final MethodHandle constructor = constructors.computeIfAbsent(clazz, AggregateService::constructorOf);
+        try {
+            return clazz.cast((Object) constructor.invokeExact());
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new RuntimeException(format("Could not instantiate aggregate of class %s", clazz.getName()), ex);
+        }
+    }
+
+    private static MethodHandle constructorOf(final Class<?> clazz) {
+        try {
+            return MethodHandles.lookup().findConstructor(clazz, methodType(void.class))
+                    .asType(methodType(Object.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new RuntimeException(format("Could not instantiate aggregate of class %s", clazz.getName()), ex);
+        }
+    }
+
     private Object convertEnvelopeToEvent(final JsonEnvelope event) {
         final String name = event.metadata().name();
-        if (!eventMap.containsKey(name)) {
+        final Class<?> eventClass = eventMap.get(name);
+        if (eventClass == null) {
             throw new IllegalStateException(format("No event class registered for events of type %s", name));
         }
 
-        return jsonObjectToObjectConverter.convert(event.payloadAsJsonObject(), eventMap.get(name));
+        return jsonObjectToObjectConverter.convert(event.payloadAsJsonObject(), eventClass);
     }
 }
@@ -0,0 +1,151 @@
+package uk.gov.justice.services.core.aggregate;
+
+import static javax.json.Json.createObjectBuilder;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithRandomUUID;
+
+import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.services.common.converter.JsonObjectToObjectConverter;
+import uk.gov.justice.services.core.extension.EventFoundEvent;
+import uk.gov.justice.services.eventsourcing.source.core.EventStream;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares rehydrating an aggregate from a stream of 10,000 events by creating it with {@link
+ * Class#newInstance()} and applying the converted events through {@link Aggregate#apply(Stream)},
+ * which collects them into a list, as the {@link AggregateService} used to, with replaying them one
+ * at a time on an aggregate created through a cached constructor handle, as it now does.
+ *
+ * Events are converted by a hand written converter rather than the object mapper, so that the
+ * conversion, which both paths share, does not hide the difference between them.
+ *
+ * Run from the IDE, or with the JMH runner on the test classpath; add <code>-prof gc</code> to
+ * compare the allocation per rehydration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AggregateRehydrationBenchmark {
+
+    private static final String EVENT_NAME = "test.events.amount-added";
+    private static final int EVENT_COUNT = 10_000;
+
+    private final List<JsonEnvelope> envelopes = new ArrayList<>(EVENT_COUNT);
+    private final AggregateService aggregateService = new AggregateService();
+    private final JsonObjectToObjectConverter converter = new AmountAddedConverter();
+    private EventStream eventStream;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            envelopes.add(envelopeFrom(
+                    metadataWithRandomUUID(EVENT_NAME),
+                    createObjectBuilder().add("reference", UUID.randomUUID().toString()).add("amount", i).build()));
+        }
+        eventStream = new ListEventStream(envelopes);
+
+        aggregateService.jsonObjectToObjectConverter = converter;
+        aggregateService.register(new EventFoundEvent(AmountAdded.class, EVENT_NAME));
+    }
+
+    @Benchmark
+    public TotalAggregate applyAndCollect() throws Exception {
+        final TotalAggregate aggregate = TotalAggregate.class.newInstance();
+        aggregate.apply(eventStream.read().map(event -> converter.convert(event.payloadAsJsonObject(), AmountAdded.class)));
+        return aggregate;
+    }
+
+    @Benchmark
+    public TotalAggregate replay() {
+        return aggregateService.get(eventStream, TotalAggregate.class);
+    }
+
+    public static class TotalAggregate implements Aggregate {
+
+        private long total;
+
+        @Override
+        public Object apply(final Object event) {
+            total += ((AmountAdded) event).amount;
+            return event;
+        }
+    }
+
+    public static class AmountAdded {
+
+        public String reference;
+        public long amount;
+    }
+
+    private static class AmountAddedConverter extends JsonObjectToObjectConverter {
+
+        @Override
+        public <R> R convert(final JsonObject source, final Class<R> clazz) {
+            final AmountAdded event = new AmountAdded();
+            event.reference = source.getString("reference");
+            event.amount = source.getJsonNumber("amount").longValue();
+            return clazz.cast(event);
+        }
+    }
+
+    private static class ListEventStream implements EventStream {
+
+        private final List<JsonEnvelope> envelopes;
+
+        private ListEventStream(final List<JsonEnvelope> envelopes) {
+            this.envelopes = envelopes;
+        }
+
+        @Override
+        public Stream<JsonEnvelope> read() {
+            return envelopes.stream();
+        }
+
+        @Override
+        public Stream<JsonEnvelope> readFrom(final Long version) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void append(final Stream<JsonEnvelope> events) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void appendAfter(final Stream<JsonEnvelope> events, final Long version) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Long getCurrentVersion() {
+            return (long) envelopes.size();
+        }
+
+        @Override
+        public UUID getId() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
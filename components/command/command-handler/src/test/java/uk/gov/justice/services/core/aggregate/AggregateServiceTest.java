@@ -15,9 +15,11 @@ import uk.gov.justice.domain.annotation.Event;
 import uk.gov.justice.services.common.converter.JsonObjectToObjectConverter;
 import uk.gov.justice.services.core.extension.EventFoundEvent;
 import uk.gov.justice.services.eventsourcing.source.core.EventStream;
+import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 import javax.json.JsonObject;
@@ -96,6 +98,16 @@ public class AggregateServiceTest {
         assertThat(aggregate.recordedEvents.get(1), equalTo(eventB));
     }
 
+    @Test
+    public void shouldCloseTheEventStreamOnceReplayed() {
+        final AtomicBoolean closed = new AtomicBoolean();
+        when(eventStream.read()).thenReturn(Stream.<JsonEnvelope>empty().onClose(() -> closed.set(true)));
+
+        aggregateService.get(eventStream, RecordingAggregate.class);
+
+        assertThat(closed.get(), equalTo(true));
+    }
+
     @Test(expected = IllegalStateException.class)
     public void shouldThrowExceptionForUnregisteredEvent() {
         JsonObject eventPayloadA = mock(JsonObject.class);
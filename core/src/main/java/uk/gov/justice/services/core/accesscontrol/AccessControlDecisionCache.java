@@ -0,0 +1,272 @@
+package uk.gov.justice.services.core.accesscontrol;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import uk.gov.justice.services.core.configuration.Value;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.Metadata;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Caches the access control decisions of the {@link PolicyEvaluator} for actions whose policy only
+ * depends on who is calling, so that repeated calls by the same user skip the evaluation.
+ *
+ * Only the actions listed in the <code>accessControlCacheableActions</code> property are cached; the
+ * property is a comma separated list of action names, where an entry ending in <code>*</code> matches
+ * every action starting with the rest of the entry. By default no action is cached. A decision is
+ * cached by user id, action name and session id, so envelopes without a user id are always
+ * evaluated. Decisions expire <code>accessControlCacheTtlMillis</code> after they are made, and at
+ * most <code>accessControlCacheMaxSize</code> decisions are held; when the cache is full, the least
+ * recently used decision is evicted.
+ *
+ * Decisions can be invalidated explicitly when the policy or the user's permissions change. The
+ * decisions are indexed by user and by action, so invalidating the decisions of one user or action
+ * only touches those decisions.
+ */
+@ApplicationScoped
+public class AccessControlDecisionCache {
+
+    private static final String NONE = "none";
+    private static final String WILDCARD = "*";
+
+    @Inject
+    @Value(key = "accessControlCacheableActions", defaultValue = NONE)
+    String cacheableActions;
+
+    @Inject
+    @Value(key = "accessControlCacheTtlMillis", defaultValue = "60000")
+    String ttlMillis;
+
+    @Inject
+    @Value(key = "accessControlCacheMaxSize", defaultValue = "10000")
+    String maxSize;
+
+    LongSupplier nanoTime = System::nanoTime;
+
+    private final Map<Key, Decision> decisions = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> keysByUser = new HashMap<>();
+    private final Map<String, Set<Key>> keysByAction = new HashMap<>();
+    private final Set<String> actionNames = new HashSet<>();
+    private final List<String> actionPrefixes = new ArrayList<>();
+    private boolean enabled;
+    private long ttlNanos;
+    private int maxDecisions;
+
+    @PostConstruct
+    void configure() {
+        configure(cacheableActions, parseLong(ttlMillis.trim()), parseInt(maxSize.trim()));
+    }
+
+    synchronized void configure(final String cacheableActions, final long ttlMillis, final int maxSize) {
+        actionNames.clear();
+        actionPrefixes.clear();
+        if (!NONE.equals(cacheableActions.trim())) {
+            for (final String entry : cacheableActions.split(",")) {
+                final String action = entry.trim();
+                if (action.endsWith(WILDCARD)) {
+                    actionPrefixes.add(action.substring(0, action.length() - 1));
+                } else if (!action.isEmpty()) {
+                    actionNames.add(action);
+                }
+            }
+        }
+        this.enabled = !actionNames.isEmpty() || !actionPrefixes.isEmpty();
+        this.ttlNanos = MILLISECONDS.toNanos(ttlMillis);
+        this.maxDecisions = maxSize;
+        invalidateAll();
+    }
+
+    /**
+     * Get the access control decision for an envelope, from the cache if the action is cacheable
+     * and an unexpired decision is held, otherwise from the given policy.
+     *
+     * @param envelope the envelope to decide access for
+     * @param policy   the policy to evaluate if there is no cached decision
+     * @return the violation, or empty if access is allowed
+     */
+    public Optional<AccessControlViolation> decisionFor(final JsonEnvelope envelope,
+                                                       final Function<JsonEnvelope, Optional<AccessControlViolation>> policy) {
+        if (!enabled) {
+            return policy.apply(envelope);
+        }
+
+        final Metadata metadata = envelope.metadata();
+        final Optional<String> userId = metadata.userId();
+        if (!userId.isPresent() || !isCacheable(metadata.name())) {
+            return policy.apply(envelope);
+        }
+
+        final Key key = new Key(userId.get(), metadata.name(), metadata.sessionId().orElse(null));
+        final long now = nanoTime.getAsLong();
+        final Decision cached = cachedDecision(key, now);
+        if (cached != null) {
+            return cached.violation;
+        }
+
+        final Optional<AccessControlViolation> violation = policy.apply(envelope);
+        cache(key, new Decision(violation, now + ttlNanos));
+        return violation;
+    }
+
+    /**
+     * @param actionName the name of the action
+     * @return true if the decisions for the action are cached
+     */
+    public boolean isCacheable(final String actionName) {
+        if (actionNames.contains(actionName)) {
+            return true;
+        }
+        for (final String prefix : actionPrefixes) {
+            if (actionName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Invalidate every cached decision, for example when the access control policy changes.
+     */
+    public synchronized void invalidateAll() {
+        decisions.clear();
+        keysByUser.clear();
+        keysByAction.clear();
+    }
+
+    /**
+     * Invalidate the cached decisions for a user, for example when the user's permissions change.
+     *
+     * @param userId the id of the user
+     */
+    public synchronized void invalidateUser(final String userId) {
+        final Set<Key> keys = keysByUser.remove(userId);
+        if (keys != null) {
+            for (final Key key : keys) {
+                decisions.remove(key);
+                unindex(keysByAction, key.actionName, key);
+            }
+        }
+    }
+
+    /**
+     * Invalidate the cached decisions for an action.
+     *
+     * @param actionName the name of the action
+     */
+    public synchronized void invalidateAction(final String actionName) {
+        final Set<Key> keys = keysByAction.remove(actionName);
+        if (keys != null) {
+            for (final Key key : keys) {
+                decisions.remove(key);
+                unindex(keysByUser, key.userId, key);
+            }
+        }
+    }
+
+    synchronized int size() {
+        return decisions.size();
+    }
+
+    private synchronized Decision cachedDecision(final Key key, final long now) {
+        final Decision cached = decisions.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (now - cached.expiresAt < 0) {
+            return cached;
+        }
+        remove(key);
+        return null;
+    }
+
+    private synchronized void cache(final Key key, final Decision decision) {
+        if (decisions.put(key, decision) == null) {
+            keysByUser.computeIfAbsent(key.userId, userId -> new HashSet<>()).add(key);
+            keysByAction.computeIfAbsent(key.actionName, actionName -> new HashSet<>()).add(key);
+        }
+
+        final Iterator<Key> leastRecentlyUsed = decisions.keySet().iterator();
+        while (decisions.size() > maxDecisions && leastRecentlyUsed.hasNext()) {
+            final Key evicted = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            unindex(keysByUser, evicted.userId, evicted);
+            unindex(keysByAction, evicted.actionName, evicted);
+        }
+    }
+
+    private void remove(final Key key) {
+        decisions.remove(key);
+        unindex(keysByUser, key.userId, key);
+        unindex(keysByAction, key.actionName, key);
+    }
+
+    private static void unindex(final Map<String, Set<Key>> index, final String value, final Key key) {
+        final Set<Key> keys = index.get(value);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            index.remove(value);
+        }
+    }
+
+    private static final class Key {
+
+        private final String userId;
+        private final String actionName;
+        private final String sessionId;
+        private final int hashCode;
+
+        private Key(final String userId, final String actionName, final String sessionId) {
+            this.userId = userId;
+            this.actionName = actionName;
+            this.sessionId = sessionId;
+            this.hashCode = Objects.hash(userId, actionName, sessionId);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return userId.equals(key.userId)
+                    && actionName.equals(key.actionName)
+                    && Objects.equals(sessionId, key.sessionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Decision {
+
+        private final Optional<AccessControlViolation> violation;
+        private final long expiresAt;
+
+        private Decision(final Optional<AccessControlViolation> violation, final long expiresAt) {
+            this.violation = violation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package uk.gov.justice.services.core.accesscontrol;
 
 import static java.util.Optional.empty;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
@@ -8,24 +9,47 @@ import java.util.Optional;
 
 import javax.inject.Inject;
 
+/**
+ * Checks envelopes against the {@link PolicyEvaluator}, using the {@link
+ * AccessControlDecisionCache} for cacheable actions.
+ *
+ * Access control is skipped while the {@link #ACCESS_CONTROL_DISABLED_PROPERTY} system property is
+ * true. The property is read on the first check and then at most once a second, rather than for
+ * every envelope.
+ */
 public class AccessControlService {
 
     static final String ACCESS_CONTROL_DISABLED_PROPERTY =
                     "uk.gov.justice.services.core.accesscontrol.disabled";
 
+    private static final long DISABLED_PROPERTY_REFRESH_NANOS = SECONDS.toNanos(1);
+
     @Inject
     PolicyEvaluator policyEvaluator;
 
+    @Inject
+    AccessControlDecisionCache decisionCache;
+
+    private volatile boolean disabled;
+    private volatile boolean disabledPropertyRead;
+    private volatile long disabledPropertyReadAt;
+
     public Optional<AccessControlViolation> checkAccessControl(final JsonEnvelope jsonEnvelope) {
 
         if (accessControlDisabled()) {
             return empty();
         }
 
-        return policyEvaluator.checkAccessPolicyFor(jsonEnvelope);
+        return decisionCache.decisionFor(jsonEnvelope, policyEvaluator::checkAccessPolicyFor);
     }
 
     private boolean accessControlDisabled() {
-        return "true".equals(System.getProperty(ACCESS_CONTROL_DISABLED_PROPERTY));
+        final long now = System.nanoTime();
+        if (!disabledPropertyRead || now - disabledPropertyReadAt >= DISABLED_PROPERTY_REFRESH_NANOS) {
+            disabled = "true".equals(System.getProperty(ACCESS_CONTROL_DISABLED_PROPERTY));
+            disabledPropertyReadAt = now;
+            disabledPropertyRead = true;
+        }
+        return disabled;
     }
 }
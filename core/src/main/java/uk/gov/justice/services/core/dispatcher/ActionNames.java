@@ -0,0 +1,68 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Action names given by name or by a name prefix ending in <code>*</code>, as listed in the
+ * properties of the {@link SingleFlight} and the {@link QueryResultCache}.
+ */
+final class ActionNames {
+
+    static final String NONE = "none";
+
+    private static final String WILDCARD = "*";
+
+    private final Set<String> names = new HashSet<>();
+    private final List<String> prefixes = new ArrayList<>();
+
+    /**
+     * @param actions the action names, or name prefixes ending in <code>*</code>
+     */
+    ActionNames(final Collection<String> actions) {
+        for (final String action : actions) {
+            if (action.endsWith(WILDCARD)) {
+                prefixes.add(action.substring(0, action.length() - 1));
+            } else {
+                names.add(action);
+            }
+        }
+    }
+
+    /**
+     * @param property a comma separated list of action names or name prefixes, or
+     *                 <code>none</code>
+     * @return the action names and name prefixes listed in the property
+     */
+    static List<String> listedIn(final String property) {
+        return NONE.equals(property.trim())
+                ? Collections.emptyList()
+                : Arrays.stream(property.split(","))
+                        .map(String::trim)
+                        .filter(action -> !action.isEmpty())
+                        .collect(toList());
+    }
+
+    /**
+     * @param actionName the name of an action
+     * @return true if the action is listed by name or by a prefix of its name
+     */
+    boolean contains(final String actionName) {
+        if (names.contains(actionName)) {
+            return true;
+        }
+        for (final String prefix : prefixes) {
+            if (actionName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
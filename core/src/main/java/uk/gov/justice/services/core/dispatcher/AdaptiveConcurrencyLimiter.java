@@ -0,0 +1,168 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.lang.String.format;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Limits the number of calls in flight to a limit that adapts to their latency, additively
+ * increasing it while calls are as fast as usual and multiplicatively decreasing it when they slow
+ * down (AIMD).
+ *
+ * The usual latency is a slowly moving average of every call. A call slower than the average times
+ * the latency tolerance shrinks the limit by a tenth, down to the minimum limit; other calls grow the
+ * limit by one per limit's worth of calls, up to the maximum limit, as long as at least half the
+ * limit is in use. Calls over the limit started with {@link #acquire()} are shed with a {@link
+ * ConcurrencyLimitExceededException} rather than queued, so callers fail fast while the handlers
+ * recover. Calls started with {@link #acquireWaiting()} wait for a call to end instead, for callers
+ * such as message listeners that have no one to fail fast to.
+ *
+ * The limit and the calls in flight are reported as the <code>&lt;name&gt;.limit</code> and
+ * <code>&lt;name&gt;.in-flight</code> gauges.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_SMOOTHING = 0.01;
+    private static final long WAIT_CHECK_MILLIS = 100L;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Object callEnded = new Object();
+
+    private volatile double limit;
+    private double averageLatencyNanos;
+
+    /**
+     * @param name             the name of the limiter, used for its exceptions and metrics
+     * @param initialLimit     the limit to start with
+     * @param minLimit         the lowest the limit can fall to
+     * @param maxLimit         the highest the limit can rise to
+     * @param latencyTolerance how many times slower than the average latency a call can be before
+     *                         the limit is decreased
+     * @param metricRegistry   the registry to report the gauges of the limiter to
+     */
+    public AdaptiveConcurrencyLimiter(final String name,
+                                      final int initialLimit,
+                                      final int minLimit,
+                                      final int maxLimit,
+                                      final double latencyTolerance,
+                                      final MetricRegistry metricRegistry) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException(format("Concurrency limits of %s must satisfy 1 <= min <= initial <= max", name));
+        }
+
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+
+        register(metricRegistry, name(name, "limit"), this::limit);
+        register(metricRegistry, name(name, "in-flight"), this::inFlight);
+    }
+
+    /**
+     * Start a call.
+     *
+     * @throws ConcurrencyLimitExceededException if the limit of calls is already in flight
+     */
+    public void acquire() {
+        if (!tryAcquire()) {
+            throw new ConcurrencyLimitExceededException(format("Concurrency limit of %d reached for %s", limit(), name));
+        }
+    }
+
+    /**
+     * Start a call, waiting while the limit of calls is in flight.
+     *
+     * @throws ConcurrencyLimitExceededException if the thread is interrupted while waiting
+     */
+    public void acquireWaiting() {
+        if (tryAcquire()) {
+            return;
+        }
+
+        waiting.incrementAndGet();
+        try {
+            while (!tryAcquire()) {
+                synchronized (callEnded) {
+                    if (inFlight.get() >= limit()) {
+                        callEnded.wait(WAIT_CHECK_MILLIS);
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyLimitExceededException(format("Interrupted waiting for the concurrency limit of %s", name));
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * End a call started with {@link #acquire}, adjusting the limit to its latency.
+     *
+     * @param latencyNanos the latency of the call in nanoseconds
+     */
+    public void release(final long latencyNanos) {
+        final int inFlightBefore = inFlight.getAndDecrement();
+        adjustLimit(latencyNanos, inFlightBefore);
+        if (waiting.get() > 0) {
+            synchronized (callEnded) {
+                callEnded.notifyAll();
+            }
+        }
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    int waiting() {
+        return waiting.get();
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= limit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private synchronized void adjustLimit(final long latencyNanos, final int inFlightBefore) {
+        if (averageLatencyNanos == 0) {
+            averageLatencyNanos = latencyNanos;
+        } else {
+            averageLatencyNanos += LATENCY_SMOOTHING * (latencyNanos - averageLatencyNanos);
+        }
+
+        if (latencyNanos > latencyTolerance * averageLatencyNanos) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else if (inFlightBefore * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private static void register(final MetricRegistry metricRegistry, final String name, final Gauge<Integer> gauge) {
+        metricRegistry.remove(name);
+        metricRegistry.register(name, gauge);
+    }
+}
@@ -0,0 +1,182 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+
+import uk.gov.justice.services.core.configuration.Value;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.Metadata;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Optionally runs the asynchronous dispatch of chosen service components on a {@link KeyedExecutor}
+ * instead of the calling thread, such as a JMS listener thread, to bound the number of threads
+ * handling envelopes and order them by key.
+ *
+ * The executor is enabled by setting the <code>dispatchExecutorThreads</code> property to the number
+ * of threads, and is used by the components listed in <code>dispatchExecutorComponents</code>, for
+ * example <code>EVENT_LISTENER,EVENT_PROCESSOR</code>. Envelopes are keyed by stream id, so the
+ * envelopes of a stream are handled in order; setting <code>dispatchExecutorKey</code> to
+ * <code>name</code> keys them by action name instead. Envelopes without a key are spread across the
+ * threads. Each thread queues up to
+ * <code>dispatchExecutorQueueSize</code> envelopes; when its queue is full, callers wait. Setting
+ * <code>dispatchExecutorVirtualThreads</code> to true runs the executor on virtual threads when the
+ * JVM supports them, instead of on container managed threads.
+ *
+ * The caller waits until the handler has run, which it does in a transaction of its own through the
+ * {@link TransactionalDispatcher}, and handler failures are rethrown to the caller. A JMS listener
+ * therefore only acknowledges a message once it has been handled, and a message whose handler fails
+ * is rolled back and redelivered as it would be without the executor.
+ */
+@ApplicationScoped
+public class AsynchronousDispatchExecutor {
+
+    private static final String NONE = "none";
+    private static final String STREAM_ID_KEY = "streamId";
+    private static final String NAME_KEY = "name";
+    private static final String EXECUTOR_NAME = "dispatch-executor";
+
+    @Inject
+    @Value(key = "dispatchExecutorThreads", defaultValue = NONE)
+    String threads;
+
+    @Inject
+    @Value(key = "dispatchExecutorComponents", defaultValue = NONE)
+    String components;
+
+    @Inject
+    @Value(key = "dispatchExecutorQueueSize", defaultValue = "1024")
+    String queueSize;
+
+    @Inject
+    @Value(key = "dispatchExecutorKey", defaultValue = STREAM_ID_KEY)
+    String key;
+
+    @Inject
+    @Value(key = "dispatchExecutorVirtualThreads", defaultValue = "false")
+    String virtualThreads;
+
+    @Inject
+    TransactionalDispatcher transactionalDispatcher;
+
+    @Resource
+    ManagedThreadFactory managedThreadFactory;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    private final Set<String> executorComponents = new HashSet<>();
+
+    private KeyedExecutor executor;
+    private Function<Metadata, Object> keyFunction;
+
+    @PostConstruct
+    void start() {
+        final ThreadFactory threadFactory = Boolean.parseBoolean(virtualThreads.trim())
+                ? virtualThreadFactory().orElse(managedThreadFactory)
+                : managedThreadFactory;
+        start(threadFactory);
+    }
+
+    void start(final ThreadFactory threadFactory) {
+        if (NONE.equals(threads.trim()) || NONE.equals(components.trim())) {
+            return;
+        }
+
+        Arrays.stream(components.split(","))
+                .map(String::trim)
+                .filter(component -> !component.isEmpty())
+                .forEach(executorComponents::add);
+        keyFunction = keyFunctionFor(key.trim());
+        executor = new KeyedExecutor(EXECUTOR_NAME, parseInt(threads.trim()), parseInt(queueSize.trim()), threadFactory, metricRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.stop();
+        }
+    }
+
+    /**
+     * Wrap the dispatcher of a component so that it dispatches on the executor, if the executor is
+     * enabled for the component.
+     *
+     * @param dispatcher the dispatcher to wrap
+     * @param component  the name of the component of the dispatcher
+     * @return the dispatcher that runs envelopes on the executor and waits for them to be handled,
+     * or the given dispatcher if the executor is not enabled for the component
+     */
+    public AsynchronousDispatcher executorBacked(final AsynchronousDispatcher dispatcher, final String component) {
+        if (executor == null || !executorComponents.contains(component)) {
+            return dispatcher;
+        }
+        return envelope -> await(executor.execute(keyOf(envelope), () -> transactionalDispatcher.dispatch(dispatcher, envelope)), envelope);
+    }
+
+    private static void await(final CompletableFuture<Void> completion, final JsonEnvelope envelope) {
+        try {
+            completion.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(format("Interrupted waiting for envelope %s to be handled", envelope.metadata().id()), e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(format("Failed to handle envelope %s", envelope.metadata().id()), e.getCause());
+        }
+    }
+
+    private Object keyOf(final JsonEnvelope envelope) {
+        final Metadata metadata = envelope.metadata();
+        final Object key = keyFunction.apply(metadata);
+        return key != null ? key : metadata.id();
+    }
+
+    private static Function<Metadata, Object> keyFunctionFor(final String key) {
+        switch (key) {
+            case STREAM_ID_KEY:
+                return metadata -> metadata.streamId().orElse(null);
+            case NAME_KEY:
+                return Metadata::name;
+            default:
+                throw new IllegalArgumentException(format("Unknown dispatch executor key %s, expected %s or %s", key, STREAM_ID_KEY, NAME_KEY));
+        }
+    }
+
+    /**
+     * The virtual thread factory of the JVM, looked up reflectively as virtual threads are newer
+     * than the Java version the framework is built for.
+     *
+     * @return the virtual thread factory, or empty if the JVM has no virtual threads
+     */
+    static Optional<ThreadFactory> virtualThreadFactory() {
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return Optional.of((ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder));
+        } catch (final ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package uk.gov.justice.services.core.dispatcher;
 
+import static uk.gov.justice.services.core.annotation.ComponentNameUtil.componentFrom;
+
 import uk.gov.justice.services.core.annotation.Adapter;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -13,9 +15,13 @@ public class AsynchronousDispatcherProducer {
     @Inject
     DispatcherCache dispatcherCache;
 
+    @Inject
+    AsynchronousDispatchExecutor dispatchExecutor;
+
     /**
      * Produces the correct implementation of an asynchronous dispatcher depending on the {@link
-     * Adapter} annotation at the injection point.
+     * Adapter} annotation at the injection point, dispatching on the {@link
+     * AsynchronousDispatchExecutor} if it is enabled for the component.
      *
      * @param injectionPoint class where the {@link AsynchronousDispatcher} is being injected
      * @return the correct dispatcher instance
@@ -24,6 +30,7 @@ public class AsynchronousDispatcherProducer {
      */
     @Produces
     public AsynchronousDispatcher produceAsynchronousDispatcher(final InjectionPoint injectionPoint) {
-        return dispatcherCache.dispatcherFor(injectionPoint)::asynchronousDispatch;
+        final AsynchronousDispatcher dispatcher = dispatcherCache.dispatcherFor(injectionPoint)::asynchronousDispatch;
+        return dispatchExecutor.executorBacked(dispatcher, componentFrom(injectionPoint));
     }
 }
@@ -0,0 +1,21 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import uk.gov.justice.services.core.annotation.Adapter;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.List;
+
+/**
+ * Dispatches a batch of messages to the correct asynchronous handlers. The framework will inject
+ * the correct implementation based on the {@link Adapter} annotation.
+ */
+@FunctionalInterface
+public interface BatchAsynchronousDispatcher {
+
+    /**
+     * Dispatches the {@code envelopes} to the correct handlers, in order.
+     *
+     * @param envelopes The list of {@link JsonEnvelope} to be dispatched.
+     */
+    void dispatch(final List<JsonEnvelope> envelopes);
+}
@@ -0,0 +1,111 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.lang.Double.parseDouble;
+import static java.lang.Integer.parseInt;
+import static uk.gov.justice.services.core.annotation.ServiceComponentLocation.LOCAL;
+
+import uk.gov.justice.services.core.annotation.ServiceComponentLocation;
+import uk.gov.justice.services.core.configuration.Value;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Creates the {@link ConcurrencyLimits} of the dispatchers of the components listed in the
+ * <code>concurrencyLimitComponents</code> property, a comma separated list of component names such
+ * as <code>COMMAND_API,QUERY_API</code>. By default no component is limited. Only the local
+ * dispatcher of a component, used by its adapters, is limited.
+ *
+ * Any component can be listed. Synchronous requests over the limit, such as queries from the REST
+ * adapters of the query API, are rejected with a {@link ConcurrencyLimitExceededException}, which
+ * the REST adapters return as 503 Service Unavailable. Asynchronous dispatch, from the JMS listeners
+ * and the command API's REST adapters, waits until it is within the limit instead, so a listed
+ * component that consumes messages slows down rather than failing them.
+ *
+ * A component is limited as a whole unless <code>concurrencyLimitPerAction</code> is true. The
+ * limiters start at <code>concurrencyLimitInitial</code> calls in flight and adapt between
+ * <code>concurrencyLimitMin</code> and <code>concurrencyLimitMax</code>, decreasing when a call is
+ * more than <code>concurrencyLimitLatencyTolerance</code> times slower than usual. Their gauges are
+ * reported under <code>concurrency-limit.&lt;component&gt;</code>, followed by the action name when
+ * limited per action.
+ */
+@ApplicationScoped
+public class ConcurrencyLimitConfiguration {
+
+    private static final String NONE = "none";
+
+    @Inject
+    @Value(key = "concurrencyLimitComponents", defaultValue = NONE)
+    String components;
+
+    @Inject
+    @Value(key = "concurrencyLimitPerAction", defaultValue = "false")
+    String perAction;
+
+    @Inject
+    @Value(key = "concurrencyLimitInitial", defaultValue = "20")
+    String initialLimit;
+
+    @Inject
+    @Value(key = "concurrencyLimitMin", defaultValue = "1")
+    String minLimit;
+
+    @Inject
+    @Value(key = "concurrencyLimitMax", defaultValue = "200")
+    String maxLimit;
+
+    @Inject
+    @Value(key = "concurrencyLimitLatencyTolerance", defaultValue = "2.0")
+    String latencyTolerance;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    private final Set<String> limitedComponents = new HashSet<>();
+
+    @PostConstruct
+    void configure() {
+        limitedComponents.clear();
+        if (!NONE.equals(components.trim())) {
+            Arrays.stream(components.split(","))
+                    .map(String::trim)
+                    .filter(component -> !component.isEmpty())
+                    .forEach(limitedComponents::add);
+        }
+    }
+
+    /**
+     * @param component the name of the component of the dispatcher
+     * @param location  the location of the dispatcher
+     * @return the concurrency limits of the dispatcher
+     */
+    public ConcurrencyLimits limitsFor(final String component, final ServiceComponentLocation location) {
+        if (!LOCAL.equals(location) || !limitedComponents.contains(component)) {
+            return ConcurrencyLimits.none();
+        }
+
+        final String prefix = name("concurrency-limit", component);
+        if (Boolean.parseBoolean(perAction.trim())) {
+            return ConcurrencyLimits.perAction(action -> limiter(name(prefix, action)));
+        }
+        return ConcurrencyLimits.perComponent(limiter(prefix));
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(final String name) {
+        return new AdaptiveConcurrencyLimiter(
+                name,
+                parseInt(initialLimit.trim()),
+                parseInt(minLimit.trim()),
+                parseInt(maxLimit.trim()),
+                parseDouble(latencyTolerance.trim()),
+                metricRegistry);
+    }
+}
@@ -0,0 +1,12 @@
+package uk.gov.justice.services.core.dispatcher;
+
+/**
+ * Thrown when an envelope is not dispatched because its handlers are already handling as many
+ * envelopes as their {@link AdaptiveConcurrencyLimiter} allows. The envelope can be retried later.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,60 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The {@link AdaptiveConcurrencyLimiter}s of a {@link Dispatcher}: none, one for the whole
+ * component, or one for each action.
+ */
+public class ConcurrencyLimits {
+
+    private static final ConcurrencyLimits NONE = new ConcurrencyLimits(null, null);
+
+    private final AdaptiveConcurrencyLimiter componentLimiter;
+    private final Function<String, AdaptiveConcurrencyLimiter> actionLimiterFactory;
+    private final Map<String, AdaptiveConcurrencyLimiter> actionLimiters = new ConcurrentHashMap<>();
+
+    private ConcurrencyLimits(final AdaptiveConcurrencyLimiter componentLimiter,
+                              final Function<String, AdaptiveConcurrencyLimiter> actionLimiterFactory) {
+        this.componentLimiter = componentLimiter;
+        this.actionLimiterFactory = actionLimiterFactory;
+    }
+
+    /**
+     * @return limits that never limit
+     */
+    public static ConcurrencyLimits none() {
+        return NONE;
+    }
+
+    /**
+     * @param limiter the limiter shared by every action of the component
+     * @return limits that limit the component as a whole
+     */
+    public static ConcurrencyLimits perComponent(final AdaptiveConcurrencyLimiter limiter) {
+        return new ConcurrencyLimits(limiter, null);
+    }
+
+    /**
+     * @param limiterFactory creates the limiter of an action from its name, the first time the
+     *                       action is dispatched
+     * @return limits that limit each action separately
+     */
+    public static ConcurrencyLimits perAction(final Function<String, AdaptiveConcurrencyLimiter> limiterFactory) {
+        return new ConcurrencyLimits(null, limiterFactory);
+    }
+
+    /**
+     * @param actionName the name of the action
+     * @return the limiter of the action, or null if the action is not limited
+     */
+    public AdaptiveConcurrencyLimiter limiterFor(final String actionName) {
+        if (actionLimiterFactory == null) {
+            return componentLimiter;
+        }
+        final AdaptiveConcurrencyLimiter limiter = actionLimiters.get(actionName);
+        return limiter != null ? limiter : actionLimiters.computeIfAbsent(actionName, actionLimiterFactory);
+    }
+}
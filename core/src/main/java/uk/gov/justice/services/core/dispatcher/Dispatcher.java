@@ -7,11 +7,17 @@ import uk.gov.justice.services.core.accesscontrol.AccessControlFailureMessageGen
 import uk.gov.justice.services.core.accesscontrol.AccessControlService;
 import uk.gov.justice.services.core.accesscontrol.AccessControlViolation;
 import uk.gov.justice.services.core.accesscontrol.AccessControlViolationException;
+import uk.gov.justice.services.core.dispatcher.DispatcherMetrics.ActionMetrics;
 import uk.gov.justice.services.core.handler.HandlerMethod;
 import uk.gov.justice.services.core.handler.registry.HandlerRegistry;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.codahale.metrics.Timer;
 
 /**
  * Dispatches messages synchronously or asynchronously to their corresponding handlers, which could
@@ -21,20 +27,38 @@ import java.util.Optional;
  * the {{@link SynchronousDispatcher} or {@link AsynchronousDispatcher} interfaces. This is because
  * the <code>dispatch</code> method names would clash. Instead, we expose the dispatcher as a
  * functional interface via the {@link ServiceComponentObserver}.
+ *
+ * The time, throughput, errors and access control rejections of each action are recorded in the
+ * {@link ActionMetrics} kept on its {@link HandlerMethod} by the {@link HandlerRegistry}. Handlers can be protected from overload by the
+ * {@link ConcurrencyLimits} of the dispatcher, which reject synchronous envelopes over the limit with
+ * a {@link ConcurrencyLimitExceededException}, and make asynchronous dispatch, such as from a JMS
+ * listener, wait until the envelope is within the limit. Identical synchronous requests in flight at the same time can
+ * share one handler execution through the {@link SingleFlight} of the dispatcher, and their
+ * results can be cached in the {@link QueryResultCache} of the dispatcher, which is notified of the
+ * events handled by asynchronous dispatch.
  */
 public class Dispatcher {
 
     private final HandlerRegistry handlerRegistry;
     private final Optional<AccessControlService> accessControlService;
     private final AccessControlFailureMessageGenerator accessControlFailureMessageGenerator;
+    private final ConcurrencyLimits concurrencyLimits;
+    private final SingleFlight singleFlight;
+    private final QueryResultCache queryResultCache;
 
 
     public Dispatcher(final HandlerRegistry handlerRegistry,
                       final Optional<AccessControlService> accessControlService,
-                      final AccessControlFailureMessageGenerator accessControlFailureMessageGenerator) {
+                      final AccessControlFailureMessageGenerator accessControlFailureMessageGenerator,
+                      final ConcurrencyLimits concurrencyLimits,
+                      final SingleFlight singleFlight,
+                      final QueryResultCache queryResultCache) {
         this.handlerRegistry = handlerRegistry;
         this.accessControlService = accessControlService;
         this.accessControlFailureMessageGenerator = accessControlFailureMessageGenerator;
+        this.concurrencyLimits = concurrencyLimits;
+        this.singleFlight = singleFlight;
+        this.queryResultCache = queryResultCache;
     }
 
     /**
@@ -51,6 +75,29 @@ public class Dispatcher {
         doDispatch(envelope, ASYNCHRONOUS);
     }
 
+    /**
+     * Asynchronously dispatch a batch of messages to their corresponding handlers.
+     *
+     * The envelopes are split into runs of consecutive envelopes with the same name, so the order
+     * of the batch is preserved. Each run is passed to the batch handler method for its name if one
+     * is registered, otherwise each envelope in the run is dispatched individually. Access control
+     * is checked for every envelope before its run is dispatched.
+     *
+     * @param envelopes the envelopes to dispatch to handlers
+     */
+    public void asynchronousBatchDispatch(final List<JsonEnvelope> envelopes) {
+        int start = 0;
+        while (start < envelopes.size()) {
+            final String name = envelopes.get(start).metadata().name();
+            int end = start + 1;
+            while (end < envelopes.size() && name.equals(envelopes.get(end).metadata().name())) {
+                end++;
+            }
+            dispatchRun(name, new ArrayList<>(envelopes.subList(start, end)));
+            start = end;
+        }
+    }
+
     /**
      * Synchronously dispatch message to its corresponding handler, which could be a command
      * handler, command controller, event processor, etc.
@@ -78,7 +125,81 @@ public class Dispatcher {
         if (accessControlService.isPresent()) {
             checkAccessControl(envelope);
         }
-        return (JsonEnvelope) getMethod(envelope, isSynchronous).execute(envelope);
+        final HandlerMethod handlerMethod = getMethod(envelope, isSynchronous);
+        if (isSynchronous) {
+            return queryResultCache.dispatch(envelope, query ->
+                    singleFlight.dispatch(query, e -> (JsonEnvelope) execute(handlerMethod, e, SYNCHRONOUS)));
+        }
+        final JsonEnvelope result = (JsonEnvelope) execute(handlerMethod, envelope, ASYNCHRONOUS);
+        queryResultCache.eventHandled(envelope.metadata().name());
+        return result;
+    }
+
+    private void dispatchRun(final String name, final List<JsonEnvelope> envelopes) {
+        if (accessControlService.isPresent()) {
+            envelopes.forEach(this::checkAccessControl);
+        }
+
+        final Optional<HandlerMethod> batchHandlerMethod = handlerRegistry.getBatch(name);
+        if (batchHandlerMethod.isPresent()) {
+            execute(batchHandlerMethod.get(), name, envelopes.size(), ASYNCHRONOUS, () -> {
+                batchHandlerMethod.get().executeBatch(envelopes);
+                return null;
+            });
+        } else {
+            final HandlerMethod handlerMethod = handlerRegistry.get(name, ASYNCHRONOUS);
+            envelopes.forEach(envelope -> execute(handlerMethod, envelope, ASYNCHRONOUS));
+        }
+        queryResultCache.eventHandled(name);
+    }
+
+    private Object execute(final HandlerMethod handlerMethod, final JsonEnvelope envelope, final boolean isSynchronous) {
+        return execute(handlerMethod, envelope.metadata().name(), 1, isSynchronous, () -> handlerMethod.execute(envelope));
+    }
+
+    /**
+     * Call a handler method within the concurrency limit of the action, recording the metrics of
+     * the action. A synchronous call over the limit is rejected, while an asynchronous one waits.
+     *
+     * @param handlerMethod the handler method called
+     * @param name          the name of the action
+     * @param envelopeCount the number of envelopes passed to the handler method
+     * @param isSynchronous whether the call is dispatched synchronously
+     * @param handlerCall   the call to the handler method
+     * @return the result of the handler method
+     */
+    private Object execute(final HandlerMethod handlerMethod,
+                           final String name,
+                           final int envelopeCount,
+                           final boolean isSynchronous,
+                           final Supplier<Object> handlerCall) {
+        final ActionMetrics metrics = handlerMethod.metrics();
+        final AdaptiveConcurrencyLimiter limiter = concurrencyLimits.limiterFor(name);
+        if (limiter != null) {
+            try {
+                if (isSynchronous) {
+                    limiter.acquire();
+                } else {
+                    limiter.acquireWaiting();
+                }
+            } catch (final ConcurrencyLimitExceededException e) {
+                metrics.error(e);
+                throw e;
+            }
+        }
+
+        final Timer.Context context = metrics.time(envelopeCount);
+        try {
+            return handlerCall.get();
+        } catch (final RuntimeException e) {
+            metrics.error(e);
+            throw e;
+        } finally {
+            final long latencyNanos = context.stop();
+            if (limiter != null) {
+                limiter.release(latencyNanos);
+            }
+        }
     }
 
     /**
@@ -103,6 +224,7 @@ public class Dispatcher {
                     jsonEnvelope,
                     accessControlViolation.get());
 
+            handlerRegistry.metricsOf(jsonEnvelope.metadata().name()).ifPresent(ActionMetrics::accessControlRejected);
             throw new AccessControlViolationException(errorMessage);
         }
     }
@@ -1,8 +1,10 @@
 package uk.gov.justice.services.core.dispatcher;
 
 import static uk.gov.justice.services.core.annotation.ComponentNameUtil.componentFrom;
+import static uk.gov.justice.services.core.annotation.ServiceComponentLocation.LOCAL;
 import static uk.gov.justice.services.core.annotation.ServiceComponentLocation.componentLocationFrom;
 
+import uk.gov.justice.services.core.annotation.Component;
 import uk.gov.justice.services.core.annotation.ServiceComponentLocation;
 import uk.gov.justice.services.core.extension.ServiceComponentFoundEvent;
 
@@ -49,7 +51,18 @@ public class DispatcherCache {
                 event.getComponentName(), event.getLocation()));
     }
 
+    /**
+     * Return the local {@link Dispatcher} for the given {@link Component}, which is the dispatcher
+     * used by the adapters of the component.
+     *
+     * @param component the given {@link Component}
+     * @return the {@link Dispatcher}
+     */
+    public Dispatcher dispatcherFor(final Component component) {
+        return createDispatcherIfAbsent(Pair.of(component.name(), LOCAL));
+    }
+
     private Dispatcher createDispatcherIfAbsent(final Pair<String, ServiceComponentLocation> component) {
-        return dispatcherMap.computeIfAbsent(component, c -> dispatcherFactory.createNew(c.getRight()));
+        return dispatcherMap.computeIfAbsent(component, c -> dispatcherFactory.createNew(c.getLeft(), c.getRight()));
     }
 }
@@ -12,6 +12,8 @@ import java.util.Optional;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import com.codahale.metrics.MetricRegistry;
+
 @ApplicationScoped
 public class DispatcherFactory {
 
@@ -21,13 +23,28 @@ public class DispatcherFactory {
     @Inject
     AccessControlFailureMessageGenerator accessControlFailureMessageGenerator;
 
-    public Dispatcher createNew(final ServiceComponentLocation location) {
-        final HandlerRegistry handlerRegistry = new HandlerRegistry();
+    @Inject
+    ConcurrencyLimitConfiguration concurrencyLimitConfiguration;
+
+    @Inject
+    SingleFlightConfiguration singleFlightConfiguration;
+
+    @Inject
+    QueryResultCacheConfiguration queryResultCacheConfiguration;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    public Dispatcher createNew(final String component, final ServiceComponentLocation location) {
+        final HandlerRegistry handlerRegistry = new HandlerRegistry(new DispatcherMetrics(component, location, metricRegistry));
 
         return new Dispatcher(
                 handlerRegistry,
                 accessControlServiceFor(location),
-                accessControlFailureMessageGenerator
+                accessControlFailureMessageGenerator,
+                concurrencyLimitConfiguration.limitsFor(component, location),
+                singleFlightConfiguration.newSingleFlight(),
+                queryResultCacheConfiguration.cacheFor(component, location)
         );
     }
 
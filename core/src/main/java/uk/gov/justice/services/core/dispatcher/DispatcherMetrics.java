@@ -0,0 +1,109 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import uk.gov.justice.services.core.annotation.ServiceComponentLocation;
+import uk.gov.justice.services.core.handler.HandlerMethod;
+import uk.gov.justice.services.core.handler.registry.HandlerRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Metrics recorded by a {@link Dispatcher} for each action it dispatches, reported to a {@link
+ * MetricRegistry} under <code>dispatcher.&lt;component&gt;.&lt;location&gt;.&lt;action&gt;</code>.
+ *
+ * The metrics of an action are resolved from the registry by the {@link HandlerRegistry} when a
+ * handler method for the action is registered, and held in an {@link ActionMetrics} on the {@link
+ * HandlerMethod}, so dispatching an action neither looks up its metrics nor builds a metric name.
+ * Metrics are only created for registered actions; a handler method for all actions records its
+ * metrics under the action <code>*</code>.
+ */
+public class DispatcherMetrics {
+
+    private final String prefix;
+    private final MetricRegistry metricRegistry;
+
+    public DispatcherMetrics(final String component,
+                             final ServiceComponentLocation location,
+                             final MetricRegistry metricRegistry) {
+        this(name("dispatcher", component, location.name().toLowerCase()), metricRegistry);
+    }
+
+    private DispatcherMetrics(final String prefix, final MetricRegistry metricRegistry) {
+        this.prefix = prefix;
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * @return metrics recorded in a registry of their own, which is not reported
+     */
+    public static DispatcherMetrics unregistered() {
+        return new DispatcherMetrics("dispatcher", new MetricRegistry());
+    }
+
+    /**
+     * Resolve the metrics of an action from the registry. Handler methods registered for the same
+     * action share the metrics of the action.
+     *
+     * @param name the name of the action
+     * @return the metrics of the action
+     */
+    public ActionMetrics forAction(final String name) {
+        return new ActionMetrics(name(prefix, name), metricRegistry);
+    }
+
+    /**
+     * The metrics of one action:
+     * <ul>
+     *     <li><code>time</code> - a timer of each call to a handler method</li>
+     *     <li><code>envelopes</code> - a meter of the envelopes dispatched, counting each envelope
+     *     of a batch</li>
+     *     <li><code>errors.&lt;exception class&gt;</code> - a counter of the exceptions thrown by
+     *     handler methods, by type</li>
+     *     <li><code>access-control-rejections</code> - a counter of the envelopes rejected by
+     *     access control</li>
+     * </ul>
+     */
+    public static final class ActionMetrics {
+
+        private final String prefix;
+        private final MetricRegistry metricRegistry;
+        private final Timer time;
+        private final Meter envelopes;
+        private final Counter accessControlRejections;
+        private final Map<Class<?>, Counter> errors = new ConcurrentHashMap<>();
+
+        private ActionMetrics(final String prefix, final MetricRegistry metricRegistry) {
+            this.prefix = prefix;
+            this.metricRegistry = metricRegistry;
+            this.time = metricRegistry.timer(name(prefix, "time"));
+            this.envelopes = metricRegistry.meter(name(prefix, "envelopes"));
+            this.accessControlRejections = metricRegistry.counter(name(prefix, "access-control-rejections"));
+        }
+
+        /**
+         * Start timing a call to a handler method with the given number of envelopes.
+         *
+         * @param envelopeCount the number of envelopes passed to the handler method
+         * @return the context to stop once the handler method returns
+         */
+        public Timer.Context time(final int envelopeCount) {
+            envelopes.mark(envelopeCount);
+            return time.time();
+        }
+
+        public void error(final Exception exception) {
+            errors.computeIfAbsent(exception.getClass(), type -> metricRegistry.counter(name(prefix, "errors", type.getName()))).inc();
+        }
+
+        public void accessControlRejected() {
+            accessControlRejections.inc();
+        }
+    }
+}
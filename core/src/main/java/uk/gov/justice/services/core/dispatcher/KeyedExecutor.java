@@ -0,0 +1,198 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs tasks on a fixed number of lanes, each a single thread with a bounded queue. Every task is
+ * submitted with a key and the key selects the lane, so tasks with the same key run one at a time
+ * in the order they were submitted, while tasks with different keys run in parallel.
+ *
+ * When the queue of a lane is full, {@link #execute} waits for space, so a slow lane applies
+ * back-pressure to the threads submitting to it. The number of queued tasks is reported as the
+ * <code>&lt;name&gt;.queue-depth</code> gauge and the time tasks wait before they start as the
+ * <code>&lt;name&gt;.wait-time</code> timer.
+ *
+ * The future returned for each task completes once the task has run, or completes exceptionally
+ * with what the task threw, even an {@link Error}, and the lane moves on to the next task. Tasks
+ * still queued when the executor has stopped are not run, and their futures complete exceptionally
+ * with an {@link IllegalStateException}.
+ */
+public class KeyedExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyedExecutor.class);
+
+    static final long DRAIN_TIMEOUT_SECONDS = 30L;
+    private static final long STOP_CHECK_MILLIS = 100L;
+
+    private final String name;
+    private final Lane[] lanes;
+    private final Timer waitTime;
+    private final CountDownLatch lanesStopped;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param name           the name of the executor, used for its threads and metrics
+     * @param laneCount      the number of lanes, and so of threads
+     * @param queueCapacity  the number of tasks each lane can hold before submitters wait
+     * @param threadFactory  the factory of the lane threads
+     * @param metricRegistry the registry to report the metrics of the executor to
+     */
+    public KeyedExecutor(final String name,
+                         final int laneCount,
+                         final int queueCapacity,
+                         final ThreadFactory threadFactory,
+                         final MetricRegistry metricRegistry) {
+        if (laneCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException(format("Executor %s needs at least one lane and a queue capacity of at least one", name));
+        }
+
+        this.name = name;
+        this.lanes = new Lane[laneCount];
+        this.waitTime = metricRegistry.timer(name(name, "wait-time"));
+        this.lanesStopped = new CountDownLatch(laneCount);
+        metricRegistry.remove(name(name, "queue-depth"));
+        metricRegistry.register(name(name, "queue-depth"), (Gauge<Integer>) this::queueDepth);
+
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(new ArrayBlockingQueue<>(queueCapacity));
+            final Thread thread = threadFactory.newThread(lanes[i]);
+            thread.setName(format("%s-%d", name, i));
+            thread.start();
+        }
+    }
+
+    /**
+     * Run a task after every task submitted before it with the same key.
+     *
+     * @param key  the key of the task
+     * @param task the task to run
+     * @return the future completed once the task has run
+     * @throws IllegalStateException if the executor has been stopped, including while the submitting
+     *                               thread waits for space in the lane, or the submitting thread is
+     *                               interrupted while waiting
+     */
+    public CompletableFuture<Void> execute(final Object key, final Runnable task) {
+        checkRunning();
+
+        final Lane lane = lanes[(key.hashCode() & Integer.MAX_VALUE) % lanes.length];
+        final QueuedTask queuedTask = new QueuedTask(task, System.nanoTime());
+        try {
+            while (!lane.queue.offer(queuedTask, STOP_CHECK_MILLIS, MILLISECONDS)) {
+                checkRunning();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(format("Interrupted while waiting to submit to executor %s", name), e);
+        }
+        return queuedTask.completion;
+    }
+
+    /**
+     * @return the number of tasks waiting to run on all lanes
+     */
+    public int queueDepth() {
+        int depth = 0;
+        for (final Lane lane : lanes) {
+            depth += lane.queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * Stop accepting tasks and wait for the lanes to run the tasks already queued, for up to {@link
+     * #DRAIN_TIMEOUT_SECONDS} seconds. Threads waiting for space in a lane fail with an {@link
+     * IllegalStateException}. Any tasks still queued when the wait ends are not run; their number is
+     * logged and their futures complete exceptionally.
+     */
+    public void stop() {
+        running = false;
+        try {
+            if (!lanesStopped.await(DRAIN_TIMEOUT_SECONDS, SECONDS)) {
+                LOGGER.warn(format("Executor %s did not finish its queued tasks within %d seconds", name, DRAIN_TIMEOUT_SECONDS));
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int notRun = 0;
+        for (final Lane lane : lanes) {
+            for (QueuedTask queuedTask = lane.queue.poll(); queuedTask != null; queuedTask = lane.queue.poll()) {
+                queuedTask.completion.completeExceptionally(new IllegalStateException(format("Executor %s stopped before the task was run", name)));
+                notRun++;
+            }
+        }
+        if (notRun > 0) {
+            LOGGER.error(format("Executor %s stopped with %d queued tasks that were not run", name, notRun));
+        }
+    }
+
+    private void checkRunning() {
+        if (!running) {
+            throw new IllegalStateException(format("Executor %s has been stopped", name));
+        }
+    }
+
+    private class Lane implements Runnable {
+
+        private final BlockingQueue<QueuedTask> queue;
+
+        private Lane(final BlockingQueue<QueuedTask> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running || !queue.isEmpty()) {
+                    final QueuedTask queuedTask = queue.poll(STOP_CHECK_MILLIS, MILLISECONDS);
+                    if (queuedTask != null) {
+                        run(queuedTask);
+                    }
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lanesStopped.countDown();
+            }
+        }
+
+        private void run(final QueuedTask queuedTask) {
+            waitTime.update(System.nanoTime() - queuedTask.queuedAt, NANOSECONDS);
+            try {
+                queuedTask.task.run();
+                queuedTask.completion.complete(null);
+            } catch (final Throwable e) {
+                queuedTask.completion.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class QueuedTask {
+
+        private final Runnable task;
+        private final long queuedAt;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        private QueuedTask(final Runnable task, final long queuedAt) {
+            this.task = task;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static metrics.MetricsServletContextListener.METRIC_REGISTRY;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Produces;
+
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Produces the {@link MetricRegistry} that the dispatchers, their concurrency limiters, query result
+ * caches and executors report to, which is the registry served by the metrics servlet.
+ */
+@ApplicationScoped
+public class MetricRegistryProducer {
+
+    @Produces
+    public MetricRegistry metricRegistry() {
+        return METRIC_REGISTRY;
+    }
+}
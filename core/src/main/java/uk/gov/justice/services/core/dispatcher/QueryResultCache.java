@@ -0,0 +1,319 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataCausedBy;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.Metadata;
+import uk.gov.justice.services.messaging.MetadataIdGenerator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import javax.json.JsonValue;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+
+/**
+ * Caches the results of the synchronous queries dispatched by a {@link Dispatcher}, by action name,
+ * payload, user id and session id; JSON objects are equal regardless of the order of their fields.
+ * The results of the shared actions given, whose results do not depend on the caller, are cached by
+ * action name and payload only and shared between every user and session. Each caller gets the
+ * payload of a cached result in an envelope of its own, with a new id and caused by the caller's
+ * envelope. The {@link Dispatcher} checks access control for each caller before the cache is
+ * consulted.
+ *
+ * Only the actions given are cached, each with the names of the events that change its results.
+ * When one of those events is handled, the cached results of the action are invalidated, and
+ * results of queries that were running at the time are not cached. Results also expire after a
+ * time to live, and when the cache is full, the least recently used result is evicted.
+ *
+ * The cache reports meters of its <code>hits</code> and <code>misses</code>, its
+ * <code>hit-rate</code> over the last minute and its <code>size</code>.
+ *
+ * A dispatcher that does not cache queries can still notify other caches of the events it handles,
+ * see {@link #invalidating(Consumer)}.
+ */
+public class QueryResultCache {
+
+    private static final QueryResultCache NONE = new QueryResultCache(eventName -> {
+    });
+
+    private final Map<String, CachedAction> cachedActions = new HashMap<>();
+    private final Map<String, List<CachedAction>> cachedActionsByEvent = new HashMap<>();
+    private final Map<ResultKey, Result> results = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicInteger size = new AtomicInteger();
+    private final Consumer<String> eventHandledListener;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Meter hits;
+    private final Meter misses;
+    private final MetadataIdGenerator metadataIdGenerator;
+
+    LongSupplier nanoTime = System::nanoTime;
+
+    /**
+     * @param name                the name the metrics of the cache are reported under
+     * @param invalidatingEvents  the names of the events that invalidate the results of each
+     *                            cached action
+     * @param sharedActions       the names of the cached actions whose results are shared
+     *                            between users and sessions
+     * @param ttlMillis           the time to live of a result
+     * @param maxSize             the maximum number of results held
+     * @param metricRegistry      the registry to report the metrics to
+     * @param metadataIdGenerator the generator of the ids of the envelopes of cached results
+     */
+    QueryResultCache(final String name,
+                     final Map<String, Set<String>> invalidatingEvents,
+                     final ActionNames sharedActions,
+                     final long ttlMillis,
+                     final int maxSize,
+                     final MetricRegistry metricRegistry,
+                     final MetadataIdGenerator metadataIdGenerator) {
+        invalidatingEvents.forEach((actionName, eventNames) -> {
+            final CachedAction cachedAction = new CachedAction(sharedActions.contains(actionName));
+            cachedActions.put(actionName, cachedAction);
+            eventNames.forEach(eventName -> cachedActionsByEvent.computeIfAbsent(eventName, e -> new ArrayList<>()).add(cachedAction));
+        });
+        this.eventHandledListener = eventName -> {
+        };
+        this.ttlNanos = MILLISECONDS.toNanos(ttlMillis);
+        this.maxSize = maxSize;
+        this.hits = metricRegistry.meter(name(name, "hits"));
+        this.misses = metricRegistry.meter(name(name, "misses"));
+        this.metadataIdGenerator = metadataIdGenerator;
+        metricRegistry.remove(name(name, "hit-rate"));
+        metricRegistry.register(name(name, "hit-rate"), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(hits.getOneMinuteRate(), hits.getOneMinuteRate() + misses.getOneMinuteRate());
+            }
+        });
+        metricRegistry.remove(name(name, "size"));
+        metricRegistry.register(name(name, "size"), (Gauge<Integer>) this::size);
+    }
+
+    private QueryResultCache(final Consumer<String> eventHandledListener) {
+        this.eventHandledListener = eventHandledListener;
+        this.ttlNanos = 0L;
+        this.maxSize = 0;
+        this.hits = new Meter();
+        this.misses = new Meter();
+        this.metadataIdGenerator = null;
+    }
+
+    /**
+     * @return a query result cache that caches nothing
+     */
+    public static QueryResultCache none() {
+        return NONE;
+    }
+
+    /**
+     * @param eventHandledListener the listener to notify of the name of each event handled
+     * @return a query result cache that caches nothing, but notifies the listener of the events
+     * handled by its dispatcher
+     */
+    public static QueryResultCache invalidating(final Consumer<String> eventHandledListener) {
+        return new QueryResultCache(eventHandledListener);
+    }
+
+    /**
+     * Dispatch a query, returning a cached result of the same query if there is one.
+     *
+     * @param envelope    the envelope to dispatch
+     * @param handlerCall the call to the handler
+     * @return the envelope returned by the handler, or an envelope with the cached result
+     */
+    public JsonEnvelope dispatch(final JsonEnvelope envelope, final Function<JsonEnvelope, JsonEnvelope> handlerCall) {
+        final Metadata metadata = envelope.metadata();
+        final CachedAction cachedAction = cachedActions.get(metadata.name());
+        if (cachedAction == null) {
+            return handlerCall.apply(envelope);
+        }
+
+        final JsonValue payload = envelope.payload();
+        if (payload == null) {
+            return handlerCall.apply(envelope);
+        }
+
+        final ResultKey key = cachedAction.shared
+                ? new ResultKey(cachedAction, payload, null, null)
+                : new ResultKey(cachedAction, payload, metadata.userId().orElse(null), metadata.sessionId().orElse(null));
+        final long now = nanoTime.getAsLong();
+        final Result cached = cachedResult(key, now);
+        if (cached != null) {
+            hits.mark();
+            return envelopeFrom(metadataCausedBy(metadata, metadataIdGenerator.nextId(), cached.name), cached.payload);
+        }
+
+        misses.mark();
+        final long generation = cachedAction.generation.get();
+        final JsonEnvelope result = handlerCall.apply(envelope);
+        if (result != null) {
+            cache(key, generation, new Result(result.metadata().name(), result.payload(), now + ttlNanos));
+        }
+        return result;
+    }
+
+    /**
+     * Record that the dispatcher has handled an event.
+     *
+     * @param eventName the name of the event
+     */
+    public void eventHandled(final String eventName) {
+        eventHandledListener.accept(eventName);
+    }
+
+    /**
+     * Invalidate the cached results of the actions changed by an event.
+     *
+     * @param eventName the name of the event
+     */
+    public void invalidateFor(final String eventName) {
+        final List<CachedAction> affectedActions = cachedActionsByEvent.get(eventName);
+        if (affectedActions != null) {
+            affectedActions.forEach(this::invalidate);
+        }
+    }
+
+    /**
+     * Invalidate every cached result.
+     */
+    public void invalidateAll() {
+        cachedActions.values().forEach(this::invalidate);
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    private synchronized Result cachedResult(final ResultKey key, final long now) {
+        final Result cached = results.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (now - cached.expiresAt < 0) {
+            return cached;
+        }
+        remove(key);
+        return null;
+    }
+
+    /**
+     * Cache a result, unless the results of its action have been invalidated since the query
+     * started, evicting the least recently used results beyond the maximum size.
+     */
+    private synchronized void cache(final ResultKey key, final long generation, final Result result) {
+        if (key.cachedAction.generation.get() != generation) {
+            return;
+        }
+        if (results.put(key, result) == null) {
+            key.cachedAction.keys.add(key);
+        }
+
+        final Iterator<ResultKey> leastRecentlyUsed = results.keySet().iterator();
+        while (results.size() > maxSize && leastRecentlyUsed.hasNext()) {
+            final ResultKey evicted = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            evicted.cachedAction.keys.remove(evicted);
+        }
+        size.set(results.size());
+    }
+
+    private synchronized void invalidate(final CachedAction cachedAction) {
+        cachedAction.generation.incrementAndGet();
+        cachedAction.keys.forEach(results::remove);
+        cachedAction.keys.clear();
+        size.set(results.size());
+    }
+
+    private void remove(final ResultKey key) {
+        results.remove(key);
+        key.cachedAction.keys.remove(key);
+        size.set(results.size());
+    }
+
+    /**
+     * The keys of the cached results of one action, whether they are shared between users and
+     * sessions, and the number of times they have been invalidated, so that a result computed
+     * across an invalidation is not cached.
+     */
+    private static final class CachedAction {
+
+        private final Set<ResultKey> keys = new HashSet<>();
+        private final AtomicLong generation = new AtomicLong();
+        private final boolean shared;
+
+        private CachedAction(final boolean shared) {
+            this.shared = shared;
+        }
+    }
+
+    private static final class ResultKey {
+
+        private final CachedAction cachedAction;
+        private final JsonValue payload;
+        private final String userId;
+        private final String sessionId;
+        private final int hashCode;
+
+        private ResultKey(final CachedAction cachedAction, final JsonValue payload, final String userId, final String sessionId) {
+            this.cachedAction = cachedAction;
+            this.payload = payload;
+            this.userId = userId;
+            this.sessionId = sessionId;
+            this.hashCode = 31 * System.identityHashCode(cachedAction) + Objects.hash(payload, userId, sessionId);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ResultKey)) {
+                return false;
+            }
+            final ResultKey key = (ResultKey) o;
+            return cachedAction == key.cachedAction
+                    && payload.equals(key.payload)
+                    && Objects.equals(userId, key.userId)
+                    && Objects.equals(sessionId, key.sessionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Result {
+
+        private final String name;
+        private final JsonValue payload;
+        private final long expiresAt;
+
+        private Result(final String name, final JsonValue payload, final long expiresAt) {
+            this.name = name;
+            this.payload = payload;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
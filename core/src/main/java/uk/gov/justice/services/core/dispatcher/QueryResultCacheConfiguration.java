@@ -0,0 +1,171 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
+import static java.lang.String.format;
+import static uk.gov.justice.services.core.annotation.Component.EVENT_LISTENER;
+import static uk.gov.justice.services.core.annotation.Component.QUERY_CONTROLLER;
+import static uk.gov.justice.services.core.annotation.Component.QUERY_VIEW;
+
+import uk.gov.justice.services.core.annotation.ServiceComponentLocation;
+import uk.gov.justice.services.core.configuration.Value;
+import uk.gov.justice.services.messaging.MetadataIdGenerator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Creates the {@link QueryResultCache} of each dispatcher, caching the results of the query
+ * controller and query view actions listed in the <code>queryCacheActions</code> property, and
+ * invalidating them when the event listener handles an event that changes them.
+ *
+ * The property is a comma separated list of entries of the form
+ * <code>action=event|event</code>, giving the names of the events that change the results of each
+ * action; an entry with no events is only expired. By default no action is cached. Results expire
+ * <code>queryCacheTtlMillis</code> after they are cached, and each dispatcher holds at most
+ * <code>queryCacheMaxSize</code> results. The metrics of the caches are reported under
+ * <code>query-cache.&lt;component&gt;.&lt;location&gt;</code>.
+ *
+ * Results are only returned to callers of the same user and session, unless their action is also
+ * listed in the <code>queryCacheSharedActions</code> property, a comma separated list of action names
+ * where an entry ending in <code>*</code> matches every action starting with the rest of the entry,
+ * because its results do not depend on the caller.
+ *
+ * An event handled within a transaction invalidates the results both when it is handled and when
+ * the transaction completes, so that queries running before the transaction commits do not cache
+ * results that do not include the event. Only events handled by the event listener of this
+ * deployment invalidate its caches; the time to live bounds how stale results can get when the
+ * event listener runs elsewhere.
+ */
+@ApplicationScoped
+public class QueryResultCacheConfiguration {
+
+    private static final String NONE = "none";
+
+    @Inject
+    @Value(key = "queryCacheActions", defaultValue = NONE)
+    String actions;
+
+    @Inject
+    @Value(key = "queryCacheSharedActions", defaultValue = NONE)
+    String sharedActions;
+
+    @Inject
+    @Value(key = "queryCacheTtlMillis", defaultValue = "60000")
+    String ttlMillis;
+
+    @Inject
+    @Value(key = "queryCacheMaxSize", defaultValue = "10000")
+    String maxSize;
+
+    @Resource
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @Inject
+    MetadataIdGenerator metadataIdGenerator;
+
+    private final Map<String, Set<String>> invalidatingEvents = new HashMap<>();
+    private final List<QueryResultCache> caches = new CopyOnWriteArrayList<>();
+    private ActionNames queryCacheSharedActions;
+
+    @PostConstruct
+    void configure() {
+        invalidatingEvents.clear();
+        queryCacheSharedActions = new ActionNames(ActionNames.listedIn(sharedActions));
+        if (NONE.equals(actions.trim())) {
+            return;
+        }
+        for (final String entry : actions.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            final String[] actionAndEvents = entry.split("=", 2);
+            final String action = actionAndEvents[0].trim();
+            if (action.isEmpty()) {
+                throw new IllegalArgumentException(format("Missing action name in query cache entry %s", entry));
+            }
+            final Set<String> events = new HashSet<>();
+            if (actionAndEvents.length > 1) {
+                Arrays.stream(actionAndEvents[1].split("\\|"))
+                        .map(String::trim)
+                        .filter(event -> !event.isEmpty())
+                        .forEach(events::add);
+            }
+            invalidatingEvents.put(action, events);
+        }
+    }
+
+    /**
+     * @param component the name of the component of the dispatcher
+     * @param location  the location of the dispatcher
+     * @return the query result cache of the dispatcher
+     */
+    public QueryResultCache cacheFor(final String component, final ServiceComponentLocation location) {
+        if (invalidatingEvents.isEmpty()) {
+            return QueryResultCache.none();
+        }
+        if (EVENT_LISTENER.name().equals(component)) {
+            return QueryResultCache.invalidating(this::eventHandled);
+        }
+        if (!QUERY_CONTROLLER.name().equals(component) && !QUERY_VIEW.name().equals(component)) {
+            return QueryResultCache.none();
+        }
+
+        final QueryResultCache cache = new QueryResultCache(
+                name("query-cache", component, location.name().toLowerCase()),
+                invalidatingEvents,
+                queryCacheSharedActions,
+                parseLong(ttlMillis.trim()),
+                parseInt(maxSize.trim()),
+                metricRegistry,
+                metadataIdGenerator);
+        caches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Invalidate the cached results changed by an event, now and, if the event is handled within a
+     * transaction, once the transaction completes.
+     *
+     * @param eventName the name of the event
+     */
+    void eventHandled(final String eventName) {
+        invalidateFor(eventName);
+        if (transactionSynchronizationRegistry != null
+                && transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(final int status) {
+                    invalidateFor(eventName);
+                }
+            });
+        }
+    }
+
+    private void invalidateFor(final String eventName) {
+        caches.forEach(cache -> cache.invalidateFor(eventName));
+    }
+}
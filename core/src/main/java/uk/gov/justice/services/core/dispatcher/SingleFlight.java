@@ -0,0 +1,184 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataCausedBy;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.Metadata;
+import uk.gov.justice.services.messaging.MetadataIdGenerator;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.json.JsonValue;
+
+/**
+ * Coalesces concurrent synchronous dispatches of the same request, so that they share one handler
+ * execution.
+ *
+ * Two envelopes are the same request if they have the same action name, equal payloads and the
+ * same user id and session id; JSON objects are equal regardless of the order of their fields. The
+ * first envelope runs the handler, and envelopes arriving while it runs wait for its result. Each
+ * waiting caller gets the payload of the result in an envelope of its own, with a new id and caused
+ * by the caller's envelope. If the handler throws, every waiting caller gets the same exception.
+ *
+ * Only the actions given are coalesced, by name or by a name prefix ending in <code>*</code>. The
+ * results of the shared actions given, whose results do not depend on the caller, are shared
+ * between every user and session; the {@link Dispatcher} checks access control for each caller
+ * before coalescing.
+ */
+public class SingleFlight {
+
+    private static final SingleFlight NONE = new SingleFlight(Collections.emptyList(), Collections.emptyList(), null);
+
+    private final ActionNames coalescedActions;
+    private final ActionNames sharedActions;
+    private final Map<Request, CompletableFuture<JsonEnvelope>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger followers = new AtomicInteger();
+    private final MetadataIdGenerator metadataIdGenerator;
+
+    private SingleFlight(final Collection<String> actions,
+                         final Collection<String> sharedActions,
+                         final MetadataIdGenerator metadataIdGenerator) {
+        this.coalescedActions = new ActionNames(actions);
+        this.sharedActions = new ActionNames(sharedActions);
+        this.metadataIdGenerator = metadataIdGenerator;
+    }
+
+    /**
+     * @return a single flight that coalesces nothing
+     */
+    public static SingleFlight none() {
+        return NONE;
+    }
+
+    /**
+     * @param actions             the action names, or name prefixes ending in <code>*</code>, to
+     *                            coalesce
+     * @param sharedActions       the action names, or name prefixes ending in <code>*</code>, whose
+     *                            results are shared between users and sessions
+     * @param metadataIdGenerator the generator of the ids of the envelopes of waiting callers
+     * @return a single flight for the given actions
+     */
+    public static SingleFlight forActions(final Collection<String> actions,
+                                          final Collection<String> sharedActions,
+                                          final MetadataIdGenerator metadataIdGenerator) {
+        return actions.isEmpty() ? NONE : new SingleFlight(actions, sharedActions, metadataIdGenerator);
+    }
+
+    /**
+     * Dispatch an envelope, sharing the handler execution of an identical request already in
+     * flight.
+     *
+     * @param envelope    the envelope to dispatch
+     * @param handlerCall the call to the handler
+     * @return the envelope returned by the handler
+     */
+    public JsonEnvelope dispatch(final JsonEnvelope envelope, final Function<JsonEnvelope, JsonEnvelope> handlerCall) {
+        final Metadata metadata = envelope.metadata();
+        final String name = metadata.name();
+        if (!coalescedActions.contains(name)) {
+            return handlerCall.apply(envelope);
+        }
+
+        final Request request = sharedActions.contains(name)
+                ? new Request(name, envelope.payload(), null, null)
+                : new Request(name, envelope.payload(), metadata.userId().orElse(null), metadata.sessionId().orElse(null));
+        final CompletableFuture<JsonEnvelope> flight = new CompletableFuture<>();
+        final CompletableFuture<JsonEnvelope> existingFlight = inFlight.putIfAbsent(request, flight);
+        if (existingFlight == null) {
+            return lead(request, flight, envelope, handlerCall);
+        }
+        return follow(existingFlight, envelope);
+    }
+
+    /**
+     * @return the number of callers waiting for the result of an identical request in flight
+     */
+    int followers() {
+        return followers.get();
+    }
+
+    private JsonEnvelope lead(final Request request,
+                              final CompletableFuture<JsonEnvelope> flight,
+                              final JsonEnvelope envelope,
+                              final Function<JsonEnvelope, JsonEnvelope> handlerCall) {
+        try {
+            final JsonEnvelope result = handlerCall.apply(envelope);
+            flight.complete(result);
+            return result;
+        } catch (final Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(request, flight);
+        }
+    }
+
+    private JsonEnvelope follow(final CompletableFuture<JsonEnvelope> flight, final JsonEnvelope envelope) {
+        final JsonEnvelope result;
+        followers.incrementAndGet();
+        try {
+            result = flight.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        } finally {
+            followers.decrementAndGet();
+        }
+
+        if (result == null) {
+            return null;
+        }
+        return envelopeFrom(metadataCausedBy(envelope.metadata(), metadataIdGenerator.nextId(), result.metadata().name()), result.payload());
+    }
+
+    private static final class Request {
+
+        private final String name;
+        private final JsonValue payload;
+        private final String userId;
+        private final String sessionId;
+        private final int hashCode;
+
+        private Request(final String name, final JsonValue payload, final String userId, final String sessionId) {
+            this.name = name;
+            this.payload = payload;
+            this.userId = userId;
+            this.sessionId = sessionId;
+            this.hashCode = Objects.hash(name, payload, userId, sessionId);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Request)) {
+                return false;
+            }
+            final Request request = (Request) o;
+            return name.equals(request.name)
+                    && Objects.equals(payload, request.payload)
+                    && Objects.equals(userId, request.userId)
+                    && Objects.equals(sessionId, request.sessionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
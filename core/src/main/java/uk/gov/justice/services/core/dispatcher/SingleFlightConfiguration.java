@@ -0,0 +1,54 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static uk.gov.justice.services.core.dispatcher.ActionNames.NONE;
+import static uk.gov.justice.services.core.dispatcher.ActionNames.listedIn;
+
+import uk.gov.justice.services.core.configuration.Value;
+import uk.gov.justice.services.messaging.MetadataIdGenerator;
+
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Creates the {@link SingleFlight} of each dispatcher for the actions listed in the
+ * <code>singleFlightActions</code> property, a comma separated list of action names where an entry
+ * ending in <code>*</code> matches every action starting with the rest of the entry. By default no
+ * action is coalesced.
+ *
+ * Requests are only coalesced with requests of the same user and session, unless their action is
+ * also listed, in the same form, in the <code>singleFlightSharedActions</code> property because its
+ * results do not depend on the caller.
+ */
+@ApplicationScoped
+public class SingleFlightConfiguration {
+
+    @Inject
+    @Value(key = "singleFlightActions", defaultValue = NONE)
+    String actions;
+
+    @Inject
+    @Value(key = "singleFlightSharedActions", defaultValue = NONE)
+    String sharedActions;
+
+    @Inject
+    MetadataIdGenerator metadataIdGenerator;
+
+    private List<String> singleFlightActions;
+    private List<String> singleFlightSharedActions;
+
+    @PostConstruct
+    void configure() {
+        singleFlightActions = listedIn(actions);
+        singleFlightSharedActions = listedIn(sharedActions);
+    }
+
+    /**
+     * @return a new single flight for a dispatcher
+     */
+    public SingleFlight newSingleFlight() {
+        return SingleFlight.forActions(singleFlightActions, singleFlightSharedActions, metadataIdGenerator);
+    }
+}
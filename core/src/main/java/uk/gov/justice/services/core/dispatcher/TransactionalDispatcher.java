@@ -0,0 +1,70 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static java.lang.String.format;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.transaction.HeuristicMixedException;
+import javax.transaction.HeuristicRollbackException;
+import javax.transaction.NotSupportedException;
+import javax.transaction.RollbackException;
+import javax.transaction.SystemException;
+import javax.transaction.UserTransaction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatches envelopes in a JTA transaction of their own, as the container-managed transaction of
+ * a JMS listener would, for envelopes dispatched on threads that have no transaction, such as the
+ * threads of the {@link AsynchronousDispatchExecutor} and of the in-process transports.
+ *
+ * The transaction commits once the handler has returned. If the handler throws, the transaction is
+ * rolled back and the exception is rethrown.
+ */
+@ApplicationScoped
+public class TransactionalDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionalDispatcher.class);
+
+    @Resource
+    UserTransaction userTransaction;
+
+    /**
+     * Dispatch an envelope in a new transaction.
+     *
+     * @param dispatcher the dispatcher to dispatch the envelope to
+     * @param envelope   the envelope to dispatch
+     * @throws IllegalStateException if the transaction cannot be started or committed
+     */
+    public void dispatch(final AsynchronousDispatcher dispatcher, final JsonEnvelope envelope) {
+        try {
+            userTransaction.begin();
+        } catch (NotSupportedException | SystemException e) {
+            throw new IllegalStateException(format("Failed to begin the transaction of envelope %s", envelope.metadata().id()), e);
+        }
+
+        try {
+            dispatcher.dispatch(envelope);
+        } catch (RuntimeException | Error e) {
+            rollback(envelope);
+            throw e;
+        }
+
+        try {
+            userTransaction.commit();
+        } catch (RollbackException | HeuristicMixedException | HeuristicRollbackException | SystemException e) {
+            throw new IllegalStateException(format("Failed to commit the transaction of envelope %s", envelope.metadata().id()), e);
+        }
+    }
+
+    private void rollback(final JsonEnvelope envelope) {
+        try {
+            userTransaction.rollback();
+        } catch (SystemException | RuntimeException e) {
+            LOGGER.error(format("Failed to roll back the transaction of envelope %s", envelope.metadata().id()), e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package uk.gov.justice.services.core.enveloper;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+
+import uk.gov.justice.services.core.configuration.Value;
+import uk.gov.justice.services.messaging.CausationPolicy;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+
+/**
+ * Produces the {@link CausationPolicy} applied by the {@link Enveloper}.
+ *
+ * The <code>causationMaxAncestors</code> property bounds the causation to its root and the given
+ * number of most recent ancestors; by default every ancestor is kept. The
+ * <code>causationEncoding</code> property selects <code>uuid</code> (the default) or
+ * <code>compact</code> ids in the causation.
+ */
+@ApplicationScoped
+public class CausationPolicyProducer {
+
+    private static final String NONE = "none";
+    private static final String UUID_ENCODING = "uuid";
+    private static final String COMPACT_ENCODING = "compact";
+
+    @Inject
+    @Value(key = "causationMaxAncestors", defaultValue = NONE)
+    String maxAncestors;
+
+    @Inject
+    @Value(key = "causationEncoding", defaultValue = UUID_ENCODING)
+    String encoding;
+
+    @Produces
+    public CausationPolicy causationPolicy() {
+        final CausationPolicy causationPolicy = NONE.equals(maxAncestors.trim())
+                ? CausationPolicy.unbounded()
+                : CausationPolicy.lastAncestors(parseInt(maxAncestors.trim()));
+
+        switch (encoding.trim()) {
+            case UUID_ENCODING:
+                return causationPolicy;
+            case COMPACT_ENCODING:
+                return causationPolicy.withCompactEncoding();
+            default:
+                throw new IllegalArgumentException(format("Unknown causation encoding %s, expected %s or %s", encoding, UUID_ENCODING, COMPACT_ENCODING));
+        }
+    }
+}
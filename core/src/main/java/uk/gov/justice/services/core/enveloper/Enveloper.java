@@ -2,32 +2,23 @@ package uk.gov.justice.services.core.enveloper;
 
 import static java.lang.String.format;
 import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
-import static uk.gov.justice.services.messaging.JsonObjectMetadata.CAUSATION;
-import static uk.gov.justice.services.messaging.JsonObjectMetadata.ID;
-import static uk.gov.justice.services.messaging.JsonObjectMetadata.NAME;
-import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataCausedBy;
 
 import uk.gov.justice.domain.annotation.Event;
 import uk.gov.justice.services.common.converter.ObjectToJsonValueConverter;
 import uk.gov.justice.services.core.enveloper.exception.InvalidEventException;
 import uk.gov.justice.services.core.extension.EventFoundEvent;
+import uk.gov.justice.services.messaging.CausationPolicy;
 import uk.gov.justice.services.messaging.JsonEnvelope;
-import uk.gov.justice.services.messaging.JsonObjects;
 import uk.gov.justice.services.messaging.Metadata;
+import uk.gov.justice.services.messaging.MetadataIdGenerator;
 
-import java.util.Arrays;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
-import javax.json.Json;
-import javax.json.JsonArray;
-import javax.json.JsonArrayBuilder;
-import javax.json.JsonObject;
-import javax.json.JsonObjectBuilder;
 import javax.json.JsonValue;
 
 /**
@@ -38,15 +29,31 @@ import javax.json.JsonValue;
 public class Enveloper {
 
     private final ObjectToJsonValueConverter objectToJsonValueConverter;
+    private final CausationPolicy causationPolicy;
+    private final MetadataIdGenerator metadataIdGenerator;
 
     //for CDI proxying only
     protected Enveloper() {
         this.objectToJsonValueConverter = null;
+        this.causationPolicy = null;
+        this.metadataIdGenerator = null;
     }
 
-    @Inject
     public Enveloper(final ObjectToJsonValueConverter objectToJsonValueConverter) {
+        this(objectToJsonValueConverter, CausationPolicy.unbounded());
+    }
+
+    public Enveloper(final ObjectToJsonValueConverter objectToJsonValueConverter, final CausationPolicy causationPolicy) {
+        this(objectToJsonValueConverter, causationPolicy, MetadataIdGenerator.random());
+    }
+
+    @Inject
+    public Enveloper(final ObjectToJsonValueConverter objectToJsonValueConverter,
+                     final CausationPolicy causationPolicy,
+                     final MetadataIdGenerator metadataIdGenerator) {
         this.objectToJsonValueConverter = objectToJsonValueConverter;
+        this.causationPolicy = causationPolicy;
+        this.metadataIdGenerator = metadataIdGenerator;
     }
 
     private ConcurrentHashMap<Class<?>, String> eventMap = new ConcurrentHashMap<>();
@@ -96,27 +103,7 @@ public class Enveloper {
     }
 
     private Metadata buildMetaData(final Metadata metadata, final String name) {
-
-        JsonObjectBuilder metadataBuilder = JsonObjects.createObjectBuilderWithFilter(metadata.asJsonObject(),
-                x -> !Arrays.asList(ID, NAME, CAUSATION).contains(x));
-
-        final JsonObject jsonObject = metadataBuilder
-                .add(ID, UUID.randomUUID().toString())
-                .add(NAME, name)
-                .add(CAUSATION, createCausation(metadata))
-                .build();
-
-        return metadataFrom(jsonObject);
-    }
-
-    private JsonArray createCausation(final Metadata metadata) {
-        JsonArrayBuilder causation = Json.createArrayBuilder();
-        if (metadata.asJsonObject().containsKey(CAUSATION)) {
-            metadata.asJsonObject().getJsonArray(CAUSATION).stream().forEach(causation::add);
-        }
-        causation.add(metadata.id().toString());
-
-        return causation.build();
+        return metadataCausedBy(metadata, metadataIdGenerator.nextId(), name, causationPolicy);
     }
 
 }
@@ -0,0 +1,45 @@
+package uk.gov.justice.services.core.enveloper;
+
+import static java.lang.String.format;
+
+import uk.gov.justice.services.core.configuration.Value;
+import uk.gov.justice.services.messaging.MetadataIdGenerator;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+
+/**
+ * Produces the {@link MetadataIdGenerator} of the ids of new metadata, used by the {@link
+ * Enveloper} and the REST adapters.
+ *
+ * The <code>metadataIdGenerator</code> property selects <code>random</code> (the default) for
+ * random ids from a random generator per thread, <code>time-ordered</code> for ids ordered by the
+ * time they are generated, or <code>secure-random</code> for random ids from the shared secure
+ * random generator.
+ */
+@ApplicationScoped
+public class MetadataIdGeneratorProducer {
+
+    private static final String RANDOM = "random";
+    private static final String TIME_ORDERED = "time-ordered";
+    private static final String SECURE_RANDOM = "secure-random";
+
+    @Inject
+    @Value(key = "metadataIdGenerator", defaultValue = RANDOM)
+    String generator;
+
+    @Produces
+    public MetadataIdGenerator metadataIdGenerator() {
+        switch (generator.trim()) {
+            case RANDOM:
+                return MetadataIdGenerator.random();
+            case TIME_ORDERED:
+                return MetadataIdGenerator.timeOrdered();
+            case SECURE_RANDOM:
+                return MetadataIdGenerator.secureRandom();
+            default:
+                throw new IllegalArgumentException(format("Unknown metadata id generator %s, expected %s, %s or %s", generator, RANDOM, TIME_ORDERED, SECURE_RANDOM));
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package uk.gov.justice.services.core.handler;
 
 import static java.lang.String.format;
+import static java.lang.invoke.MethodType.methodType;
+import static java.util.Collections.singletonList;
 import static uk.gov.justice.services.messaging.logging.JsonEnvelopeLoggerHelper.toEnvelopeTraceString;
 import static uk.gov.justice.services.messaging.logging.LoggerUtils.trace;
 
+import uk.gov.justice.services.core.dispatcher.DispatcherMetrics;
+import uk.gov.justice.services.core.dispatcher.DispatcherMetrics.ActionMetrics;
 import uk.gov.justice.services.core.handler.exception.HandlerExecutionException;
 import uk.gov.justice.services.core.handler.registry.exception.InvalidHandlerException;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
-import java.util.Optional;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,7 +26,13 @@ import org.slf4j.LoggerFactory;
  * Encapsulates a handler class instance and a handler method.
  *
  * Asynchronous handler methods will return a null {@link Void} whereas synchronous handler methods
- * must return an {@link JsonEnvelope}.
+ * must return an {@link JsonEnvelope}. Asynchronous handler methods may also take a {@link List} of
+ * envelopes, in which case they are batch handler methods.
+ *
+ * The handler method is called through a {@link MethodHandle} bound to the handler instance when
+ * the handler is registered, rather than through {@link Method#invoke}, so the call can be inlined
+ * and neither checks access nor wraps exceptions on each dispatch. The {@link ActionMetrics} of the
+ * action it handles are kept with it, so dispatch does not look them up.
  */
 public class HandlerMethod {
 
@@ -28,19 +41,36 @@ public class HandlerMethod {
     public static final boolean SYNCHRONOUS = true;
     public static final boolean ASYNCHRONOUS = false;
 
+    private static final ActionMetrics UNREGISTERED_METRICS = DispatcherMetrics.unregistered().forAction("unregistered");
+
     private final Object handlerInstance;
     private final Method handlerMethod;
+    private final MethodHandle invoker;
+    private final ActionMetrics metrics;
 
     private final boolean isSynchronous;
+    private final boolean isBatch;
 
     /**
-     * Constructor with handler method validator.
+     * Constructor with handler method validator, recording metrics that are not reported.
      *
      * @param object             the instance of the handler object
      * @param method             the method on the handler object
      * @param expectedReturnType the expected return type for the method
      */
     public HandlerMethod(final Object object, final Method method, final Class<?> expectedReturnType) {
+        this(object, method, expectedReturnType, UNREGISTERED_METRICS);
+    }
+
+    /**
+     * Constructor with handler method validator.
+     *
+     * @param object             the instance of the handler object
+     * @param method             the method on the handler object
+     * @param expectedReturnType the expected return type for the method
+     * @param metrics            the metrics of the action the method handles
+     */
+    public HandlerMethod(final Object object, final Method method, final Class<?> expectedReturnType, final ActionMetrics metrics) {
 
         if (object == null) {
             throw new IllegalArgumentException("Handler instance cannot be null");
@@ -55,13 +85,18 @@ public class HandlerMethod {
             throw new InvalidHandlerException(
                     format("Handles method must have exactly one parameter; found %d", parameterTypes.length));
         }
-        if (parameterTypes[0] != JsonEnvelope.class) {
+        this.isBatch = isEnvelopeList(method.getGenericParameterTypes()[0]);
+        if (parameterTypes[0] != JsonEnvelope.class && !isBatch) {
             throw new IllegalArgumentException(
-                    format("Handler methods must take an JsonEnvelope as the argument, not a %s", parameterTypes[0]));
+                    format("Handler methods must take an JsonEnvelope or a List of JsonEnvelope as the argument, not a %s", parameterTypes[0]));
         }
 
         this.isSynchronous = !isVoid(expectedReturnType);
 
+        if (isSynchronous && isBatch) {
+            throw new InvalidHandlerException("Batch handler must be asynchronous");
+        }
+
         if (!isSynchronous && !isVoid(method.getReturnType())) {
             throw new InvalidHandlerException("Asynchronous handler must return void");
         }
@@ -74,6 +109,18 @@ public class HandlerMethod {
 
         this.handlerInstance = object;
         this.handlerMethod = method;
+        this.invoker = invokerOf(object, method);
+        this.metrics = metrics;
+    }
+
+    private static MethodHandle invokerOf(final Object handler, final Method method) {
+        try {
+            return MethodHandles.lookup().unreflect(method)
+                    .bindTo(handler)
+                    .asType(methodType(Object.class, Object.class));
+        } catch (IllegalAccessException ex) {
+            throw new InvalidHandlerException(format("Handler method %s is not accessible", method), ex);
+        }
     }
 
     private static boolean isVoid(final Class<?> clazz) {
@@ -84,30 +131,41 @@ public class HandlerMethod {
         return JsonEnvelope.class.equals(clazz);
     }
 
+    private static boolean isEnvelopeList(final Type type) {
+        if (type instanceof ParameterizedType) {
+            final ParameterizedType parameterizedType = (ParameterizedType) type;
+            return List.class.equals(parameterizedType.getRawType())
+                    && JsonEnvelope.class.equals(parameterizedType.getActualTypeArguments()[0]);
+        }
+        return false;
+    }
+
     /**
-     * Invokes the handler method passing the <code>envelope</code> to it.
+     * Invokes the handler method passing the <code>envelope</code> to it. A batch handler method is
+     * passed a list containing only the <code>envelope</code>.
      *
      * @param envelope the envelope that is passed to the handler method
      * @return the result of invoking the handler, which will either be an {@link JsonEnvelope} or a
      * null {@link Void}
      */
-    @SuppressWarnings("unchecked")
     public Object execute(final JsonEnvelope envelope) {
-        trace(LOGGER, () -> format("Dispatching to handler %s.%s : %s",
-                handlerInstance.getClass().toString(),
-                handlerMethod.getName(),
-                toEnvelopeTraceString(envelope)));
-        try {
-            final Object obj = handlerMethod.invoke(handlerInstance, envelope);
-            trace(LOGGER, () -> {
+        if (LOGGER.isTraceEnabled()) {
+            trace(LOGGER, () -> format("Dispatching to handler %s.%s : %s",
+                    handlerInstance.getClass().toString(),
+                    handlerMethod.getName(),
+                    toEnvelopeTraceString(envelope)));
+        }
 
-                final Optional<Object> response = Optional.ofNullable(obj);
+        final Object argument = isBatch ? singletonList(envelope) : envelope;
+        final Object obj = invoke(argument, envelope);
 
-                if (response.isPresent() && response.get() instanceof JsonEnvelope) {
+        if (LOGGER.isTraceEnabled()) {
+            trace(LOGGER, () -> {
+                if (obj instanceof JsonEnvelope) {
                     return format("Response received from handler %s.%s : %s",
                             handlerInstance.getClass().toString(),
                             handlerMethod.getName(),
-                            toEnvelopeTraceString((JsonEnvelope) response.get()));
+                            toEnvelopeTraceString((JsonEnvelope) obj));
                 }
 
                 return format("Response from handler %s.%s with id %s was void",
@@ -115,24 +173,53 @@ public class HandlerMethod {
                         handlerMethod.getName(),
                         envelope.metadata().id().toString());
             });
+        }
 
-            return obj;
+        return obj;
+    }
 
-        } catch (IllegalAccessException ex) {
-            throw handlerExecutionExceptionOf(envelope, ex.getCause());
-        } catch (InvocationTargetException ex) {
-            if (ex.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) ex.getCause();
-            } else {
-                throw handlerExecutionExceptionOf(envelope, ex.getCause());
-            }
+    /**
+     * Invokes the batch handler method passing the <code>envelopes</code> to it.
+     *
+     * @param envelopes the envelopes that are passed to the handler method
+     * @throws IllegalStateException if this is not a batch handler method
+     */
+    public void executeBatch(final List<JsonEnvelope> envelopes) {
+        if (!isBatch) {
+            throw new IllegalStateException(format("%s is not a batch handler method", this));
         }
+
+        if (LOGGER.isTraceEnabled()) {
+            trace(LOGGER, () -> format("Dispatching batch of %d envelopes to handler %s.%s",
+                    envelopes.size(),
+                    handlerInstance.getClass().toString(),
+                    handlerMethod.getName()));
+        }
+        invoke(envelopes, envelopes);
     }
 
-    private HandlerExecutionException handlerExecutionExceptionOf(final JsonEnvelope envelope, final Throwable cause) {
+    /**
+     * Invoke the handler method. Runtime exceptions thrown by the handler method are rethrown,
+     * anything else is wrapped in a {@link HandlerExecutionException}.
+     *
+     * @param argument  the argument of the handler method
+     * @param parameter the parameter described in the exception message
+     * @return the result of the handler method, null if it is void
+     */
+    private Object invoke(final Object argument, final Object parameter) {
+        try {
+            return (Object) invoker.invokeExact(argument);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw handlerExecutionExceptionOf(parameter, ex);
+        }
+    }
+
+    private HandlerExecutionException handlerExecutionExceptionOf(final Object parameter, final Throwable cause) {
         return new HandlerExecutionException(
                 format("Error while invoking handler method %s with parameter %s",
-                        handlerMethod, envelope), cause);
+                        handlerMethod, parameter), cause);
     }
 
     /**
@@ -144,6 +231,24 @@ public class HandlerMethod {
         return isSynchronous;
     }
 
+    /**
+     * Check if this handler method handles a list of envelopes.
+     *
+     * @return true if the method takes a list of envelopes
+     */
+    public boolean isBatch() {
+        return isBatch;
+    }
+
+    /**
+     * Get the metrics of the action this method handles.
+     *
+     * @return the metrics of the action
+     */
+    public ActionMetrics metrics() {
+        return metrics;
+    }
+
     @Override
     public String toString() {
         return format("HandlerMethod[ Class: %s method: %s]",
@@ -4,6 +4,8 @@ import static java.lang.String.format;
 import static uk.gov.justice.services.core.handler.Handlers.handlerMethodsFrom;
 
 import uk.gov.justice.services.core.annotation.Handles;
+import uk.gov.justice.services.core.dispatcher.DispatcherMetrics;
+import uk.gov.justice.services.core.dispatcher.DispatcherMetrics.ActionMetrics;
 import uk.gov.justice.services.core.handler.HandlerMethod;
 import uk.gov.justice.services.core.handler.exception.MissingHandlerException;
 import uk.gov.justice.services.core.handler.registry.exception.DuplicateHandlerException;
@@ -11,17 +13,47 @@ import uk.gov.justice.services.core.handler.registry.exception.DuplicateHandlerE
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service for storing a map of which command handlers handle which commands.
+ *
+ * Batch handler methods, taking a list of envelopes, are stored separately so that a handler may
+ * have both a single and a batch handler method for the same action.
+ *
+ * The {@link ActionMetrics} of each action are resolved from the {@link DispatcherMetrics} of the
+ * registry when a handler method for it is registered, and kept on the {@link HandlerMethod}.
  */
 
 public class HandlerRegistry {
 
+    private static final String ALL = "*";
+
     private final Map<String, HandlerMethod> handlerMethods = new HashMap<>();
+    private final Map<String, HandlerMethod> batchHandlerMethods = new HashMap<>();
+    private final DispatcherMetrics dispatcherMetrics;
+
+    public HandlerRegistry() {
+        this(DispatcherMetrics.unregistered());
+    }
 
+    public HandlerRegistry(final DispatcherMetrics dispatcherMetrics) {
+        this.dispatcherMetrics = dispatcherMetrics;
+    }
+
+    /**
+     * Get the handler method for an action. A single handler method for the action is preferred
+     * over a batch handler method for it, and either is preferred over a handler for all actions.
+     *
+     * @param name          the name of the action
+     * @param isSynchronous whether a synchronous handler method is required
+     * @return the handler method
+     * @throws MissingHandlerException if no suitable handler method is registered
+     */
     public HandlerMethod get(final String name, final boolean isSynchronous) {
-        final HandlerMethod handlerMethod = handlerMethods.getOrDefault(name, handlerMethods.get("*"));
+        final HandlerMethod handlerMethod = Optional.ofNullable(handlerMethods.get(name))
+                .orElseGet(() -> batchHandlerMethods.getOrDefault(name,
+                        handlerMethods.getOrDefault(ALL, batchHandlerMethods.get(ALL))));
 
         if (handlerMethod != null && isSynchronous == handlerMethod.isSynchronous()) {
             return handlerMethod;
@@ -32,6 +64,39 @@ public class HandlerRegistry {
         }
     }
 
+    /**
+     * Get the batch handler method for an action, if one is registered for the action, or one is
+     * registered for all actions and no single handler method is registered for the action. As with
+     * {@link #get(String, boolean)}, a handler for the action is preferred over a handler for all
+     * actions.
+     *
+     * @param name the name of the action
+     * @return the optional batch handler method
+     */
+    public Optional<HandlerMethod> getBatch(final String name) {
+        if (batchHandlerMethods.containsKey(name)) {
+            return Optional.of(batchHandlerMethods.get(name));
+        }
+        if (handlerMethods.containsKey(name)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(batchHandlerMethods.get(ALL));
+    }
+
+    /**
+     * Get the metrics of an action, from the handler method that would handle it, whether it is
+     * synchronous or not.
+     *
+     * @param name the name of the action
+     * @return the metrics of the action, or empty if no handler method is registered for it
+     */
+    public Optional<ActionMetrics> metricsOf(final String name) {
+        final HandlerMethod handlerMethod = Optional.ofNullable(handlerMethods.get(name))
+                .orElseGet(() -> batchHandlerMethods.getOrDefault(name,
+                        handlerMethods.getOrDefault(ALL, batchHandlerMethods.get(ALL))));
+        return Optional.ofNullable(handlerMethod).map(HandlerMethod::metrics);
+    }
+
     /**
      * Registers a handler instance.
      *
@@ -50,14 +115,15 @@ public class HandlerRegistry {
      */
     private void register(final Object handler, final Method method) {
 
-        final HandlerMethod handlerMethod = new HandlerMethod(handler, method, method.getReturnType());
         final String name = method.getAnnotation(Handles.class).value();
-        if (handlerMethods.containsKey(name)) {
+        final HandlerMethod handlerMethod = new HandlerMethod(handler, method, method.getReturnType(), dispatcherMetrics.forAction(name));
+        final Map<String, HandlerMethod> methods = handlerMethod.isBatch() ? batchHandlerMethods : handlerMethods;
+        if (methods.containsKey(name)) {
             throw new DuplicateHandlerException(
                     format("Can't register %s because a command handler method %s has " +
-                            "already been registered for %s ", handlerMethod, handlerMethods.get(name), name));
+                            "already been registered for %s ", handlerMethod, methods.get(name), name));
         }
 
-        handlerMethods.put(name, handlerMethod);
+        methods.put(name, handlerMethod);
     }
 }
@@ -7,4 +7,8 @@ public class InvalidHandlerException extends RuntimeException {
     public InvalidHandlerException(final String message) {
         super(message);
     }
+
+    public InvalidHandlerException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -18,6 +18,15 @@ public class JsonSchemaLoader {
 
     private final static String SCHEMA_LOCATION_PATTERN = "/json/schema/%s.json";
 
+    /**
+     * Check whether there is a JSON schema file on the classpath for a JSON type.
+     * @param name the logical name for the JSON type
+     * @return true if there is a schema for the type
+     */
+    public boolean hasSchema(final String name) {
+        return this.getClass().getResource(format(SCHEMA_LOCATION_PATTERN, name)) != null;
+    }
+
     /**
      * Locate a JSON schema file on the classpath and load it.
      * @param name the logical name for the JSON type
@@ -16,6 +16,7 @@ import org.json.JSONObject;
 public class JsonSchemaValidator {
 
     private final Map<String, Schema> schemas = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> schemasPresent = new ConcurrentHashMap<>();
 
     @Inject
     JsonSchemaLoader loader;
@@ -32,6 +33,15 @@ public class JsonSchemaValidator {
         createIfAbsent(name).validate(jsonObject);
     }
 
+    /**
+     * Check whether there is a schema for the given message type name. The answer is cached.
+     * @param name the message type name
+     * @return true if there is a schema for the message type
+     */
+    public boolean hasSchema(final String name) {
+        return schemasPresent.computeIfAbsent(name, loader::hasSchema);
+    }
+
     private Schema createIfAbsent(final String name) {
         return schemas.computeIfAbsent(name, loader::loadSchema);
     }
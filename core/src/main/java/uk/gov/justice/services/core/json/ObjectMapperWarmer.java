@@ -0,0 +1,24 @@
+package uk.gov.justice.services.core.json;
+
+import uk.gov.justice.domain.annotation.Event;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
+import uk.gov.justice.services.core.extension.EventFoundEvent;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+/**
+ * Warms up the {@link ObjectMapperRegistry} for every {@link Event} class found at deployment, so
+ * the first message of each event type does not resolve its serializers.
+ */
+@ApplicationScoped
+public class ObjectMapperWarmer {
+
+    @Inject
+    ObjectMapperRegistry objectMapperRegistry;
+
+    void warmUp(@Observes final EventFoundEvent event) {
+        objectMapperRegistry.warmUp(event.getClazz());
+    }
+}
@@ -0,0 +1,148 @@
+package uk.gov.justice.services.core.transport;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcher;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers envelopes published to a destination to one service component. Envelopes are buffered in
+ * a {@link RingBuffer} and dispatched in order by the single thread running this channel, which
+ * blocks while the buffer is empty.
+ *
+ * An envelope that fails is retried up to {@link #MAX_ATTEMPTS} times, backing off between
+ * attempts. Unlike a JMS listener there is no broker to redeliver it after that, so an envelope that
+ * still fails is logged with its id and name and dropped. The number of envelopes still buffered
+ * when the channel stops is logged.
+ */
+class InProcessChannel implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InProcessChannel.class);
+
+    static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 100L;
+    private static final long STOP_CHECK_MILLIS = 100L;
+
+    private final String name;
+    private final RingBuffer<JsonEnvelope> buffer;
+    private final AsynchronousDispatcher dispatcher;
+    private final Semaphore buffered = new Semaphore(0);
+    private final Semaphore space;
+
+    private volatile boolean running = true;
+
+    InProcessChannel(final String name, final RingBuffer<JsonEnvelope> buffer, final AsynchronousDispatcher dispatcher) {
+        this.name = name;
+        this.buffer = buffer;
+        this.dispatcher = dispatcher;
+        this.space = new Semaphore(buffer.capacity());
+    }
+
+    /**
+     * Publish an envelope to the channel. When the buffer is full, the calling thread waits until
+     * the consumer has made space, which applies back-pressure to the producing component.
+     *
+     * @param envelope the envelope to publish
+     * @throws IllegalStateException if the channel is stopped, or the calling thread is interrupted
+     *                               while waiting
+     */
+    void publish(final JsonEnvelope envelope) {
+        reserve();
+        publishReserved(envelope);
+    }
+
+    /**
+     * Reserve space in the buffer for an envelope to be published later with {@link
+     * #publishReserved}, waiting until the consumer has made space if the buffer is full.
+     *
+     * @throws IllegalStateException if the channel is stopped, or the calling thread is interrupted
+     *                               while waiting
+     */
+    void reserve() {
+        try {
+            while (!space.tryAcquire(STOP_CHECK_MILLIS, MILLISECONDS)) {
+                checkRunning();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(format("Interrupted waiting for space on in-process channel %s", name), e);
+        }
+        if (!running) {
+            space.release();
+            checkRunning();
+        }
+    }
+
+    /**
+     * Publish an envelope into space reserved with {@link #reserve}, without waiting.
+     *
+     * @param envelope the envelope to publish
+     * @throws IllegalStateException if the buffer has no space for the envelope
+     */
+    void publishReserved(final JsonEnvelope envelope) {
+        if (!buffer.offer(envelope)) {
+            space.release();
+            throw new IllegalStateException(format("In-process channel %s has no space for envelope %s", name, envelope.metadata().id()));
+        }
+        buffered.release();
+    }
+
+    /**
+     * Give back space reserved with {@link #reserve} for an envelope that will not be published.
+     */
+    void cancelReservation() {
+        space.release();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                if (buffered.tryAcquire(STOP_CHECK_MILLIS, MILLISECONDS)) {
+                    final JsonEnvelope envelope = buffer.poll();
+                    space.release();
+                    dispatch(envelope);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        final int notDispatched = buffered.availablePermits();
+        if (notDispatched > 0) {
+            LOGGER.error(format("In-process channel %s stopped with %d envelopes that were not dispatched", name, notDispatched));
+        }
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    private void checkRunning() {
+        if (!running) {
+            throw new IllegalStateException(format("In-process channel %s has been stopped", name));
+        }
+    }
+
+    private void dispatch(final JsonEnvelope envelope) throws InterruptedException {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                dispatcher.dispatch(envelope);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    LOGGER.error(format("Dropping envelope %s (%s) on in-process channel %s after %d attempts",
+                            envelope.metadata().id(), envelope.metadata().name(), name, MAX_ATTEMPTS), e);
+                } else {
+                    Thread.sleep(RETRY_BACKOFF_MILLIS << (attempt - 1));
+                }
+            }
+        }
+    }
+}
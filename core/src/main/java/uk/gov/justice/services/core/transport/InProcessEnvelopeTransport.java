@@ -0,0 +1,186 @@
+package uk.gov.justice.services.core.transport;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+
+import uk.gov.justice.services.core.annotation.Component;
+import uk.gov.justice.services.core.configuration.Value;
+import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcher;
+import uk.gov.justice.services.core.dispatcher.DispatcherCache;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.jms.transport.EnvelopeTransport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers envelopes to service components deployed in the same JVM without going through the JMS
+ * broker. Envelope objects are handed to the adapter {@link
+ * uk.gov.justice.services.core.dispatcher.Dispatcher} of each target component on a dedicated
+ * consumer thread through the {@link LocalDeliveryProcessor}, which validates them against their
+ * JSON schema and dispatches each in a transaction of its own, as a JMS listener would. Envelopes
+ * are only serialized when their name has a schema to validate against.
+ *
+ * Destinations are selected with the <code>inProcessDestinations</code> property, a comma separated
+ * list of <code>destination=COMPONENT</code> entries, for example
+ * <code>people.controller.command=COMMAND_CONTROLLER,people.event=EVENT_LISTENER</code>. A destination
+ * listed for several components, such as a topic, is delivered to each of them. Other destinations
+ * are still sent via JMS.
+ *
+ * Each component has a bounded buffer of <code>inProcessBufferSize</code> envelopes; when it is full,
+ * senders wait for the consumer to catch up.
+ *
+ * An envelope sent within a transaction is only published once the transaction commits, and is
+ * discarded if it rolls back, as a transacted JMS send would be. Buffer space for it is reserved
+ * before the transaction completes, so a send that cannot be buffered rolls the transaction back
+ * rather than losing the envelope after the commit. Delivery differs from JMS in that
+ * it is not durable: envelopes still buffered when the application stops are lost, and an envelope
+ * that the component still fails to handle after the retries of its {@link InProcessChannel} is
+ * logged and dropped rather than redelivered or moved to a dead letter queue. Both are logged. Only
+ * list destinations whose envelopes can be lost this way.
+ */
+@ApplicationScoped
+public class InProcessEnvelopeTransport implements EnvelopeTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InProcessEnvelopeTransport.class);
+
+    private static final String NONE = "none";
+
+    @Inject
+    @Value(key = "inProcessDestinations", defaultValue = NONE)
+    String inProcessDestinations;
+
+    @Inject
+    @Value(key = "inProcessBufferSize", defaultValue = "1024")
+    String bufferSize;
+
+    @Inject
+    DispatcherCache dispatcherCache;
+
+    @Inject
+    LocalDeliveryProcessor localDeliveryProcessor;
+
+    @Resource
+    ManagedThreadFactory managedThreadFactory;
+
+    @Resource
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    private final Map<String, List<InProcessChannel>> channels = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void start() {
+        start(managedThreadFactory);
+    }
+
+    void start(final ThreadFactory threadFactory) {
+        if (NONE.equals(inProcessDestinations.trim())) {
+            return;
+        }
+
+        for (final String entry : inProcessDestinations.split(",")) {
+            final String[] destinationAndComponent = entry.trim().split("=");
+            if (destinationAndComponent.length != 2) {
+                throw new IllegalArgumentException(format("Invalid in-process destination %s, expected destination=COMPONENT", entry));
+            }
+
+            final String destinationName = destinationAndComponent[0].trim();
+            final Component component = Component.valueOf(destinationAndComponent[1].trim());
+            final AsynchronousDispatcher dispatcher = dispatcherCache.dispatcherFor(component)::asynchronousDispatch;
+            final InProcessChannel channel = new InProcessChannel(
+                    format("%s=%s", destinationName, component),
+                    new RingBuffer<>(parseInt(bufferSize.trim())),
+                    envelope -> localDeliveryProcessor.process(dispatcher, envelope));
+
+            channels.computeIfAbsent(destinationName, d -> new ArrayList<>()).add(channel);
+            threadFactory.newThread(channel).start();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        channels.values().forEach(destinationChannels -> destinationChannels.forEach(InProcessChannel::stop));
+    }
+
+    @Override
+    public boolean handles(final String destinationName) {
+        return channels.containsKey(destinationName);
+    }
+
+    @Override
+    public void send(final JsonEnvelope envelope, final String destinationName) {
+        final List<InProcessChannel> destinationChannels = channels.get(destinationName);
+        if (destinationChannels == null) {
+            throw new IllegalArgumentException(format("Destination %s is not delivered in-process", destinationName));
+        }
+        if (transactionSynchronizationRegistry != null
+                && transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new PublishOnCommit(envelope, destinationChannels));
+        } else {
+            destinationChannels.forEach(channel -> channel.publish(envelope));
+        }
+    }
+
+    /**
+     * Reserves buffer space for an envelope before its transaction completes, so that failing to
+     * buffer it rolls the transaction back, and publishes it into that space once the transaction
+     * has committed.
+     */
+    private static class PublishOnCommit implements Synchronization {
+
+        private final JsonEnvelope envelope;
+        private final List<InProcessChannel> destinationChannels;
+        private final List<InProcessChannel> reserved = new ArrayList<>();
+
+        PublishOnCommit(final JsonEnvelope envelope, final List<InProcessChannel> destinationChannels) {
+            this.envelope = envelope;
+            this.destinationChannels = destinationChannels;
+        }
+
+        @Override
+        public void beforeCompletion() {
+            try {
+                for (final InProcessChannel channel : destinationChannels) {
+                    channel.reserve();
+                    reserved.add(channel);
+                }
+            } catch (RuntimeException e) {
+                reserved.forEach(InProcessChannel::cancelReservation);
+                reserved.clear();
+                throw e;
+            }
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            for (final InProcessChannel channel : reserved) {
+                if (status != Status.STATUS_COMMITTED) {
+                    channel.cancelReservation();
+                    continue;
+                }
+                try {
+                    channel.publishReserved(envelope);
+                } catch (RuntimeException e) {
+                    LOGGER.error(format("Lost envelope %s (%s) committed for in-process delivery",
+                            envelope.metadata().id(), envelope.metadata().name()), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package uk.gov.justice.services.core.transport;
+
+import static java.lang.String.format;
+import static uk.gov.justice.services.core.json.JsonValidationLogger.toValidationTrace;
+import static uk.gov.justice.services.messaging.logging.JsonEnvelopeLoggerHelper.toEnvelopeTraceString;
+import static uk.gov.justice.services.messaging.logging.LoggerUtils.trace;
+
+import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcher;
+import uk.gov.justice.services.core.dispatcher.TransactionalDispatcher;
+import uk.gov.justice.services.core.json.JsonSchemaValidator;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonEnvelopeParser;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.everit.json.schema.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processes envelopes delivered to a service component by a transport other than JMS in the way a
+ * generated JMS listener processes a message: the envelope is validated against the JSON schema of
+ * its name, as the JSON schema validation interceptor of the listener does, and is then dispatched
+ * in a transaction of its own through the {@link TransactionalDispatcher}, as the container-managed
+ * transaction of the listener would.
+ *
+ * Envelopes whose name has no schema on the classpath are dispatched without validation, as they
+ * are by a listener of a resource with the general JSON media type.
+ */
+@ApplicationScoped
+public class LocalDeliveryProcessor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalDeliveryProcessor.class);
+
+    @Inject
+    JsonSchemaValidator validator;
+
+    @Inject
+    JsonEnvelopeWriter jsonEnvelopeWriter;
+
+    @Inject
+    JsonEnvelopeParser jsonEnvelopeParser;
+
+    @Inject
+    TransactionalDispatcher transactionalDispatcher;
+
+    /**
+     * Process an envelope, writing it as JSON only if it needs to be validated. It is written
+     * without null fields, as it would be sent via JMS.
+     *
+     * @param dispatcher the dispatcher of the component the envelope is delivered to
+     * @param envelope   the envelope to process
+     */
+    public void process(final AsynchronousDispatcher dispatcher, final JsonEnvelope envelope) {
+        trace(LOGGER, () -> format("Processing envelope: %s", toEnvelopeTraceString(envelope)));
+
+        final String name = envelope.metadata().name();
+        if (validator.hasSchema(name)) {
+            validate(jsonEnvelopeWriter.asJsonStringWithoutNulls(envelope), name, envelope);
+        }
+        dispatch(dispatcher, envelope);
+    }
+
+    /**
+     * Process an envelope delivered as JSON text.
+     *
+     * @param dispatcher   the dispatcher of the component the envelope is delivered to
+     * @param envelopeJson the JSON text of the envelope to process
+     */
+    public void process(final AsynchronousDispatcher dispatcher, final String envelopeJson) {
+        final JsonEnvelope envelope = jsonEnvelopeParser.asEnvelope(envelopeJson);
+        trace(LOGGER, () -> format("Processing envelope: %s", toEnvelopeTraceString(envelope)));
+
+        final String name = envelope.metadata().name();
+        if (validator.hasSchema(name)) {
+            validate(envelopeJson, name, envelope);
+        }
+        dispatch(dispatcher, envelope);
+    }
+
+    private void validate(final String envelopeJson, final String name, final JsonEnvelope envelope) {
+        try {
+            validator.validate(envelopeJson, name);
+        } catch (ValidationException validationException) {
+            LOGGER.debug(format("JSON schema validation has failed for %s due to %s",
+                    toEnvelopeTraceString(envelope),
+                    toValidationTrace(validationException)));
+            throw validationException;
+        }
+    }
+
+    private void dispatch(final AsynchronousDispatcher dispatcher, final JsonEnvelope envelope) {
+        transactionalDispatcher.dispatch(dispatcher, envelope);
+        trace(LOGGER, () -> format("Envelope processed: %s", toEnvelopeTraceString(envelope)));
+    }
+}
@@ -0,0 +1,106 @@
+package uk.gov.justice.services.core.transport;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free, multi-producer multi-consumer ring buffer.
+ *
+ * Each slot carries a sequence number telling producers and consumers whether the slot is free to
+ * write or ready to read for their position, so claiming a position is a single compare-and-set and
+ * no locks are taken. The capacity is rounded up to a power of two.
+ *
+ * @param <T> the type of the buffered elements
+ */
+class RingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    RingBuffer(final int requestedCapacity) {
+        if (requestedCapacity < 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be at least 1");
+        }
+
+        final int capacity = Integer.highestOneBit(requestedCapacity) == requestedCapacity
+                ? requestedCapacity
+                : Integer.highestOneBit(requestedCapacity) << 1;
+
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add an element if there is space.
+     *
+     * @param element the element to add
+     * @return false if the buffer is full
+     */
+    boolean offer(final T element) {
+        long position = tail.get();
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest element.
+     *
+     * @return the oldest element, or null if the buffer is empty
+     */
+    T poll() {
+        long position = head.get();
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    final T element = elements.get(index);
+                    elements.lazySet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * @return the number of slots in the buffer
+     */
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return the approximate number of buffered elements
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+}
@@ -0,0 +1,195 @@
+package uk.gov.justice.services.core.accesscontrol;
+
+import static java.util.Arrays.asList;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithRandomUUID;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.json.Json;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AccessControlDecisionCacheTest {
+
+    private static final String CACHEABLE_ACTION = "people.query.person";
+    private static final String OTHER_ACTION = "people.command.add-person";
+    private static final long TTL_MILLIS = 1000L;
+
+    @Mock
+    private PolicyEvaluator policyEvaluator;
+
+    private long now;
+
+    private AccessControlDecisionCache decisionCache;
+
+    @Before
+    public void setup() {
+        decisionCache = new AccessControlDecisionCache();
+        decisionCache.nanoTime = () -> now;
+        decisionCache.configure("people.query.*, people.command.add-address", TTL_MILLIS, 2);
+    }
+
+    @Test
+    public void shouldCacheDecisionsForCacheableActions() throws Exception {
+        final JsonEnvelope envelope = envelopeWith(CACHEABLE_ACTION, "user1", "session1");
+        final Optional<AccessControlViolation> violation = of(new AccessControlViolation("Ooops"));
+        when(policyEvaluator.checkAccessPolicyFor(envelope)).thenReturn(violation);
+
+        assertThat(decisionCache.decisionFor(envelope, policyEvaluator::checkAccessPolicyFor), is(violation));
+        assertThat(decisionCache.decisionFor(envelope, policyEvaluator::checkAccessPolicyFor), is(violation));
+
+        verify(policyEvaluator, times(1)).checkAccessPolicyFor(envelope);
+    }
+
+    @Test
+    public void shouldAlwaysEvaluateActionsThatAreNotCacheableOrHaveNoUser() throws Exception {
+        final JsonEnvelope otherAction = envelopeWith(OTHER_ACTION, "user1", "session1");
+        final JsonEnvelope noUser = envelopeWith(CACHEABLE_ACTION, null, null);
+        when(policyEvaluator.checkAccessPolicyFor(otherAction)).thenReturn(empty());
+        when(policyEvaluator.checkAccessPolicyFor(noUser)).thenReturn(empty());
+
+        decisionCache.decisionFor(otherAction, policyEvaluator::checkAccessPolicyFor);
+        decisionCache.decisionFor(otherAction, policyEvaluator::checkAccessPolicyFor);
+        decisionCache.decisionFor(noUser, policyEvaluator::checkAccessPolicyFor);
+        decisionCache.decisionFor(noUser, policyEvaluator::checkAccessPolicyFor);
+
+        verify(policyEvaluator, times(2)).checkAccessPolicyFor(otherAction);
+        verify(policyEvaluator, times(2)).checkAccessPolicyFor(noUser);
+    }
+
+    @Test
+    public void shouldCacheDecisionsSeparatelyForEachUserAndSession() throws Exception {
+        final JsonEnvelope envelope = envelopeWith(CACHEABLE_ACTION, "user1", "session1");
+        final JsonEnvelope otherUser = envelopeWith(CACHEABLE_ACTION, "user2", "session1");
+        final JsonEnvelope otherSession = envelopeWith(CACHEABLE_ACTION, "user1", "session2");
+        when(policyEvaluator.checkAccessPolicyFor(envelope)).thenReturn(empty());
+        when(policyEvaluator.checkAccessPolicyFor(otherUser)).thenReturn(of(new AccessControlViolation("Ooops")));
+        when(policyEvaluator.checkAccessPolicyFor(otherSession)).thenReturn(empty());
+
+        decisionCache.decisionFor(envelope, policyEvaluator::checkAccessPolicyFor);
+
+        assertThat(decisionCache.decisionFor(otherUser, policyEvaluator::checkAccessPolicyFor).isPresent(), is(true));
+        assertThat(decisionCache.decisionFor(otherSession, policyEvaluator::checkAccessPolicyFor).isPresent(), is(false));
+        verify(policyEvaluator).checkAccessPolicyFor(otherUser);
+        verify(policyEvaluator).checkAccessPolicyFor(otherSession);
+    }
+
+    @Test
+    public void shouldEvaluateAgainOnceTheDecisionHasExpired() throws Exception {
+        final JsonEnvelope envelope = envelopeWith(CACHEABLE_ACTION, "user1", "session1");
+        when(policyEvaluator.checkAccessPolicyFor(envelope)).thenReturn(empty());
+
+        decisionCache.decisionFor(envelope, policyEvaluator::checkAccessPolicyFor);
+        now += TTL_MILLIS * 1_000_000L;
+        decisionCache.decisionFor(envelope, policyEvaluator::checkAccessPolicyFor);
+
+        verify(policyEvaluator, times(2)).checkAccessPolicyFor(envelope);
+    }
+
+    @Test
+    public void shouldEvaluateAgainOnceTheDecisionsOfAUserAreInvalidated() throws Exception {
+        final JsonEnvelope envelope = envelopeWith(CACHEABLE_ACTION, "user1", "session1");
+        when(policyEvaluator.checkAccessPolicyFor(envelope)).thenReturn(empty());
+
+        decisionCache.decisionFor(envelope, policyEvaluator::checkAccessPolicyFor);
+        decisionCache.invalidateUser("user1");
+        decisionCache.decisionFor(envelope, policyEvaluator::checkAccessPolicyFor);
+        decisionCache.invalidateAll();
+        decisionCache.decisionFor(envelope, policyEvaluator::checkAccessPolicyFor);
+
+        verify(policyEvaluator, times(3)).checkAccessPolicyFor(envelope);
+    }
+
+    @Test
+    public void shouldNotHoldMoreThanTheMaximumNumberOfDecisions() throws Exception {
+        final List<JsonEnvelope> envelopes = asList(
+                envelopeWith(CACHEABLE_ACTION, "user1", null),
+                envelopeWith(CACHEABLE_ACTION, "user2", null),
+                envelopeWith(CACHEABLE_ACTION, "user3", null));
+        final AtomicInteger evaluations = new AtomicInteger();
+
+        envelopes.forEach(envelope -> decisionCache.decisionFor(envelope, e -> {
+            evaluations.incrementAndGet();
+            return empty();
+        }));
+        envelopes.forEach(envelope -> decisionCache.decisionFor(envelope, e -> {
+            evaluations.incrementAndGet();
+            return empty();
+        }));
+
+        assertThat(evaluations.get() > envelopes.size(), is(true));
+    }
+
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedDecision() throws Exception {
+        final JsonEnvelope user1 = envelopeWith(CACHEABLE_ACTION, "user1", null);
+        final JsonEnvelope user2 = envelopeWith(CACHEABLE_ACTION, "user2", null);
+        final JsonEnvelope user3 = envelopeWith(CACHEABLE_ACTION, "user3", null);
+        when(policyEvaluator.checkAccessPolicyFor(user1)).thenReturn(empty());
+        when(policyEvaluator.checkAccessPolicyFor(user2)).thenReturn(empty());
+        when(policyEvaluator.checkAccessPolicyFor(user3)).thenReturn(empty());
+
+        decisionCache.decisionFor(user1, policyEvaluator::checkAccessPolicyFor);
+        decisionCache.decisionFor(user2, policyEvaluator::checkAccessPolicyFor);
+        decisionCache.decisionFor(user1, policyEvaluator::checkAccessPolicyFor);
+        decisionCache.decisionFor(user3, policyEvaluator::checkAccessPolicyFor);
+        decisionCache.decisionFor(user1, policyEvaluator::checkAccessPolicyFor);
+        decisionCache.decisionFor(user2, policyEvaluator::checkAccessPolicyFor);
+
+        assertThat(decisionCache.size(), is(2));
+        verify(policyEvaluator, times(1)).checkAccessPolicyFor(user1);
+        verify(policyEvaluator, times(2)).checkAccessPolicyFor(user2);
+        verify(policyEvaluator, times(1)).checkAccessPolicyFor(user3);
+    }
+
+    @Test
+    public void shouldOnlyInvalidateTheDecisionsOfTheGivenUserOrAction() throws Exception {
+        decisionCache.configure("people.query.*", TTL_MILLIS, 10);
+        final JsonEnvelope user1Person = envelopeWith(CACHEABLE_ACTION, "user1", null);
+        final JsonEnvelope user1Address = envelopeWith("people.query.address", "user1", null);
+        final JsonEnvelope user2Person = envelopeWith(CACHEABLE_ACTION, "user2", null);
+        final JsonEnvelope user2Address = envelopeWith("people.query.address", "user2", null);
+        final List<JsonEnvelope> envelopes = asList(user1Person, user1Address, user2Person, user2Address);
+        envelopes.forEach(envelope -> when(policyEvaluator.checkAccessPolicyFor(envelope)).thenReturn(empty()));
+        envelopes.forEach(envelope -> decisionCache.decisionFor(envelope, policyEvaluator::checkAccessPolicyFor));
+
+        decisionCache.invalidateUser("user1");
+        assertThat(decisionCache.size(), is(2));
+
+        decisionCache.invalidateAction(CACHEABLE_ACTION);
+        assertThat(decisionCache.size(), is(1));
+
+        decisionCache.decisionFor(user2Address, policyEvaluator::checkAccessPolicyFor);
+        verify(policyEvaluator, times(1)).checkAccessPolicyFor(user2Address);
+    }
+
+    @Test
+    public void shouldMatchCacheableActionsByNameOrPrefix() throws Exception {
+        assertThat(decisionCache.isCacheable(CACHEABLE_ACTION), is(true));
+        assertThat(decisionCache.isCacheable("people.command.add-address"), is(true));
+        assertThat(decisionCache.isCacheable(OTHER_ACTION), is(false));
+    }
+
+    private JsonEnvelope envelopeWith(final String name, final String userId, final String sessionId) {
+        return envelopeFrom(
+                metadataWithRandomUUID(name).withUserId(userId).withSessionId(sessionId).build(),
+                Json.createObjectBuilder().build());
+    }
+}
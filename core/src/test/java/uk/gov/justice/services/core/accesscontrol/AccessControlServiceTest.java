@@ -6,19 +6,26 @@ import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.services.core.accesscontrol.AccessControlService.ACCESS_CONTROL_DISABLED_PROPERTY;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithRandomUUID;
 
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import java.util.Optional;
 
+import javax.json.Json;
+
 import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -27,6 +34,9 @@ public class AccessControlServiceTest {
     @Mock
     private PolicyEvaluator policyEvaluator;
 
+    @Spy
+    private AccessControlDecisionCache decisionCache = new AccessControlDecisionCache();
+
     @InjectMocks
     private AccessControlService accessControlService;
 
@@ -78,4 +88,24 @@ public class AccessControlServiceTest {
         assertThat(accessControlService.checkAccessControl(jsonEnvelope),
                         is(sameInstance(accessControlViolation)));
     }
+
+    @Test
+    public void shouldUseTheDecisionCacheForCacheableActions() throws Exception {
+
+        decisionCache.configure("people.query.*", 60000L, 100);
+
+        final JsonEnvelope jsonEnvelope = envelopeFrom(
+                metadataWithRandomUUID("people.query.person").withUserId("user1").build(),
+                Json.createObjectBuilder().build());
+        final Optional<AccessControlViolation> accessControlViolation =
+                        of(mock(AccessControlViolation.class));
+
+        when(policyEvaluator.checkAccessPolicyFor(jsonEnvelope)).thenReturn(accessControlViolation);
+
+        accessControlService.checkAccessControl(jsonEnvelope);
+        assertThat(accessControlService.checkAccessControl(jsonEnvelope),
+                        is(sameInstance(accessControlViolation)));
+
+        verify(policyEvaluator, times(1)).checkAccessPolicyFor(jsonEnvelope);
+    }
 }
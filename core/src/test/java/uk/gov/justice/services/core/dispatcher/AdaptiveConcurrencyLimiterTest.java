@@ -0,0 +1,99 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long USUAL_LATENCY = 1_000_000L;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    @Test(expected = ConcurrencyLimitExceededException.class)
+    public void shouldRejectCallsOverTheLimit() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 2.0, metricRegistry);
+
+        limiter.acquire();
+        limiter.acquire();
+        limiter.acquire();
+    }
+
+    @Test
+    public void shouldWaitForACallToEndWhenAcquiringWaiting() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 2.0, metricRegistry);
+
+        limiter.acquire();
+        final Thread waiter = new Thread(limiter::acquireWaiting);
+        waiter.start();
+        while (limiter.waiting() == 0) {
+            Thread.yield();
+        }
+
+        assertThat(limiter.inFlight(), is(1));
+
+        limiter.release(USUAL_LATENCY);
+        waiter.join();
+
+        assertThat(limiter.inFlight(), is(1));
+        assertThat(limiter.waiting(), is(0));
+    }
+
+    @Test
+    public void shouldDecreaseTheLimitWhenCallsSlowDown() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 5, 20, 2.0, metricRegistry);
+
+        limiter.acquire();
+        limiter.release(USUAL_LATENCY);
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+            limiter.release(USUAL_LATENCY * 10);
+        }
+
+        assertThat(limiter.limit(), is(5));
+    }
+
+    @Test
+    public void shouldIncreaseTheLimitWhileBusyCallsAreAsFastAsUsual() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 3, 2.0, metricRegistry);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+            limiter.acquire();
+            limiter.release(USUAL_LATENCY);
+            limiter.release(USUAL_LATENCY);
+        }
+
+        assertThat(limiter.limit(), is(3));
+        assertThat(limiter.inFlight(), is(0));
+    }
+
+    @Test
+    public void shouldNotIncreaseTheLimitWhileIdle() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, 1, 10, 2.0, metricRegistry);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+            limiter.release(USUAL_LATENCY);
+        }
+
+        assertThat(limiter.limit(), is(4));
+    }
+
+    @Test
+    public void shouldReportLimitAndInFlightGauges() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, 1, 10, 2.0, metricRegistry);
+
+        limiter.acquire();
+
+        assertThat((Integer) metricRegistry.getGauges().get("test.limit").getValue(), is(4));
+        assertThat((Integer) metricRegistry.getGauges().get("test.in-flight").getValue(), is(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInitialLimitOutsideMinAndMax() throws Exception {
+        new AdaptiveConcurrencyLimiter("test", 20, 1, 10, 2.0, metricRegistry);
+    }
+}
@@ -0,0 +1,130 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithRandomUUID;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import javax.json.Json;
+import javax.transaction.UserTransaction;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsynchronousDispatchExecutorTest {
+
+    private static final String EVENT_LISTENER = "EVENT_LISTENER";
+
+    private AsynchronousDispatchExecutor dispatchExecutor;
+    private UserTransaction userTransaction;
+
+    @Before
+    public void setup() {
+        userTransaction = mock(UserTransaction.class);
+        dispatchExecutor = new AsynchronousDispatchExecutor();
+        dispatchExecutor.components = EVENT_LISTENER;
+        dispatchExecutor.queueSize = "10";
+        dispatchExecutor.key = "streamId";
+        dispatchExecutor.metricRegistry = new MetricRegistry();
+        dispatchExecutor.transactionalDispatcher = new TransactionalDispatcher();
+        dispatchExecutor.transactionalDispatcher.userTransaction = userTransaction;
+    }
+
+    @After
+    public void stop() {
+        dispatchExecutor.stop();
+    }
+
+    @Test
+    public void shouldReturnTheGivenDispatcherIfTheExecutorIsNotEnabled() throws Exception {
+        dispatchExecutor.threads = "none";
+        dispatchExecutor.start(Thread::new);
+
+        final AsynchronousDispatcher dispatcher = envelope -> { };
+
+        assertThat(dispatchExecutor.executorBacked(dispatcher, EVENT_LISTENER), is(sameInstance(dispatcher)));
+    }
+
+    @Test
+    public void shouldReturnTheGivenDispatcherIfTheExecutorIsNotEnabledForTheComponent() throws Exception {
+        dispatchExecutor.threads = "4";
+        dispatchExecutor.start(Thread::new);
+
+        final AsynchronousDispatcher dispatcher = envelope -> { };
+
+        assertThat(dispatchExecutor.executorBacked(dispatcher, "EVENT_PROCESSOR"), is(sameInstance(dispatcher)));
+    }
+
+    @Test
+    public void shouldDispatchEnvelopesOfAStreamInOrderOnTheExecutorInATransaction() throws Exception {
+        dispatchExecutor.threads = "4";
+        dispatchExecutor.start(Thread::new);
+
+        final UUID streamId = UUID.randomUUID();
+        final List<JsonEnvelope> dispatched = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        final AsynchronousDispatcher dispatcher = dispatchExecutor.executorBacked(envelope -> {
+            dispatched.add(envelope);
+            threads.add(Thread.currentThread());
+        }, EVENT_LISTENER);
+
+        final List<JsonEnvelope> envelopes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final JsonEnvelope envelope = envelopeOf(streamId, i);
+            envelopes.add(envelope);
+            dispatcher.dispatch(envelope);
+            assertThat(dispatched.size(), is(i + 1));
+        }
+
+        assertThat(dispatched, is(envelopes));
+        assertThat(threads.get(0), is(not(sameInstance(Thread.currentThread()))));
+        verify(userTransaction, times(20)).commit();
+    }
+
+    @Test
+    public void shouldRethrowHandlerFailuresToTheCaller() throws Exception {
+        dispatchExecutor.threads = "1";
+        dispatchExecutor.start(Thread::new);
+
+        final IllegalStateException failure = new IllegalStateException("Handler failed");
+        final AsynchronousDispatcher dispatcher = dispatchExecutor.executorBacked(envelope -> {
+            throw failure;
+        }, EVENT_LISTENER);
+
+        try {
+            dispatcher.dispatch(envelopeOf(UUID.randomUUID(), 0));
+            fail();
+        } catch (final IllegalStateException e) {
+            assertThat(e, is(sameInstance(failure)));
+        }
+        verify(userTransaction).rollback();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownKey() throws Exception {
+        dispatchExecutor.threads = "1";
+        dispatchExecutor.key = "unknown";
+        dispatchExecutor.start(Thread::new);
+    }
+
+    private static JsonEnvelope envelopeOf(final UUID streamId, final long version) {
+        return envelopeFrom(
+                metadataWithRandomUUID("test.event.something-happened").withStreamId(streamId).withVersion(version).build(),
+                Json.createObjectBuilder().build());
+    }
+}
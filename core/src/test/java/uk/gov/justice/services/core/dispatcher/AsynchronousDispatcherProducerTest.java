@@ -1,10 +1,18 @@
 package uk.gov.justice.services.core.dispatcher;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.when;
+import static uk.gov.justice.services.core.annotation.Component.EVENT_LISTENER;
+
+import uk.gov.justice.services.core.annotation.Adapter;
+import uk.gov.justice.services.core.util.TestInjectionPoint;
 
 import javax.enterprise.inject.spi.InjectionPoint;
+import javax.inject.Inject;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -15,8 +23,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 @RunWith(MockitoJUnitRunner.class)
 public class AsynchronousDispatcherProducerTest {
 
-    @Mock
-    InjectionPoint injectionPoint;
+    InjectionPoint injectionPoint = new TestInjectionPoint(TestEventListenerAdapter.class);
 
     @Mock
     Dispatcher dispatcher;
@@ -24,14 +31,39 @@ public class AsynchronousDispatcherProducerTest {
     @Mock
     DispatcherCache dispatcherCache;
 
+    @Mock
+    AsynchronousDispatchExecutor dispatchExecutor;
+
+    @Mock
+    AsynchronousDispatcher executorBackedDispatcher;
+
     @InjectMocks
     AsynchronousDispatcherProducer dispatcherProducer;
 
     @Test
     public void shouldReturnDispatcher() throws Exception {
         when(dispatcherCache.dispatcherFor(injectionPoint)).thenReturn(dispatcher);
+        when(dispatchExecutor.executorBacked(any(AsynchronousDispatcher.class), eq("EVENT_LISTENER"))).thenAnswer(invocation -> invocation.getArguments()[0]);
         AsynchronousDispatcher result = dispatcherProducer.produceAsynchronousDispatcher(injectionPoint);
         assertThat(result, notNullValue());
     }
 
+    @Test
+    public void shouldReturnExecutorBackedDispatcherIfDispatchExecutorIsEnabled() throws Exception {
+        when(dispatcherCache.dispatcherFor(injectionPoint)).thenReturn(dispatcher);
+        when(dispatchExecutor.executorBacked(any(AsynchronousDispatcher.class), eq("EVENT_LISTENER"))).thenReturn(executorBackedDispatcher);
+
+        AsynchronousDispatcher result = dispatcherProducer.produceAsynchronousDispatcher(injectionPoint);
+        assertThat(result, sameInstance(executorBackedDispatcher));
+    }
+
+    @Adapter(EVENT_LISTENER)
+    public static class TestEventListenerAdapter {
+        @Inject
+        AsynchronousDispatcher dispatcher;
+
+        public void dummyMethod() {
+
+        }
+    }
 }
\ No newline at end of file
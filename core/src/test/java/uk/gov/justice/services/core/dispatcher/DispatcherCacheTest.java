@@ -4,7 +4,9 @@ import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static uk.gov.justice.services.core.annotation.Component.COMMAND_API;
 import static uk.gov.justice.services.core.annotation.Component.QUERY_API;
 import static uk.gov.justice.services.core.annotation.ServiceComponentLocation.LOCAL;
@@ -14,6 +16,7 @@ import uk.gov.justice.services.core.accesscontrol.AccessControlFailureMessageGen
 import uk.gov.justice.services.core.accesscontrol.AccessControlService;
 import uk.gov.justice.services.core.annotation.Adapter;
 import uk.gov.justice.services.core.annotation.FrameworkComponent;
+import uk.gov.justice.services.core.annotation.ServiceComponentLocation;
 import uk.gov.justice.services.core.extension.ServiceComponentFoundEvent;
 import uk.gov.justice.services.core.util.TestInjectionPoint;
 
@@ -44,6 +47,12 @@ public class DispatcherCacheTest {
         dispatcherCache = new DispatcherCache();
         dispatcherCache.dispatcherFactory = new DispatcherFactory();
         dispatcherCache.dispatcherFactory.accessControlService = mock(AccessControlService.class);
+        dispatcherCache.dispatcherFactory.concurrencyLimitConfiguration = mock(ConcurrencyLimitConfiguration.class);
+        when(dispatcherCache.dispatcherFactory.concurrencyLimitConfiguration.limitsFor(any(String.class), any(ServiceComponentLocation.class))).thenReturn(ConcurrencyLimits.none());
+        dispatcherCache.dispatcherFactory.singleFlightConfiguration = mock(SingleFlightConfiguration.class);
+        when(dispatcherCache.dispatcherFactory.singleFlightConfiguration.newSingleFlight()).thenReturn(SingleFlight.none());
+        dispatcherCache.dispatcherFactory.queryResultCacheConfiguration = mock(QueryResultCacheConfiguration.class);
+        when(dispatcherCache.dispatcherFactory.queryResultCacheConfiguration.cacheFor(any(String.class), any(ServiceComponentLocation.class))).thenReturn(QueryResultCache.none());
     }
 
     @Test
@@ -95,6 +104,13 @@ public class DispatcherCacheTest {
         assertThat(dispatcher1, is(not(sameInstance(dispatcher2))));
     }
 
+    @Test
+    public void shouldReturnTheAdapterDispatcherForComponent() throws Exception {
+
+        final Dispatcher dispatcher1 = dispatcherCache.dispatcherFor(COMMAND_API);
+        final Dispatcher dispatcher2 = dispatcherCache.dispatcherFor(adaptorCommandApiInjectionPointA);
+        assertThat(dispatcher1, is(sameInstance(dispatcher2)));
+    }
 
     @Adapter(COMMAND_API)
     public static class TestCommandApiAdaptorA {
@@ -5,16 +5,21 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
 import static uk.gov.justice.services.core.annotation.ServiceComponentLocation.LOCAL;
 import static uk.gov.justice.services.core.annotation.ServiceComponentLocation.REMOTE;
 
 import uk.gov.justice.services.core.accesscontrol.AccessControlFailureMessageGenerator;
 import uk.gov.justice.services.core.accesscontrol.AccessControlService;
+import uk.gov.justice.services.core.annotation.ServiceComponentLocation;
 import uk.gov.justice.services.core.handler.registry.HandlerRegistry;
 
 import java.util.Optional;
 
+
 import org.hamcrest.CoreMatchers;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -27,6 +32,7 @@ public class DispatcherFactoryTest {
     private static final String ACCESS_CONTROL_SERVICE_FIELD_NAME = "accessControlService";
     private static final String FAILURE_MESSAGE_GENERATOR_FIELD_NAME = "accessControlFailureMessageGenerator";
     private static final String HANDLER_REGISTRY_FIELD_NAME = "handlerRegistry";
+    private static final String COMPONENT = "COMMAND_API";
 
     @Mock
     private AccessControlService accessControlService;
@@ -34,13 +40,29 @@ public class DispatcherFactoryTest {
     @Mock
     private AccessControlFailureMessageGenerator accessControlFailureMessageGenerator;
 
+    @Mock
+    private ConcurrencyLimitConfiguration concurrencyLimitConfiguration;
+
+    @Mock
+    private SingleFlightConfiguration singleFlightConfiguration;
+
+    @Mock
+    private QueryResultCacheConfiguration queryResultCacheConfiguration;
+
     @InjectMocks
     private DispatcherFactory dispatcherFactory;
 
+    @Before
+    public void setup() {
+        when(concurrencyLimitConfiguration.limitsFor(any(String.class), any(ServiceComponentLocation.class))).thenReturn(ConcurrencyLimits.none());
+        when(singleFlightConfiguration.newSingleFlight()).thenReturn(SingleFlight.none());
+        when(queryResultCacheConfiguration.cacheFor(any(String.class), any(ServiceComponentLocation.class))).thenReturn(QueryResultCache.none());
+    }
+
     @Test
     public void shouldCreateDispatcherUsingTheInjectedDependencies() throws Exception {
 
-        final Dispatcher dispatcher = dispatcherFactory.createNew(LOCAL);
+        final Dispatcher dispatcher = dispatcherFactory.createNew(COMPONENT, LOCAL);
         final Optional<AccessControlService> accessControlServiceFromClass = getAccessControlServiceFrom(dispatcher);
         final AccessControlFailureMessageGenerator accessControlFailureMessageGeneratorFromClass = getFailureMessageGeneratorFrom(dispatcher);
 
@@ -51,7 +73,7 @@ public class DispatcherFactoryTest {
     @Test
     public void shouldCreateDispatcherWithNoAccessControlForRemoteLocation() throws Exception {
 
-        final Dispatcher dispatcher = dispatcherFactory.createNew(REMOTE);
+        final Dispatcher dispatcher = dispatcherFactory.createNew(COMPONENT, REMOTE);
         final Optional<AccessControlService> accessControlServiceFromClass = getAccessControlServiceFrom(dispatcher);
 
         assertThat(accessControlServiceFromClass.isPresent(), is(false));
@@ -60,8 +82,8 @@ public class DispatcherFactoryTest {
     @Test
     public void shouldCreateANewHandlerRegistryForEachDispatcherInstance() throws Exception {
 
-        final Dispatcher dispatcher1 = dispatcherFactory.createNew(LOCAL);
-        final Dispatcher dispatcher2 = dispatcherFactory.createNew(LOCAL);
+        final Dispatcher dispatcher1 = dispatcherFactory.createNew(COMPONENT, LOCAL);
+        final Dispatcher dispatcher2 = dispatcherFactory.createNew(COMPONENT, LOCAL);
 
         final HandlerRegistry handlerRegistry1 = getHandlerRegistryFrom(dispatcher1);
         final HandlerRegistry handlerRegistry2 = getHandlerRegistryFrom(dispatcher2);
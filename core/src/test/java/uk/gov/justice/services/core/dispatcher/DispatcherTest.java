@@ -1,15 +1,20 @@
 package uk.gov.justice.services.core.dispatcher;
 
+import static java.util.Arrays.asList;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.services.core.annotation.Component.COMMAND_API;
 import static uk.gov.justice.services.core.annotation.Component.QUERY_API;
+import static uk.gov.justice.services.core.annotation.ServiceComponentLocation.LOCAL;
 
 import uk.gov.justice.services.core.accesscontrol.AccessControlFailureMessageGenerator;
 import uk.gov.justice.services.core.accesscontrol.AccessControlService;
@@ -22,8 +27,11 @@ import uk.gov.justice.services.core.handler.registry.HandlerRegistry;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 import uk.gov.justice.services.messaging.Metadata;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+import com.codahale.metrics.MetricRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,6 +44,8 @@ import org.mockito.runners.MockitoJUnitRunner;
 public class DispatcherTest {
 
     private static final String NAME = "test.command.do-something";
+    private static final String OTHER_NAME = "test.command.do-something-else";
+    private static final String METRIC_PREFIX = "dispatcher.COMMAND_API.local." + NAME;
 
     @Mock
     private JsonEnvelope envelope;
@@ -43,8 +53,10 @@ public class DispatcherTest {
     @Mock
     private Metadata metadata;
 
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
     @Spy
-    private HandlerRegistry handlerRegistry;
+    private HandlerRegistry handlerRegistry = new HandlerRegistry(new DispatcherMetrics("COMMAND_API", LOCAL, metricRegistry));
 
     @Mock
     private AccessControlService accessControlService;
@@ -56,7 +68,7 @@ public class DispatcherTest {
 
     @Before
     public void setup() {
-        dispatcher = new Dispatcher(handlerRegistry, Optional.of(accessControlService), accessControlFailureMessageGenerator);
+        dispatcher = new Dispatcher(handlerRegistry, Optional.of(accessControlService), accessControlFailureMessageGenerator, ConcurrencyLimits.none(), SingleFlight.none(), QueryResultCache.none());
 
         when(envelope.metadata()).thenReturn(metadata);
         when(metadata.name()).thenReturn(NAME);
@@ -151,7 +163,7 @@ public class DispatcherTest {
     @Test
     public void shouldSkipAccessControlIfServiceNotProvided() throws Exception {
 
-        dispatcher = new Dispatcher(handlerRegistry, Optional.empty(), accessControlFailureMessageGenerator);
+        dispatcher = new Dispatcher(handlerRegistry, Optional.empty(), accessControlFailureMessageGenerator, ConcurrencyLimits.none(), SingleFlight.none(), QueryResultCache.none());
 
         final SynchronousTestHandler synchronousTestHandler = new SynchronousTestHandler();
 
@@ -162,6 +174,192 @@ public class DispatcherTest {
         verifyZeroInteractions(accessControlService);
     }
 
+    @Test
+    public void shouldDispatchBatchToABatchHandler() throws Exception {
+        final BatchTestHandler batchTestHandler = new BatchTestHandler();
+        final JsonEnvelope otherEnvelope = envelopeWithName(NAME);
+
+        when(accessControlService.checkAccessControl(envelope)).thenReturn(empty());
+        when(accessControlService.checkAccessControl(otherEnvelope)).thenReturn(empty());
+
+        dispatcher.register(batchTestHandler);
+        dispatcher.asynchronousBatchDispatch(asList(envelope, otherEnvelope));
+
+        assertThat(batchTestHandler.batches.size(), is(1));
+        assertThat(batchTestHandler.batches.get(0), contains(envelope, otherEnvelope));
+    }
+
+    @Test
+    public void shouldDispatchBatchToASingleHandlerIfNoBatchHandlerExists() throws Exception {
+        final RecordingAsynchronousTestHandler asynchronousTestHandler = new RecordingAsynchronousTestHandler();
+        final JsonEnvelope otherEnvelope = envelopeWithName(NAME);
+
+        when(accessControlService.checkAccessControl(envelope)).thenReturn(empty());
+        when(accessControlService.checkAccessControl(otherEnvelope)).thenReturn(empty());
+
+        dispatcher.register(asynchronousTestHandler);
+        dispatcher.asynchronousBatchDispatch(asList(envelope, otherEnvelope));
+
+        assertThat(asynchronousTestHandler.envelopes, contains(envelope, otherEnvelope));
+    }
+
+    @Test
+    public void shouldSplitBatchIntoRunsOfTheSameNameKeepingOrder() throws Exception {
+        final BatchTestHandler batchTestHandler = new BatchTestHandler();
+        final JsonEnvelope otherEnvelope = envelopeWithName(OTHER_NAME);
+        final JsonEnvelope lastEnvelope = envelopeWithName(NAME);
+
+        dispatcher = new Dispatcher(handlerRegistry, Optional.empty(), accessControlFailureMessageGenerator, ConcurrencyLimits.none(), SingleFlight.none(), QueryResultCache.none());
+        dispatcher.register(batchTestHandler);
+        dispatcher.asynchronousBatchDispatch(asList(envelope, otherEnvelope, lastEnvelope));
+
+        assertThat(batchTestHandler.batches.size(), is(3));
+        assertThat(batchTestHandler.batches.get(0), contains(envelope));
+        assertThat(batchTestHandler.batches.get(1), contains(otherEnvelope));
+        assertThat(batchTestHandler.batches.get(2), contains(lastEnvelope));
+    }
+
+    @Test
+    public void shouldCheckAccessControlOfEveryEnvelopeInABatch() throws Exception {
+        final String errorMessage = "error message";
+        final AccessControlViolation accessControlViolation = new AccessControlViolation("Ooops");
+        final BatchTestHandler batchTestHandler = new BatchTestHandler();
+        final JsonEnvelope otherEnvelope = envelopeWithName(NAME);
+
+        when(accessControlService.checkAccessControl(envelope)).thenReturn(empty());
+        when(accessControlService.checkAccessControl(otherEnvelope)).thenReturn(of(accessControlViolation));
+        when(accessControlFailureMessageGenerator.errorMessageFrom(otherEnvelope, accessControlViolation))
+                .thenReturn(errorMessage);
+
+        dispatcher.register(batchTestHandler);
+
+        try {
+            dispatcher.asynchronousBatchDispatch(asList(envelope, otherEnvelope));
+            fail();
+        } catch (AccessControlViolationException expected) {
+            assertThat(expected.getMessage(), is(errorMessage));
+            assertThat(batchTestHandler.batches.isEmpty(), is(true));
+        }
+    }
+
+    @Test
+    public void shouldRecordTimeAndThroughputOfEachAction() throws Exception {
+        final BatchTestHandler batchTestHandler = new BatchTestHandler();
+        final SynchronousTestHandler synchronousTestHandler = new SynchronousTestHandler();
+        final JsonEnvelope otherEnvelope = envelopeWithName(NAME);
+
+        when(accessControlService.checkAccessControl(envelope)).thenReturn(empty());
+        when(accessControlService.checkAccessControl(otherEnvelope)).thenReturn(empty());
+
+        dispatcher.register(batchTestHandler);
+        dispatcher.register(synchronousTestHandler);
+        dispatcher.synchronousDispatch(envelope);
+        dispatcher.asynchronousBatchDispatch(asList(envelope, otherEnvelope));
+
+        assertThat(metricRegistry.timer(METRIC_PREFIX + ".time").getCount(), is(2L));
+        assertThat(metricRegistry.meter(METRIC_PREFIX + ".envelopes").getCount(), is(3L));
+    }
+
+    @Test
+    public void shouldCountErrorsOfEachActionByType() throws Exception {
+        when(accessControlService.checkAccessControl(envelope)).thenReturn(empty());
+
+        dispatcher.register(new FailingTestHandler());
+
+        try {
+            dispatcher.asynchronousDispatch(envelope);
+            fail();
+        } catch (IllegalStateException expected) {
+            assertThat(metricRegistry.counter(METRIC_PREFIX + ".errors.java.lang.IllegalStateException").getCount(), is(1L));
+            assertThat(metricRegistry.timer(METRIC_PREFIX + ".time").getCount(), is(1L));
+        }
+    }
+
+    @Test
+    public void shouldCountAccessControlRejectionsOfEachAction() throws Exception {
+        final AccessControlViolation accessControlViolation = new AccessControlViolation("Ooops");
+
+        when(accessControlService.checkAccessControl(envelope)).thenReturn(of(accessControlViolation));
+
+        dispatcher.register(new AsynchronousTestHandler());
+
+        try {
+            dispatcher.asynchronousDispatch(envelope);
+            fail();
+        } catch (AccessControlViolationException expected) {
+            assertThat(metricRegistry.counter(METRIC_PREFIX + ".access-control-rejections").getCount(), is(1L));
+            assertThat(metricRegistry.timer(METRIC_PREFIX + ".time").getCount(), is(0L));
+        }
+    }
+
+    @Test
+    public void shouldRejectSynchronousEnvelopesOverTheConcurrencyLimit() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 2.0, metricRegistry);
+        final SynchronousTestHandler synchronousTestHandler = new SynchronousTestHandler();
+
+        dispatcher = new Dispatcher(handlerRegistry, Optional.empty(), accessControlFailureMessageGenerator, ConcurrencyLimits.perComponent(limiter), SingleFlight.none(), QueryResultCache.none());
+        dispatcher.register(synchronousTestHandler);
+
+        limiter.acquire();
+        try {
+            dispatcher.synchronousDispatch(envelope);
+            fail();
+        } catch (ConcurrencyLimitExceededException expected) {
+            assertThat(synchronousTestHandler.envelope, is(nullValue()));
+            assertThat(metricRegistry.counter(METRIC_PREFIX + ".errors." + ConcurrencyLimitExceededException.class.getName()).getCount(), is(1L));
+        }
+
+        limiter.release(0L);
+        dispatcher.synchronousDispatch(envelope);
+
+        assertThat(synchronousTestHandler.envelope, equalTo(envelope));
+        assertThat(limiter.inFlight(), is(0));
+    }
+
+    @Test
+    public void shouldMakeAsynchronousEnvelopesOverTheConcurrencyLimitWait() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 2.0, metricRegistry);
+        final AsynchronousTestHandler asynchronousTestHandler = new AsynchronousTestHandler();
+
+        dispatcher = new Dispatcher(handlerRegistry, Optional.empty(), accessControlFailureMessageGenerator, ConcurrencyLimits.perComponent(limiter), SingleFlight.none(), QueryResultCache.none());
+        dispatcher.register(asynchronousTestHandler);
+
+        limiter.acquire();
+        final Thread listener = new Thread(() -> dispatcher.asynchronousDispatch(envelope));
+        listener.start();
+        while (limiter.waiting() == 0) {
+            Thread.yield();
+        }
+
+        assertThat(asynchronousTestHandler.envelope, is(nullValue()));
+
+        limiter.release(0L);
+        listener.join();
+
+        assertThat(asynchronousTestHandler.envelope, equalTo(envelope));
+        assertThat(limiter.inFlight(), is(0));
+    }
+
+    @Test
+    public void shouldNotifyTheQueryResultCacheOfEventsHandledAsynchronously() throws Exception {
+        final List<String> eventsHandled = new ArrayList<>();
+        final AsynchronousTestHandler asynchronousTestHandler = new AsynchronousTestHandler();
+
+        dispatcher = new Dispatcher(handlerRegistry, Optional.empty(), accessControlFailureMessageGenerator, ConcurrencyLimits.none(), SingleFlight.none(), QueryResultCache.invalidating(eventsHandled::add));
+        dispatcher.register(asynchronousTestHandler);
+        dispatcher.asynchronousDispatch(envelope);
+
+        assertThat(eventsHandled, contains(NAME));
+    }
+
+    private JsonEnvelope envelopeWithName(final String name) {
+        final JsonEnvelope jsonEnvelope = mock(JsonEnvelope.class);
+        final Metadata jsonMetadata = mock(Metadata.class);
+        when(jsonEnvelope.metadata()).thenReturn(jsonMetadata);
+        when(jsonMetadata.name()).thenReturn(name);
+        return jsonEnvelope;
+    }
+
     @ServiceComponent(COMMAND_API)
     public static class AsynchronousTestHandler {
 
@@ -197,4 +395,40 @@ public class DispatcherTest {
         }
 
     }
+
+    @ServiceComponent(COMMAND_API)
+    public static class RecordingAsynchronousTestHandler {
+
+        final List<JsonEnvelope> envelopes = new ArrayList<>();
+
+        @Handles(NAME)
+        public void handle(JsonEnvelope envelope) {
+            envelopes.add(envelope);
+        }
+    }
+
+    @ServiceComponent(COMMAND_API)
+    public static class BatchTestHandler {
+
+        final List<List<JsonEnvelope>> batches = new ArrayList<>();
+
+        @Handles(NAME)
+        public void handle(List<JsonEnvelope> envelopes) {
+            batches.add(envelopes);
+        }
+
+        @Handles(OTHER_NAME)
+        public void handleOther(List<JsonEnvelope> envelopes) {
+            batches.add(envelopes);
+        }
+    }
+
+    @ServiceComponent(COMMAND_API)
+    public static class FailingTestHandler {
+
+        @Handles(NAME)
+        public void handle(JsonEnvelope envelope) {
+            throw new IllegalStateException("Handler failed");
+        }
+    }
 }
@@ -0,0 +1,199 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+public class KeyedExecutorTest {
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private KeyedExecutor executor;
+
+    @After
+    public void stopExecutor() {
+        if (executor != null) {
+            executor.stop();
+        }
+    }
+
+    @Test
+    public void shouldRunTasksWithTheSameKeyInOrder() throws Exception {
+        executor = new KeyedExecutor("test-executor", 4, 100, Thread::new, metricRegistry);
+        final List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(100);
+
+        for (int i = 0; i < 100; i++) {
+            final int value = i;
+            executor.execute("stream-1", () -> {
+                results.add(value);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, SECONDS), is(true));
+        for (int i = 0; i < 100; i++) {
+            assertThat(results.get(i), is(i));
+        }
+    }
+
+    @Test
+    public void shouldRunTasksWithDifferentKeysInParallel() throws Exception {
+        executor = new KeyedExecutor("test-executor", 2, 10, Thread::new, metricRegistry);
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+        final CountDownLatch done = new CountDownLatch(2);
+
+        executor.execute(0, () -> awaitBoth(bothStarted, done));
+        executor.execute(1, () -> awaitBoth(bothStarted, done));
+
+        assertThat(done.await(5, SECONDS), is(true));
+    }
+
+    @Test
+    public void shouldKeepRunningAfterATaskFails() throws Exception {
+        executor = new KeyedExecutor("test-executor", 1, 10, Thread::new, metricRegistry);
+        final CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute("stream-1", () -> {
+            throw new IllegalStateException("Task failed");
+        });
+        executor.execute("stream-1", done::countDown);
+
+        assertThat(done.await(5, SECONDS), is(true));
+    }
+
+    @Test
+    public void shouldCompleteTheFutureOfATaskOnceItHasRun() throws Exception {
+        executor = new KeyedExecutor("test-executor", 1, 10, Thread::new, metricRegistry);
+        final List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+
+        executor.execute("stream-1", () -> results.add(1)).get(5, SECONDS);
+
+        assertThat(results.size(), is(1));
+    }
+
+    @Test
+    public void shouldCompleteTheFutureOfAFailedTaskExceptionally() throws Exception {
+        executor = new KeyedExecutor("test-executor", 1, 10, Thread::new, metricRegistry);
+        final IllegalStateException failure = new IllegalStateException("Task failed");
+
+        try {
+            executor.execute("stream-1", () -> {
+                throw failure;
+            }).get(5, SECONDS);
+            fail();
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause() == failure, is(true));
+        }
+    }
+
+    @Test
+    public void shouldKeepRunningAfterATaskThrowsAnError() throws Exception {
+        executor = new KeyedExecutor("test-executor", 1, 10, Thread::new, metricRegistry);
+        final CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute("stream-1", () -> {
+            throw new AssertionError("Task failed");
+        });
+        executor.execute("stream-1", done::countDown);
+
+        assertThat(done.await(5, SECONDS), is(true));
+    }
+
+    @Test
+    public void shouldRunQueuedTasksWhenStopped() throws Exception {
+        executor = new KeyedExecutor("test-executor", 1, 10, Thread::new, metricRegistry);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(2);
+
+        executor.execute("stream-1", () -> awaitQuietly(release));
+        executor.execute("stream-1", done::countDown);
+        executor.execute("stream-1", done::countDown);
+        final Thread stopper = new Thread(executor::stop);
+        stopper.start();
+        release.countDown();
+        stopper.join(5000L);
+
+        assertThat(done.getCount(), is(0L));
+        assertThat(stopper.isAlive(), is(false));
+    }
+
+    @Test
+    public void shouldFailSubmittersWaitingForSpaceWhenStopped() throws Exception {
+        executor = new KeyedExecutor("test-executor", 1, 1, Thread::new, metricRegistry);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        executor.execute("stream-1", () -> awaitQuietly(release));
+        executor.execute("stream-1", () -> { });
+        final CompletableFuture<Void> waitingSubmitter = CompletableFuture.runAsync(() -> executor.execute("stream-1", () -> { }));
+        final Thread stopper = new Thread(executor::stop);
+        stopper.start();
+
+        try {
+            waitingSubmitter.get(5, SECONDS);
+            fail();
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause() instanceof IllegalStateException, is(true));
+        } finally {
+            release.countDown();
+            stopper.join(5000L);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldReportQueueDepthAndWaitTime() throws Exception {
+        executor = new KeyedExecutor("test-executor", 1, 10, Thread::new, metricRegistry);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(3);
+
+        executor.execute("stream-1", () -> {
+            awaitQuietly(release);
+            done.countDown();
+        });
+        executor.execute("stream-1", done::countDown);
+        executor.execute("stream-1", done::countDown);
+
+        final Gauge<Integer> queueDepth = metricRegistry.getGauges().get("test-executor.queue-depth");
+        assertThat(queueDepth.getValue() >= 2, is(true));
+
+        release.countDown();
+        assertThat(done.await(5, SECONDS), is(true));
+        assertThat(metricRegistry.timer("test-executor.wait-time").getCount(), is(3L));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAcceptTasksOnceStopped() throws Exception {
+        executor = new KeyedExecutor("test-executor", 1, 10, Thread::new, metricRegistry);
+        executor.stop();
+
+        executor.execute("stream-1", () -> { });
+    }
+
+    private static void awaitBoth(final CountDownLatch bothStarted, final CountDownLatch done) {
+        bothStarted.countDown();
+        awaitQuietly(bothStarted);
+        done.countDown();
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(5, SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
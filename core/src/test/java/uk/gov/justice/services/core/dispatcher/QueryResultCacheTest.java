@@ -0,0 +1,188 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static java.util.Collections.singletonList;
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithRandomUUID;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryResultCacheTest {
+
+    private static final String QUERY_NAME = "people.query.person";
+    private static final String OTHER_QUERY_NAME = "people.query.addresses";
+    private static final String SHARED_QUERY_NAME = "people.query.countries";
+    private static final String RESPONSE_NAME = "people.query.person-response";
+    private static final String PERSON_UPDATED = "people.events.person-updated";
+    private static final long TTL_MILLIS = 1000L;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final AtomicInteger handlerCalls = new AtomicInteger();
+    private final UUID cachedResultId = randomUUID();
+
+    private long now;
+
+    private QueryResultCache cache;
+
+    @Before
+    public void setup() {
+        final Map<String, Set<String>> invalidatingEvents = new HashMap<>();
+        invalidatingEvents.put(QUERY_NAME, new HashSet<>(singletonList(PERSON_UPDATED)));
+        invalidatingEvents.put(SHARED_QUERY_NAME, new HashSet<>());
+        cache = new QueryResultCache("query-cache.test", invalidatingEvents, new ActionNames(singletonList(SHARED_QUERY_NAME)), TTL_MILLIS, 2, metricRegistry, () -> cachedResultId);
+        cache.nanoTime = () -> now;
+    }
+
+    @Test
+    public void shouldReturnCachedResultsOfIdenticalQueriesInEnvelopesOfTheirOwn() throws Exception {
+        final JsonEnvelope query = queryWith(QUERY_NAME, Json.createObjectBuilder().add("personId", "1").add("detail", true).build());
+        final JsonEnvelope sameQuery = queryWith(QUERY_NAME, Json.createObjectBuilder().add("detail", true).add("personId", "1").build());
+
+        final JsonEnvelope result = cache.dispatch(query, handler());
+        final JsonEnvelope cachedResult = cache.dispatch(sameQuery, handler());
+
+        assertThat(handlerCalls.get(), is(1));
+        assertThat(cachedResult.payload(), is(result.payload()));
+        assertThat(cachedResult.metadata().name(), is(RESPONSE_NAME));
+        assertThat(cachedResult.metadata().id(), is(cachedResultId));
+        assertThat(cachedResult.metadata().causation(), hasItem(sameQuery.metadata().id()));
+        assertThat(metricRegistry.meter("query-cache.test.hits").getCount(), is(1L));
+        assertThat(metricRegistry.meter("query-cache.test.misses").getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldOnlyShareCachedResultsBetweenUsersAndSessionsOfSharedActions() throws Exception {
+        final JsonObject payload = Json.createObjectBuilder().add("personId", "1").build();
+
+        cache.dispatch(queryWith(QUERY_NAME, payload, "user1", "session1"), handler());
+        cache.dispatch(queryWith(QUERY_NAME, payload, "user1", "session1"), handler());
+        cache.dispatch(queryWith(QUERY_NAME, payload, "user2", "session1"), handler());
+        cache.dispatch(queryWith(QUERY_NAME, payload, "user1", "session2"), handler());
+
+        assertThat(handlerCalls.get(), is(3));
+
+        cache.dispatch(queryWith(SHARED_QUERY_NAME, payload, "user1", "session1"), handler());
+        cache.dispatch(queryWith(SHARED_QUERY_NAME, payload, "user2", "session2"), handler());
+
+        assertThat(handlerCalls.get(), is(4));
+    }
+
+    @Test
+    public void shouldNotCacheActionsThatAreNotListed() throws Exception {
+        final JsonEnvelope query = queryWith(OTHER_QUERY_NAME, Json.createObjectBuilder().add("personId", "1").build());
+
+        cache.dispatch(query, handler());
+        cache.dispatch(query, handler());
+
+        assertThat(handlerCalls.get(), is(2));
+    }
+
+    @Test
+    public void shouldInvalidateResultsWhenAnEventThatChangesThemIsHandled() throws Exception {
+        final JsonEnvelope query = queryWith(QUERY_NAME, Json.createObjectBuilder().add("personId", "1").build());
+
+        cache.dispatch(query, handler());
+        cache.invalidateFor("people.events.address-added");
+        cache.dispatch(query, handler());
+        cache.invalidateFor(PERSON_UPDATED);
+        cache.dispatch(query, handler());
+
+        assertThat(handlerCalls.get(), is(2));
+    }
+
+    @Test
+    public void shouldNotCacheResultsOfQueriesRunningWhenInvalidated() throws Exception {
+        final JsonEnvelope query = queryWith(QUERY_NAME, Json.createObjectBuilder().add("personId", "1").build());
+
+        cache.dispatch(query, envelope -> {
+            cache.invalidateFor(PERSON_UPDATED);
+            return handler().apply(envelope);
+        });
+        cache.dispatch(query, handler());
+
+        assertThat(handlerCalls.get(), is(2));
+    }
+
+    @Test
+    public void shouldExpireResultsAfterTheirTimeToLive() throws Exception {
+        final JsonEnvelope query = queryWith(QUERY_NAME, Json.createObjectBuilder().add("personId", "1").build());
+
+        cache.dispatch(query, handler());
+        now += MILLISECONDS.toNanos(TTL_MILLIS);
+        cache.dispatch(query, handler());
+
+        assertThat(handlerCalls.get(), is(2));
+    }
+
+    @Test
+    public void shouldHoldNoMoreThanTheMaximumNumberOfResults() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            cache.dispatch(queryWith(QUERY_NAME, Json.createObjectBuilder().add("personId", String.valueOf(i)).build()), handler());
+        }
+
+        assertThat(cache.size(), is(2));
+        assertThat((Integer) metricRegistry.getGauges().get("query-cache.test.size").getValue(), is(2));
+    }
+
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedResult() throws Exception {
+        final JsonEnvelope first = queryWith(QUERY_NAME, Json.createObjectBuilder().add("personId", "1").build());
+        final JsonEnvelope second = queryWith(QUERY_NAME, Json.createObjectBuilder().add("personId", "2").build());
+        final JsonEnvelope third = queryWith(QUERY_NAME, Json.createObjectBuilder().add("personId", "3").build());
+
+        cache.dispatch(first, handler());
+        cache.dispatch(second, handler());
+        cache.dispatch(first, handler());
+        cache.dispatch(third, handler());
+        cache.dispatch(first, handler());
+
+        assertThat(handlerCalls.get(), is(3));
+
+        cache.dispatch(second, handler());
+
+        assertThat(handlerCalls.get(), is(4));
+    }
+
+    @Test
+    public void shouldNotifyTheListenerOfEventsHandled() throws Exception {
+        final Set<String> eventsHandled = new HashSet<>();
+
+        QueryResultCache.invalidating(eventsHandled::add).eventHandled(PERSON_UPDATED);
+
+        assertThat(eventsHandled, hasItem(PERSON_UPDATED));
+    }
+
+    private Function<JsonEnvelope, JsonEnvelope> handler() {
+        return envelope -> {
+            handlerCalls.incrementAndGet();
+            return envelopeFrom(metadataWithRandomUUID(RESPONSE_NAME), Json.createObjectBuilder().add("name", "John Smith").build());
+        };
+    }
+
+    private static JsonEnvelope queryWith(final String name, final JsonObject payload) {
+        return envelopeFrom(metadataWithRandomUUID(name), payload);
+    }
+
+    private static JsonEnvelope queryWith(final String name, final JsonObject payload, final String userId, final String sessionId) {
+        return envelopeFrom(metadataWithRandomUUID(name).withUserId(userId).withSessionId(sessionId), payload);
+    }
+}
@@ -0,0 +1,166 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithRandomUUID;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.MetadataIdGenerator;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.junit.Test;
+
+public class SingleFlightTest {
+
+    private static final String QUERY_NAME = "people.query.search-people";
+    private static final String PER_USER_QUERY_NAME = "people.query.my-people";
+    private static final String RESPONSE_NAME = "people.query.search-people-response";
+
+    private final SingleFlight singleFlight = SingleFlight.forActions(asList("people.query.*"), asList(QUERY_NAME), MetadataIdGenerator.random());
+
+    private final AtomicInteger handlerCalls = new AtomicInteger();
+    private final CountDownLatch handlerStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseHandler = new CountDownLatch(1);
+
+    @Test
+    public void shouldShareOneHandlerExecutionBetweenIdenticalRequestsInFlight() throws Exception {
+        final JsonEnvelope query = queryWith("user1", Json.createObjectBuilder().add("lastName", "Smith").add("limit", 10).build());
+        final JsonEnvelope sameQuery = queryWith("user2", Json.createObjectBuilder().add("limit", 10).add("lastName", "Smith").build());
+
+        final CompletableFuture<JsonEnvelope> leader = CompletableFuture.supplyAsync(() -> singleFlight.dispatch(query, blockingHandler()));
+        handlerStarted.await(5, SECONDS);
+        final CompletableFuture<JsonEnvelope> follower = CompletableFuture.supplyAsync(() -> singleFlight.dispatch(sameQuery, blockingHandler()));
+        waitUntilWaiting(follower);
+        releaseHandler.countDown();
+
+        final JsonEnvelope leaderResult = leader.get(5, SECONDS);
+        final JsonEnvelope followerResult = follower.get(5, SECONDS);
+
+        assertThat(handlerCalls.get(), is(1));
+        assertThat(followerResult.payload(), is(leaderResult.payload()));
+        assertThat(followerResult.metadata().name(), is(RESPONSE_NAME));
+        assertThat(followerResult.metadata().id(), is(not(leaderResult.metadata().id())));
+        assertThat(followerResult.metadata().causation(), hasItem(sameQuery.metadata().id()));
+        assertThat(followerResult.metadata().userId().get(), is("user2"));
+    }
+
+    @Test
+    public void shouldNotShareHandlerExecutionBetweenUsersOfActionsThatAreNotShared() throws Exception {
+        final JsonObject payload = Json.createObjectBuilder().add("lastName", "Smith").build();
+        final JsonEnvelope query = envelopeFrom(metadataWithRandomUUID(PER_USER_QUERY_NAME).withUserId("user1"), payload);
+        final JsonEnvelope otherUserQuery = envelopeFrom(metadataWithRandomUUID(PER_USER_QUERY_NAME).withUserId("user2"), payload);
+
+        final CompletableFuture<JsonEnvelope> leader = CompletableFuture.supplyAsync(() -> singleFlight.dispatch(query, blockingHandler()));
+        handlerStarted.await(5, SECONDS);
+        final JsonEnvelope otherUserResult = singleFlight.dispatch(otherUserQuery, countingHandler());
+        releaseHandler.countDown();
+        leader.get(5, SECONDS);
+
+        assertThat(handlerCalls.get(), is(2));
+        assertThat(otherUserResult.metadata().userId().get(), is("user2"));
+    }
+
+    @Test
+    public void shouldNotShareHandlerExecutionBetweenDifferentRequests() throws Exception {
+        final Function<JsonEnvelope, JsonEnvelope> handler = countingHandler();
+
+        singleFlight.dispatch(queryWith("user1", Json.createObjectBuilder().add("lastName", "Smith").build()), handler);
+        singleFlight.dispatch(queryWith("user1", Json.createObjectBuilder().add("lastName", "Jones").build()), handler);
+
+        assertThat(handlerCalls.get(), is(2));
+    }
+
+    @Test
+    public void shouldNotCoalesceActionsThatAreNotListed() throws Exception {
+        final JsonEnvelope command = envelopeFrom(metadataWithRandomUUID("people.command.add-person"), Json.createObjectBuilder().build());
+
+        final JsonEnvelope result = SingleFlight.none().dispatch(command, envelope -> envelope);
+
+        assertThat(result, is(sameInstance(command)));
+    }
+
+    @Test
+    public void shouldThrowTheHandlerExceptionToEveryCaller() throws Exception {
+        final JsonEnvelope query = queryWith("user1", Json.createObjectBuilder().add("lastName", "Smith").build());
+        final IllegalStateException exception = new IllegalStateException("Handler failed");
+
+        final CompletableFuture<JsonEnvelope> leader = CompletableFuture.supplyAsync(() -> singleFlight.dispatch(query, envelope -> {
+            handlerStarted.countDown();
+            awaitQuietly(releaseHandler);
+            throw exception;
+        }));
+        handlerStarted.await(5, SECONDS);
+        final CompletableFuture<JsonEnvelope> follower = CompletableFuture.supplyAsync(() -> singleFlight.dispatch(query, countingHandler()));
+        waitUntilWaiting(follower);
+        releaseHandler.countDown();
+
+        assertFailedWith(leader, exception);
+        assertFailedWith(follower, exception);
+        assertThat(handlerCalls.get(), is(0));
+    }
+
+    private Function<JsonEnvelope, JsonEnvelope> blockingHandler() {
+        return envelope -> {
+            handlerCalls.incrementAndGet();
+            handlerStarted.countDown();
+            awaitQuietly(releaseHandler);
+            return responseTo(envelope);
+        };
+    }
+
+    private Function<JsonEnvelope, JsonEnvelope> countingHandler() {
+        return envelope -> {
+            handlerCalls.incrementAndGet();
+            return responseTo(envelope);
+        };
+    }
+
+    private static JsonEnvelope responseTo(final JsonEnvelope envelope) {
+        return envelopeFrom(
+                metadataWithRandomUUID(RESPONSE_NAME).withUserId(envelope.metadata().userId().orElse(null)),
+                Json.createObjectBuilder().add("people", Json.createArrayBuilder().add("John Smith")).build());
+    }
+
+    private static JsonEnvelope queryWith(final String userId, final JsonObject payload) {
+        return envelopeFrom(metadataWithRandomUUID(QUERY_NAME).withUserId(userId), payload);
+    }
+
+    private void waitUntilWaiting(final CompletableFuture<JsonEnvelope> follower) {
+        while (singleFlight.followers() == 0) {
+            Thread.yield();
+        }
+        assertThat(follower.isDone(), is(false));
+    }
+
+    private static void assertFailedWith(final CompletableFuture<JsonEnvelope> future, final Exception exception) throws Exception {
+        try {
+            future.get(5, SECONDS);
+            fail();
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), is(sameInstance((Throwable) exception)));
+        }
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(5, SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import javax.transaction.RollbackException;
+import javax.transaction.UserTransaction;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransactionalDispatcherTest {
+
+    @Mock
+    private UserTransaction userTransaction;
+
+    @Mock
+    private AsynchronousDispatcher dispatcher;
+
+    @Mock(answer = RETURNS_DEEP_STUBS)
+    private JsonEnvelope envelope;
+
+    @InjectMocks
+    private TransactionalDispatcher transactionalDispatcher;
+
+    @Test
+    public void shouldDispatchInATransaction() throws Exception {
+        transactionalDispatcher.dispatch(dispatcher, envelope);
+
+        final InOrder inOrder = inOrder(userTransaction, dispatcher);
+        inOrder.verify(userTransaction).begin();
+        inOrder.verify(dispatcher).dispatch(envelope);
+        inOrder.verify(userTransaction).commit();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRollBackAndRethrowIfTheDispatchFails() throws Exception {
+        doThrow(new IllegalArgumentException("Handler failed")).when(dispatcher).dispatch(envelope);
+
+        try {
+            transactionalDispatcher.dispatch(dispatcher, envelope);
+        } finally {
+            verify(userTransaction).rollback();
+            verify(userTransaction, never()).commit();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldThrowIfTheTransactionFailsToCommit() throws Exception {
+        doThrow(new RollbackException()).when(userTransaction).commit();
+
+        transactionalDispatcher.dispatch(dispatcher, envelope);
+    }
+}
@@ -0,0 +1,70 @@
+package uk.gov.justice.services.core.enveloper;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.CAUSATION;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataCausedBy;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataOf;
+
+import uk.gov.justice.services.messaging.CausationPolicy;
+import uk.gov.justice.services.messaging.Metadata;
+
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CausationPolicyProducerTest {
+
+    private static final UUID ROOT = UUID.randomUUID();
+    private static final UUID PARENT = UUID.randomUUID();
+
+    private final Metadata parent = metadataOf(PARENT, "command.name")
+            .withCausation(ROOT, UUID.randomUUID(), UUID.randomUUID())
+            .build();
+
+    private CausationPolicyProducer producer;
+
+    @Before
+    public void setup() {
+        producer = new CausationPolicyProducer();
+        producer.maxAncestors = "none";
+        producer.encoding = "uuid";
+    }
+
+    @Test
+    public void shouldProduceUnboundedPolicyByDefault() {
+        assertThat(causedBy(producer.causationPolicy()).causation().size(), equalTo(4));
+    }
+
+    @Test
+    public void shouldProduceBoundedPolicy() {
+        producer.maxAncestors = "1";
+
+        final Metadata metadata = causedBy(producer.causationPolicy());
+
+        assertThat(metadata.causation().size(), equalTo(2));
+        assertThat(metadata.causation().get(0), equalTo(ROOT));
+        assertThat(metadata.causation().get(1), equalTo(PARENT));
+    }
+
+    @Test
+    public void shouldProduceCompactEncoding() {
+        producer.encoding = "compact";
+
+        final Metadata metadata = causedBy(producer.causationPolicy());
+
+        assertThat(metadata.asJsonObject().getJsonArray(CAUSATION).getString(0).length(), equalTo(22));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionOnUnknownEncoding() {
+        producer.encoding = "base32";
+
+        producer.causationPolicy();
+    }
+
+    private Metadata causedBy(final CausationPolicy causationPolicy) {
+        return metadataCausedBy(parent, UUID.randomUUID(), "event.name", causationPolicy);
+    }
+}
@@ -13,6 +13,7 @@ import uk.gov.justice.domain.annotation.Event;
 import uk.gov.justice.services.common.converter.ObjectToJsonValueConverter;
 import uk.gov.justice.services.core.enveloper.exception.InvalidEventException;
 import uk.gov.justice.services.core.extension.EventFoundEvent;
+import uk.gov.justice.services.messaging.CausationPolicy;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import java.util.UUID;
@@ -153,6 +154,37 @@ public class EnveloperTest {
         verify(objectToJsonValueConverter, times(1)).convert(object);
     }
 
+    @Test
+    public void shouldApplyCausationPolicy() throws JsonProcessingException {
+        final UUID rootCausationId = UUID.randomUUID();
+        enveloper = new Enveloper(objectToJsonValueConverter, CausationPolicy.lastAncestors(1));
+        enveloper.register(event);
+        when(envelope.metadata()).thenReturn(
+                metadataOf(COMMAND_UUID, TEST_EVENT_NAME)
+                        .withCausation(rootCausationId, OLD_CAUSATION_ID)
+                        .build());
+        when(objectToJsonValueConverter.convert(object)).thenReturn(payload);
+
+        JsonEnvelope event = enveloper.withMetadataFrom(envelope).apply(object);
+
+        assertThat(event.metadata().causation().size(), equalTo(2));
+        assertThat(event.metadata().causation().get(0), equalTo(rootCausationId));
+        assertThat(event.metadata().causation().get(1), equalTo(COMMAND_UUID));
+    }
+
+    @Test
+    public void shouldUseMetadataIdGenerator() throws JsonProcessingException {
+        final UUID eventId = UUID.randomUUID();
+        enveloper = new Enveloper(objectToJsonValueConverter, CausationPolicy.unbounded(), () -> eventId);
+        enveloper.register(event);
+        when(envelope.metadata()).thenReturn(metadataOf(COMMAND_UUID, TEST_COMMAND_NAME).build());
+        when(objectToJsonValueConverter.convert(object)).thenReturn(payload);
+
+        JsonEnvelope event = enveloper.withMetadataFrom(envelope).apply(object);
+
+        assertThat(event.metadata().id(), equalTo(eventId));
+    }
+
     @Test
     public void shouldThrowExceptionIfProvidedInvalidEventObject() {
         exception.expect(InvalidEventException.class);
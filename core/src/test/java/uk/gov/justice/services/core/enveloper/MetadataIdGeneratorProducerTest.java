@@ -0,0 +1,44 @@
+package uk.gov.justice.services.core.enveloper;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetadataIdGeneratorProducerTest {
+
+    private MetadataIdGeneratorProducer producer;
+
+    @Before
+    public void setup() {
+        producer = new MetadataIdGeneratorProducer();
+        producer.generator = "random";
+    }
+
+    @Test
+    public void shouldProduceRandomIdsByDefault() {
+        assertThat(producer.metadataIdGenerator().nextId().version(), equalTo(4));
+    }
+
+    @Test
+    public void shouldProduceTimeOrderedIds() {
+        producer.generator = "time-ordered";
+
+        assertThat(producer.metadataIdGenerator().nextId().version(), equalTo(7));
+    }
+
+    @Test
+    public void shouldProduceSecureRandomIds() {
+        producer.generator = "secure-random";
+
+        assertThat(producer.metadataIdGenerator().nextId().version(), equalTo(4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionOnUnknownGenerator() {
+        producer.generator = "sequential";
+
+        producer.metadataIdGenerator();
+    }
+}
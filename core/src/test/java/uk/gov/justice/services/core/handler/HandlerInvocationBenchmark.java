@@ -0,0 +1,72 @@
+package uk.gov.justice.services.core.handler;
+
+import static javax.json.Json.createObjectBuilder;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataOf;
+
+import uk.gov.justice.services.core.annotation.Handles;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.lang.reflect.Method;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares dispatching an envelope to a handler method with {@link Method#invoke}, as {@link
+ * HandlerMethod} used to, with the bound method handle it now uses.
+ *
+ * Run from the IDE, or with the JMH runner on the test classpath; add <code>-prof gc</code> to
+ * compare the allocation per dispatch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HandlerInvocationBenchmark {
+
+    private JsonEnvelope envelope;
+    private TestHandler handler;
+    private Method method;
+    private HandlerMethod handlerMethod;
+
+    @Setup
+    public void setup() throws Exception {
+        envelope = envelopeFrom(
+                metadataOf(UUID.randomUUID(), "test.command.do-something").build(),
+                createObjectBuilder().add("name", "value").build());
+        handler = new TestHandler();
+        method = TestHandler.class.getMethod("handle", JsonEnvelope.class);
+        handlerMethod = new HandlerMethod(handler, method, JsonEnvelope.class);
+    }
+
+    @Benchmark
+    public Object reflectiveInvoke() throws Exception {
+        return method.invoke(handler, envelope);
+    }
+
+    @Benchmark
+    public Object handlerMethodExecute() {
+        return handlerMethod.execute(envelope);
+    }
+
+    public static class TestHandler {
+
+        @Handles("test.command.do-something")
+        public JsonEnvelope handle(final JsonEnvelope envelope) {
+            return envelope;
+        }
+    }
+}
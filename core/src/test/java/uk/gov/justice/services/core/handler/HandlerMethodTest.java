@@ -1,6 +1,8 @@
 package uk.gov.justice.services.core.handler;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
@@ -21,6 +23,7 @@ import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.nio.charset.Charset;
+import java.util.List;
 
 import com.google.common.io.Resources;
 import org.junit.Before;
@@ -46,6 +49,9 @@ public class HandlerMethodTest {
     @Mock
     private PrivateMethodCommandHandler privateMethodCommandHandler;
 
+    @Mock
+    private BatchCommandHandler batchCommandHandler;
+
     private JsonEnvelope envelope;
 
     @Before
@@ -121,6 +127,48 @@ public class HandlerMethodTest {
         new HandlerMethod(synchronousCommandHandler, method(new SynchronousCommandHandler(), "handles"), Object.class);
     }
 
+    @Test
+    public void shouldExecuteBatchHandlerMethod() throws Exception {
+        final List<JsonEnvelope> envelopes = asList(envelope, envelope);
+
+        batchHandlerInstance().executeBatch(envelopes);
+
+        verify(batchCommandHandler).handles(envelopes);
+    }
+
+    @Test
+    public void shouldExecuteBatchHandlerMethodWithSingleEnvelope() throws Exception {
+        final Object result = batchHandlerInstance().execute(envelope);
+
+        verify(batchCommandHandler).handles(singletonList(envelope));
+        assertThat(result, nullValue());
+    }
+
+    @Test
+    public void shouldIdentifyBatchHandlerMethod() {
+        assertThat(batchHandlerInstance().isBatch(), is(true));
+        assertThat(asyncHandlerInstance().isBatch(), is(false));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotExecuteBatchOnSingleHandlerMethod() {
+        asyncHandlerInstance().executeBatch(singletonList(envelope));
+    }
+
+    @Test(expected = InvalidHandlerException.class)
+    public void shouldThrowExceptionWithSynchronousBatchMethod() {
+        new HandlerMethod(batchCommandHandler, method(new BatchCommandHandler(), "handlesSync"), JsonEnvelope.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWithListOfOtherType() {
+        new HandlerMethod(batchCommandHandler, method(new BatchCommandHandler(), "handlesStrings"), Void.TYPE);
+    }
+
+    private HandlerMethod batchHandlerInstance() {
+        return new HandlerMethod(batchCommandHandler, method(new BatchCommandHandler(), "handles"), Void.TYPE);
+    }
+
     private HandlerMethod asyncHandlerInstance() {
         return new HandlerMethod(asynchronousCommandHandler, method(new AsynchronousCommandHandler(), "handles"), Void.TYPE);
     }
@@ -181,4 +229,20 @@ public class HandlerMethodTest {
         }
     }
 
+    public static class BatchCommandHandler {
+
+        @Handles("test-context.command.create-something")
+        public void handles(final List<JsonEnvelope> envelopes) {
+        }
+
+        @Handles("test-context.command.create-something-else")
+        public JsonEnvelope handlesSync(final List<JsonEnvelope> envelopes) {
+            return null;
+        }
+
+        @Handles("test-context.command.create-another-thing")
+        public void handlesStrings(final List<String> strings) {
+        }
+    }
+
 }
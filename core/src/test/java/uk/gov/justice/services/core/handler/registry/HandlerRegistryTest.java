@@ -2,16 +2,19 @@ package uk.gov.justice.services.core.handler.registry;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsNull.nullValue;
 import static uk.gov.justice.services.core.annotation.Component.COMMAND_HANDLER;
+import static uk.gov.justice.services.core.annotation.ServiceComponentLocation.LOCAL;
 import static uk.gov.justice.services.core.handler.HandlerMethod.ASYNCHRONOUS;
 import static uk.gov.justice.services.core.handler.HandlerMethod.SYNCHRONOUS;
 import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelope;
 
 import uk.gov.justice.services.core.annotation.Handles;
 import uk.gov.justice.services.core.annotation.ServiceComponent;
+import uk.gov.justice.services.core.dispatcher.DispatcherMetrics;
 import uk.gov.justice.services.core.handler.HandlerMethod;
 import uk.gov.justice.services.core.handler.exception.MissingHandlerException;
 import uk.gov.justice.services.core.handler.registry.exception.DuplicateHandlerException;
@@ -19,6 +22,9 @@ import uk.gov.justice.services.core.handler.registry.exception.InvalidHandlerExc
 import uk.gov.justice.services.core.util.RecordingTestHandler;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
+import java.util.List;
+
+import com.codahale.metrics.MetricRegistry;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -80,6 +86,64 @@ public class HandlerRegistryTest {
         assertThat(testAllEventsHandler.recordedEnvelope(), nullValue());
     }
 
+    @Test
+    public void shouldReturnBatchMethodOfTheRegisteredBatchHandler() {
+        createRegistryWith(new TestBatchCommandHandler());
+
+        final HandlerMethod handlerMethod = registry.getBatch(COMMAND_NAME).get();
+
+        assertThat(handlerMethod.isBatch(), is(true));
+    }
+
+    @Test
+    public void shouldReturnBatchMethodOfTheAllEventsBatchHandler() {
+        createRegistryWith(new TestAllEventsBatchHandler());
+
+        assertThat(registry.getBatch("some.name").isPresent(), is(true));
+    }
+
+    @Test
+    public void shouldNotReturnBatchMethodIfOnlySingleHandlerRegistered() {
+        createRegistryWith(new TestCommandHandler());
+
+        assertThat(registry.getBatch(COMMAND_NAME).isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldPreferSingleHandlerForTheActionOverAllEventsBatchHandler() {
+        final TestCommandHandler testCommandHandler = new TestCommandHandler();
+        createRegistryWith(testCommandHandler, new TestAllEventsBatchHandler());
+
+        assertThat(registry.getBatch(COMMAND_NAME).isPresent(), is(false));
+        assertThat(registry.getBatch("some.name").isPresent(), is(true));
+        assertHandlerMethodInvokesHandler(registry.get(COMMAND_NAME, ASYNCHRONOUS), testCommandHandler);
+    }
+
+    @Test
+    public void shouldReturnBatchMethodAsAsynchronousHandlerIfNoSingleHandlerRegistered() {
+        final TestBatchCommandHandler testBatchCommandHandler = new TestBatchCommandHandler();
+        createRegistryWith(testBatchCommandHandler);
+
+        final JsonEnvelope envelope = envelope().build();
+        registry.get(COMMAND_NAME, ASYNCHRONOUS).execute(envelope);
+
+        assertThat(testBatchCommandHandler.recordedEnvelope(), sameInstance(envelope));
+    }
+
+    @Test
+    public void shouldAllowSingleAndBatchHandlersForTheSameName() {
+        final TestCommandHandler testCommandHandler = new TestCommandHandler();
+        createRegistryWith(testCommandHandler, new TestBatchCommandHandler());
+
+        assertHandlerMethodInvokesHandler(registry.get(COMMAND_NAME, ASYNCHRONOUS), testCommandHandler);
+        assertThat(registry.getBatch(COMMAND_NAME).isPresent(), is(true));
+    }
+
+    @Test(expected = DuplicateHandlerException.class)
+    public void shouldThrowExceptionWithDuplicateBatchHandlers() {
+        createRegistryWith(new TestBatchCommandHandler(), new TestBatchCommandHandler());
+    }
+
     private void assertHandlerMethodInvokesHandler(final HandlerMethod handlerMethod, final RecordingTestHandler handler) {
         assertThat(handlerMethod, notNullValue());
 
@@ -116,6 +180,19 @@ public class HandlerRegistryTest {
         createRegistryWith(new TestCommandHandler(), new TestCommandHandlerDuplicate());
     }
 
+    @Test
+    public void shouldResolveMetricsOfRegisteredActionsOnly() {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        registry = new HandlerRegistry(new DispatcherMetrics("COMMAND_HANDLER", LOCAL, metricRegistry));
+
+        registry.register(new TestCommandHandler());
+
+        assertThat(metricRegistry.getTimers().keySet().contains("dispatcher.COMMAND_HANDLER.local." + COMMAND_NAME + ".time"), is(true));
+        assertThat(registry.metricsOf(COMMAND_NAME).get(), sameInstance(registry.get(COMMAND_NAME, ASYNCHRONOUS).metrics()));
+        assertThat(registry.metricsOf("test.command.unregistered").isPresent(), is(false));
+        assertThat(metricRegistry.getTimers().size(), is(1));
+    }
+
     @Test(expected = DuplicateHandlerException.class)
     public void shouldThrowExceptionWithDuplicateSynchronousHandlers() {
         createRegistryWith(new TestCommandHandlerWithSynchronousHandler(), new TestCommandHandlerWithSynchronousHandlerDuplicate());
@@ -236,4 +313,24 @@ public class HandlerRegistryTest {
 
     }
 
+
+    @ServiceComponent(COMMAND_HANDLER)
+    public static class TestBatchCommandHandler extends RecordingTestHandler {
+
+        @Handles(COMMAND_NAME)
+        public void handle(List<JsonEnvelope> envelopes) {
+            envelopes.forEach(this::doHandle);
+        }
+
+    }
+
+    @ServiceComponent(COMMAND_HANDLER)
+    public static class TestAllEventsBatchHandler {
+
+        @Handles("*")
+        public void handle(List<JsonEnvelope> envelopes) {
+        }
+
+    }
+
 }
@@ -10,6 +10,8 @@ import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataOf;
 
 import uk.gov.justice.services.common.converter.ObjectToJsonValueConverter;
 import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
+import uk.gov.justice.services.core.accesscontrol.AccessControlDecisionCache;
 import uk.gov.justice.services.core.accesscontrol.AccessControlFailureMessageGenerator;
 import uk.gov.justice.services.core.accesscontrol.AccessControlService;
 import uk.gov.justice.services.core.accesscontrol.AllowAllPolicyEvaluator;
@@ -18,20 +20,31 @@ import uk.gov.justice.services.core.annotation.Adapter;
 import uk.gov.justice.services.core.annotation.FrameworkComponent;
 import uk.gov.justice.services.core.annotation.Handles;
 import uk.gov.justice.services.core.annotation.ServiceComponent;
+import uk.gov.justice.services.core.configuration.ValueProducer;
+import uk.gov.justice.services.core.dispatcher.AsynchronousDispatchExecutor;
 import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcher;
 import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcherProducer;
+import uk.gov.justice.services.core.dispatcher.ConcurrencyLimitConfiguration;
 import uk.gov.justice.services.core.dispatcher.DispatcherCache;
 import uk.gov.justice.services.core.dispatcher.DispatcherFactory;
+import uk.gov.justice.services.core.dispatcher.MetricRegistryProducer;
+import uk.gov.justice.services.core.dispatcher.QueryResultCacheConfiguration;
 import uk.gov.justice.services.core.dispatcher.RequesterProducer;
 import uk.gov.justice.services.core.dispatcher.ServiceComponentObserver;
+import uk.gov.justice.services.core.dispatcher.SingleFlightConfiguration;
 import uk.gov.justice.services.core.dispatcher.SynchronousDispatcherProducer;
+import uk.gov.justice.services.core.dispatcher.TransactionalDispatcher;
+import uk.gov.justice.services.core.enveloper.CausationPolicyProducer;
 import uk.gov.justice.services.core.enveloper.Enveloper;
+import uk.gov.justice.services.core.enveloper.MetadataIdGeneratorProducer;
 import uk.gov.justice.services.core.extension.AnnotationScanner;
 import uk.gov.justice.services.core.jms.JmsDestinations;
 import uk.gov.justice.services.core.jms.JmsSenderFactory;
 import uk.gov.justice.services.core.sender.ComponentDestination;
 import uk.gov.justice.services.core.sender.SenderProducer;
 import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonEnvelopeParser;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
 import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
 import uk.gov.justice.services.messaging.jms.DefaultJmsEnvelopeSender;
 import uk.gov.justice.services.messaging.jms.EnvelopeConverter;
@@ -74,6 +87,8 @@ public class CoreComponentsIT {
             AllEventsHandler.class,
             AnnotationScanner.class,
             AsynchronousDispatcherProducer.class,
+            AsynchronousDispatchExecutor.class,
+            TransactionalDispatcher.class,
             SynchronousDispatcherProducer.class,
             RequesterProducer.class,
             ServiceComponentObserver.class,
@@ -87,15 +102,26 @@ public class CoreComponentsIT {
 
             StringToJsonObjectConverter.class,
             JsonObjectEnvelopeConverter.class,
+            JsonEnvelopeParser.class,
+            JsonEnvelopeWriter.class,
             ObjectToJsonValueConverter.class,
             ObjectMapper.class,
+            ObjectMapperRegistry.class,
             Enveloper.class,
+            CausationPolicyProducer.class,
+            MetadataIdGeneratorProducer.class,
 
             AccessControlFailureMessageGenerator.class,
             AllowAllPolicyEvaluator.class,
             AccessControlService.class,
+            AccessControlDecisionCache.class,
+            ValueProducer.class,
             DispatcherCache.class,
             DispatcherFactory.class,
+            MetricRegistryProducer.class,
+            ConcurrencyLimitConfiguration.class,
+            SingleFlightConfiguration.class,
+            QueryResultCacheConfiguration.class,
             JsonEnvelopeLoggerHelper.class,
             PolicyEvaluator.class
     })
@@ -0,0 +1,90 @@
+package uk.gov.justice.services.core.it;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+import uk.gov.justice.services.core.configuration.ValueProducer;
+import uk.gov.justice.services.core.enveloper.MetadataIdGeneratorProducer;
+import uk.gov.justice.services.messaging.MetadataIdGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+
+import org.apache.openejb.jee.Beans;
+import org.apache.openejb.junit.ApplicationComposer;
+import org.apache.openejb.testing.Module;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Deploys the {@link MetadataIdGeneratorProducer} alongside every class of messaging-core that
+ * implements {@link MetadataIdGenerator}, as messaging-core's <code>bean-discovery-mode="all"</code>
+ * discovers them, and checks that the generator still resolves unambiguously.
+ */
+@RunWith(ApplicationComposer.class)
+public class MetadataIdGeneratorIT {
+
+    @Inject
+    private MetadataIdGenerator metadataIdGenerator;
+
+    @Module
+    public Beans beans() throws Exception {
+        final Beans beans = new Beans();
+        beans.addManagedClass(ValueProducer.class);
+        beans.addManagedClass(MetadataIdGeneratorProducer.class);
+        for (final Class<?> messagingCoreClass : messagingCoreClasses()) {
+            if (MetadataIdGenerator.class.isAssignableFrom(messagingCoreClass)) {
+                beans.addManagedClass(messagingCoreClass);
+            }
+        }
+        return beans;
+    }
+
+    @Test
+    public void shouldResolveTheProducedMetadataIdGenerator() throws Exception {
+        assertThat(metadataIdGenerator, is(notNullValue()));
+        assertThat(metadataIdGenerator.nextId().version(), is(4));
+    }
+
+    private static List<Class<?>> messagingCoreClasses() throws IOException, URISyntaxException, ClassNotFoundException {
+        final File location = new File(MetadataIdGenerator.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final List<String> classNames = new ArrayList<>();
+        if (location.isDirectory()) {
+            final Path root = location.toPath();
+            try (final Stream<Path> paths = Files.walk(root)) {
+                paths.map(path -> root.relativize(path).toString().replace(File.separatorChar, '/'))
+                        .forEach(name -> addClassName(name, classNames));
+            }
+        } else {
+            try (final JarFile jar = new JarFile(location)) {
+                for (final JarEntry entry : Collections.list(jar.entries())) {
+                    addClassName(entry.getName(), classNames);
+                }
+            }
+        }
+
+        final List<Class<?>> classes = new ArrayList<>();
+        for (final String className : classNames) {
+            classes.add(Class.forName(className, false, MetadataIdGenerator.class.getClassLoader()));
+        }
+        return classes;
+    }
+
+    private static void addClassName(final String entryName, final List<String> classNames) {
+        if (entryName.endsWith(".class") && !entryName.contains("$")) {
+            classNames.add(entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.'));
+        }
+    }
+}
@@ -25,6 +25,12 @@ public class JsonSchemaLoaderTest {
         assertThat(schema.getId(), equalTo("test-schema"));
     }
 
+    @Test
+    public void shouldFindSchemaOnClasspath() {
+        assertThat(loader.hasSchema("test-schema"), equalTo(true));
+        assertThat(loader.hasSchema("non-existent"), equalTo(false));
+    }
+
     @Test(expected = IllegalStateException.class)
     public void shouldThrowExceptionIfSchemaCouldNotBeLoaded() {
         loader.loadSchema("non-existent");
@@ -1,7 +1,10 @@
 package uk.gov.justice.services.core.json;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.skyscreamer.jsonassert.JSONCompare.compareJSON;
@@ -57,6 +60,16 @@ public class JsonSchemaValidatorTest {
         verify(schema).validate(argThat(equalToJSONObject(new JSONObject(json))));
     }
 
+    @Test
+    public void shouldCacheWhetherThereIsASchema() {
+        when(loader.hasSchema("test-schema")).thenReturn(true);
+
+        assertThat(validator.hasSchema("test-schema"), is(true));
+        assertThat(validator.hasSchema("test-schema"), is(true));
+
+        verify(loader, times(1)).hasSchema("test-schema");
+    }
+
     private Matcher<JSONObject> equalToJSONObject(final JSONObject jsonObject) {
         return new TypeSafeMatcher<JSONObject>() {
             @Override
@@ -0,0 +1,38 @@
+package uk.gov.justice.services.core.json;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
+import uk.gov.justice.services.core.extension.EventFoundEvent;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ObjectMapperWarmerTest {
+
+    @Mock
+    private ObjectMapperRegistry objectMapperRegistry;
+
+    @Mock
+    private EventFoundEvent event;
+
+    @InjectMocks
+    private ObjectMapperWarmer objectMapperWarmer;
+
+    @Test
+    public void shouldWarmUpRegistryForEventClass() {
+        doReturn(TestEvent.class).when(event).getClazz();
+
+        objectMapperWarmer.warmUp(event);
+
+        verify(objectMapperRegistry).warmUp(TestEvent.class);
+    }
+
+    public static class TestEvent {
+    }
+}
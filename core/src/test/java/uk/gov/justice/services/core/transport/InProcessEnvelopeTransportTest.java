@@ -0,0 +1,228 @@
+package uk.gov.justice.services.core.transport;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.justice.services.core.annotation.Component.COMMAND_CONTROLLER;
+import static uk.gov.justice.services.core.annotation.Component.EVENT_LISTENER;
+import static uk.gov.justice.services.core.annotation.Component.EVENT_PROCESSOR;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithRandomUUID;
+
+import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcher;
+import uk.gov.justice.services.core.dispatcher.Dispatcher;
+import uk.gov.justice.services.core.dispatcher.DispatcherCache;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.concurrent.Executors;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InProcessEnvelopeTransportTest {
+
+    @Mock
+    private DispatcherCache dispatcherCache;
+
+    @Mock
+    private Dispatcher controllerDispatcher;
+
+    @Mock
+    private Dispatcher listenerDispatcher;
+
+    @Mock
+    private Dispatcher processorDispatcher;
+
+    @Mock
+    private JsonEnvelope envelope;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Mock
+    private LocalDeliveryProcessor localDeliveryProcessor;
+
+    private InProcessEnvelopeTransport transport;
+
+    @Before
+    public void setup() {
+        transport = new InProcessEnvelopeTransport();
+        transport.dispatcherCache = dispatcherCache;
+        transport.localDeliveryProcessor = localDeliveryProcessor;
+        transport.bufferSize = "16";
+
+        doAnswer(invocation -> {
+            ((AsynchronousDispatcher) invocation.getArguments()[0]).dispatch((JsonEnvelope) invocation.getArguments()[1]);
+            return null;
+        }).when(localDeliveryProcessor).process(any(AsynchronousDispatcher.class), any(JsonEnvelope.class));
+
+        when(dispatcherCache.dispatcherFor(COMMAND_CONTROLLER)).thenReturn(controllerDispatcher);
+        when(dispatcherCache.dispatcherFor(EVENT_LISTENER)).thenReturn(listenerDispatcher);
+        when(dispatcherCache.dispatcherFor(EVENT_PROCESSOR)).thenReturn(processorDispatcher);
+    }
+
+    @After
+    public void tearDown() {
+        transport.stop();
+    }
+
+    @Test
+    public void shouldNotHandleAnyDestinationByDefault() {
+        transport.inProcessDestinations = "none";
+        transport.start(Executors.defaultThreadFactory());
+
+        assertThat(transport.handles("people.controller.command"), is(false));
+    }
+
+    @Test
+    public void shouldHandleConfiguredDestinations() {
+        transport.inProcessDestinations = "people.controller.command=COMMAND_CONTROLLER, people.event=EVENT_LISTENER";
+        transport.start(Executors.defaultThreadFactory());
+
+        assertThat(transport.handles("people.controller.command"), is(true));
+        assertThat(transport.handles("people.event"), is(true));
+        assertThat(transport.handles("people.handler.command"), is(false));
+    }
+
+    @Test
+    public void shouldDispatchEnvelopeToTargetComponent() {
+        transport.inProcessDestinations = "people.controller.command=COMMAND_CONTROLLER";
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.controller.command");
+
+        verify(controllerDispatcher, timeout(5000)).asynchronousDispatch(envelope);
+    }
+
+    @Test
+    public void shouldProcessEnvelopeThroughLocalDeliveryProcessor() {
+        transport.inProcessDestinations = "people.controller.command=COMMAND_CONTROLLER";
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.controller.command");
+
+        verify(localDeliveryProcessor, timeout(5000)).process(any(AsynchronousDispatcher.class), same(envelope));
+    }
+
+    @Test
+    public void shouldDispatchEnvelopeToEveryComponentOfDestination() {
+        transport.inProcessDestinations = "people.event=EVENT_LISTENER,people.event=EVENT_PROCESSOR";
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.event");
+
+        verify(listenerDispatcher, timeout(5000)).asynchronousDispatch(envelope);
+        verify(processorDispatcher, timeout(5000)).asynchronousDispatch(envelope);
+    }
+
+    @Test
+    public void shouldContinueDispatchingAfterHandlerFailure() {
+        final JsonEnvelope otherEnvelope = mock(JsonEnvelope.class);
+        transport.inProcessDestinations = "people.controller.command=COMMAND_CONTROLLER";
+        when(envelope.metadata()).thenReturn(metadataWithRandomUUID("people.add-person"));
+        doThrow(new IllegalStateException()).when(controllerDispatcher).asynchronousDispatch(envelope);
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.controller.command");
+        transport.send(otherEnvelope, "people.controller.command");
+
+        verify(controllerDispatcher, timeout(5000).times(InProcessChannel.MAX_ATTEMPTS)).asynchronousDispatch(envelope);
+        verify(controllerDispatcher, timeout(5000)).asynchronousDispatch(otherEnvelope);
+    }
+
+    @Test
+    public void shouldRetryEnvelopeThatFails() {
+        transport.inProcessDestinations = "people.controller.command=COMMAND_CONTROLLER";
+        doThrow(new IllegalStateException()).doNothing().when(controllerDispatcher).asynchronousDispatch(envelope);
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.controller.command");
+
+        verify(controllerDispatcher, timeout(5000).times(2)).asynchronousDispatch(envelope);
+    }
+
+    @Test
+    public void shouldPublishEnvelopeSentInTransactionOnceCommitted() throws Exception {
+        final ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        transport.inProcessDestinations = "people.controller.command=COMMAND_CONTROLLER";
+        transport.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.controller.command");
+
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronization.capture());
+        Thread.sleep(200L);
+        verify(controllerDispatcher, never()).asynchronousDispatch(envelope);
+
+        synchronization.getValue().beforeCompletion();
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+
+        verify(controllerDispatcher, timeout(5000)).asynchronousDispatch(envelope);
+    }
+
+    @Test
+    public void shouldDiscardEnvelopeSentInTransactionThatRollsBack() throws Exception {
+        final ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        final JsonEnvelope otherEnvelope = mock(JsonEnvelope.class);
+        transport.inProcessDestinations = "people.controller.command=COMMAND_CONTROLLER";
+        transport.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE, Status.STATUS_NO_TRANSACTION);
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.controller.command");
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().beforeCompletion();
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+        transport.send(otherEnvelope, "people.controller.command");
+
+        verify(controllerDispatcher, timeout(5000)).asynchronousDispatch(otherEnvelope);
+        verify(controllerDispatcher, never()).asynchronousDispatch(envelope);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldFailTransactionThatSendsToStoppedChannel() {
+        final ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        transport.inProcessDestinations = "people.controller.command=COMMAND_CONTROLLER";
+        transport.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.controller.command");
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronization.capture());
+        transport.stop();
+
+        synchronization.getValue().beforeCompletion();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionForInvalidConfiguration() {
+        transport.inProcessDestinations = "people.controller.command";
+        transport.start(Executors.defaultThreadFactory());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenSendingToDestinationNotDeliveredInProcess() {
+        transport.inProcessDestinations = "none";
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.controller.command");
+    }
+}
@@ -0,0 +1,107 @@
+package uk.gov.justice.services.core.transport;
+
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcher;
+import uk.gov.justice.services.core.dispatcher.TransactionalDispatcher;
+import uk.gov.justice.services.core.json.JsonSchemaValidator;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonEnvelopeParser;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
+
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LocalDeliveryProcessorTest {
+
+    private static final String NAME = "people.add-person";
+    private static final String ENVELOPE_JSON = "{\"_metadata\":{}}";
+
+    @Mock
+    private JsonSchemaValidator validator;
+
+    @Mock
+    private JsonEnvelopeWriter jsonEnvelopeWriter;
+
+    @Mock
+    private JsonEnvelopeParser jsonEnvelopeParser;
+
+    @Mock
+    private TransactionalDispatcher transactionalDispatcher;
+
+    @Mock
+    private AsynchronousDispatcher dispatcher;
+
+    @Mock
+    private Schema schema;
+
+    @Mock(answer = RETURNS_DEEP_STUBS)
+    private JsonEnvelope envelope;
+
+    @InjectMocks
+    private LocalDeliveryProcessor localDeliveryProcessor;
+
+    @Before
+    public void setup() {
+        when(envelope.metadata().name()).thenReturn(NAME);
+    }
+
+    @Test
+    public void shouldValidateAndDispatchEnvelopeWithSchema() {
+        when(validator.hasSchema(NAME)).thenReturn(true);
+        when(jsonEnvelopeWriter.asJsonStringWithoutNulls(envelope)).thenReturn(ENVELOPE_JSON);
+
+        localDeliveryProcessor.process(dispatcher, envelope);
+
+        verify(validator).validate(ENVELOPE_JSON, NAME);
+        verify(transactionalDispatcher).dispatch(dispatcher, envelope);
+    }
+
+    @Test
+    public void shouldDispatchEnvelopeWithoutSchemaWithoutWritingIt() {
+        when(validator.hasSchema(NAME)).thenReturn(false);
+
+        localDeliveryProcessor.process(dispatcher, envelope);
+
+        verify(validator, never()).validate(anyString(), anyString());
+        verifyZeroInteractions(jsonEnvelopeWriter);
+        verify(transactionalDispatcher).dispatch(dispatcher, envelope);
+    }
+
+    @Test
+    public void shouldParseValidateAndDispatchEnvelopeJson() {
+        when(jsonEnvelopeParser.asEnvelope(ENVELOPE_JSON)).thenReturn(envelope);
+        when(validator.hasSchema(NAME)).thenReturn(true);
+
+        localDeliveryProcessor.process(dispatcher, ENVELOPE_JSON);
+
+        verify(validator).validate(ENVELOPE_JSON, NAME);
+        verify(transactionalDispatcher).dispatch(dispatcher, envelope);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldNotDispatchEnvelopeThatFailsValidation() {
+        when(validator.hasSchema(NAME)).thenReturn(true);
+        when(jsonEnvelopeWriter.asJsonStringWithoutNulls(envelope)).thenReturn(ENVELOPE_JSON);
+        doThrow(new ValidationException(schema, "Test Json")).when(validator).validate(ENVELOPE_JSON, NAME);
+
+        try {
+            localDeliveryProcessor.process(dispatcher, envelope);
+        } finally {
+            verifyZeroInteractions(transactionalDispatcher);
+        }
+    }
+}
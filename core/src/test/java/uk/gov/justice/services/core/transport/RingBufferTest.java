@@ -0,0 +1,103 @@
+package uk.gov.justice.services.core.transport;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class RingBufferTest {
+
+    @Test
+    public void shouldRoundCapacityUpToPowerOfTwo() {
+        assertThat(new RingBuffer<String>(5).capacity(), is(8));
+        assertThat(new RingBuffer<String>(8).capacity(), is(8));
+        assertThat(new RingBuffer<String>(1).capacity(), is(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowCapacityLessThanOne() {
+        new RingBuffer<String>(0);
+    }
+
+    @Test
+    public void shouldReturnNullWhenEmpty() {
+        assertThat(new RingBuffer<String>(4).poll(), nullValue());
+    }
+
+    @Test
+    public void shouldReturnElementsInOrder() {
+        final RingBuffer<String> buffer = new RingBuffer<>(4);
+
+        buffer.offer("a");
+        buffer.offer("b");
+
+        assertThat(buffer.size(), is(2));
+        assertThat(buffer.poll(), is("a"));
+        assertThat(buffer.poll(), is("b"));
+        assertThat(buffer.poll(), nullValue());
+    }
+
+    @Test
+    public void shouldRejectElementsWhenFull() {
+        final RingBuffer<String> buffer = new RingBuffer<>(2);
+
+        assertThat(buffer.offer("a"), is(true));
+        assertThat(buffer.offer("b"), is(true));
+        assertThat(buffer.offer("c"), is(false));
+
+        buffer.poll();
+
+        assertThat(buffer.offer("c"), is(true));
+    }
+
+    @Test
+    public void shouldWrapAround() {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(2);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(buffer.offer(i), is(true));
+            assertThat(buffer.poll(), is(i));
+        }
+    }
+
+    @Test
+    public void shouldNotLoseElementsWithConcurrentProducers() throws Exception {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(64);
+        final int producers = 4;
+        final int elementsPerProducer = 10_000;
+        final ExecutorService executorService = Executors.newFixedThreadPool(producers);
+        final CountDownLatch done = new CountDownLatch(producers);
+
+        for (int p = 0; p < producers; p++) {
+            final int offset = p * elementsPerProducer;
+            executorService.submit(() -> {
+                for (int i = 0; i < elementsPerProducer; i++) {
+                    while (!buffer.offer(offset + i)) {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        final Set<Integer> received = new HashSet<>();
+        while (received.size() < producers * elementsPerProducer) {
+            final Integer element = buffer.poll();
+            if (element != null) {
+                received.add(element);
+            }
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(buffer.poll(), nullValue());
+        executorService.shutdown();
+    }
+}
@@ -31,4 +31,15 @@ public interface Aggregate {
                 .collect(toList())
                 .stream();
     }
+
+    /**
+     * Replay a stream of past events to rebuild the state of this aggregate. Unlike {@link
+     * #apply(Stream)}, the events are applied one at a time as the stream is consumed and are not
+     * returned, so the events of a long stream are never all held at once.
+     *
+     * @param events the events to replay
+     */
+    default void replay(final Stream<Object> events) {
+        events.forEachOrdered(this::apply);
+    }
 }
@@ -0,0 +1,237 @@
+package uk.gov.justice.domain.aggregate.router;
+
+import static java.lang.String.format;
+import static java.lang.invoke.MethodType.methodType;
+
+import uk.gov.justice.domain.annotation.Apply;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Routes events to the handlers of an aggregate by the class of the event, as a precompiled
+ * alternative to the {@link uk.gov.justice.domain.aggregate.matcher.EventSwitcher}. Using this class
+ * allows aggregates to be written like this:
+ *
+ * <pre>
+ * {@code
+ *     private static final EventRouter<Recipe> ROUTER = EventRouter.of(Recipe.class);
+ *
+ *     public Object apply(final Object event) {
+ *         return ROUTER.route(this, event);
+ *     }
+ *
+ *     @Apply
+ *     private void recipeAdded(final RecipeAdded event) {
+ *         recipeId = event.getRecipeId();
+ *     }
+ * }
+ * </pre>
+ *
+ * The router of an aggregate class, built from its {@link Apply} methods, is built once and cached
+ * per class. An {@link Apply} method of a subclass overrides one of a superclass for the same
+ * event class. Routers can also be built with handlers given explicitly, see {@link
+ * #builder(Class)}.
+ *
+ * The handler of each event class is resolved the first time an event of the class is routed, and
+ * cached per event class, so routing an event is a lookup by its class with no allocation. An event
+ * is routed to the handler registered for its own class, otherwise for its nearest superclass, or
+ * otherwise for an interface it implements.
+ *
+ * @param <A> the type of aggregate the events are routed to
+ */
+public final class EventRouter<A> {
+
+    private static final BiConsumer<Object, Object> NO_HANDLER = (aggregate, event) -> {
+        throw new IllegalArgumentException(format("Could not find a rule to match %s", event));
+    };
+
+    private static final ClassValue<EventRouter<?>> ANNOTATED_ROUTERS = new ClassValue<EventRouter<?>>() {
+        @Override
+        protected EventRouter<?> computeValue(final Class<?> aggregateClass) {
+            return new EventRouter<>(applyMethodsOf(aggregateClass));
+        }
+    };
+
+    private final Map<Class<?>, BiConsumer<Object, Object>> handlers;
+
+    private final ClassValue<BiConsumer<Object, Object>> resolvedHandlers = new ClassValue<BiConsumer<Object, Object>>() {
+        @Override
+        protected BiConsumer<Object, Object> computeValue(final Class<?> eventClass) {
+            return resolve(eventClass);
+        }
+    };
+
+    private EventRouter(final Map<Class<?>, BiConsumer<Object, Object>> handlers) {
+        this.handlers = handlers;
+    }
+
+    /**
+     * Get the router of an aggregate class, built from the {@link Apply} methods of the class and
+     * its superclasses.
+     *
+     * @param aggregateClass the class of aggregate
+     * @param <A>            the type of aggregate
+     * @return the router of the aggregate class
+     * @throws IllegalArgumentException if an {@link Apply} method does not have exactly one
+     *                                  parameter, or a class has more than one {@link Apply}
+     *                                  method for an event class
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> EventRouter<A> of(final Class<A> aggregateClass) {
+        return (EventRouter<A>) ANNOTATED_ROUTERS.get(aggregateClass);
+    }
+
+    /**
+     * Create a builder of a router with handlers given explicitly.
+     *
+     * @param aggregateClass the class of aggregate
+     * @param <A>            the type of aggregate
+     * @return the builder
+     */
+    public static <A> Builder<A> builder(final Class<A> aggregateClass) {
+        return new Builder<>();
+    }
+
+    /**
+     * Apply an event to an aggregate through the handler of the class of the event.
+     *
+     * @param aggregate the aggregate to apply the event to
+     * @param event     the event to apply
+     * @return the event
+     * @throws IllegalArgumentException if there is no handler for the class of the event
+     */
+    public Object route(final A aggregate, final Object event) {
+        resolvedHandlers.get(event.getClass()).accept(aggregate, event);
+        return event;
+    }
+
+    private BiConsumer<Object, Object> resolve(final Class<?> eventClass) {
+        for (Class<?> clazz = eventClass; clazz != null; clazz = clazz.getSuperclass()) {
+            final BiConsumer<Object, Object> handler = handlers.get(clazz);
+            if (handler != null) {
+                return handler;
+            }
+        }
+        for (Class<?> clazz = eventClass; clazz != null; clazz = clazz.getSuperclass()) {
+            final BiConsumer<Object, Object> handler = resolveInterfaces(clazz);
+            if (handler != null) {
+                return handler;
+            }
+        }
+        return NO_HANDLER;
+    }
+
+    private BiConsumer<Object, Object> resolveInterfaces(final Class<?> clazz) {
+        for (final Class<?> anInterface : clazz.getInterfaces()) {
+            final BiConsumer<Object, Object> handler = handlers.get(anInterface);
+            if (handler != null) {
+                return handler;
+            }
+            final BiConsumer<Object, Object> superInterfaceHandler = resolveInterfaces(anInterface);
+            if (superInterfaceHandler != null) {
+                return superInterfaceHandler;
+            }
+        }
+        return null;
+    }
+
+    private static Map<Class<?>, BiConsumer<Object, Object>> applyMethodsOf(final Class<?> aggregateClass) {
+        final Map<Class<?>, BiConsumer<Object, Object>> handlers = new LinkedHashMap<>();
+        for (Class<?> clazz = aggregateClass; clazz != null; clazz = clazz.getSuperclass()) {
+            final Set<Class<?>> declaredEventClasses = new HashSet<>();
+            for (final Method method : clazz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Apply.class) && !method.isBridge()) {
+                    final Class<?> eventClass = eventClassOf(method);
+                    if (!declaredEventClasses.add(eventClass)) {
+                        throw new IllegalArgumentException(format("%s has more than one Apply method for %s", clazz.getName(), eventClass.getName()));
+                    }
+                    handlers.putIfAbsent(eventClass, handlerOf(method));
+                }
+            }
+        }
+        return handlers;
+    }
+
+    private static Class<?> eventClassOf(final Method method) {
+        if (method.getParameterCount() != 1 || Modifier.isStatic(method.getModifiers())) {
+            throw new IllegalArgumentException(format("Apply method %s must be an instance method with the event as its only parameter", method));
+        }
+        return method.getParameterTypes()[0];
+    }
+
+    private static BiConsumer<Object, Object> handlerOf(final Method method) {
+        final MethodHandle handle;
+        try {
+            method.setAccessible(true);
+            handle = MethodHandles.lookup().unreflect(method)
+                    .asType(methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException ex) {
+            throw new IllegalArgumentException(format("Apply method %s is not accessible", method), ex);
+        }
+
+        return (aggregate, event) -> {
+            try {
+                handle.invokeExact(aggregate, event);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(format("Apply method %s failed", method), ex);
+            }
+        };
+    }
+
+    /**
+     * Builds a router with handlers given explicitly. Using this class allows aggregates to be
+     * written like this:
+     *
+     * <pre>
+     * {@code
+     *     private static final EventRouter<Recipe> ROUTER = EventRouter.builder(Recipe.class)
+     *             .on(RecipeAdded.class, (recipe, event) -> recipe.recipeId = event.getRecipeId())
+     *             .build();
+     * }
+     * </pre>
+     *
+     * @param <A> the type of aggregate the events are routed to
+     */
+    public static final class Builder<A> {
+
+        private final Map<Class<?>, BiConsumer<Object, Object>> handlers = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Route events of a class, and of its subclasses without a handler of their own, to a
+         * handler.
+         *
+         * @param eventClass the class of event
+         * @param handler    the handler applying the event to the aggregate
+         * @param <E>        the type of event
+         * @return this builder
+         * @throws IllegalArgumentException if a handler is already given for the class
+         */
+        @SuppressWarnings("unchecked")
+        public <E> Builder<A> on(final Class<E> eventClass, final BiConsumer<? super A, ? super E> handler) {
+            if (handlers.putIfAbsent(eventClass, (aggregate, event) -> handler.accept((A) aggregate, (E) event)) != null) {
+                throw new IllegalArgumentException(format("A handler is already given for %s", eventClass.getName()));
+            }
+            return this;
+        }
+
+        /**
+         * @return the router
+         */
+        public EventRouter<A> build() {
+            return new EventRouter<>(new LinkedHashMap<>(handlers));
+        }
+    }
+}
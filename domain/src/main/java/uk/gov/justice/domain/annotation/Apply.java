@@ -0,0 +1,17 @@
+package uk.gov.justice.domain.annotation;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Identifies the methods of an aggregate that apply events, each taking the event as its only
+ * parameter. The events are routed to the methods by an {@link
+ * uk.gov.justice.domain.aggregate.router.EventRouter}. <p> Usage: @Apply
+ */
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface Apply {
+}
@@ -1,6 +1,8 @@
 package uk.gov.justice.domain.aggregate;
 
+import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 
@@ -35,6 +37,16 @@ public class AggregateTest {
         assertThat(returnedEvents.collect(toList()), hasItems("eventA", "eventB"));
     }
 
+    @Test
+    public void shouldReplayAllEventsInStreamInOrder() {
+        Stream<Object> events = Stream.of("eventA", "eventB", "eventC");
+
+        RecordingAggregate aggregate = new RecordingAggregate();
+        aggregate.replay(events);
+
+        assertThat(aggregate.events, is(asList((Object) "eventA", "eventB", "eventC")));
+    }
+
     private class RecordingAggregate implements Aggregate {
 
         List<Object> events = new ArrayList<>();
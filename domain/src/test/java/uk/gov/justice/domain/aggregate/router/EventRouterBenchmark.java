@@ -0,0 +1,177 @@
+package uk.gov.justice.domain.aggregate.router;
+
+import static uk.gov.justice.domain.aggregate.matcher.EventSwitcher.match;
+import static uk.gov.justice.domain.aggregate.matcher.EventSwitcher.when;
+
+import uk.gov.justice.domain.annotation.Apply;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares applying events to an aggregate with ten event types through the {@link
+ * uk.gov.justice.domain.aggregate.matcher.EventSwitcher}, which builds its rules for every event
+ * and checks them in turn, with routing them through an {@link EventRouter} built from apply
+ * methods or with a builder. Each iteration applies an event of every type.
+ *
+ * Run from the IDE, or with the JMH runner on the test classpath; add <code>-prof gc</code> to
+ * compare the allocation per event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventRouterBenchmark {
+
+    private static final EventRouter<TestAggregate> BUILT_ROUTER = EventRouter.builder(TestAggregate.class)
+            .on(E0.class, (aggregate, event) -> aggregate.count += 0)
+            .on(E1.class, (aggregate, event) -> aggregate.count += 1)
+            .on(E2.class, (aggregate, event) -> aggregate.count += 2)
+            .on(E3.class, (aggregate, event) -> aggregate.count += 3)
+            .on(E4.class, (aggregate, event) -> aggregate.count += 4)
+            .on(E5.class, (aggregate, event) -> aggregate.count += 5)
+            .on(E6.class, (aggregate, event) -> aggregate.count += 6)
+            .on(E7.class, (aggregate, event) -> aggregate.count += 7)
+            .on(E8.class, (aggregate, event) -> aggregate.count += 8)
+            .on(E9.class, (aggregate, event) -> aggregate.count += 9)
+            .build();
+
+    private static final EventRouter<TestAggregate> ANNOTATED_ROUTER = EventRouter.of(TestAggregate.class);
+
+    private final Object[] events = {new E0(), new E1(), new E2(), new E3(), new E4(), new E5(), new E6(), new E7(), new E8(), new E9()};
+    private final TestAggregate aggregate = new TestAggregate();
+
+    @Benchmark
+    public long eventSwitcher() {
+        for (final Object event : events) {
+            aggregate.switched(event);
+        }
+        return aggregate.count;
+    }
+
+    @Benchmark
+    public long annotatedRouter() {
+        for (final Object event : events) {
+            ANNOTATED_ROUTER.route(aggregate, event);
+        }
+        return aggregate.count;
+    }
+
+    @Benchmark
+    public long builtRouter() {
+        for (final Object event : events) {
+            BUILT_ROUTER.route(aggregate, event);
+        }
+        return aggregate.count;
+    }
+
+    public static class TestAggregate {
+
+        long count;
+
+        Object switched(final Object event) {
+            return match(event).with(
+                    when(E0.class).apply(x -> count += 0),
+                    when(E1.class).apply(x -> count += 1),
+                    when(E2.class).apply(x -> count += 2),
+                    when(E3.class).apply(x -> count += 3),
+                    when(E4.class).apply(x -> count += 4),
+                    when(E5.class).apply(x -> count += 5),
+                    when(E6.class).apply(x -> count += 6),
+                    when(E7.class).apply(x -> count += 7),
+                    when(E8.class).apply(x -> count += 8),
+                    when(E9.class).apply(x -> count += 9));
+        }
+
+        @Apply
+        void e0(final E0 event) {
+            count += 0;
+        }
+
+        @Apply
+        void e1(final E1 event) {
+            count += 1;
+        }
+
+        @Apply
+        void e2(final E2 event) {
+            count += 2;
+        }
+
+        @Apply
+        void e3(final E3 event) {
+            count += 3;
+        }
+
+        @Apply
+        void e4(final E4 event) {
+            count += 4;
+        }
+
+        @Apply
+        void e5(final E5 event) {
+            count += 5;
+        }
+
+        @Apply
+        void e6(final E6 event) {
+            count += 6;
+        }
+
+        @Apply
+        void e7(final E7 event) {
+            count += 7;
+        }
+
+        @Apply
+        void e8(final E8 event) {
+            count += 8;
+        }
+
+        @Apply
+        void e9(final E9 event) {
+            count += 9;
+        }
+    }
+
+    public static class E0 {
+    }
+
+    public static class E1 {
+    }
+
+    public static class E2 {
+    }
+
+    public static class E3 {
+    }
+
+    public static class E4 {
+    }
+
+    public static class E5 {
+    }
+
+    public static class E6 {
+    }
+
+    public static class E7 {
+    }
+
+    public static class E8 {
+    }
+
+    public static class E9 {
+    }
+}
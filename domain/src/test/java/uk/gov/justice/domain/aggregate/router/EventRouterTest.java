@@ -0,0 +1,201 @@
+package uk.gov.justice.domain.aggregate.router;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.domain.annotation.Apply;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link EventRouter} class.
+ */
+public class EventRouterTest {
+
+    @Test
+    public void shouldRouteEventsToApplyMethods() {
+        final RecordingAggregate aggregate = new RecordingAggregate();
+        final EventA eventA = new EventA();
+        final EventB eventB = new EventB();
+
+        aggregate.apply(eventA);
+        aggregate.apply(eventB);
+
+        assertThat(aggregate.applied, is(asList((Object) "A", "B")));
+    }
+
+    @Test
+    public void shouldReturnTheEventRouted() {
+        final EventA eventA = new EventA();
+
+        assertThat(new RecordingAggregate().apply(eventA), is(sameInstance((Object) eventA)));
+    }
+
+    @Test
+    public void shouldRouteEventsToTheHandlerOfTheirNearestSuperclass() {
+        final RecordingAggregate aggregate = new RecordingAggregate();
+
+        aggregate.apply(new SubEventA());
+
+        assertThat(aggregate.applied, is(asList((Object) "A")));
+    }
+
+    @Test
+    public void shouldRouteEventsToTheHandlerOfTheirInterface() {
+        final RecordingAggregate aggregate = new RecordingAggregate();
+
+        aggregate.apply(new EventC());
+
+        assertThat(aggregate.applied, is(asList((Object) "Marked")));
+    }
+
+    @Test
+    public void shouldRouteEventsToTheApplyMethodOfTheSubclass() {
+        final OverridingAggregate aggregate = new OverridingAggregate();
+
+        aggregate.apply(new EventA());
+        aggregate.apply(new EventB());
+
+        assertThat(aggregate.applied, is(asList((Object) "Overridden A", "B")));
+    }
+
+    @Test
+    public void shouldCacheTheRouterOfAnAggregateClass() {
+        assertThat(EventRouter.of(RecordingAggregate.class), is(sameInstance(EventRouter.of(RecordingAggregate.class))));
+    }
+
+    @Test
+    public void shouldRouteEventsToHandlersGivenToTheBuilder() {
+        final EventRouter<BuiltAggregate> router = EventRouter.builder(BuiltAggregate.class)
+                .on(EventA.class, (aggregate, event) -> aggregate.applied.add("A"))
+                .on(EventB.class, (aggregate, event) -> aggregate.applied.add("B"))
+                .build();
+        final BuiltAggregate aggregate = new BuiltAggregate();
+
+        router.route(aggregate, new EventB());
+        router.route(aggregate, new SubEventA());
+
+        assertThat(aggregate.applied, is(asList((Object) "B", "A")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionIfNoHandlerMatches() {
+        new RecordingAggregate().apply("unknown event");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionForApplyMethodsWithoutOneParameter() {
+        EventRouter.of(InvalidAggregate.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionForTwoApplyMethodsForAnEventClass() {
+        EventRouter.of(DuplicateAggregate.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionIfTheBuilderIsGivenTwoHandlersForAClass() {
+        EventRouter.builder(BuiltAggregate.class)
+                .on(EventA.class, (aggregate, event) -> aggregate.applied.add("A"))
+                .on(EventA.class, (aggregate, event) -> aggregate.applied.add("A again"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldPropagateExceptionsFromApplyMethods() {
+        new RecordingAggregate().apply(new FailingEvent());
+    }
+
+    public static class EventA {
+    }
+
+    public static class SubEventA extends EventA {
+    }
+
+    public static class EventB {
+    }
+
+    public interface MarkerEvent {
+    }
+
+    public static class EventC implements MarkerEvent {
+    }
+
+    public static class FailingEvent {
+    }
+
+    public static class RecordingAggregate implements Aggregate {
+
+        private static final EventRouter<RecordingAggregate> ROUTER = EventRouter.of(RecordingAggregate.class);
+
+        final List<Object> applied = new ArrayList<>();
+
+        @Override
+        public Object apply(final Object event) {
+            return ROUTER.route(this, event);
+        }
+
+        @Apply
+        private void eventA(final EventA event) {
+            applied.add("A");
+        }
+
+        @Apply
+        private void eventB(final EventB event) {
+            applied.add("B");
+        }
+
+        @Apply
+        private void marked(final MarkerEvent event) {
+            applied.add("Marked");
+        }
+
+        @Apply
+        private void failing(final FailingEvent event) {
+            throw new IllegalStateException("Failed to apply");
+        }
+    }
+
+    public static class OverridingAggregate extends RecordingAggregate {
+
+        private static final EventRouter<OverridingAggregate> ROUTER = EventRouter.of(OverridingAggregate.class);
+
+        @Override
+        public Object apply(final Object event) {
+            return ROUTER.route(this, event);
+        }
+
+        @Apply
+        private void overriddenEventA(final EventA event) {
+            applied.add("Overridden A");
+        }
+    }
+
+    public static class BuiltAggregate {
+
+        final List<Object> applied = new ArrayList<>();
+    }
+
+    public static class InvalidAggregate {
+
+        @Apply
+        void invalid(final EventA eventA, final EventB eventB) {
+        }
+    }
+
+    public static class DuplicateAggregate {
+
+        @Apply
+        void eventA(final EventA event) {
+        }
+
+        @Apply
+        void eventAAgain(final EventA event) {
+        }
+    }
+}
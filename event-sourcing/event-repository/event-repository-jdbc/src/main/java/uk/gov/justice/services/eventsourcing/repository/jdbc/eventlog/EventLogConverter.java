@@ -4,7 +4,7 @@ import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.InvalidStreamIdException;
 import uk.gov.justice.services.messaging.DefaultJsonEnvelope;
 import uk.gov.justice.services.messaging.JsonEnvelope;
-import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
 import uk.gov.justice.services.messaging.JsonObjectMetadata;
 import uk.gov.justice.services.messaging.Metadata;
 
@@ -21,10 +21,10 @@ import javax.json.JsonObject;
 public class EventLogConverter {
 
     @Inject
-    JsonObjectEnvelopeConverter jsonObjectEnvelopeConverter;
+    StringToJsonObjectConverter stringToJsonObjectConverter;
 
     @Inject
-    StringToJsonObjectConverter stringToJsonObjectConverter;
+    JsonEnvelopeWriter jsonEnvelopeWriter;
 
     /**
      * Creates an {@link EventLog} object from the <code>eventEnvelope</code>.
@@ -46,8 +46,8 @@ public class EventLogConverter {
                 streamId,
                 version,
                 eventMetadata.name(),
-                envelope.metadata().asJsonObject().toString(),
-                extractPayloadAsString(envelope));
+                jsonEnvelopeWriter.metadataAsJsonString(envelope),
+                jsonEnvelopeWriter.payloadAsJsonString(envelope));
 
     }
 
@@ -75,9 +75,4 @@ public class EventLogConverter {
         return stringToJsonObjectConverter.convert(eventLog.getPayload());
     }
 
-    private String extractPayloadAsString(final JsonEnvelope envelope) {
-        return jsonObjectEnvelopeConverter.extractPayloadFromEnvelope(
-                jsonObjectEnvelopeConverter.fromEnvelope(envelope)).toString();
-    }
-
 }
@@ -8,7 +8,7 @@ import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.InvalidStreamIdException;
 import uk.gov.justice.services.messaging.DefaultJsonEnvelope;
 import uk.gov.justice.services.messaging.JsonEnvelope;
-import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
 import uk.gov.justice.services.messaging.Metadata;
 
 import java.io.IOException;
@@ -44,7 +44,7 @@ public class EventLogConverterTest {
     public void setup() {
         eventLogConverter = new EventLogConverter();
         eventLogConverter.stringToJsonObjectConverter = new StringToJsonObjectConverter();
-        eventLogConverter.jsonObjectEnvelopeConverter = new JsonObjectEnvelopeConverter();
+        eventLogConverter.jsonEnvelopeWriter = new JsonEnvelopeWriter();
     }
 
     @Test
@@ -1,9 +1,8 @@
 package uk.gov.justice.services.eventsourcing.source.core;
 
 
-import static uk.gov.justice.services.messaging.JsonObjectMetadata.STREAM;
-import static uk.gov.justice.services.messaging.JsonObjectMetadata.STREAM_ID;
-import static uk.gov.justice.services.messaging.JsonObjectMetadata.VERSION;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithStream;
 
 import uk.gov.justice.services.eventsourcing.publisher.core.EventPublisher;
 import uk.gov.justice.services.eventsourcing.repository.core.EventRepository;
@@ -11,10 +10,7 @@ import uk.gov.justice.services.eventsourcing.repository.core.exception.StoreEven
 import uk.gov.justice.services.eventsourcing.source.core.exception.EventStreamException;
 import uk.gov.justice.services.eventsourcing.source.core.exception.InvalidStreamVersionRuntimeException;
 import uk.gov.justice.services.eventsourcing.source.core.exception.VersionMismatchException;
-import uk.gov.justice.services.messaging.DefaultJsonEnvelope;
 import uk.gov.justice.services.messaging.JsonEnvelope;
-import uk.gov.justice.services.messaging.JsonObjectMetadata;
-import uk.gov.justice.services.messaging.JsonObjects;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,8 +19,6 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.inject.Inject;
-import javax.json.Json;
-import javax.json.JsonObjectBuilder;
 import javax.transaction.Transactional;
 
 /**
@@ -113,14 +107,7 @@ public class EventStreamManager {
     }
 
     private JsonEnvelope eventWithVersion(final JsonEnvelope event, final UUID streamId, final Long version) {
-        final JsonObjectBuilder stream = Json.createObjectBuilder()
-                .add(STREAM_ID, streamId.toString())
-                .add(VERSION, version);
-
-        final JsonObjectBuilder metadata = JsonObjects.createObjectBuilderWithFilter(event.metadata().asJsonObject(), x -> !STREAM.equals(x))
-                .add(STREAM, stream.build());
-
-        return DefaultJsonEnvelope.envelopeFrom(JsonObjectMetadata.metadataFrom(metadata.build()), event.payloadAsJsonObject());
+        return envelopeFrom(metadataWithStream(event.metadata(), streamId, version), event.payloadAsJsonObject());
     }
 
     private void validateEvents(final UUID id, final List<JsonEnvelope> envelopeList, final Optional<Long> versionFrom, final Long currentVersion) throws EventStreamException {
@@ -0,0 +1,113 @@
+package uk.gov.justice.services.generators.codec;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.lang.model.SourceVersion.RELEASE_8;
+import static javax.tools.Diagnostic.Kind.ERROR;
+import static javax.tools.Diagnostic.Kind.NOTE;
+import static javax.tools.StandardLocation.CLASS_OUTPUT;
+
+import uk.gov.justice.services.generators.codec.JsonCodecGenerator.CodecClass;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+
+/**
+ * Generates a JsonCodec for every class annotated with
+ * <code>uk.gov.justice.domain.annotation.Event</code>, and for the classes of its object
+ * properties, and lists the codecs in
+ * <code>META-INF/services/uk.gov.justice.services.common.converter.codec.JsonCodec</code> so the
+ * framework converters use them instead of the ObjectMapper.
+ *
+ * An event class the codecs cannot convert the way the ObjectMapper would is reported in a note
+ * and left to the ObjectMapper.
+ */
+@SupportedAnnotationTypes(EventCodecProcessor.EVENT_ANNOTATION)
+@SupportedSourceVersion(RELEASE_8)
+public class EventCodecProcessor extends AbstractProcessor {
+
+    static final String EVENT_ANNOTATION = "uk.gov.justice.domain.annotation.Event";
+    static final String SERVICES_FILE = "META-INF/services/uk.gov.justice.services.common.converter.codec.JsonCodec";
+
+    private final Set<String> codecNames = new TreeSet<>();
+
+    private JsonCodecGenerator generator;
+
+    @Override
+    public synchronized void init(final ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        generator = new JsonCodecGenerator(processingEnv.getElementUtils());
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServicesFile();
+            return false;
+        }
+
+        for (final TypeElement annotation : annotations) {
+            for (final TypeElement event : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+                generateCodecs(event);
+            }
+        }
+        return false;
+    }
+
+    private void generateCodecs(final TypeElement event) {
+        final Map<String, CodecClass> classes = new LinkedHashMap<>();
+        final Optional<String> reason = generator.analyse(event, classes);
+        if (reason.isPresent()) {
+            processingEnv.getMessager().printMessage(NOTE, format("No JSON codec generated for %s: %s", event.getQualifiedName(), reason.get()), event);
+            return;
+        }
+
+        for (final CodecClass codecClass : classes.values()) {
+            final ClassName codecName = JsonCodecGenerator.codecNameOf(codecClass.type());
+            if (codecNames.add(codecName.toString())) {
+                write(JavaFile.builder(codecName.packageName(), generator.codecOf(codecClass)).build(), codecClass.type());
+            }
+        }
+    }
+
+    private void write(final JavaFile javaFile, final Element element) {
+        try {
+            javaFile.writeTo(processingEnv.getFiler());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(ERROR, format("Failed to write JSON codec: %s", e.getMessage()), element);
+        }
+    }
+
+    private void writeServicesFile() {
+        if (codecNames.isEmpty()) {
+            return;
+        }
+        try (final Writer writer = new OutputStreamWriter(
+                processingEnv.getFiler().createResource(CLASS_OUTPUT, "", SERVICES_FILE).openOutputStream(), UTF_8)) {
+            for (final String codecName : codecNames) {
+                writer.write(codecName);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(ERROR, format("Failed to write %s: %s", SERVICES_FILE, e.getMessage()));
+        }
+    }
+}
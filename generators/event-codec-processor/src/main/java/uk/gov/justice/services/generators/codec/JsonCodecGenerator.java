@@ -0,0 +1,412 @@
+package uk.gov.justice.services.generators.codec;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+import static javax.lang.model.element.Modifier.ABSTRACT;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+import static javax.lang.model.util.ElementFilter.constructorsIn;
+import static uk.gov.justice.services.generators.codec.ValueType.JSON_CODECS;
+
+import uk.gov.justice.services.generators.codec.ValueType.Kind;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generates the JsonCodec of a class and of the classes of its object properties.
+ *
+ * The codec follows the rules the framework's ObjectMapper applies to a class without Jackson
+ * annotations: properties are written from public getters, <code>getX()</code> or
+ * <code>isX()</code> for booleans, and read through the single public constructor by parameter
+ * name. A class that needs anything else, such as Jackson annotations, public fields, setters or a
+ * property type the codec does not support, gets no codec and is left to the ObjectMapper.
+ */
+final class JsonCodecGenerator {
+
+    private static final String JACKSON_PACKAGE = "com.fasterxml.jackson.";
+    private static final String CODEC_SUFFIX = "JsonCodec";
+
+    private static final ClassName JSON_CODEC = ClassName.get("uk.gov.justice.services.common.converter.codec", "JsonCodec");
+    private static final ClassName JSON = ClassName.get("javax.json", "Json");
+    private static final ClassName JSON_OBJECT = ClassName.get("javax.json", "JsonObject");
+    private static final ClassName JSON_OBJECT_BUILDER = ClassName.get("javax.json", "JsonObjectBuilder");
+    private static final TypeName STRING_SET = ParameterizedTypeName.get(ClassName.get(Set.class), ClassName.get(String.class));
+
+    private final Elements elements;
+
+    JsonCodecGenerator(final Elements elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * @param type the class to convert
+     * @return the name of the codec generated for the class
+     */
+    static ClassName codecNameOf(final TypeElement type) {
+        String simpleName = type.getSimpleName().toString();
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing.getKind() != ElementKind.PACKAGE) {
+            simpleName = enclosing.getSimpleName() + "_" + simpleName;
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return ClassName.get(ClassName.get(type).packageName(), simpleName + CODEC_SUFFIX);
+    }
+
+    /**
+     * Find what is needed to generate the codec of the class, adding it and the classes of its
+     * object properties to the given map.
+     *
+     * @param type    the class to convert
+     * @param classes the classes with a codec, by qualified name
+     * @return the reason there can be no codec, or empty if there can
+     */
+    Optional<String> analyse(final TypeElement type, final Map<String, CodecClass> classes) {
+        final String qualifiedName = type.getQualifiedName().toString();
+        if (classes.containsKey(qualifiedName)) {
+            return Optional.empty();
+        }
+
+        if (type.getKind() != ElementKind.CLASS
+                || !type.getModifiers().contains(PUBLIC)
+                || type.getModifiers().contains(ABSTRACT)
+                || (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(STATIC))) {
+            return reason("%s is not a public concrete class", qualifiedName);
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            return reason("%s is generic", qualifiedName);
+        }
+        if (hasJacksonAnnotation(type)) {
+            return reason("%s has Jackson annotations", qualifiedName);
+        }
+
+        final CodecClass codecClass = new CodecClass(type);
+        classes.put(qualifiedName, codecClass);
+
+        for (final Element member : elements.getAllMembers(type)) {
+            if (hasJacksonAnnotation(member)) {
+                return reason("%s has Jackson annotations", qualifiedName);
+            }
+            if (!member.getModifiers().contains(PUBLIC) || member.getModifiers().contains(STATIC)) {
+                continue;
+            }
+            if (member.getKind() == ElementKind.FIELD) {
+                return reason("%s has public field %s", qualifiedName, member.getSimpleName());
+            }
+            if (member.getKind() == ElementKind.METHOD) {
+                final ExecutableElement method = (ExecutableElement) member;
+                final Optional<String> propertyName = propertyNameOf(method);
+                if (propertyName.isPresent()) {
+                    final Optional<ValueType> valueType = valueTypeOf(method.getReturnType(), codecClass, classes);
+                    if (!valueType.isPresent()) {
+                        return reason("%s has property %s of unsupported type %s", qualifiedName, propertyName.get(), method.getReturnType());
+                    }
+                    if (!codecClass.addGetter(propertyName.get(), method.getSimpleName().toString(), valueType.get())) {
+                        return reason("%s has more than one getter of property %s", qualifiedName, propertyName.get());
+                    }
+                }
+            }
+        }
+
+        final List<ExecutableElement> constructors = constructorsIn(type.getEnclosedElements()).stream()
+                .filter(constructor -> constructor.getModifiers().contains(PUBLIC))
+                .collect(toList());
+        if (constructors.size() != 1 || constructors.get(0).getParameters().size() < 2) {
+            return reason("%s does not have a single public constructor with two or more parameters", qualifiedName);
+        }
+        for (final VariableElement parameter : constructors.get(0).getParameters()) {
+            final String parameterName = parameter.getSimpleName().toString();
+            if (hasJacksonAnnotation(parameter)) {
+                return reason("%s has Jackson annotations", qualifiedName);
+            }
+            final Optional<ValueType> valueType = valueTypeOf(parameter.asType(), codecClass, classes);
+            if (!valueType.isPresent()) {
+                return reason("%s has constructor parameter %s of unsupported type %s", qualifiedName, parameterName, parameter.asType());
+            }
+            codecClass.addParameter(parameterName, valueType.get());
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * @param codecClass the class to generate the codec of
+     * @return the codec
+     */
+    TypeSpec codecOf(final CodecClass codecClass) {
+        final ClassName type = ClassName.get(codecClass.type);
+
+        final TypeSpec.Builder codec = TypeSpec.classBuilder(codecNameOf(codecClass.type).simpleName())
+                .addModifiers(PUBLIC, FINAL)
+                .addSuperinterface(ParameterizedTypeName.get(JSON_CODEC, type))
+                .addOriginatingElement(codecClass.type)
+                .addJavadoc("Converts {@link $T} to and from JSON without reflection.\n", type)
+                .addField(FieldSpec.builder(STRING_SET, "PROPERTIES", PRIVATE, STATIC, FINAL)
+                        .initializer("$T.properties($L)", JSON_CODECS, propertyNamesOf(codecClass))
+                        .build());
+
+        codecClass.codecFields.forEach((codecName, field) -> codec.addField(
+                FieldSpec.builder(codecName, field, PRIVATE, STATIC, FINAL)
+                        .initializer("new $T()", codecName)
+                        .build()));
+
+        final MethodSpec.Builder toJsonObject = MethodSpec.methodBuilder("toJsonObject")
+                .addAnnotation(Override.class)
+                .addModifiers(PUBLIC)
+                .addParameter(type, "value", FINAL)
+                .returns(JSON_OBJECT)
+                .addStatement("final $T builder = $T.createObjectBuilder()", JSON_OBJECT_BUILDER, JSON);
+        codecClass.getters.forEach((name, getter) -> toJsonObject.addStatement("$L",
+                getter.valueType.addStatement("builder", name, CodeBlock.builder().add("value.$N()", getter.method).build())));
+        toJsonObject.addStatement("return builder.build()");
+
+        final CodeBlock.Builder arguments = CodeBlock.builder();
+        final List<String> parameterNames = new ArrayList<>(codecClass.parameters.keySet());
+        for (int i = 0; i < parameterNames.size(); i++) {
+            final String name = parameterNames.get(i);
+            arguments.add(i == 0 ? "\n$L" : ",\n$L", codecClass.parameters.get(name).getExpression("jsonObject", name));
+        }
+
+        final MethodSpec fromJsonObject = MethodSpec.methodBuilder("fromJsonObject")
+                .addAnnotation(Override.class)
+                .addModifiers(PUBLIC)
+                .addParameter(JSON_OBJECT, "jsonObject", FINAL)
+                .returns(type)
+                .addStatement("$T.checkProperties(jsonObject, PROPERTIES, $T.class)", JSON_CODECS, type)
+                .addStatement("return new $T($>$>$L$<$<)", type, arguments.build())
+                .build();
+
+        return codec
+                .addMethod(MethodSpec.methodBuilder("type")
+                        .addAnnotation(Override.class)
+                        .addModifiers(PUBLIC)
+                        .returns(ParameterizedTypeName.get(ClassName.get(Class.class), type))
+                        .addStatement("return $T.class", type)
+                        .build())
+                .addMethod(toJsonObject.build())
+                .addMethod(fromJsonObject)
+                .build();
+    }
+
+    private static CodeBlock propertyNamesOf(final CodecClass codecClass) {
+        final CodeBlock.Builder names = CodeBlock.builder();
+        String separator = "";
+        for (final String name : codecClass.propertyNames()) {
+            names.add(separator).add("$S", name);
+            separator = ", ";
+        }
+        return names.build();
+    }
+
+    private Optional<ValueType> valueTypeOf(final TypeMirror typeMirror, final CodecClass owner, final Map<String, CodecClass> classes) {
+        switch (typeMirror.getKind()) {
+            case BOOLEAN:
+                return Optional.of(ValueType.of(Kind.BOOLEAN_VALUE));
+            case INT:
+                return Optional.of(ValueType.of(Kind.INT_VALUE));
+            case LONG:
+                return Optional.of(ValueType.of(Kind.LONG_VALUE));
+            case DOUBLE:
+                return Optional.of(ValueType.of(Kind.DOUBLE_VALUE));
+            case DECLARED:
+                return declaredValueTypeOf((DeclaredType) typeMirror, owner, classes);
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private Optional<ValueType> declaredValueTypeOf(final DeclaredType declaredType, final CodecClass owner, final Map<String, CodecClass> classes) {
+        final TypeElement element = (TypeElement) declaredType.asElement();
+        final String qualifiedName = element.getQualifiedName().toString();
+
+        switch (qualifiedName) {
+            case "java.lang.String":
+                return Optional.of(ValueType.of(Kind.STRING));
+            case "java.util.UUID":
+                return Optional.of(ValueType.of(Kind.UUID));
+            case "java.lang.Boolean":
+                return Optional.of(ValueType.of(Kind.BOOLEAN));
+            case "java.lang.Integer":
+                return Optional.of(ValueType.of(Kind.INTEGER));
+            case "java.lang.Long":
+                return Optional.of(ValueType.of(Kind.LONG));
+            case "java.lang.Double":
+                return Optional.of(ValueType.of(Kind.DOUBLE));
+            case "java.math.BigDecimal":
+                return Optional.of(ValueType.of(Kind.BIG_DECIMAL));
+            case "java.util.List":
+                return listValueTypeOf(declaredType, owner, classes);
+            default:
+                break;
+        }
+
+        if (element.getKind() == ElementKind.ENUM) {
+            if (!element.getModifiers().contains(PUBLIC) || hasJacksonAnnotation(element)
+                    || element.getEnclosedElements().stream().anyMatch(this::hasJacksonAnnotation)) {
+                return Optional.empty();
+            }
+            return Optional.of(ValueType.enumOf(ClassName.get(element)));
+        }
+
+        if (element.getKind() == ElementKind.CLASS
+                && !qualifiedName.startsWith("java.")
+                && !qualifiedName.startsWith("javax.")
+                && !analyse(element, classes).isPresent()) {
+            final ValueType valueType = ValueType.objectOf(ClassName.get(element));
+            valueType.useCodecField(owner.codecFieldOf(codecNameOf(element)));
+            return Optional.of(valueType);
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<ValueType> listValueTypeOf(final DeclaredType listType, final CodecClass owner, final Map<String, CodecClass> classes) {
+        final List<? extends TypeMirror> typeArguments = listType.getTypeArguments();
+        if (typeArguments.size() != 1 || typeArguments.get(0).getKind() != TypeKind.DECLARED) {
+            return Optional.empty();
+        }
+        return valueTypeOf(typeArguments.get(0), owner, classes)
+                .filter(elementType -> elementType.kind() != Kind.LIST)
+                .map(ValueType::listOf);
+    }
+
+    private static Optional<String> propertyNameOf(final ExecutableElement method) {
+        final String name = method.getSimpleName().toString();
+        if (!method.getParameters().isEmpty() || !method.getTypeParameters().isEmpty() || "getClass".equals(name)) {
+            return Optional.empty();
+        }
+        final TypeMirror returnType = method.getReturnType();
+        if (name.length() > 3 && name.startsWith("get") && returnType.getKind() != TypeKind.VOID) {
+            return Optional.of(decapitalize(name.substring(3)));
+        }
+        if (name.length() > 2 && name.startsWith("is") && isBoolean(returnType)) {
+            return Optional.of(decapitalize(name.substring(2)));
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isBoolean(final TypeMirror typeMirror) {
+        return typeMirror.getKind() == TypeKind.BOOLEAN
+                || (typeMirror.getKind() == TypeKind.DECLARED && "java.lang.Boolean".equals(
+                ((TypeElement) ((DeclaredType) typeMirror).asElement()).getQualifiedName().toString()));
+    }
+
+    /**
+     * Lower case the leading upper case characters of a getter name, as Jackson does.
+     */
+    private static String decapitalize(final String name) {
+        final StringBuilder propertyName = new StringBuilder(name);
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            final char lowerCase = Character.toLowerCase(c);
+            if (c == lowerCase) {
+                break;
+            }
+            propertyName.setCharAt(i, lowerCase);
+        }
+        return propertyName.toString();
+    }
+
+    private boolean hasJacksonAnnotation(final Element element) {
+        return element.getAnnotationMirrors().stream()
+                .map(annotation -> ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString())
+                .anyMatch(name -> name.startsWith(JACKSON_PACKAGE));
+    }
+
+    private static Optional<String> reason(final String reason, final Object... args) {
+        return Optional.of(format(reason, args));
+    }
+
+    /**
+     * The getters and constructor parameters of a class with a codec.
+     */
+    static final class CodecClass {
+
+        private final TypeElement type;
+        private final Map<String, Getter> getters = new LinkedHashMap<>();
+        private final Map<String, ValueType> parameters = new LinkedHashMap<>();
+        private final Map<ClassName, String> codecFields = new LinkedHashMap<>();
+
+        private CodecClass(final TypeElement type) {
+            this.type = type;
+        }
+
+        TypeElement type() {
+            return type;
+        }
+
+        private boolean addGetter(final String propertyName, final String method, final ValueType valueType) {
+            return getters.putIfAbsent(propertyName, new Getter(method, valueType)) == null;
+        }
+
+        private void addParameter(final String propertyName, final ValueType valueType) {
+            parameters.put(propertyName, valueType);
+        }
+
+        private Set<String> propertyNames() {
+            final Set<String> names = new LinkedHashSet<>(getters.keySet());
+            names.addAll(parameters.keySet());
+            return names;
+        }
+
+        private String codecFieldOf(final ClassName codecName) {
+            return codecFields.computeIfAbsent(codecName, name -> {
+                final String field = constantNameOf(name.simpleName());
+                String unique = field;
+                for (int i = 2; codecFields.containsValue(unique); i++) {
+                    unique = field + i;
+                }
+                return unique;
+            });
+        }
+
+        private static String constantNameOf(final String simpleName) {
+            final StringBuilder constant = new StringBuilder();
+            for (int i = 0; i < simpleName.length(); i++) {
+                final char c = simpleName.charAt(i);
+                if (Character.isUpperCase(c) && i > 0 && simpleName.charAt(i - 1) != '_') {
+                    constant.append('_');
+                }
+                constant.append(Character.toUpperCase(c));
+            }
+            return constant.toString();
+        }
+    }
+
+    private static final class Getter {
+
+        private final String method;
+        private final ValueType valueType;
+
+        private Getter(final String method, final ValueType valueType) {
+            this.method = method;
+            this.valueType = valueType;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package uk.gov.justice.services.generators.codec;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.TypeName;
+
+/**
+ * A property type a generated codec can read and write, with the code that does so.
+ */
+final class ValueType {
+
+    static final ClassName JSON_CODECS = ClassName.get("uk.gov.justice.services.common.converter.codec", "JsonCodecs");
+
+    enum Kind {
+        BOOLEAN_VALUE("getBooleanValue", null, null),
+        INT_VALUE("getIntValue", null, null),
+        LONG_VALUE("getLongValue", null, null),
+        DOUBLE_VALUE("getDoubleValue", null, null),
+        STRING(null, "stringOf", "addString"),
+        UUID(null, "uuidOf", "addUuid"),
+        BOOLEAN(null, "booleanOf", "addBoolean"),
+        INTEGER(null, "integerOf", "addInteger"),
+        LONG(null, "longOf", "addLong"),
+        DOUBLE(null, "doubleOf", "addDouble"),
+        BIG_DECIMAL(null, "bigDecimalOf", "addBigDecimal"),
+        ENUM(null, null, "addEnum"),
+        OBJECT(null, null, null),
+        LIST(null, null, null);
+
+        private final String primitiveGetter;
+        private final String reader;
+        private final String adder;
+
+        Kind(final String primitiveGetter, final String reader, final String adder) {
+            this.primitiveGetter = primitiveGetter;
+            this.reader = reader;
+            this.adder = adder;
+        }
+
+        boolean isPrimitive() {
+            return primitiveGetter != null;
+        }
+    }
+
+    private final Kind kind;
+    private final TypeName typeName;
+    private final ValueType elementType;
+
+    private String codecField;
+
+    private ValueType(final Kind kind, final TypeName typeName, final ValueType elementType) {
+        this.kind = kind;
+        this.typeName = typeName;
+        this.elementType = elementType;
+    }
+
+    static ValueType of(final Kind kind) {
+        return new ValueType(kind, null, null);
+    }
+
+    static ValueType enumOf(final TypeName typeName) {
+        return new ValueType(Kind.ENUM, typeName, null);
+    }
+
+    static ValueType objectOf(final TypeName typeName) {
+        return new ValueType(Kind.OBJECT, typeName, null);
+    }
+
+    static ValueType listOf(final ValueType elementType) {
+        return new ValueType(Kind.LIST, null, elementType);
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    /**
+     * @param codecField the name of the codec field of an object type
+     */
+    void useCodecField(final String codecField) {
+        this.codecField = codecField;
+    }
+
+    /**
+     * @param builder the name of the JsonObjectBuilder
+     * @param key     the property name
+     * @param value   the code of the property value
+     * @return a statement adding the value to the builder
+     */
+    CodeBlock addStatement(final String builder, final String key, final CodeBlock value) {
+        switch (kind) {
+            case BOOLEAN_VALUE:
+            case INT_VALUE:
+            case LONG_VALUE:
+            case DOUBLE_VALUE:
+                return code("$N.add($S, $L)", builder, key, value);
+            case OBJECT:
+                return code("$T.addObject($N, $S, $L, $N)", JSON_CODECS, builder, key, value, codecField);
+            case LIST:
+                return code("$T.addList($N, $S, $L, (array, element) -> array.add($L))",
+                        JSON_CODECS, builder, key, value, elementType.elementValue("element"));
+            default:
+                return code("$T.$N($N, $S, $L)", JSON_CODECS, kind.adder, builder, key, value);
+        }
+    }
+
+    /**
+     * @param jsonObject the name of the JsonObject
+     * @param key        the property name
+     * @return an expression reading the property from the JsonObject
+     */
+    CodeBlock getExpression(final String jsonObject, final String key) {
+        if (kind.isPrimitive()) {
+            return code("$T.$N($N, $S)", JSON_CODECS, kind.primitiveGetter, jsonObject, key);
+        }
+        if (kind == Kind.LIST) {
+            return code("$T.getList($N, $S, $L)", JSON_CODECS, jsonObject, key, elementType.reader());
+        }
+        return code("$T.get($N, $S, $L)", JSON_CODECS, jsonObject, key, reader());
+    }
+
+    private CodeBlock reader() {
+        switch (kind) {
+            case ENUM:
+                return code("value -> $T.enumOf(value, $T.class)", JSON_CODECS, typeName);
+            case OBJECT:
+                return code("value -> $T.objectOf(value, $N)", JSON_CODECS, codecField);
+            default:
+                return code("$T::$N", JSON_CODECS, kind.reader);
+        }
+    }
+
+    private CodeBlock elementValue(final String element) {
+        switch (kind) {
+            case UUID:
+                return code("$N.toString()", element);
+            case ENUM:
+                return code("$N.name()", element);
+            case OBJECT:
+                return code("$N.toJsonObject($N)", codecField, element);
+            default:
+                return code("$N", element);
+        }
+    }
+
+    private static CodeBlock code(final String format, final Object... args) {
+        return CodeBlock.builder().add(format, args).build();
+    }
+}
@@ -0,0 +1,210 @@
+package uk.gov.justice.services.generators.codec;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import uk.gov.justice.services.common.converter.codec.JsonCodec;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EventCodecProcessorTest {
+
+    private static final String PACKAGE = "org.example.event";
+
+    private static final String RECIPE_ADDED = "package org.example.event;\n" +
+            "import java.util.List;\n" +
+            "import java.util.UUID;\n" +
+            "import uk.gov.justice.domain.annotation.Event;\n" +
+            "@Event(\"example.recipe-added\")\n" +
+            "public class RecipeAdded {\n" +
+            "    private final UUID recipeId;\n" +
+            "    private final String name;\n" +
+            "    private final Boolean glutenFree;\n" +
+            "    private final int servings;\n" +
+            "    private final Status status;\n" +
+            "    private final List<Ingredient> ingredients;\n" +
+            "    public RecipeAdded(final UUID recipeId, final String name, final Boolean glutenFree, final int servings, final Status status, final List<Ingredient> ingredients) {\n" +
+            "        this.recipeId = recipeId;\n" +
+            "        this.name = name;\n" +
+            "        this.glutenFree = glutenFree;\n" +
+            "        this.servings = servings;\n" +
+            "        this.status = status;\n" +
+            "        this.ingredients = ingredients;\n" +
+            "    }\n" +
+            "    public UUID getRecipeId() { return recipeId; }\n" +
+            "    public String getName() { return name; }\n" +
+            "    public Boolean isGlutenFree() { return glutenFree; }\n" +
+            "    public int getServings() { return servings; }\n" +
+            "    public Status getStatus() { return status; }\n" +
+            "    public List<Ingredient> getIngredients() { return ingredients; }\n" +
+            "}\n";
+
+    private static final String INGREDIENT = "package org.example.event;\n" +
+            "public class Ingredient {\n" +
+            "    private final String name;\n" +
+            "    private final long quantity;\n" +
+            "    public Ingredient(final String name, final long quantity) {\n" +
+            "        this.name = name;\n" +
+            "        this.quantity = quantity;\n" +
+            "    }\n" +
+            "    public String getName() { return name; }\n" +
+            "    public long getQuantity() { return quantity; }\n" +
+            "}\n";
+
+    private static final String STATUS = "package org.example.event;\n" +
+            "public enum Status { DRAFT, PUBLISHED }\n";
+
+    private static final String CAKE_ORDERED = "package org.example.event;\n" +
+            "import java.time.ZonedDateTime;\n" +
+            "import uk.gov.justice.domain.annotation.Event;\n" +
+            "@Event(\"example.cake-ordered\")\n" +
+            "public class CakeOrdered {\n" +
+            "    private final String orderId;\n" +
+            "    private final ZonedDateTime deliveryDate;\n" +
+            "    public CakeOrdered(final String orderId, final ZonedDateTime deliveryDate) {\n" +
+            "        this.orderId = orderId;\n" +
+            "        this.deliveryDate = deliveryDate;\n" +
+            "    }\n" +
+            "    public String getOrderId() { return orderId; }\n" +
+            "    public ZonedDateTime getDeliveryDate() { return deliveryDate; }\n" +
+            "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File sourceFolder;
+    private File classesFolder;
+
+    @Before
+    public void setup() throws Exception {
+        sourceFolder = folder.newFolder("src");
+        classesFolder = folder.newFolder("classes");
+    }
+
+    @Test
+    public void shouldGenerateCodecThatReadsAndWritesEventProperties() throws Exception {
+        final JsonCodec<Object> codec = compiledCodecOf("RecipeAdded");
+        final UUID recipeId = UUID.randomUUID();
+        final JsonObject json = Json.createObjectBuilder()
+                .add("recipeId", recipeId.toString())
+                .add("name", "Chocolate Cake")
+                .add("glutenFree", true)
+                .add("servings", 8)
+                .add("status", "PUBLISHED")
+                .add("ingredients", Json.createArrayBuilder()
+                        .add(Json.createObjectBuilder().add("name", "Flour").add("quantity", 200))
+                        .addNull())
+                .build();
+
+        final Object event = codec.fromJsonObject(json);
+
+        assertThat(property(event, "getRecipeId"), is(recipeId));
+        assertThat(property(event, "getName"), is("Chocolate Cake"));
+        assertThat(property(event, "isGlutenFree"), is(true));
+        assertThat(property(event, "getServings"), is(8));
+        assertThat(property(event, "getStatus").toString(), is("PUBLISHED"));
+        final List<?> ingredients = (List<?>) property(event, "getIngredients");
+        assertThat(ingredients, hasSize(2));
+        assertThat(property(ingredients.get(0), "getQuantity"), is(200L));
+        assertThat(ingredients.get(1), nullValue());
+
+        assertThat(codec.toJsonObject(event), is(json));
+    }
+
+    @Test
+    public void shouldLeaveOutNullPropertiesAndDefaultMissingPrimitives() throws Exception {
+        final JsonCodec<Object> codec = compiledCodecOf("RecipeAdded");
+
+        final Object event = codec.fromJsonObject(Json.createObjectBuilder().add("name", "Plain Cake").build());
+
+        assertThat(property(event, "getServings"), is(0));
+        assertThat(codec.toJsonObject(event), is(Json.createObjectBuilder()
+                .add("name", "Plain Cake")
+                .add("servings", 0)
+                .build()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnUnrecognizedProperty() throws Exception {
+        compiledCodecOf("RecipeAdded").fromJsonObject(Json.createObjectBuilder()
+                .add("name", "Plain Cake")
+                .add("flavour", "vanilla")
+                .build());
+    }
+
+    @Test
+    public void shouldListGeneratedCodecsAsServicesAndSkipEventsWithUnsupportedProperties() throws Exception {
+        compile();
+
+        final List<String> services = Files.readAllLines(new File(classesFolder, EventCodecProcessor.SERVICES_FILE).toPath(), UTF_8);
+
+        assertThat(services, contains(PACKAGE + ".IngredientJsonCodec", PACKAGE + ".RecipeAddedJsonCodec"));
+        assertThat(new File(classesFolder, "org/example/event/CakeOrderedJsonCodec.class").exists(), is(false));
+    }
+
+    @SuppressWarnings("unchecked")
+    private JsonCodec<Object> compiledCodecOf(final String eventName) throws Exception {
+        compile();
+        final ClassLoader classLoader = new URLClassLoader(new URL[]{classesFolder.toURI().toURL()}, getClass().getClassLoader());
+        return (JsonCodec<Object>) classLoader.loadClass(PACKAGE + "." + eventName + "JsonCodec").newInstance();
+    }
+
+    private void compile() throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, UTF_8);
+
+        final List<File> sources = new ArrayList<>();
+        sources.add(source("RecipeAdded", RECIPE_ADDED));
+        sources.add(source("Ingredient", INGREDIENT));
+        sources.add(source("Status", STATUS));
+        sources.add(source("CakeOrdered", CAKE_ORDERED));
+
+        final CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                asList("-d", classesFolder.getPath(), "-s", classesFolder.getPath(), "-classpath", System.getProperty("java.class.path")),
+                null,
+                fileManager.getJavaFileObjectsFromFiles(sources));
+        task.setProcessors(singletonList(new EventCodecProcessor()));
+
+        if (!task.call()) {
+            throw new IllegalStateException("Compilation failed: " + diagnostics.getDiagnostics());
+        }
+    }
+
+    private File source(final String className, final String content) throws IOException {
+        final File file = new File(sourceFolder, className + ".java");
+        Files.write(file.toPath(), content.getBytes(UTF_8));
+        return file;
+    }
+
+    private static Object property(final Object object, final String getter) throws Exception {
+        return object.getClass().getMethod(getter).invoke(object);
+    }
+}
@@ -1,17 +1,28 @@
 package uk.gov.justice.services.generators.commons.config;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 import uk.gov.justice.raml.core.GeneratorConfig;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public final class GeneratorProperties {
 
     private static final String SERVICE_COMPONENT_PROPERTY = "serviceComponent";
+    private static final String MAX_SESSION_PROPERTY = "maxSession";
+    private static final String CONSUMER_WINDOW_SIZE_PROPERTY = "consumerWindowSize";
+    private static final String ACKNOWLEDGE_MODE_PROPERTY = "acknowledgeMode";
+    private static final String BATCH_SIZE_PROPERTY = "batchSize";
+    private static final String BATCH_WAIT_MILLIS_PROPERTY = "batchWaitMillis";
+    private static final List<String> ACKNOWLEDGE_MODES = asList("Auto-acknowledge", "Dups-ok-acknowledge");
+
     private static final String NOT_SET_MESSAGE = "%s generator property not set in the plugin config";
     private static final String INVALID_MESSAGE = "%s generator property invalid. Expected one of: %s";
+    private static final String NOT_A_NUMBER_MESSAGE = "%s generator property invalid. Expected an integer not less than %d but was: %s";
 
     private GeneratorProperties() {
     }
@@ -30,4 +41,114 @@ public final class GeneratorProperties {
         return serviceComponentProperty;
     }
 
+    /**
+     * Returns the maximum number of concurrent sessions a JMS listener on the given destination
+     * should use, if configured.
+     *
+     * @param generatorConfig the generator configuration
+     * @param destinationName the JMS destination name of the listener
+     * @return the optional maximum number of sessions
+     */
+    public static Optional<String> maxSessionOf(final GeneratorConfig generatorConfig, final String destinationName) {
+        return integerPropertyOf(generatorConfig, MAX_SESSION_PROPERTY, destinationName, 1);
+    }
+
+    /**
+     * Returns the consumer window (prefetch) size in bytes a JMS listener on the given destination
+     * should use, if configured. A value of -1 means unbounded and 0 disables prefetching.
+     *
+     * @param generatorConfig the generator configuration
+     * @param destinationName the JMS destination name of the listener
+     * @return the optional consumer window size
+     */
+    public static Optional<String> consumerWindowSizeOf(final GeneratorConfig generatorConfig, final String destinationName) {
+        return integerPropertyOf(generatorConfig, CONSUMER_WINDOW_SIZE_PROPERTY, destinationName, -1);
+    }
+
+    /**
+     * Returns the acknowledge mode a JMS listener on the given destination should use, if
+     * configured.
+     *
+     * @param generatorConfig the generator configuration
+     * @param destinationName the JMS destination name of the listener
+     * @return the optional acknowledge mode
+     */
+    public static Optional<String> acknowledgeModeOf(final GeneratorConfig generatorConfig, final String destinationName) {
+        final Optional<String> acknowledgeMode = optionalPropertyOf(generatorConfig, ACKNOWLEDGE_MODE_PROPERTY, destinationName);
+        if (acknowledgeMode.isPresent() && !ACKNOWLEDGE_MODES.contains(acknowledgeMode.get())) {
+            throw new IllegalArgumentException(format(INVALID_MESSAGE, ACKNOWLEDGE_MODE_PROPERTY, ACKNOWLEDGE_MODES));
+        }
+        return acknowledgeMode;
+    }
+
+    /**
+     * Returns the number of messages a batch JMS listener on the given destination should collect
+     * before dispatching them, if configured. When set, a batch listener is generated instead of a
+     * message driven bean.
+     *
+     * A batch listener of a topic consumes a shared durable subscription, which the Java EE
+     * container cannot give the client id of the durable subscription of the message driven bean.
+     * Switching a topic to batch mode therefore starts a new subscription: the message driven bean
+     * should be stopped only once its subscription has been drained, and the old subscription then
+     * removed from the broker.
+     *
+     * @param generatorConfig the generator configuration
+     * @param destinationName the JMS destination name of the listener
+     * @return the optional batch size
+     */
+    public static Optional<String> batchSizeOf(final GeneratorConfig generatorConfig, final String destinationName) {
+        return integerPropertyOf(generatorConfig, BATCH_SIZE_PROPERTY, destinationName, 1);
+    }
+
+    /**
+     * Returns the maximum time in milliseconds a batch JMS listener on the given destination should
+     * wait for a batch to fill before dispatching it, if configured.
+     *
+     * @param generatorConfig the generator configuration
+     * @param destinationName the JMS destination name of the listener
+     * @return the optional maximum wait in milliseconds
+     */
+    public static Optional<String> batchWaitMillisOf(final GeneratorConfig generatorConfig, final String destinationName) {
+        return integerPropertyOf(generatorConfig, BATCH_WAIT_MILLIS_PROPERTY, destinationName, 1);
+    }
+
+    private static Optional<String> integerPropertyOf(final GeneratorConfig generatorConfig,
+                                                      final String propertyName,
+                                                      final String destinationName,
+                                                      final int minimum) {
+        final Optional<String> value = optionalPropertyOf(generatorConfig, propertyName, destinationName);
+        if (value.isPresent() && !isIntegerNotLessThan(value.get(), minimum)) {
+            throw new IllegalArgumentException(format(NOT_A_NUMBER_MESSAGE, propertyName, minimum, value.get()));
+        }
+        return value;
+    }
+
+    private static boolean isIntegerNotLessThan(final String value, final int minimum) {
+        try {
+            return Integer.parseInt(value) >= minimum;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Looks up an optional property, giving precedence to a value set for the destination in the
+     * form {@code <property>.<destination>} over the value set for all destinations.
+     */
+    private static Optional<String> optionalPropertyOf(final GeneratorConfig generatorConfig,
+                                                       final String propertyName,
+                                                       final String destinationName) {
+        final Map<String, String> generatorProperties = generatorConfig.getGeneratorProperties();
+        if (generatorProperties == null) {
+            return Optional.empty();
+        }
+
+        final String destinationValue = generatorProperties.get(format("%s.%s", propertyName, destinationName));
+        if (!isEmpty(destinationValue)) {
+            return Optional.of(destinationValue);
+        }
+
+        final String value = generatorProperties.get(propertyName);
+        return isEmpty(value) ? Optional.empty() : Optional.of(value);
+    }
 }
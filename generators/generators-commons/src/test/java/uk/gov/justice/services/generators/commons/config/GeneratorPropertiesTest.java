@@ -10,11 +10,17 @@ import static uk.gov.justice.services.core.annotation.Component.COMMAND_HANDLER;
 import static uk.gov.justice.services.core.annotation.Component.QUERY_API;
 import static uk.gov.justice.services.core.annotation.Component.QUERY_CONTROLLER;
 import static uk.gov.justice.services.core.annotation.Component.QUERY_VIEW;
+import static uk.gov.justice.services.generators.commons.config.GeneratorProperties.acknowledgeModeOf;
+import static uk.gov.justice.services.generators.commons.config.GeneratorProperties.batchSizeOf;
+import static uk.gov.justice.services.generators.commons.config.GeneratorProperties.batchWaitMillisOf;
+import static uk.gov.justice.services.generators.commons.config.GeneratorProperties.consumerWindowSizeOf;
+import static uk.gov.justice.services.generators.commons.config.GeneratorProperties.maxSessionOf;
 import static uk.gov.justice.services.generators.commons.config.GeneratorProperties.serviceComponentOf;
 import static uk.gov.justice.services.generators.test.utils.config.GeneratorConfigUtil.emptyPathConfigurationWith;
 import static uk.gov.justice.services.generators.test.utils.config.GeneratorPropertiesBuilder.generatorProperties;
 
 import java.util.Map;
+import java.util.Optional;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -99,4 +105,79 @@ public class GeneratorPropertiesTest {
 
         serviceComponentOf(emptyPathConfigurationWith(emptyMap()));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReturnEmptyConcurrencySettingsIfNotConfigured() {
+        assertThat(maxSessionOf(emptyPathConfigurationWith(emptyMap()), "people.event"), is(Optional.<String>empty()));
+        assertThat(consumerWindowSizeOf(emptyPathConfigurationWith(emptyMap()), "people.event"), is(Optional.<String>empty()));
+        assertThat(acknowledgeModeOf(emptyPathConfigurationWith(null), "people.event"), is(Optional.<String>empty()));
+    }
+
+    @Test
+    public void shouldReturnConcurrencySettingsForAllDestinations() {
+        final Map<String, String> properties = generatorProperties()
+                .withPropertyOf("maxSession", "8")
+                .withPropertyOf("consumerWindowSize", "0")
+                .withPropertyOf("acknowledgeMode", "Dups-ok-acknowledge")
+                .build();
+
+        assertThat(maxSessionOf(emptyPathConfigurationWith(properties), "people.event"), is(Optional.of("8")));
+        assertThat(consumerWindowSizeOf(emptyPathConfigurationWith(properties), "people.event"), is(Optional.of("0")));
+        assertThat(acknowledgeModeOf(emptyPathConfigurationWith(properties), "people.event"), is(Optional.of("Dups-ok-acknowledge")));
+    }
+
+    @Test
+    public void shouldPreferDestinationSpecificConcurrencySettings() {
+        final Map<String, String> properties = generatorProperties()
+                .withPropertyOf("maxSession", "8")
+                .withPropertyOf("maxSession.people.event", "2")
+                .build();
+
+        assertThat(maxSessionOf(emptyPathConfigurationWith(properties), "people.event"), is(Optional.of("2")));
+        assertThat(maxSessionOf(emptyPathConfigurationWith(properties), "people.command"), is(Optional.of("8")));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfMaxSessionIsLessThanOne() {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("maxSession generator property invalid");
+
+        maxSessionOf(emptyPathConfigurationWith(generatorProperties().withPropertyOf("maxSession", "0").build()), "people.event");
+    }
+
+    @Test
+    public void shouldThrowExceptionIfConsumerWindowSizeIsNotANumber() {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("consumerWindowSize generator property invalid");
+
+        consumerWindowSizeOf(emptyPathConfigurationWith(generatorProperties().withPropertyOf("consumerWindowSize", "large").build()), "people.event");
+    }
+
+    @Test
+    public void shouldThrowExceptionIfAcknowledgeModeIsUnknown() {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("acknowledgeMode generator property invalid");
+
+        acknowledgeModeOf(emptyPathConfigurationWith(generatorProperties().withPropertyOf("acknowledgeMode", "Client-acknowledge").build()), "people.event");
+    }
+
+    @Test
+    public void shouldReturnBatchSettings() {
+        final Map<String, String> properties = generatorProperties()
+                .withPropertyOf("batchSize.people.event", "100")
+                .withPropertyOf("batchWaitMillis", "500")
+                .build();
+
+        assertThat(batchSizeOf(emptyPathConfigurationWith(properties), "people.event"), is(Optional.of("100")));
+        assertThat(batchSizeOf(emptyPathConfigurationWith(properties), "people.command"), is(Optional.<String>empty()));
+        assertThat(batchWaitMillisOf(emptyPathConfigurationWith(properties), "people.event"), is(Optional.of("500")));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfBatchSizeIsLessThanOne() {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("batchSize generator property invalid");
+
+        batchSizeOf(emptyPathConfigurationWith(generatorProperties().withPropertyOf("batchSize", "0").build()), "people.event");
+    }
+}
@@ -23,6 +23,11 @@ public class GeneratorPropertiesBuilder {
         return this;
     }
 
+    public GeneratorPropertiesBuilder withPropertyOf(final String name, final String value) {
+        properties.put(name, value);
+        return this;
+    }
+
     public Map<String, String> build() {
         return properties;
     }
@@ -0,0 +1,315 @@
+package uk.gov.justice.services.adapter.messaging;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.singletonList;
+import static uk.gov.justice.services.messaging.jms.HeaderConstants.JMS_HEADER_CPPNAME;
+import static uk.gov.justice.services.messaging.logging.JmsMessageLoggerHelper.toJmsTraceString;
+import static uk.gov.justice.services.messaging.logging.LoggerUtils.trace;
+
+import uk.gov.justice.services.adapter.messaging.exception.InvalildJmsMessageTypeException;
+import uk.gov.justice.services.core.configuration.Value;
+import uk.gov.justice.services.core.json.JsonSchemaValidator;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.jms.EnvelopeConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.inject.Inject;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+import javax.transaction.HeuristicMixedException;
+import javax.transaction.HeuristicRollbackException;
+import javax.transaction.NotSupportedException;
+import javax.transaction.RollbackException;
+import javax.transaction.SystemException;
+import javax.transaction.UserTransaction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Consumes JMS messages in batches, so that handlers can process several envelopes at once (for
+ * example to write them to a view store in bulk).
+ *
+ * Messages are received until either the batch size is reached or the maximum wait has elapsed.
+ * The envelopes converted from the messages are then passed to the consumer as a list. Each batch is
+ * received and handled in a JTA transaction of its own, so the batch is only consumed if the
+ * consumer succeeds, and is rolled back to the destination if it fails.
+ *
+ * After a batch fails, the processor handles the next batch size of messages one at a time, each in
+ * its own transaction, so that the messages that do not fail are handled and only the failing
+ * message is redelivered. A message that is delivered more than
+ * <code>jmsBatchMaxDeliveryAttempts</code> times while handled on its own is moved to the
+ * <code>jmsBatchDeadLetterQueue</code> (<code>DLQ</code> by default) in the transaction that consumes
+ * it, so that a message that always fails does not block the destination. If the connection fails,
+ * the processor reconnects, backing off exponentially between attempts.
+ *
+ * Each generated batch listener gets its own instance, which consumes on a single managed thread
+ * between {@link #start} and {@link #stop}.
+ */
+public class JmsBatchProcessor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JmsBatchProcessor.class);
+
+    private static final String JMSX_DELIVERY_COUNT = "JMSXDeliveryCount";
+    private static final long MIN_RECONNECT_BACKOFF_MILLIS = 100L;
+    private static final long MAX_RECONNECT_BACKOFF_MILLIS = 30_000L;
+
+    @Inject
+    EnvelopeConverter envelopeConverter;
+
+    @Inject
+    JsonSchemaValidator validator;
+
+    @Inject
+    @Value(key = "jmsBatchMaxDeliveryAttempts", defaultValue = "10")
+    String maxDeliveryAttempts;
+
+    @Inject
+    @Value(key = "jmsBatchDeadLetterQueue", defaultValue = "DLQ")
+    String deadLetterQueue;
+
+    @Resource(mappedName = "java:comp/DefaultJMSConnectionFactory")
+    ConnectionFactory connectionFactory;
+
+    @Resource
+    ManagedExecutorService executorService;
+
+    @Resource
+    UserTransaction userTransaction;
+
+    private volatile boolean running;
+    private Future<?> consumerTask;
+
+    /**
+     * Start consuming batches of messages on a managed thread.
+     *
+     * @param consumer        a consumer for each batch of envelopes
+     * @param consumerFactory creates the JMS consumer of the destination from a JMS context
+     * @param batchSize       the maximum number of messages in a batch
+     * @param maxWaitMillis   the maximum time to wait for a batch to fill
+     * @param validateSchema  whether each message is validated against its JSON schema
+     */
+    public void start(final Consumer<List<JsonEnvelope>> consumer,
+                      final Function<JMSContext, JMSConsumer> consumerFactory,
+                      final int batchSize,
+                      final long maxWaitMillis,
+                      final boolean validateSchema) {
+        running = true;
+        consumerTask = executorService.submit(() -> consume(consumer, consumerFactory, batchSize, maxWaitMillis, validateSchema));
+    }
+
+    /**
+     * Stop consuming once the batch in progress has been processed.
+     */
+    public void stop() {
+        running = false;
+        if (consumerTask != null) {
+            consumerTask.cancel(false);
+        }
+    }
+
+    void consume(final Consumer<List<JsonEnvelope>> consumer,
+                 final Function<JMSContext, JMSConsumer> consumerFactory,
+                 final int batchSize,
+                 final long maxWaitMillis,
+                 final boolean validateSchema) {
+        long reconnectBackoffMillis = MIN_RECONNECT_BACKOFF_MILLIS;
+        int singleMessages = 0;
+        while (running) {
+            try {
+                if (singleMessages > 0) {
+                    inTransaction(context -> processSingle(consumer, consumerFactory.apply(context), deadLettersOf(context), maxWaitMillis, validateSchema));
+                    singleMessages--;
+                } else {
+                    inTransaction(context -> processBatch(consumer, consumerFactory.apply(context), batchSize, maxWaitMillis, validateSchema));
+                }
+                reconnectBackoffMillis = MIN_RECONNECT_BACKOFF_MILLIS;
+            } catch (JMSRuntimeException e) {
+                LOGGER.error(format("JMS batch consumer failed, reconnecting in %d ms", reconnectBackoffMillis), e);
+                try {
+                    Thread.sleep(reconnectBackoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                reconnectBackoffMillis = Math.min(reconnectBackoffMillis * 2, MAX_RECONNECT_BACKOFF_MILLIS);
+            } catch (RuntimeException e) {
+                LOGGER.error(format("Failed to process JMS messages, which will be redelivered and processed one at a time for the next %d messages", batchSize), e);
+                singleMessages = batchSize;
+            }
+        }
+    }
+
+    /**
+     * Receive and process a single batch of messages.
+     *
+     * @param consumer        a consumer for the batch of envelopes
+     * @param messageConsumer the JMS consumer to receive messages from
+     * @param batchSize       the maximum number of messages in the batch
+     * @param maxWaitMillis   the maximum time to wait for the batch to fill
+     * @param validateSchema  whether each message is validated against its JSON schema
+     * @return the number of messages processed
+     */
+    int processBatch(final Consumer<List<JsonEnvelope>> consumer,
+                     final JMSConsumer messageConsumer,
+                     final int batchSize,
+                     final long maxWaitMillis,
+                     final boolean validateSchema) {
+        final List<Message> messages = receiveBatch(messageConsumer, batchSize, maxWaitMillis);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        final List<JsonEnvelope> envelopes = new ArrayList<>(messages.size());
+        for (final Message message : messages) {
+            envelopes.add(envelopeOf(message, validateSchema));
+        }
+
+        consumer.accept(envelopes);
+        trace(LOGGER, () -> format("Batch of %d JMS messages processed", envelopes.size()));
+
+        return envelopes.size();
+    }
+
+    /**
+     * Receive and process a single message on its own, moving it to the dead letter queue instead if
+     * it has been delivered too many times.
+     *
+     * @param consumer        a consumer for the batch of the envelope
+     * @param messageConsumer the JMS consumer to receive the message from
+     * @param deadLetters     a consumer for the messages delivered too many times
+     * @param maxWaitMillis   the maximum time to wait for the message
+     * @param validateSchema  whether the message is validated against its JSON schema
+     * @return the number of messages processed
+     */
+    int processSingle(final Consumer<List<JsonEnvelope>> consumer,
+                      final JMSConsumer messageConsumer,
+                      final Consumer<Message> deadLetters,
+                      final long maxWaitMillis,
+                      final boolean validateSchema) {
+        final Message message = messageConsumer.receive(maxWaitMillis);
+        if (message == null) {
+            return 0;
+        }
+
+        if (deliveryCountOf(message) > parseInt(maxDeliveryAttempts.trim())) {
+            LOGGER.error(format("Moving JMS message %s to %s after %s delivery attempts", toJmsTraceString(message), deadLetterQueue, maxDeliveryAttempts));
+            deadLetters.accept(message);
+            return 0;
+        }
+
+        consumer.accept(singletonList(envelopeOf(message, validateSchema)));
+        trace(LOGGER, () -> format("JMS message processed on its own: %s", toJmsTraceString(message)));
+
+        return 1;
+    }
+
+    private Consumer<Message> deadLettersOf(final JMSContext context) {
+        return message -> context.createProducer().send(context.createQueue(deadLetterQueue.trim()), message);
+    }
+
+    /**
+     * Run work with a JMS context in a new JTA transaction, so that the messages received with the
+     * context are only consumed, and the messages sent with it only sent, if the work succeeds.
+     */
+    private int inTransaction(final Function<JMSContext, Integer> work) {
+        try {
+            userTransaction.begin();
+        } catch (NotSupportedException | SystemException e) {
+            throw new IllegalStateException("Failed to begin the transaction of a batch of JMS messages", e);
+        }
+
+        final int processed;
+        try {
+            try (final JMSContext context = connectionFactory.createContext()) {
+                processed = work.apply(context);
+            }
+        } catch (RuntimeException | Error e) {
+            rollback();
+            throw e;
+        }
+
+        try {
+            userTransaction.commit();
+        } catch (RollbackException | HeuristicMixedException | HeuristicRollbackException | SystemException e) {
+            throw new IllegalStateException("Failed to commit the transaction of a batch of JMS messages", e);
+        }
+        return processed;
+    }
+
+    private void rollback() {
+        try {
+            userTransaction.rollback();
+        } catch (SystemException | RuntimeException e) {
+            LOGGER.error("Failed to roll back the transaction of a batch of JMS messages", e);
+        }
+    }
+
+    private JsonEnvelope envelopeOf(final Message message, final boolean validateSchema) {
+        trace(LOGGER, () -> format("Processing JMS message: %s", toJmsTraceString(message)));
+        final TextMessage textMessage = textMessageOf(message);
+        if (validateSchema) {
+            validate(textMessage);
+        }
+        return envelopeConverter.fromMessage(textMessage);
+    }
+
+    private List<Message> receiveBatch(final JMSConsumer messageConsumer, final int batchSize, final long maxWaitMillis) {
+        final List<Message> messages = new ArrayList<>(batchSize);
+        final long deadline = currentTimeMillis() + maxWaitMillis;
+
+        long remaining = maxWaitMillis;
+        while (messages.size() < batchSize && remaining > 0) {
+            final Message message = messageConsumer.receive(remaining);
+            if (message == null) {
+                break;
+            }
+            messages.add(message);
+            remaining = deadline - currentTimeMillis();
+        }
+
+        return messages;
+    }
+
+    private int deliveryCountOf(final Message message) {
+        try {
+            return message.propertyExists(JMSX_DELIVERY_COUNT) ? message.getIntProperty(JMSX_DELIVERY_COUNT) : 1;
+        } catch (JMSException e) {
+            throw new InvalildJmsMessageTypeException(format("Failed to read the delivery count of JMS message %s", message), e);
+        }
+    }
+
+    private TextMessage textMessageOf(final Message message) {
+        if (!(message instanceof TextMessage)) {
+            try {
+                throw new InvalildJmsMessageTypeException(format("Message is not an instance of TextMessage %s", message.getJMSMessageID()));
+            } catch (JMSException e) {
+                throw new InvalildJmsMessageTypeException(format("Message is not an instance of TextMessage. Failed to retrieve messageId %s",
+                        message), e);
+            }
+        }
+        return (TextMessage) message;
+    }
+
+    private void validate(final TextMessage message) {
+        try {
+            validator.validate(message.getText(), message.getStringProperty(JMS_HEADER_CPPNAME));
+        } catch (JMSException e) {
+            throw new InvalildJmsMessageTypeException(format("Failed to read JMS message %s", message), e);
+        }
+    }
+}
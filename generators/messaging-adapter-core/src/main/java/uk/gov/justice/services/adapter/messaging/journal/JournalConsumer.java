@@ -0,0 +1,115 @@
+package uk.gov.justice.services.adapter.messaging.journal;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import uk.gov.justice.services.messaging.journal.JournalQueue;
+import uk.gov.justice.services.messaging.journal.JournalRecord;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the records of a {@link JournalQueue} in order and passes the JSON text of each to the
+ * processor of one service component, committing the consumer offset after each record has been
+ * processed.
+ *
+ * A record that fails is retried up to {@link #MAX_ATTEMPTS} times, backing off between attempts,
+ * and is then parked in a dead letter queue, so that one bad record cannot block the queue and is
+ * not lost. If the queue itself fails, for example on a corrupt record, the
+ * consumer logs the failure, backs off and resumes from its committed offset.
+ */
+class JournalConsumer implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalConsumer.class);
+
+    static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 100L;
+    private static final long IDLE_WAIT_MILLIS = 100L;
+    private static final long MIN_FAILURE_BACKOFF_MILLIS = 100L;
+    private static final long MAX_FAILURE_BACKOFF_MILLIS = 30_000L;
+
+    private final String name;
+    private final JournalQueue queue;
+    private final Consumer<String> envelopeProcessor;
+    private final Supplier<JournalQueue> deadLetterQueue;
+
+    private volatile boolean running = true;
+    private long failureBackoffMillis = MIN_FAILURE_BACKOFF_MILLIS;
+
+    JournalConsumer(final String name,
+                    final JournalQueue queue,
+                    final Consumer<String> envelopeProcessor,
+                    final Supplier<JournalQueue> deadLetterQueue) {
+        this.name = name;
+        this.queue = queue;
+        this.envelopeProcessor = envelopeProcessor;
+        this.deadLetterQueue = deadLetterQueue;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                consume();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error(format("Journal consumer %s failed, resuming from its committed offset in %d ms", name, failureBackoffMillis), e);
+                try {
+                    Thread.sleep(failureBackoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                failureBackoffMillis = Math.min(failureBackoffMillis * 2, MAX_FAILURE_BACKOFF_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    private void consume() throws IOException, InterruptedException {
+        long offset = queue.committedOffset(name);
+        while (running) {
+            final Optional<JournalRecord> record = queue.awaitRead(offset, IDLE_WAIT_MILLIS);
+            if (record.isPresent()) {
+                dispatch(record.get());
+                offset = record.get().nextOffset();
+                queue.commit(name, offset);
+                failureBackoffMillis = MIN_FAILURE_BACKOFF_MILLIS;
+            }
+        }
+    }
+
+    private void dispatch(final JournalRecord record) throws IOException, InterruptedException {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                envelopeProcessor.accept(new String(record.payload(), UTF_8));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    LOGGER.error(format("Parking journal record at offset %d for consumer %s in its dead letter queue after %d attempts",
+                            record.offset(), name, MAX_ATTEMPTS), e);
+                } else {
+                    Thread.sleep(RETRY_BACKOFF_MILLIS << (attempt - 1));
+                }
+            }
+        }
+        park(record);
+    }
+
+    private void park(final JournalRecord record) throws IOException {
+        final JournalQueue deadLetters = deadLetterQueue.get();
+        deadLetters.append(record.payload());
+        deadLetters.flush();
+    }
+}
@@ -0,0 +1,263 @@
+package uk.gov.justice.services.adapter.messaging.journal;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import uk.gov.justice.services.core.annotation.Component;
+import uk.gov.justice.services.core.configuration.Value;
+import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcher;
+import uk.gov.justice.services.core.dispatcher.DispatcherCache;
+import uk.gov.justice.services.core.transport.LocalDeliveryProcessor;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
+import uk.gov.justice.services.messaging.jms.transport.EnvelopeTransport;
+import uk.gov.justice.services.messaging.journal.JournalQueue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers envelopes to service components deployed in the same JVM through a durable journal on
+ * local disk instead of the JMS broker.
+ *
+ * Destinations are selected with the <code>journalDestinations</code> property, a comma separated
+ * list of <code>destination=COMPONENT</code> entries. Each destination has a {@link JournalQueue} in
+ * a sub-directory of <code>journalDirectory</code>, made of memory-mapped segments of
+ * <code>journalSegmentSize</code> bytes. A send returns once the envelope has been forced to disk;
+ * appends are flushed together every <code>journalFsyncIntervalMillis</code> milliseconds, so
+ * concurrent senders share one fsync.
+ *
+ * An envelope sent within a transaction is only appended once the transaction commits, and is
+ * discarded if it rolls back, as a transacted JMS send would be. Such an envelope is written as
+ * JSON before the transaction completes, so that a failure to write it rolls the transaction back;
+ * an envelope that cannot be appended after the commit is logged.
+ *
+ * Each component listed for a destination consumes it on its own thread from its committed offset,
+ * so envelopes that had not been processed when the application stopped are redelivered on start.
+ * Records are handed to the component through the {@link LocalDeliveryProcessor}, which validates
+ * them against their JSON schema and dispatches each in a transaction of its own, as a JMS listener
+ * would. Delivery is at-least-once.
+ *
+ * An envelope that a component still fails to handle after retrying is parked in the journal of the
+ * destination <code>&lt;destination&gt;.dead-letter.&lt;COMPONENT&gt;</code>. Listing
+ * <code>&lt;destination&gt;.dead-letter.&lt;COMPONENT&gt;=COMPONENT</code> in
+ * <code>journalDestinations</code> redelivers the parked envelopes to the component.
+ *
+ * The transport is started when the application starts by the {@link
+ * JournalEnvelopeTransportStartup}, so that unconsumed envelopes are replayed straight away.
+ */
+@ApplicationScoped
+public class JournalEnvelopeTransport implements EnvelopeTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalEnvelopeTransport.class);
+
+    private static final String NONE = "none";
+    private static final String DEAD_LETTER_INFIX = ".dead-letter.";
+
+    @Inject
+    @Value(key = "journalDestinations", defaultValue = NONE)
+    String journalDestinations;
+
+    @Inject
+    @Value(key = "journalDirectory", defaultValue = "journal")
+    String journalDirectory;
+
+    @Inject
+    @Value(key = "journalSegmentSize", defaultValue = "67108864")
+    String segmentSize;
+
+    @Inject
+    @Value(key = "journalFsyncIntervalMillis", defaultValue = "5")
+    String fsyncIntervalMillis;
+
+    @Inject
+    DispatcherCache dispatcherCache;
+
+    @Inject
+    JsonEnvelopeWriter jsonEnvelopeWriter;
+
+    @Inject
+    LocalDeliveryProcessor localDeliveryProcessor;
+
+    @Resource
+    ManagedThreadFactory managedThreadFactory;
+
+    @Resource
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    private final Map<String, JournalQueue> queues = new ConcurrentHashMap<>();
+    private final List<JournalConsumer> consumers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    /**
+     * Open the journals of the configured destinations and start consuming them.
+     */
+    public void start() {
+        start(managedThreadFactory);
+    }
+
+    void start(final ThreadFactory threadFactory) {
+        if (NONE.equals(journalDestinations.trim())) {
+            return;
+        }
+
+        final Path directory = Paths.get(journalDirectory.trim());
+        for (final String entry : journalDestinations.split(",")) {
+            final String[] destinationAndComponent = entry.trim().split("=");
+            if (destinationAndComponent.length != 2) {
+                throw new IllegalArgumentException(format("Invalid journal destination %s, expected destination=COMPONENT", entry));
+            }
+
+            final String destinationName = destinationAndComponent[0].trim();
+            final Component component = Component.valueOf(destinationAndComponent[1].trim());
+            final JournalQueue queue = queues.computeIfAbsent(destinationName, d -> openQueue(directory.resolve(d)));
+            final AsynchronousDispatcher dispatcher = dispatcherCache.dispatcherFor(component)::asynchronousDispatch;
+            final JournalConsumer consumer = new JournalConsumer(
+                    component.name(),
+                    queue,
+                    envelopeJson -> localDeliveryProcessor.process(dispatcher, envelopeJson),
+                    () -> queues.computeIfAbsent(deadLetterDestinationOf(destinationName, component), d -> openQueue(directory.resolve(d))));
+
+            register(queue, component.name());
+            consumers.add(consumer);
+        }
+
+        consumers.forEach(consumer -> threadFactory.newThread(consumer).start());
+        running = true;
+        threadFactory.newThread(this::flushPeriodically).start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        consumers.forEach(JournalConsumer::stop);
+        for (final JournalQueue queue : queues.values()) {
+            try {
+                queue.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to close journal queue", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean handles(final String destinationName) {
+        return queues.containsKey(destinationName);
+    }
+
+    @Override
+    public void send(final JsonEnvelope envelope, final String destinationName) {
+        final JournalQueue queue = queues.get(destinationName);
+        if (queue == null) {
+            throw new IllegalArgumentException(format("Destination %s is not journaled", destinationName));
+        }
+
+        if (transactionSynchronizationRegistry != null
+                && transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new AppendOnCommit(envelope, queue, destinationName));
+        } else {
+            append(jsonEnvelopeWriter.asJsonStringWithoutNulls(envelope).getBytes(UTF_8), queue, destinationName);
+        }
+    }
+
+    private static void append(final byte[] payload, final JournalQueue queue, final String destinationName) {
+        try {
+            final long offset = queue.append(payload);
+            queue.awaitFlushed(offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(format("Failed to append envelope to journal for destination %s", destinationName), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(format("Interrupted waiting for journal of destination %s to be flushed", destinationName), e);
+        }
+    }
+
+    /**
+     * Writes an envelope as JSON before its transaction completes, so that failing to write it
+     * rolls the transaction back, and appends it to the journal once the transaction has committed.
+     */
+    private class AppendOnCommit implements Synchronization {
+
+        private final JsonEnvelope envelope;
+        private final JournalQueue queue;
+        private final String destinationName;
+
+        private byte[] payload;
+
+        AppendOnCommit(final JsonEnvelope envelope, final JournalQueue queue, final String destinationName) {
+            this.envelope = envelope;
+            this.queue = queue;
+            this.destinationName = destinationName;
+        }
+
+        @Override
+        public void beforeCompletion() {
+            payload = jsonEnvelopeWriter.asJsonStringWithoutNulls(envelope).getBytes(UTF_8);
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            if (status != Status.STATUS_COMMITTED) {
+                return;
+            }
+            try {
+                append(payload != null ? payload : jsonEnvelopeWriter.asJsonStringWithoutNulls(envelope).getBytes(UTF_8), queue, destinationName);
+            } catch (RuntimeException e) {
+                LOGGER.error(format("Lost envelope %s (%s) committed for the journal of destination %s",
+                        envelope.metadata().id(), envelope.metadata().name(), destinationName), e);
+            }
+        }
+    }
+
+    private static String deadLetterDestinationOf(final String destinationName, final Component component) {
+        return format("%s%s%s", destinationName, DEAD_LETTER_INFIX, component.name());
+    }
+
+    private static void register(final JournalQueue queue, final String consumerName) {
+        try {
+            queue.register(consumerName);
+        } catch (IOException e) {
+            throw new UncheckedIOException(format("Failed to read the journal offset of %s", consumerName), e);
+        }
+    }
+
+    private JournalQueue openQueue(final Path directory) {
+        try {
+            return new JournalQueue(directory, parseInt(segmentSize.trim()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(format("Failed to open journal in %s", directory), e);
+        }
+    }
+
+    private void flushPeriodically() {
+        final long intervalNanos = TimeUnit.MILLISECONDS.toNanos(parseLong(fsyncIntervalMillis.trim()));
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            queues.values().forEach(JournalQueue::flush);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package uk.gov.justice.services.adapter.messaging.journal;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.inject.Inject;
+
+/**
+ * Starts the {@link JournalEnvelopeTransport} when the application starts, rather than on the first
+ * send, so that envelopes left unconsumed when the application stopped are replayed straight away.
+ */
+@Startup
+@Singleton
+public class JournalEnvelopeTransportStartup {
+
+    @Inject
+    JournalEnvelopeTransport journalEnvelopeTransport;
+
+    @PostConstruct
+    void start() {
+        journalEnvelopeTransport.start();
+    }
+}
@@ -0,0 +1,255 @@
+package uk.gov.justice.services.adapter.messaging;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import uk.gov.justice.services.adapter.messaging.exception.InvalildJmsMessageTypeException;
+import uk.gov.justice.services.core.json.JsonSchemaValidator;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.jms.EnvelopeConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+import javax.jms.ObjectMessage;
+import javax.jms.TextMessage;
+import javax.transaction.UserTransaction;
+
+import org.everit.json.schema.ValidationException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JmsBatchProcessorTest {
+
+    private static final long MAX_WAIT = 1000L;
+
+    @Mock
+    private JMSConsumer messageConsumer;
+
+    @Mock
+    private TextMessage textMessage1;
+
+    @Mock
+    private TextMessage textMessage2;
+
+    @Mock
+    private ObjectMessage objectMessage;
+
+    @Mock
+    private JsonEnvelope envelope1;
+
+    @Mock
+    private JsonEnvelope envelope2;
+
+    @Mock
+    private EnvelopeConverter envelopeConverter;
+
+    @Mock
+    private JsonSchemaValidator validator;
+
+    private JmsBatchProcessor jmsBatchProcessor;
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private JMSContext context;
+
+    @Mock
+    private ManagedExecutorService executorService;
+
+    @Mock
+    private UserTransaction userTransaction;
+
+    private List<List<JsonEnvelope>> batches;
+
+    private List<Message> deadLetters;
+
+    @Before
+    public void setup() {
+        jmsBatchProcessor = new JmsBatchProcessor();
+        jmsBatchProcessor.envelopeConverter = envelopeConverter;
+        jmsBatchProcessor.validator = validator;
+        jmsBatchProcessor.connectionFactory = connectionFactory;
+        jmsBatchProcessor.executorService = executorService;
+        jmsBatchProcessor.userTransaction = userTransaction;
+        jmsBatchProcessor.maxDeliveryAttempts = "10";
+        jmsBatchProcessor.deadLetterQueue = "DLQ";
+        batches = new ArrayList<>();
+        deadLetters = new ArrayList<>();
+
+        when(envelopeConverter.fromMessage(textMessage1)).thenReturn(envelope1);
+        when(envelopeConverter.fromMessage(textMessage2)).thenReturn(envelope2);
+    }
+
+    @Test
+    public void shouldPassBatchOfEnvelopesToConsumer() throws Exception {
+        when(messageConsumer.receive(anyLong())).thenReturn(textMessage1, textMessage2, null);
+
+        final int processed = jmsBatchProcessor.processBatch(batches::add, messageConsumer, 10, MAX_WAIT, false);
+
+        assertThat(processed, is(2));
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0), contains(envelope1, envelope2));
+    }
+
+    @Test
+    public void shouldStopReceivingWhenBatchIsFull() throws Exception {
+        when(messageConsumer.receive(anyLong())).thenReturn(textMessage1, textMessage2);
+
+        final int processed = jmsBatchProcessor.processBatch(batches::add, messageConsumer, 1, MAX_WAIT, false);
+
+        assertThat(processed, is(1));
+        assertThat(batches.get(0), contains(envelope1));
+        verifyZeroInteractions(textMessage2);
+    }
+
+    @Test
+    public void shouldNotCallConsumerIfNoMessagesReceived() throws Exception {
+        when(messageConsumer.receive(anyLong())).thenReturn(null);
+
+        final int processed = jmsBatchProcessor.processBatch(batches::add, messageConsumer, 10, MAX_WAIT, false);
+
+        assertThat(processed, is(0));
+        assertThat(batches.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldValidateMessagesIfRequired() throws Exception {
+        when(messageConsumer.receive(anyLong())).thenReturn(textMessage1, null);
+        when(textMessage1.getText()).thenReturn("{}");
+        when(textMessage1.getStringProperty("CPPNAME")).thenReturn("test.command.do-something");
+
+        jmsBatchProcessor.processBatch(batches::add, messageConsumer, 10, MAX_WAIT, true);
+
+        verify(validator).validate("{}", "test.command.do-something");
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldNotPassBatchToConsumerIfValidationFails() throws Exception {
+        when(messageConsumer.receive(anyLong())).thenReturn(textMessage1, null);
+        when(textMessage1.getText()).thenReturn("{}");
+        when(textMessage1.getStringProperty("CPPNAME")).thenReturn("test.command.do-something");
+        doThrow(ValidationException.class).when(validator).validate("{}", "test.command.do-something");
+
+        jmsBatchProcessor.processBatch(batches::add, messageConsumer, 10, MAX_WAIT, true);
+    }
+
+    @Test
+    public void shouldNotMoveMessagesOfABatchToTheDeadLetterQueue() throws Exception {
+        when(messageConsumer.receive(anyLong())).thenReturn(textMessage1, textMessage2, null);
+        when(textMessage1.propertyExists("JMSXDeliveryCount")).thenReturn(true);
+        when(textMessage1.getIntProperty("JMSXDeliveryCount")).thenReturn(11);
+
+        final int processed = jmsBatchProcessor.processBatch(batches::add, messageConsumer, 10, MAX_WAIT, false);
+
+        assertThat(processed, is(2));
+        assertThat(batches.get(0), contains(envelope1, envelope2));
+    }
+
+    @Test
+    public void shouldPassASingleMessageToConsumerOnItsOwn() throws Exception {
+        when(messageConsumer.receive(anyLong())).thenReturn(textMessage1, textMessage2);
+
+        final int processed = jmsBatchProcessor.processSingle(batches::add, messageConsumer, deadLetters::add, MAX_WAIT, false);
+
+        assertThat(processed, is(1));
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0), contains(envelope1));
+        assertThat(deadLetters.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldMoveASingleMessageDeliveredTooManyTimesToTheDeadLetterQueue() throws Exception {
+        when(messageConsumer.receive(anyLong())).thenReturn(textMessage1);
+        when(textMessage1.propertyExists("JMSXDeliveryCount")).thenReturn(true);
+        when(textMessage1.getIntProperty("JMSXDeliveryCount")).thenReturn(11);
+
+        final int processed = jmsBatchProcessor.processSingle(batches::add, messageConsumer, deadLetters::add, MAX_WAIT, false);
+
+        assertThat(processed, is(0));
+        assertThat(batches.isEmpty(), is(true));
+        assertThat(deadLetters, contains((Message) textMessage1));
+    }
+
+    @Test
+    public void shouldProcessEachBatchInATransaction() throws Exception {
+        when(connectionFactory.createContext()).thenReturn(context);
+        when(messageConsumer.receive(anyLong())).thenReturn(textMessage1, textMessage2, null);
+        jmsBatchProcessor.start(batches::add, c -> messageConsumer, 10, MAX_WAIT, false);
+
+        jmsBatchProcessor.consume(envelopes -> {
+            batches.add(envelopes);
+            jmsBatchProcessor.stop();
+        }, c -> messageConsumer, 10, MAX_WAIT, false);
+
+        assertThat(batches.get(0), contains(envelope1, envelope2));
+        final InOrder inOrder = inOrder(userTransaction, context);
+        inOrder.verify(userTransaction).begin();
+        inOrder.verify(context).close();
+        inOrder.verify(userTransaction).commit();
+    }
+
+    @Test
+    public void shouldProcessMessagesOneAtATimeAfterABatchFails() throws Exception {
+        when(connectionFactory.createContext()).thenReturn(context);
+        when(messageConsumer.receive(anyLong())).thenReturn(textMessage1, textMessage2, null, textMessage1);
+        jmsBatchProcessor.start(batches::add, c -> messageConsumer, 10, MAX_WAIT, false);
+
+        jmsBatchProcessor.consume(envelopes -> {
+            if (envelopes.size() > 1) {
+                throw new IllegalStateException("Batch failed");
+            }
+            batches.add(envelopes);
+            jmsBatchProcessor.stop();
+        }, c -> messageConsumer, 10, MAX_WAIT, false);
+
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0), contains(envelope1));
+        verify(userTransaction).rollback();
+        verify(userTransaction).commit();
+    }
+
+    @Test
+    public void shouldReconnectWhenTheConnectionFails() throws Exception {
+        when(connectionFactory.createContext())
+                .thenThrow(new JMSRuntimeException("Connection failed"))
+                .thenReturn(context);
+        when(messageConsumer.receive(anyLong())).thenReturn(null);
+        jmsBatchProcessor.start(batches::add, c -> messageConsumer, 10, MAX_WAIT, false);
+
+        jmsBatchProcessor.consume(batches::add, c -> {
+            jmsBatchProcessor.stop();
+            return messageConsumer;
+        }, 10, MAX_WAIT, false);
+
+        verify(connectionFactory, times(2)).createContext();
+        verify(userTransaction).rollback();
+    }
+
+    @Test(expected = InvalildJmsMessageTypeException.class)
+    public void shouldThrowExceptionWithWrongMessageType() throws Exception {
+        when(messageConsumer.receive(anyLong())).thenReturn(objectMessage, null);
+
+        jmsBatchProcessor.processBatch(batches::add, messageConsumer, 10, MAX_WAIT, false);
+    }
+}
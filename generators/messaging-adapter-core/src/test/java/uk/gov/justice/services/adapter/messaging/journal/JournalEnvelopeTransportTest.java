@@ -0,0 +1,231 @@
+package uk.gov.justice.services.adapter.messaging.journal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.justice.services.core.annotation.Component.EVENT_LISTENER;
+import static uk.gov.justice.services.core.annotation.Component.EVENT_PROCESSOR;
+
+import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcher;
+import uk.gov.justice.services.core.dispatcher.Dispatcher;
+import uk.gov.justice.services.core.dispatcher.DispatcherCache;
+import uk.gov.justice.services.core.transport.LocalDeliveryProcessor;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JournalEnvelopeTransportTest {
+
+    private static final String JSON = "{\"_metadata\":{}}";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private DispatcherCache dispatcherCache;
+
+    @Mock
+    private Dispatcher listenerDispatcher;
+
+    @Mock
+    private Dispatcher processorDispatcher;
+
+    @Mock
+    private JsonEnvelopeWriter jsonEnvelopeWriter;
+
+    @Mock
+    private LocalDeliveryProcessor localDeliveryProcessor;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Mock
+    private JsonEnvelope envelope;
+
+    @Mock
+    private JsonEnvelope journaledEnvelope;
+
+    private JournalEnvelopeTransport transport;
+
+    @Before
+    public void setup() {
+        transport = newTransport();
+
+        when(dispatcherCache.dispatcherFor(EVENT_LISTENER)).thenReturn(listenerDispatcher);
+        when(dispatcherCache.dispatcherFor(EVENT_PROCESSOR)).thenReturn(processorDispatcher);
+        when(jsonEnvelopeWriter.asJsonStringWithoutNulls(envelope)).thenReturn(JSON);
+        doAnswer(invocation -> {
+            ((AsynchronousDispatcher) invocation.getArguments()[0]).dispatch(journaledEnvelope);
+            return null;
+        }).when(localDeliveryProcessor).process(any(AsynchronousDispatcher.class), eq(JSON));
+    }
+
+    @After
+    public void tearDown() {
+        transport.stop();
+    }
+
+    @Test
+    public void shouldNotHandleAnyDestinationByDefault() {
+        transport.journalDestinations = "none";
+        transport.start(Executors.defaultThreadFactory());
+
+        assertThat(transport.handles("people.event"), is(false));
+    }
+
+    @Test
+    public void shouldHandleConfiguredDestinations() {
+        transport.journalDestinations = "people.event=EVENT_LISTENER";
+        transport.start(Executors.defaultThreadFactory());
+
+        assertThat(transport.handles("people.event"), is(true));
+        assertThat(transport.handles("people.controller.command"), is(false));
+    }
+
+    @Test
+    public void shouldDispatchJournaledEnvelopeToEveryComponentOfDestination() {
+        transport.journalDestinations = "people.event=EVENT_LISTENER,people.event=EVENT_PROCESSOR";
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.event");
+
+        verify(listenerDispatcher, timeout(5000)).asynchronousDispatch(journaledEnvelope);
+        verify(processorDispatcher, timeout(5000)).asynchronousDispatch(journaledEnvelope);
+    }
+
+    @Test
+    public void shouldNotRedeliverCommittedEnvelopesAfterRestart() throws Exception {
+        transport.journalDestinations = "people.event=EVENT_LISTENER";
+        transport.start(Executors.defaultThreadFactory());
+        transport.send(envelope, "people.event");
+        verify(listenerDispatcher, timeout(5000)).asynchronousDispatch(journaledEnvelope);
+        transport.stop();
+
+        transport = newTransport();
+        transport.journalDestinations = "people.event=EVENT_LISTENER";
+        transport.start(Executors.defaultThreadFactory());
+
+        Thread.sleep(200);
+        verify(listenerDispatcher, times(1)).asynchronousDispatch(journaledEnvelope);
+    }
+
+    @Test
+    public void shouldRetryAndParkEnvelopeThatFailsForRedelivery() throws Exception {
+        transport.journalDestinations = "people.event=EVENT_LISTENER";
+        doThrow(new IllegalStateException()).when(listenerDispatcher).asynchronousDispatch(journaledEnvelope);
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.event");
+
+        verify(listenerDispatcher, timeout(5000).times(JournalConsumer.MAX_ATTEMPTS)).asynchronousDispatch(journaledEnvelope);
+        awaitCommittedOffset("people.event", "EVENT_LISTENER");
+        transport.stop();
+
+        doNothing().when(listenerDispatcher).asynchronousDispatch(journaledEnvelope);
+        transport = newTransport();
+        transport.journalDestinations = "people.event.dead-letter.EVENT_LISTENER=EVENT_LISTENER";
+        transport.start(Executors.defaultThreadFactory());
+
+        verify(listenerDispatcher, timeout(5000).times(JournalConsumer.MAX_ATTEMPTS + 1)).asynchronousDispatch(journaledEnvelope);
+    }
+
+    @Test
+    public void shouldAppendEnvelopeSentInTransactionOnceCommitted() throws Exception {
+        final ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        transport.journalDestinations = "people.event=EVENT_LISTENER";
+        transport.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.event");
+
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().beforeCompletion();
+        Thread.sleep(200L);
+        verify(listenerDispatcher, never()).asynchronousDispatch(journaledEnvelope);
+
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+
+        verify(listenerDispatcher, timeout(5000)).asynchronousDispatch(journaledEnvelope);
+    }
+
+    @Test
+    public void shouldDiscardEnvelopeSentInTransactionThatRollsBack() throws Exception {
+        final ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        transport.journalDestinations = "people.event=EVENT_LISTENER";
+        transport.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.event");
+
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().beforeCompletion();
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        Thread.sleep(200L);
+        verify(listenerDispatcher, never()).asynchronousDispatch(journaledEnvelope);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionForInvalidConfiguration() {
+        transport.journalDestinations = "people.event";
+        transport.start(Executors.defaultThreadFactory());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenSendingToDestinationNotJournaled() {
+        transport.journalDestinations = "none";
+        transport.start(Executors.defaultThreadFactory());
+
+        transport.send(envelope, "people.event");
+    }
+
+    private void awaitCommittedOffset(final String destinationName, final String consumerName) throws Exception {
+        final Path offsetFile = temporaryFolder.getRoot().toPath().resolve(destinationName).resolve(consumerName + ".offset");
+        final long deadline = System.currentTimeMillis() + 5000L;
+        while (!Files.exists(offsetFile) || Files.size(offsetFile) < Long.BYTES || ByteBuffer.wrap(Files.readAllBytes(offsetFile)).getLong() == 0L) {
+            assertThat(System.currentTimeMillis() < deadline, is(true));
+            Thread.sleep(10L);
+        }
+    }
+
+    private JournalEnvelopeTransport newTransport() {
+        final JournalEnvelopeTransport journalEnvelopeTransport = new JournalEnvelopeTransport();
+        journalEnvelopeTransport.dispatcherCache = dispatcherCache;
+        journalEnvelopeTransport.jsonEnvelopeWriter = jsonEnvelopeWriter;
+        journalEnvelopeTransport.localDeliveryProcessor = localDeliveryProcessor;
+        journalEnvelopeTransport.journalDirectory = temporaryFolder.getRoot().getAbsolutePath();
+        journalEnvelopeTransport.segmentSize = "4096";
+        journalEnvelopeTransport.fsyncIntervalMillis = "1";
+        return journalEnvelopeTransport;
+    }
+}
@@ -45,7 +45,7 @@ public class JmsEndpointGenerator implements Generator {
 
         raml.getResources().values().stream()
                 .filter(resource -> resource.getAction(POST) != null)
-                .map(resource -> messageListenerCodeGenerator.generateFor(resource, new BaseUri(raml.getBaseUri())))
+                .map(resource -> messageListenerCodeGenerator.generateFor(resource, new BaseUri(raml.getBaseUri()), configuration))
                 .forEach(typeSpec -> writeClassToFile(typeSpec, configuration));
     }
 
@@ -8,23 +8,36 @@ import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static uk.gov.justice.services.generators.commons.config.GeneratorProperties.acknowledgeModeOf;
+import static uk.gov.justice.services.generators.commons.config.GeneratorProperties.batchSizeOf;
+import static uk.gov.justice.services.generators.commons.config.GeneratorProperties.batchWaitMillisOf;
+import static uk.gov.justice.services.generators.commons.config.GeneratorProperties.consumerWindowSizeOf;
+import static uk.gov.justice.services.generators.commons.config.GeneratorProperties.maxSessionOf;
 
+import uk.gov.justice.raml.core.GeneratorConfig;
 import uk.gov.justice.raml.jms.uri.BaseUri;
+import uk.gov.justice.services.adapter.messaging.JmsBatchProcessor;
 import uk.gov.justice.services.adapter.messaging.JmsProcessor;
 import uk.gov.justice.services.adapter.messaging.JsonSchemaValidationInterceptor;
 import uk.gov.justice.services.core.annotation.Adapter;
 import uk.gov.justice.services.core.annotation.Component;
 import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcher;
+import uk.gov.justice.services.core.dispatcher.BatchAsynchronousDispatcher;
 import uk.gov.justice.services.generators.commons.helper.MessagingResourceUri;
 import uk.gov.justice.services.generators.commons.helper.Names;
 import uk.gov.justice.services.messaging.logging.JmsMessageLoggerHelper;
 import uk.gov.justice.services.messaging.logging.LoggerUtils;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Stream;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.ejb.ActivationConfigProperty;
 import javax.ejb.MessageDriven;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
 import javax.inject.Inject;
 import javax.interceptor.Interceptors;
 import javax.jms.Message;
@@ -55,6 +68,8 @@ class MessageListenerCodeGenerator {
     private static final String ACTIVATION_CONFIG_PARAMETER = "activationConfig";
     private static final String DISPATCHER_FIELD = "dispatcher";
     private static final String JMS_PROCESSOR_FIELD = "jmsProcessor";
+    private static final String JMS_BATCH_PROCESSOR_FIELD = "jmsBatchProcessor";
+    private static final String DESTINATION_FIELD = "destination";
     private static final String LOGGER_FIELD = "LOGGER";
 
     private static final String DESTINATION_TYPE = "destinationType";
@@ -64,28 +79,109 @@ class MessageListenerCodeGenerator {
     private static final String DURABLE = "Durable";
     private static final String CLIENT_ID = "clientId";
     private static final String SUBSCRIPTION_NAME = "subscriptionName";
+    private static final String MAX_SESSION = "maxSession";
+    private static final String CONSUMER_WINDOW_SIZE = "consumerWindowSize";
+    private static final String ACKNOWLEDGE_MODE = "acknowledgeMode";
+
+    private static final String DEFAULT_BATCH_WAIT_MILLIS = "1000";
 
     /**
-     * Create an implementation of the {@link MessageListener}.
+     * Create an implementation of the {@link MessageListener}, or a batch listener if a batch size
+     * is configured for the destination.
      *
-     * @param resource the resource definition this listener is being generated for
-     * @param baseUri  the base URI
+     * @param resource      the resource definition this listener is being generated for
+     * @param baseUri       the base URI
+     * @param configuration the generator configuration, which may set the consumer concurrency
      * @return the message listener class specification
      */
-    TypeSpec generateFor(final Resource resource, final BaseUri baseUri) {
-        return classSpecFrom(resource, baseUri)
+    TypeSpec generateFor(final Resource resource, final BaseUri baseUri, final GeneratorConfig configuration) {
+        final String destinationName = new MessagingResourceUri(resource.getUri()).destinationName();
+        final Optional<String> batchSize = batchSizeOf(configuration, destinationName);
+        if (batchSize.isPresent()) {
+            return batchClassSpecFrom(resource, baseUri, batchSize.get(),
+                    batchWaitMillisOf(configuration, destinationName).orElse(DEFAULT_BATCH_WAIT_MILLIS));
+        }
+
+        return classSpecFrom(resource, baseUri, configuration)
                 .addMethod(generateOnMessageMethod())
                 .build();
     }
 
+    /**
+     * Generate a batch listener, a startup singleton that consumes messages in batches through the
+     * {@link JmsBatchProcessor} and dispatches each batch to the {@link BatchAsynchronousDispatcher}.
+     *
+     * A topic is consumed through a shared durable subscription named as the subscription of the
+     * message driven bean, but as the container does not let the listener set the client id, it is
+     * a different subscription to the one the message driven bean consumed. Messages left on the
+     * subscription of the message driven bean are not consumed by the batch listener.
+     *
+     * @param resource        the resource definition this listener is being generated for
+     * @param baseUri         the base URI
+     * @param batchSize       the maximum number of messages in a batch
+     * @param batchWaitMillis the maximum time to wait for a batch to fill
+     * @return the batch listener class specification
+     */
+    private TypeSpec batchClassSpecFrom(final Resource resource,
+                                        final BaseUri baseUri,
+                                        final String batchSize,
+                                        final String batchWaitMillis) {
+        final MessagingResourceUri resourceUri = new MessagingResourceUri(resource.getUri());
+        final Component component = componentOf(baseUri);
+        final Class<?> destinationType = component.inputDestinationType();
+        final boolean validateSchema = !containsGeneralJsonMimeType(resource.getActions());
+        final String messageSelector = validateSchema ? messageSelectorsFrom(resource.getActions()) : null;
+
+        final CodeBlock consumerFactory = Topic.class.equals(destinationType)
+                ? CodeBlock.builder()
+                .add("context -> context.createSharedDurableConsumer($L, $S, $S)",
+                        DESTINATION_FIELD, subscriptionNameOf(resourceUri, baseUri.adapterClientId()), messageSelector)
+                .build()
+                : CodeBlock.builder()
+                .add("context -> context.createConsumer($L, $S)", DESTINATION_FIELD, messageSelector)
+                .build();
+
+        return classBuilder(classNameOf(resourceUri))
+                .addModifiers(PUBLIC)
+                .addField(FieldSpec.builder(ClassName.get(BatchAsynchronousDispatcher.class), DISPATCHER_FIELD)
+                        .addAnnotation(Inject.class)
+                        .build())
+                .addField(FieldSpec.builder(ClassName.get(JmsBatchProcessor.class), JMS_BATCH_PROCESSOR_FIELD)
+                        .addAnnotation(Inject.class)
+                        .build())
+                .addField(FieldSpec.builder(ClassName.get(destinationType), DESTINATION_FIELD)
+                        .addAnnotation(AnnotationSpec.builder(javax.annotation.Resource.class)
+                                .addMember("lookup", "$S", resourceUri.destinationName())
+                                .build())
+                        .build())
+                .addAnnotation(AnnotationSpec.builder(Adapter.class)
+                        .addMember(DEFAULT_ANNOTATION_PARAMETER, "$T.$L", Component.class, component)
+                        .build())
+                .addAnnotation(Startup.class)
+                .addAnnotation(Singleton.class)
+                .addMethod(MethodSpec.methodBuilder("start")
+                        .addModifiers(PUBLIC)
+                        .addAnnotation(PostConstruct.class)
+                        .addStatement("$L.start($L::dispatch, $L, $L, $LL, $L)",
+                                JMS_BATCH_PROCESSOR_FIELD, DISPATCHER_FIELD, consumerFactory, batchSize, batchWaitMillis, validateSchema)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("stop")
+                        .addModifiers(PUBLIC)
+                        .addAnnotation(PreDestroy.class)
+                        .addStatement("$L.stop()", JMS_BATCH_PROCESSOR_FIELD)
+                        .build())
+                .build();
+    }
+
     /**
      * Generate the @link MessageListener} class implementation.
      *
-     * @param resource the resource definition this listener is being generated for
-     * @param baseUri  the base URI
+     * @param resource      the resource definition this listener is being generated for
+     * @param baseUri       the base URI
+     * @param configuration the generator configuration
      * @return the {@link TypeSpec.Builder} that defines the class
      */
-    private TypeSpec.Builder classSpecFrom(final Resource resource, final BaseUri baseUri) {
+    private TypeSpec.Builder classSpecFrom(final Resource resource, final BaseUri baseUri, final GeneratorConfig configuration) {
         final MessagingResourceUri resourceUri = new MessagingResourceUri(resource.getUri());
         final Component component = componentOf(baseUri);
 
@@ -106,7 +202,7 @@ class MessageListenerCodeGenerator {
                         .addMember(DEFAULT_ANNOTATION_PARAMETER, "$T.$L", Component.class, component)
                         .build())
 
-                .addAnnotation(generateMessageDrivenAnnotation(component, resource.getActions(), resourceUri, baseUri));
+                .addAnnotation(generateMessageDrivenAnnotation(component, resource.getActions(), resourceUri, baseUri, configuration));
         if (!containsGeneralJsonMimeType(resource.getActions())) {
             clazz.addAnnotation(AnnotationSpec.builder(Interceptors.class)
                     .addMember(DEFAULT_ANNOTATION_PARAMETER, "$T.class", JsonSchemaValidationInterceptor.class)
@@ -141,16 +237,18 @@ class MessageListenerCodeGenerator {
     /**
      * Generate the @MessageDriven annotation
      *
-     * @param component   the service component
-     * @param actions     a map of actions for building the message selector
-     * @param resourceUri the resource URI
-     * @param baseUri     the base URI
+     * @param component     the service component
+     * @param actions       a map of actions for building the message selector
+     * @param resourceUri   the resource URI
+     * @param baseUri       the base URI
+     * @param configuration the generator configuration
      * @return the annotation specification
      */
     private AnnotationSpec generateMessageDrivenAnnotation(final Component component,
                                                            final Map<ActionType, Action> actions,
                                                            final MessagingResourceUri resourceUri,
-                                                           final BaseUri baseUri) {
+                                                           final BaseUri baseUri,
+                                                           final GeneratorConfig configuration) {
 
         AnnotationSpec.Builder builder = AnnotationSpec.builder(MessageDriven.class)
                 .addMember(ACTIVATION_CONFIG_PARAMETER, "$L",
@@ -173,9 +271,20 @@ class MessageListenerCodeGenerator {
                             generateActivationConfigPropertyAnnotation(SUBSCRIPTION_NAME, subscriptionNameOf(resourceUri, clientId)));
         }
 
+        final String destinationName = resourceUri.destinationName();
+        addActivationConfigPropertyIfPresent(builder, MAX_SESSION, maxSessionOf(configuration, destinationName));
+        addActivationConfigPropertyIfPresent(builder, CONSUMER_WINDOW_SIZE, consumerWindowSizeOf(configuration, destinationName));
+        addActivationConfigPropertyIfPresent(builder, ACKNOWLEDGE_MODE, acknowledgeModeOf(configuration, destinationName));
+
         return builder.build();
     }
 
+    private void addActivationConfigPropertyIfPresent(final AnnotationSpec.Builder builder, final String name, final Optional<String> value) {
+        if (value.isPresent()) {
+            builder.addMember(ACTIVATION_CONFIG_PARAMETER, "$L", generateActivationConfigPropertyAnnotation(name, value.get()));
+        }
+    }
+
     private boolean containsGeneralJsonMimeType(final Map<ActionType, Action> actions) {
         return mediaTypesFrom(actions)
                 .filter(mimeType -> mimeType.getType().equals(APPLICATION_JSON))
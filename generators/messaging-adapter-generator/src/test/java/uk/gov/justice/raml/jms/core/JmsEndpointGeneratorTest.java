@@ -16,6 +16,7 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.StringStartsWith.startsWith;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -33,15 +34,18 @@ import static uk.gov.justice.services.generators.test.utils.builder.RamlBuilder.
 import static uk.gov.justice.services.generators.test.utils.builder.RamlBuilder.raml;
 import static uk.gov.justice.services.generators.test.utils.builder.ResourceBuilder.resource;
 import static uk.gov.justice.services.generators.test.utils.config.GeneratorConfigUtil.configurationWithBasePackage;
+import static uk.gov.justice.services.generators.test.utils.config.GeneratorPropertiesBuilder.generatorProperties;
 import static uk.gov.justice.services.generators.test.utils.reflection.ReflectionUtil.methodsOf;
 import static uk.gov.justice.services.generators.test.utils.reflection.ReflectionUtil.setField;
 import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelope;
 
+import uk.gov.justice.services.adapter.messaging.JmsBatchProcessor;
 import uk.gov.justice.services.adapter.messaging.JmsProcessor;
 import uk.gov.justice.services.adapter.messaging.JsonSchemaValidationInterceptor;
 import uk.gov.justice.services.core.annotation.Adapter;
 import uk.gov.justice.services.core.annotation.Component;
 import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcher;
+import uk.gov.justice.services.core.dispatcher.BatchAsynchronousDispatcher;
 import uk.gov.justice.services.generators.test.utils.BaseGeneratorTest;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
@@ -55,13 +59,19 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
+import javax.annotation.Resource;
 import javax.ejb.ActivationConfigProperty;
 import javax.ejb.MessageDriven;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
 import javax.inject.Inject;
 import javax.interceptor.Interceptors;
 import javax.jms.Message;
 import javax.jms.MessageListener;
+import javax.jms.Queue;
+import javax.jms.Topic;
 
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.FeatureMatcher;
@@ -704,6 +714,138 @@ public class JmsEndpointGeneratorTest extends BaseGeneratorTest {
 
     }
 
+    @Test
+    public void shouldCreateTopicSubscriberWithConfiguredSessions() throws Exception {
+        generator.run(raml()
+                        .withBaseUri("message://event/listener/message/people")
+                        .with(resource()
+                                .withRelativeUri("/people.event")
+                                .with(httpAction(POST, "application/vnd.context1.event.abc+json")))
+                        .build(),
+                configurationWithBasePackage(BASE_PACKAGE, outputFolder, generatorProperties()
+                        .withPropertyOf("maxSession.people.event", "30")
+                        .build()));
+
+        Class<?> clazz = getJmsListenerClass(BASE_PACKAGE, "PeopleEventJmsListener");
+        ActivationConfigProperty[] activationConfig = clazz.getAnnotation(MessageDriven.class).activationConfig();
+        assertThat(activationConfig, hasItemInArray(
+                allOf(propertyName(equalTo("maxSession")), propertyValue(equalTo("30")))));
+    }
+
+    @Test
+    public void shouldNotSetSessionsOfTopicSubscriberIfNotConfigured() throws Exception {
+        generator.run(raml()
+                        .withBaseUri("message://event/listener/message/people")
+                        .with(resource()
+                                .withRelativeUri("/people.event")
+                                .with(httpAction(POST, "application/vnd.context1.event.abc+json")))
+                        .build(),
+                configurationWithBasePackage(BASE_PACKAGE, outputFolder, emptyMap()));
+
+        Class<?> clazz = getJmsListenerClass(BASE_PACKAGE, "PeopleEventJmsListener");
+        ActivationConfigProperty[] activationConfig = clazz.getAnnotation(MessageDriven.class).activationConfig();
+        assertThat(activationConfig, not(hasItemInArray(propertyName(equalTo("maxSession")))));
+    }
+
+    @Test
+    public void shouldCreateListenerWithConfiguredConcurrency() throws Exception {
+        generator.run(raml()
+                        .withBaseUri("message://command/controller/message/people")
+                        .with(resource()
+                                .withRelativeUri("/people.controller.command")
+                                .with(httpAction(POST, "application/vnd.people.command.abc+json")))
+                        .build(),
+                configurationWithBasePackage(BASE_PACKAGE, outputFolder, generatorProperties()
+                        .withPropertyOf("maxSession", "4")
+                        .withPropertyOf("maxSession.people.controller.command", "10")
+                        .withPropertyOf("consumerWindowSize", "0")
+                        .withPropertyOf("acknowledgeMode", "Dups-ok-acknowledge")
+                        .build()));
+
+        Class<?> clazz = getJmsListenerClass(BASE_PACKAGE, "PeopleControllerCommandJmsListener");
+        ActivationConfigProperty[] activationConfig = clazz.getAnnotation(MessageDriven.class).activationConfig();
+        assertThat(activationConfig, hasItemInArray(
+                allOf(propertyName(equalTo("maxSession")), propertyValue(equalTo("10")))));
+        assertThat(activationConfig, hasItemInArray(
+                allOf(propertyName(equalTo("consumerWindowSize")), propertyValue(equalTo("0")))));
+        assertThat(activationConfig, hasItemInArray(
+                allOf(propertyName(equalTo("acknowledgeMode")), propertyValue(equalTo("Dups-ok-acknowledge")))));
+    }
+
+    @Test
+    public void shouldNotSetConcurrencyOfQueueListenerIfNotConfigured() throws Exception {
+        generator.run(raml()
+                        .withBaseUri("message://command/controller/message/people")
+                        .with(resource()
+                                .withRelativeUri("/people.controller.command")
+                                .with(httpAction(POST, "application/vnd.people.command.abc+json")))
+                        .build(),
+                configurationWithBasePackage(BASE_PACKAGE, outputFolder, emptyMap()));
+
+        Class<?> clazz = getJmsListenerClass(BASE_PACKAGE, "PeopleControllerCommandJmsListener");
+        ActivationConfigProperty[] activationConfig = clazz.getAnnotation(MessageDriven.class).activationConfig();
+        assertThat(activationConfig, not(hasItemInArray(propertyName(equalTo("maxSession")))));
+        assertThat(activationConfig, not(hasItemInArray(propertyName(equalTo("consumerWindowSize")))));
+        assertThat(activationConfig, not(hasItemInArray(propertyName(equalTo("acknowledgeMode")))));
+    }
+
+    @Test
+    public void shouldCreateBatchListenerIfBatchSizeConfigured() throws Exception {
+        generator.run(raml()
+                        .withBaseUri("message://event/listener/message/people")
+                        .with(resource()
+                                .withRelativeUri("/people.event")
+                                .with(httpAction(POST, "application/vnd.people.event.abc+json")))
+                        .build(),
+                configurationWithBasePackage(BASE_PACKAGE, outputFolder, generatorProperties()
+                        .withPropertyOf("batchSize.people.event", "100")
+                        .withPropertyOf("batchWaitMillis", "500")
+                        .build()));
+
+        Class<?> clazz = getJmsListenerClass(BASE_PACKAGE, "PeopleEventJmsListener");
+        assertThat(clazz.getAnnotation(Singleton.class), notNullValue());
+        assertThat(clazz.getAnnotation(Startup.class), notNullValue());
+        assertThat(clazz.getAnnotation(MessageDriven.class), nullValue());
+        assertThat(clazz.getAnnotation(Adapter.class).value(), is(Component.EVENT_LISTENER));
+        assertThat(clazz.getDeclaredField("destination").getType(), equalTo(Topic.class));
+        assertThat(clazz.getDeclaredField("destination").getAnnotation(Resource.class).lookup(), is("people.event"));
+
+        final JmsBatchProcessor jmsBatchProcessor = mock(JmsBatchProcessor.class);
+        final Object listener = clazz.newInstance();
+        setField(listener, "jmsBatchProcessor", jmsBatchProcessor);
+        setField(listener, "dispatcher", mock(BatchAsynchronousDispatcher.class));
+
+        clazz.getMethod("start").invoke(listener);
+        verify(jmsBatchProcessor).start(any(Consumer.class), any(Function.class), eq(100), eq(500L), eq(true));
+
+        clazz.getMethod("stop").invoke(listener);
+        verify(jmsBatchProcessor).stop();
+    }
+
+    @Test
+    public void shouldCreateBatchListenerOnQueueWithDefaultWait() throws Exception {
+        generator.run(raml()
+                        .withBaseUri("message://command/handler/message/people")
+                        .with(resource()
+                                .withRelativeUri("/people.handler.command")
+                                .with(httpAction(POST, "application/json")))
+                        .build(),
+                configurationWithBasePackage(BASE_PACKAGE, outputFolder, generatorProperties()
+                        .withPropertyOf("batchSize", "50")
+                        .build()));
+
+        Class<?> clazz = getJmsListenerClass(BASE_PACKAGE, "PeopleHandlerCommandJmsListener");
+        assertThat(clazz.getDeclaredField("destination").getType(), equalTo(Queue.class));
+
+        final JmsBatchProcessor jmsBatchProcessor = mock(JmsBatchProcessor.class);
+        final Object listener = clazz.newInstance();
+        setField(listener, "jmsBatchProcessor", jmsBatchProcessor);
+        setField(listener, "dispatcher", mock(BatchAsynchronousDispatcher.class));
+
+        clazz.getMethod("start").invoke(listener);
+        verify(jmsBatchProcessor).start(any(Consumer.class), any(Function.class), eq(50), eq(1000L), eq(false));
+    }
+
     @Test
     public void shouldNotContainDurableSubscriberPropertiesIfItsNotTopic() throws Exception {
         generator.run(raml()
@@ -16,6 +16,8 @@ import uk.gov.justice.services.core.json.JsonSchemaLoader;
 import uk.gov.justice.services.core.json.JsonSchemaValidator;
 import uk.gov.justice.services.generators.test.utils.dispatcher.AsynchronousRecordingDispatcher;
 import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonEnvelopeParser;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
 import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
 import uk.gov.justice.services.messaging.JsonObjects;
 import uk.gov.justice.services.messaging.jms.EnvelopeConverter;
@@ -107,6 +109,8 @@ public class JmsEndpointGenerationIT {
             EnvelopeConverter.class,
             StringToJsonObjectConverter.class,
             JsonObjectEnvelopeConverter.class,
+            JsonEnvelopeParser.class,
+            JsonEnvelopeWriter.class,
             JsonSchemaValidator.class,
             JsonSchemaLoader.class
     })
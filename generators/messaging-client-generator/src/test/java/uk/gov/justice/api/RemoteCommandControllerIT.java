@@ -7,17 +7,26 @@ import static uk.gov.justice.services.core.annotation.Component.COMMAND_API;
 import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelope;
 import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataOf;
 
+import uk.gov.justice.services.core.accesscontrol.AccessControlDecisionCache;
 import uk.gov.justice.services.core.accesscontrol.AccessControlFailureMessageGenerator;
 import uk.gov.justice.services.core.accesscontrol.AccessControlService;
 import uk.gov.justice.services.core.accesscontrol.AllowAllPolicyEvaluator;
 import uk.gov.justice.services.core.accesscontrol.PolicyEvaluator;
 import uk.gov.justice.services.core.annotation.ServiceComponent;
+import uk.gov.justice.services.core.configuration.ValueProducer;
+import uk.gov.justice.services.core.dispatcher.AsynchronousDispatchExecutor;
 import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcherProducer;
+import uk.gov.justice.services.core.dispatcher.ConcurrencyLimitConfiguration;
 import uk.gov.justice.services.core.dispatcher.DispatcherCache;
 import uk.gov.justice.services.core.dispatcher.DispatcherFactory;
+import uk.gov.justice.services.core.dispatcher.MetricRegistryProducer;
+import uk.gov.justice.services.core.dispatcher.QueryResultCacheConfiguration;
 import uk.gov.justice.services.core.dispatcher.RequesterProducer;
 import uk.gov.justice.services.core.dispatcher.ServiceComponentObserver;
+import uk.gov.justice.services.core.dispatcher.SingleFlightConfiguration;
 import uk.gov.justice.services.core.dispatcher.SynchronousDispatcherProducer;
+import uk.gov.justice.services.core.dispatcher.TransactionalDispatcher;
+import uk.gov.justice.services.core.enveloper.MetadataIdGeneratorProducer;
 import uk.gov.justice.services.core.jms.JmsDestinations;
 import uk.gov.justice.services.core.jms.JmsSenderFactory;
 import uk.gov.justice.services.core.sender.ComponentDestination;
@@ -72,23 +81,32 @@ public class RemoteCommandControllerIT {
 
     @Module
     @Classes(cdi = true, value = {
+            AccessControlDecisionCache.class,
             AccessControlFailureMessageGenerator.class,
             AccessControlService.class,
             AllowAllPolicyEvaluator.class,
+            AsynchronousDispatchExecutor.class,
             AsynchronousDispatcherProducer.class,
             ComponentDestination.class,
+            ConcurrencyLimitConfiguration.class,
             DispatcherCache.class,
             DispatcherFactory.class,
             JsonEnvelopeLoggerHelper.class,
             JmsDestinations.class,
             JmsSenderFactory.class,
+            MetadataIdGeneratorProducer.class,
+            MetricRegistryProducer.class,
             PolicyEvaluator.class,
+            QueryResultCacheConfiguration.class,
             RecordingJmsEnvelopeSender.class,
             RemoteContextaControllerCommand.class,
             RequesterProducer.class,
             SenderProducer.class,
             ServiceComponentObserver.class,
-            SynchronousDispatcherProducer.class
+            SingleFlightConfiguration.class,
+            SynchronousDispatcherProducer.class,
+            TransactionalDispatcher.class,
+            ValueProducer.class
     })
     public WebApp war() {
         return new WebApp()
@@ -4,6 +4,7 @@ import uk.gov.justice.services.adapter.rest.cors.CorsFeature;
 import uk.gov.justice.services.adapter.rest.interceptor.JsonSchemaValidationInterceptor;
 import uk.gov.justice.services.adapter.rest.mapper.BadRequestExceptionMapper;
 import uk.gov.justice.services.adapter.rest.mapper.ForbiddenRequestExceptionMapper;
+import uk.gov.justice.services.adapter.rest.mapper.ServiceUnavailableExceptionMapper;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -21,6 +22,7 @@ public class CommonProviders {
         final HashSet<Class<?>> classes = new HashSet<>();
         classes.add(BadRequestExceptionMapper.class);
         classes.add(ForbiddenRequestExceptionMapper.class);
+        classes.add(ServiceUnavailableExceptionMapper.class);
         classes.add(JsonSchemaValidationInterceptor.class);
         classes.add(CorsFeature.class);
         return classes;
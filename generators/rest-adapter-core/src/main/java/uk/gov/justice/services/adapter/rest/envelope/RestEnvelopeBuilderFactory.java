@@ -1,13 +1,26 @@
 package uk.gov.justice.services.adapter.rest.envelope;
 
-import java.util.UUID;
+import uk.gov.justice.services.messaging.MetadataIdGenerator;
+
+import javax.inject.Inject;
 
 /**
  * Factory for generating {@link RestEnvelopeBuilder} objects.
  */
 public class RestEnvelopeBuilderFactory {
 
+    private final MetadataIdGenerator metadataIdGenerator;
+
+    public RestEnvelopeBuilderFactory() {
+        this(MetadataIdGenerator.random());
+    }
+
+    @Inject
+    public RestEnvelopeBuilderFactory(final MetadataIdGenerator metadataIdGenerator) {
+        this.metadataIdGenerator = metadataIdGenerator;
+    }
+
     public RestEnvelopeBuilder builder() {
-        return new RestEnvelopeBuilder(UUID.randomUUID());
+        return new RestEnvelopeBuilder(metadataIdGenerator.nextId());
     }
 }
@@ -0,0 +1,43 @@
+package uk.gov.justice.services.adapter.rest.mapper;
+
+import static javax.json.Json.createObjectBuilder;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+import static javax.ws.rs.core.Response.status;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import uk.gov.justice.services.core.dispatcher.ConcurrencyLimitExceededException;
+
+import javax.json.JsonObjectBuilder;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+import org.slf4j.Logger;
+
+/**
+ * Maps requests rejected by the concurrency limit of a component to 503 Service Unavailable, asking
+ * the client to retry after a second.
+ */
+@Provider
+public class ServiceUnavailableExceptionMapper implements ExceptionMapper<ConcurrencyLimitExceededException> {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private static final Logger LOGGER = getLogger(ServiceUnavailableExceptionMapper.class);
+
+    @Override
+    public Response toResponse(final ConcurrencyLimitExceededException exception) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Service Unavailable", exception);
+        }
+
+        final JsonObjectBuilder builder = createObjectBuilder().add("error", exception.getMessage());
+
+        return status(SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .entity(builder.build().toString())
+                .build();
+    }
+
+}
@@ -4,7 +4,7 @@ import static uk.gov.justice.services.core.annotation.Component.QUERY_API;
 import static uk.gov.justice.services.core.annotation.ComponentNameUtil.componentFrom;
 
 import uk.gov.justice.services.adapter.rest.envelope.RestEnvelopeBuilderFactory;
-import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
@@ -19,7 +19,7 @@ import javax.inject.Inject;
 public class RestProcessorProducer {
 
     @Inject
-    JsonObjectEnvelopeConverter jsonObjectEnvelopeConverter;
+    JsonEnvelopeWriter jsonEnvelopeWriter;
 
     @Inject
     RestEnvelopeBuilderFactory envelopeBuilderFactory;
@@ -30,7 +30,7 @@ public class RestProcessorProducer {
 
     @PostConstruct
     void initialise() {
-        defaultRestProcessor = new RestProcessor(envelopeBuilderFactory, envelope -> jsonObjectEnvelopeConverter.fromEnvelope(envelope).toString(), false);
+        defaultRestProcessor = new RestProcessor(envelopeBuilderFactory, jsonEnvelopeWriter::asJsonString, false);
         payloadOnlyRestProcessor = new RestProcessor(envelopeBuilderFactory, envelope -> envelope.payloadAsJsonObject().toString(), true);
     }
 
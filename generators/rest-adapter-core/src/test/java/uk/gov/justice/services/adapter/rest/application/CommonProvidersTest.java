@@ -7,6 +7,7 @@ import uk.gov.justice.services.adapter.rest.cors.CorsFeature;
 import uk.gov.justice.services.adapter.rest.interceptor.JsonSchemaValidationInterceptor;
 import uk.gov.justice.services.adapter.rest.mapper.BadRequestExceptionMapper;
 import uk.gov.justice.services.adapter.rest.mapper.ForbiddenRequestExceptionMapper;
+import uk.gov.justice.services.adapter.rest.mapper.ServiceUnavailableExceptionMapper;
 
 import java.util.Set;
 
@@ -17,6 +18,6 @@ public class CommonProvidersTest {
     @Test
     public void shouldReturnAllCommonProviders() throws Exception {
         Set<Class<?>> providers = new CommonProviders().providers();
-        assertThat(providers, containsInAnyOrder(BadRequestExceptionMapper.class, ForbiddenRequestExceptionMapper.class, JsonSchemaValidationInterceptor.class, CorsFeature.class));
+        assertThat(providers, containsInAnyOrder(BadRequestExceptionMapper.class, ForbiddenRequestExceptionMapper.class, ServiceUnavailableExceptionMapper.class, JsonSchemaValidationInterceptor.class, CorsFeature.class));
     }
 }
@@ -1,9 +1,14 @@
 package uk.gov.justice.services.adapter.rest.envelope;
 
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.UUID;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -25,4 +30,13 @@ public class RestEnvelopeBuilderFactoryTest {
 
         assertThat(envelopeBuilder, not(nullValue()));
     }
+
+    @Test
+    public void shouldBuildEnvelopesWithIdsFromTheMetadataIdGenerator() throws Exception {
+        final UUID id = UUID.randomUUID();
+
+        final JsonEnvelope envelope = new RestEnvelopeBuilderFactory(() -> id).builder().withAction("people.search-people").build();
+
+        assertThat(envelope.metadata().id(), is(id));
+    }
 }
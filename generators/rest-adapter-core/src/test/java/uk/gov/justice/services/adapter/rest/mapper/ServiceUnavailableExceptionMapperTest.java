@@ -0,0 +1,41 @@
+package uk.gov.justice.services.adapter.rest.mapper;
+
+import static com.jayway.jsonpath.matchers.JsonPathMatchers.hasJsonPath;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import uk.gov.justice.services.core.dispatcher.ConcurrencyLimitExceededException;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ServiceUnavailableExceptionMapperTest {
+
+    private static final String TEST_ERROR_MESSAGE = "Test Error Message.";
+
+    private ServiceUnavailableExceptionMapper exceptionMapper;
+
+    @Before
+    public void setup() {
+        exceptionMapper = new ServiceUnavailableExceptionMapper();
+    }
+
+    @Test
+    public void shouldReturn503ResponseForConcurrencyLimitExceededException() throws Exception {
+
+        final Response response = exceptionMapper.toResponse(new ConcurrencyLimitExceededException(TEST_ERROR_MESSAGE));
+
+        assertThat(response.getStatus(), is(SERVICE_UNAVAILABLE.getStatusCode()));
+        assertThat(response.getHeaderString(HttpHeaders.RETRY_AFTER), is(ServiceUnavailableExceptionMapper.RETRY_AFTER_SECONDS));
+        assertThat(response.getEntity(), notNullValue());
+        assertThat(response.getEntity().toString(),
+                hasJsonPath("$.error", equalTo(TEST_ERROR_MESSAGE)));
+    }
+
+}
@@ -20,7 +20,7 @@ import uk.gov.justice.services.adapter.rest.parameter.Parameter;
 import uk.gov.justice.services.common.http.HeaderConstants;
 import uk.gov.justice.services.core.annotation.Adapter;
 import uk.gov.justice.services.messaging.JsonEnvelope;
-import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
 
 import java.lang.reflect.Member;
 import java.util.Collection;
@@ -78,7 +78,7 @@ public class RestProcessorProducerTest {
         doReturn(QueryControllerAdapter.class).when(queryControllerMember).getDeclaringClass();
 
         restProcessorProducer.envelopeBuilderFactory = new RestEnvelopeBuilderFactory();
-        restProcessorProducer.jsonObjectEnvelopeConverter = new JsonObjectEnvelopeConverter();
+        restProcessorProducer.jsonEnvelopeWriter = new JsonEnvelopeWriter();
         restProcessorProducer.initialise();
     }
 
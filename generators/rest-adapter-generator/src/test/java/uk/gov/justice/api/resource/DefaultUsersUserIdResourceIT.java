@@ -23,11 +23,14 @@ import uk.gov.justice.services.adapter.rest.mapper.BadRequestExceptionMapper;
 import uk.gov.justice.services.adapter.rest.processor.RestProcessor;
 import uk.gov.justice.services.adapter.rest.processor.RestProcessorProducer;
 import uk.gov.justice.services.common.converter.jackson.ObjectMapperProducer;
+import uk.gov.justice.services.core.configuration.ValueProducer;
+import uk.gov.justice.services.core.enveloper.MetadataIdGeneratorProducer;
 import uk.gov.justice.services.core.json.JsonSchemaLoader;
 import uk.gov.justice.services.core.json.JsonSchemaValidator;
 import uk.gov.justice.services.generators.test.utils.dispatcher.AsynchronousRecordingDispatcher;
 import uk.gov.justice.services.generators.test.utils.dispatcher.SynchronousRecordingDispatcher;
 import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
 import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
 
 import java.math.BigDecimal;
@@ -94,10 +97,13 @@ public class DefaultUsersUserIdResourceIT {
             RestProcessor.class,
             RestProcessorProducer.class,
             RestEnvelopeBuilderFactory.class,
+            MetadataIdGeneratorProducer.class,
+            ValueProducer.class,
             AsynchronousRecordingDispatcher.class,
             SynchronousRecordingDispatcher.class,
             ObjectMapperProducer.class,
             JsonObjectEnvelopeConverter.class,
+            JsonEnvelopeWriter.class,
             CommonProviders.class,
             DummyCommonProviders.class,
             BadRequestExceptionMapper.class,
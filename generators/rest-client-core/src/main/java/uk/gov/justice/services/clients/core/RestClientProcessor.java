@@ -11,20 +11,17 @@ import static uk.gov.justice.services.common.http.HeaderConstants.CAUSATION;
 import static uk.gov.justice.services.common.http.HeaderConstants.CLIENT_CORRELATION_ID;
 import static uk.gov.justice.services.common.http.HeaderConstants.SESSION_ID;
 import static uk.gov.justice.services.common.http.HeaderConstants.USER_ID;
-import static uk.gov.justice.services.messaging.JsonEnvelope.METADATA;
 import static uk.gov.justice.services.messaging.JsonObjectMetadata.ID;
-import static uk.gov.justice.services.messaging.JsonObjects.createObjectBuilder;
 import static uk.gov.justice.services.messaging.JsonObjects.createObjectBuilderWithFilter;
 import static uk.gov.justice.services.messaging.logging.JsonEnvelopeLoggerHelper.toEnvelopeTraceString;
 import static uk.gov.justice.services.messaging.logging.LoggerUtils.trace;
 import static uk.gov.justice.services.messaging.logging.ResponseLoggerHelper.toResponseTrace;
 
 import uk.gov.justice.services.clients.core.exception.InvalidResponseException;
-import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
 import uk.gov.justice.services.core.accesscontrol.AccessControlViolationException;
 import uk.gov.justice.services.core.enveloper.Enveloper;
 import uk.gov.justice.services.messaging.JsonEnvelope;
-import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+import uk.gov.justice.services.messaging.JsonEnvelopeParser;
 import uk.gov.justice.services.messaging.Metadata;
 
 import java.util.List;
@@ -58,10 +55,7 @@ public class RestClientProcessor {
     public static final int WEB_CONTEXT_POSITION = 3;
 
     @Inject
-    StringToJsonObjectConverter stringToJsonObjectConverter;
-
-    @Inject
-    JsonObjectEnvelopeConverter jsonObjectEnvelopeConverter;
+    JsonEnvelopeParser jsonEnvelopeParser;
 
     @Inject
     Enveloper enveloper;
@@ -99,8 +93,8 @@ public class RestClientProcessor {
         final Response.Status status = fromStatusCode(response.getStatus());
         switch (status) {
             case OK:
-                final JsonObject responseAsJsonObject = stringToJsonObjectConverter.convert(response.readEntity(String.class));
-                return jsonObjectEnvelopeConverter.asEnvelope(addMetadataIfMissing(responseAsJsonObject, envelope.metadata(), response.getHeaderString(CPPID)));
+                return jsonEnvelopeParser.asEnvelope(response.readEntity(String.class),
+                        () -> metadataFromRequest(envelope.metadata(), response.getHeaderString(CPPID)));
             case NOT_FOUND:
                 return enveloper.withMetadataFrom(envelope, envelope.metadata().name()).apply(null);
             case FORBIDDEN:
@@ -221,21 +215,14 @@ public class RestClientProcessor {
         return createObjectBuilderWithFilter(payload, (fieldName) -> !pathParams.contains(fieldName) && !queryParams.contains(fieldName)).build();
     }
 
-    private JsonObject addMetadataIfMissing(final JsonObject responseAsJsonObject, final Metadata requestMetadata, final String cppId) {
-        if (responseAsJsonObject.containsKey(METADATA)) {
-            return responseAsJsonObject;
-        }
-
+    private JsonObject metadataFromRequest(final Metadata requestMetadata, final String cppId) {
         if (cppId == null) {
             throw new InvalidResponseException(format("Response received is missing %s header", CPPID));
         }
 
-        final JsonObject metadata = createObjectBuilderWithFilter(requestMetadata.asJsonObject(), x -> !ID.equals(x))
+        return createObjectBuilderWithFilter(requestMetadata.asJsonObject(), x -> !ID.equals(x))
                 .add(ID, cppId)
                 .build();
-
-        return createObjectBuilder(responseAsJsonObject)
-                .add(METADATA, metadata).build();
     }
 
 }
@@ -35,6 +35,7 @@ import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
 import uk.gov.justice.services.core.accesscontrol.AccessControlViolationException;
 import uk.gov.justice.services.core.enveloper.Enveloper;
 import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonEnvelopeParser;
 import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
 
 import java.io.IOException;
@@ -467,8 +468,7 @@ public class RestClientProcessorIT {
 
     private void initialiseRestClientProcessor() {
         restClientProcessor = new RestClientProcessor();
-        restClientProcessor.stringToJsonObjectConverter = new StringToJsonObjectConverter();
-        restClientProcessor.jsonObjectEnvelopeConverter = new JsonObjectEnvelopeConverter();
+        restClientProcessor.jsonEnvelopeParser = new JsonEnvelopeParser();
         restClientProcessor.enveloper = new Enveloper(null);
         restClientProcessor.appName = APP_NAME;
     }
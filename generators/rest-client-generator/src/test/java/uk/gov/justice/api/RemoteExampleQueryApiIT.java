@@ -19,21 +19,34 @@ import uk.gov.justice.services.clients.core.RestClientHelper;
 import uk.gov.justice.services.clients.core.RestClientProcessor;
 import uk.gov.justice.services.common.converter.ObjectToJsonValueConverter;
 import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperRegistry;
+import uk.gov.justice.services.core.accesscontrol.AccessControlDecisionCache;
 import uk.gov.justice.services.core.accesscontrol.AccessControlFailureMessageGenerator;
 import uk.gov.justice.services.core.accesscontrol.AccessControlService;
 import uk.gov.justice.services.core.accesscontrol.AccessControlViolationException;
 import uk.gov.justice.services.core.accesscontrol.AllowAllPolicyEvaluator;
 import uk.gov.justice.services.core.accesscontrol.PolicyEvaluator;
 import uk.gov.justice.services.core.annotation.FrameworkComponent;
+import uk.gov.justice.services.core.configuration.ValueProducer;
+import uk.gov.justice.services.core.dispatcher.AsynchronousDispatchExecutor;
 import uk.gov.justice.services.core.dispatcher.AsynchronousDispatcherProducer;
+import uk.gov.justice.services.core.dispatcher.ConcurrencyLimitConfiguration;
 import uk.gov.justice.services.core.dispatcher.DispatcherCache;
 import uk.gov.justice.services.core.dispatcher.DispatcherFactory;
+import uk.gov.justice.services.core.dispatcher.MetricRegistryProducer;
+import uk.gov.justice.services.core.dispatcher.QueryResultCacheConfiguration;
 import uk.gov.justice.services.core.dispatcher.Requester;
 import uk.gov.justice.services.core.dispatcher.RequesterProducer;
 import uk.gov.justice.services.core.dispatcher.ServiceComponentObserver;
+import uk.gov.justice.services.core.dispatcher.SingleFlightConfiguration;
 import uk.gov.justice.services.core.dispatcher.SynchronousDispatcherProducer;
+import uk.gov.justice.services.core.dispatcher.TransactionalDispatcher;
+import uk.gov.justice.services.core.enveloper.CausationPolicyProducer;
 import uk.gov.justice.services.core.enveloper.Enveloper;
+import uk.gov.justice.services.core.enveloper.MetadataIdGeneratorProducer;
 import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonEnvelopeParser;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
 import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
 import uk.gov.justice.services.messaging.logging.JsonEnvelopeLoggerHelper;
 
@@ -111,19 +124,32 @@ public class RemoteExampleQueryApiIT {
             RestClientHelper.class,
             DispatcherCache.class,
             AsynchronousDispatcherProducer.class,
+            AsynchronousDispatchExecutor.class,
+            TransactionalDispatcher.class,
             SynchronousDispatcherProducer.class,
             RequesterProducer.class,
             ServiceComponentObserver.class,
             StringToJsonObjectConverter.class,
             JsonObjectEnvelopeConverter.class,
+            JsonEnvelopeParser.class,
+            JsonEnvelopeWriter.class,
             ObjectToJsonValueConverter.class,
             ObjectMapper.class,
+            ObjectMapperRegistry.class,
             Enveloper.class,
+            CausationPolicyProducer.class,
+            MetadataIdGeneratorProducer.class,
             AccessControlFailureMessageGenerator.class,
             AllowAllPolicyEvaluator.class,
             AccessControlService.class,
+            AccessControlDecisionCache.class,
+            ValueProducer.class,
             DispatcherCache.class,
             DispatcherFactory.class,
+            MetricRegistryProducer.class,
+            ConcurrencyLimitConfiguration.class,
+            SingleFlightConfiguration.class,
+            QueryResultCacheConfiguration.class,
             JsonEnvelopeLoggerHelper.class,
             PolicyEvaluator.class
     })
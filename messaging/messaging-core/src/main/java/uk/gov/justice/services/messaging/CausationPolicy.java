@@ -0,0 +1,110 @@
+package uk.gov.justice.services.messaging;
+
+import static java.lang.String.format;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Decides which ancestors are kept in the causation of derived metadata, and how their ids are
+ * written in the metadata JSON.
+ *
+ * An unbounded policy keeps every ancestor. A bounded policy keeps the root of the chain and the
+ * given number of most recent ancestors, so the causation of a long running process flow stops
+ * growing with each hop. Compact encoding writes each id as the 22 character unpadded URL-safe
+ * base64 of its 16 bytes instead of the 36 character UUID form; both forms are read back.
+ */
+public final class CausationPolicy {
+
+    private static final int UNBOUNDED = -1;
+    private static final int COMPACT_LENGTH = 22;
+
+    private static final CausationPolicy DEFAULT = new CausationPolicy(UNBOUNDED, false);
+
+    private final int maxAncestors;
+    private final boolean compactEncoding;
+
+    private CausationPolicy(final int maxAncestors, final boolean compactEncoding) {
+        this.maxAncestors = maxAncestors;
+        this.compactEncoding = compactEncoding;
+    }
+
+    /**
+     * @return a policy that keeps every ancestor in the UUID form
+     */
+    public static CausationPolicy unbounded() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param maxAncestors the number of most recent ancestors to keep in addition to the root
+     * @return a policy that keeps the root and the given number of most recent ancestors
+     */
+    public static CausationPolicy lastAncestors(final int maxAncestors) {
+        if (maxAncestors < 0) {
+            throw new IllegalArgumentException(format("Maximum causation ancestors must not be negative, was %d", maxAncestors));
+        }
+        return new CausationPolicy(maxAncestors, false);
+    }
+
+    /**
+     * @return this policy, writing the causation ids in the compact encoding
+     */
+    public CausationPolicy withCompactEncoding() {
+        return new CausationPolicy(maxAncestors, true);
+    }
+
+    /**
+     * @return true if the policy neither drops ancestors nor changes their encoding
+     */
+    boolean isDefault() {
+        return maxAncestors == UNBOUNDED && !compactEncoding;
+    }
+
+    /**
+     * Apply the policy to the causation of the parent followed by the parent id.
+     *
+     * @param causation the full causation, oldest first
+     * @return the causation to keep
+     */
+    List<UUID> apply(final List<UUID> causation) {
+        if (maxAncestors == UNBOUNDED || causation.size() <= maxAncestors + 1) {
+            return causation;
+        }
+        final List<UUID> bounded = new ArrayList<>(maxAncestors + 1);
+        bounded.add(causation.get(0));
+        bounded.addAll(causation.subList(causation.size() - maxAncestors, causation.size()));
+        return bounded;
+    }
+
+    /**
+     * @param uuid the id to encode
+     * @return the id as written in the causation by this policy
+     */
+    String encode(final UUID uuid) {
+        if (!compactEncoding) {
+            return uuid.toString();
+        }
+        final ByteBuffer bytes = ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    /**
+     * Decode an id of the causation, in either the UUID or the compact form.
+     *
+     * @param value the id as written in the causation
+     * @return the id
+     */
+    static UUID decode(final String value) {
+        if (value.length() != COMPACT_LENGTH) {
+            return UUID.fromString(value);
+        }
+        final ByteBuffer bytes = ByteBuffer.wrap(Base64.getUrlDecoder().decode(value));
+        return new UUID(bytes.getLong(), bytes.getLong());
+    }
+}
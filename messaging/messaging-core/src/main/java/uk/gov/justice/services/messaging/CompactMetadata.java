@@ -0,0 +1,300 @@
+package uk.gov.justice.services.messaging;
+
+import static java.util.Collections.emptyList;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.CAUSATION;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.CLIENT_CORRELATION_PATH;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.CLIENT_ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.CONTEXT;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.CORRELATION;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.NAME;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.SESSION_ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.SESSION_ID_PATH;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.STREAM;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.STREAM_ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.STREAM_ID_PATH;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.USER_ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.USER_ID_PATH;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.VERSION;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.VERSION_PATH;
+import static uk.gov.justice.services.messaging.JsonObjects.getJsonArray;
+import static uk.gov.justice.services.messaging.JsonObjects.getList;
+import static uk.gov.justice.services.messaging.JsonObjects.getLong;
+import static uk.gov.justice.services.messaging.JsonObjects.getString;
+import static uk.gov.justice.services.messaging.JsonObjects.getUUID;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonString;
+
+/**
+ * Implementation of metadata that decodes the well-known fields once into typed fields, so the
+ * accessors do not walk the JSON or parse UUIDs on every call. UUIDs are held as their two long
+ * halves and the version as a primitive.
+ *
+ * The JSON form is kept when the metadata was read from JSON, and otherwise built on the first
+ * call to {@link #asJsonObject()}. An optional field that cannot be decoded is only reported when
+ * it is accessed, as it would be when reading it from the JSON.
+ */
+final class CompactMetadata extends JsonObjectMetadata {
+
+    private static final int CLIENT_CORRELATION_INVALID = 1;
+    private static final int CAUSATION_INVALID = 1 << 1;
+    private static final int USER_ID_INVALID = 1 << 2;
+    private static final int SESSION_ID_INVALID = 1 << 3;
+    private static final int STREAM_ID_INVALID = 1 << 4;
+    private static final int VERSION_INVALID = 1 << 5;
+
+    private final long idMostSignificantBits;
+    private final long idLeastSignificantBits;
+    private final String name;
+    private final Optional<String> clientCorrelationId;
+    private final long[] causation;
+    private final Optional<String> userId;
+    private final Optional<String> sessionId;
+    private final boolean hasStreamId;
+    private final long streamIdMostSignificantBits;
+    private final long streamIdLeastSignificantBits;
+    private final boolean hasVersion;
+    private final long version;
+    private final int invalidFields;
+
+    private volatile JsonObject jsonObject;
+
+    CompactMetadata(final UUID id,
+                    final String name,
+                    final Optional<String> clientCorrelationId,
+                    final List<UUID> causation,
+                    final Optional<String> userId,
+                    final Optional<String> sessionId,
+                    final Optional<UUID> streamId,
+                    final Optional<Long> version) {
+        this(id, name, clientCorrelationId, causation, userId, sessionId, streamId, version, 0, null);
+    }
+
+    private CompactMetadata(final UUID id,
+                            final String name,
+                            final Optional<String> clientCorrelationId,
+                            final List<UUID> causation,
+                            final Optional<String> userId,
+                            final Optional<String> sessionId,
+                            final Optional<UUID> streamId,
+                            final Optional<Long> version,
+                            final int invalidFields,
+                            final JsonObject jsonObject) {
+        this.idMostSignificantBits = id.getMostSignificantBits();
+        this.idLeastSignificantBits = id.getLeastSignificantBits();
+        this.name = name;
+        this.clientCorrelationId = clientCorrelationId;
+        this.causation = causation == null ? null : toLongs(causation);
+        this.userId = userId;
+        this.sessionId = sessionId;
+        this.hasStreamId = streamId.isPresent();
+        this.streamIdMostSignificantBits = streamId.map(UUID::getMostSignificantBits).orElse(0L);
+        this.streamIdLeastSignificantBits = streamId.map(UUID::getLeastSignificantBits).orElse(0L);
+        this.hasVersion = version.isPresent();
+        this.version = version.orElse(0L);
+        this.invalidFields = invalidFields;
+        this.jsonObject = jsonObject;
+    }
+
+    /**
+     * Decode the metadata fields of the given JSON, which must already have a string id and a
+     * name. The id is decoded straight away, so an id that is not a UUID fails here rather than
+     * when it is accessed.
+     *
+     * @param jsonObject the metadata JSON
+     * @return the decoded metadata
+     * @throws IllegalArgumentException if the id is not a UUID
+     */
+    static CompactMetadata decode(final JsonObject jsonObject) {
+        int invalidFields = 0;
+
+        Optional<String> clientCorrelationId = Optional.empty();
+        try {
+            clientCorrelationId = getString(jsonObject, CLIENT_CORRELATION_PATH);
+        } catch (RuntimeException e) {
+            invalidFields |= CLIENT_CORRELATION_INVALID;
+        }
+
+        List<UUID> causation = null;
+        try {
+            if (getJsonArray(jsonObject, CAUSATION).isPresent()) {
+                causation = decodeCausation(jsonObject);
+            }
+        } catch (RuntimeException e) {
+            invalidFields |= CAUSATION_INVALID;
+        }
+
+        Optional<String> userId = Optional.empty();
+        try {
+            userId = getString(jsonObject, USER_ID_PATH);
+        } catch (RuntimeException e) {
+            invalidFields |= USER_ID_INVALID;
+        }
+
+        Optional<String> sessionId = Optional.empty();
+        try {
+            sessionId = getString(jsonObject, SESSION_ID_PATH);
+        } catch (RuntimeException e) {
+            invalidFields |= SESSION_ID_INVALID;
+        }
+
+        Optional<UUID> streamId = Optional.empty();
+        try {
+            streamId = getUUID(jsonObject, STREAM_ID_PATH);
+        } catch (RuntimeException e) {
+            invalidFields |= STREAM_ID_INVALID;
+        }
+
+        Optional<Long> version = Optional.empty();
+        try {
+            version = getLong(jsonObject, VERSION_PATH);
+        } catch (RuntimeException e) {
+            invalidFields |= VERSION_INVALID;
+        }
+
+        return new CompactMetadata(
+                UUID.fromString(jsonObject.getString(ID)),
+                jsonObject.getString(NAME),
+                clientCorrelationId,
+                causation,
+                userId,
+                sessionId,
+                streamId,
+                version,
+                invalidFields,
+                jsonObject);
+    }
+
+    @Override
+    public UUID id() {
+        return new UUID(idMostSignificantBits, idLeastSignificantBits);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Optional<String> clientCorrelationId() {
+        if ((invalidFields & CLIENT_CORRELATION_INVALID) != 0) {
+            return getString(asJsonObject(), CLIENT_CORRELATION_PATH);
+        }
+        return clientCorrelationId;
+    }
+
+    @Override
+    public List<UUID> causation() {
+        if ((invalidFields & CAUSATION_INVALID) != 0) {
+            return decodeCausation(asJsonObject());
+        }
+        if (causation == null || causation.length == 0) {
+            return emptyList();
+        }
+        final List<UUID> uuids = new ArrayList<>(causation.length / 2);
+        for (int i = 0; i < causation.length; i += 2) {
+            uuids.add(new UUID(causation[i], causation[i + 1]));
+        }
+        return Collections.unmodifiableList(uuids);
+    }
+
+    @Override
+    public Optional<String> userId() {
+        if ((invalidFields & USER_ID_INVALID) != 0) {
+            return getString(asJsonObject(), USER_ID_PATH);
+        }
+        return userId;
+    }
+
+    @Override
+    public Optional<String> sessionId() {
+        if ((invalidFields & SESSION_ID_INVALID) != 0) {
+            return getString(asJsonObject(), SESSION_ID_PATH);
+        }
+        return sessionId;
+    }
+
+    @Override
+    public Optional<UUID> streamId() {
+        if ((invalidFields & STREAM_ID_INVALID) != 0) {
+            return getUUID(asJsonObject(), STREAM_ID_PATH);
+        }
+        return hasStreamId
+                ? Optional.of(new UUID(streamIdMostSignificantBits, streamIdLeastSignificantBits))
+                : Optional.empty();
+    }
+
+    @Override
+    public Optional<Long> version() {
+        if ((invalidFields & VERSION_INVALID) != 0) {
+            return getLong(asJsonObject(), VERSION_PATH);
+        }
+        return hasVersion ? Optional.of(version) : Optional.empty();
+    }
+
+    @Override
+    public JsonObject asJsonObject() {
+        JsonObject result = jsonObject;
+        if (result == null) {
+            result = toJsonObject();
+            jsonObject = result;
+        }
+        return result;
+    }
+
+    private JsonObject toJsonObject() {
+        final JsonObjectBuilder builder = Json.createObjectBuilder()
+                .add(ID, id().toString())
+                .add(NAME, name);
+
+        clientCorrelationId.ifPresent(clientId -> builder.add(CORRELATION, Json.createObjectBuilder().add(CLIENT_ID, clientId)));
+
+        if (causation != null) {
+            final JsonArrayBuilder causationArray = Json.createArrayBuilder();
+            causation().forEach(uuid -> causationArray.add(uuid.toString()));
+            builder.add(CAUSATION, causationArray);
+        }
+
+        if (userId.isPresent() || sessionId.isPresent()) {
+            final JsonObjectBuilder context = Json.createObjectBuilder();
+            userId.ifPresent(user -> context.add(USER_ID, user));
+            sessionId.ifPresent(session -> context.add(SESSION_ID, session));
+            builder.add(CONTEXT, context);
+        }
+
+        if (hasStreamId || hasVersion) {
+            final JsonObjectBuilder stream = Json.createObjectBuilder();
+            streamId().ifPresent(uuid -> stream.add(STREAM_ID, uuid.toString()));
+            if (hasVersion) {
+                stream.add(VERSION, version);
+            }
+            builder.add(STREAM, stream);
+        }
+
+        return builder.build();
+    }
+
+    private static List<UUID> decodeCausation(final JsonObject jsonObject) {
+        return getList(jsonObject, JsonString.class, uuid -> CausationPolicy.decode(uuid.getString()), CAUSATION)
+                .orElse(emptyList());
+    }
+
+    private static long[] toLongs(final List<UUID> uuids) {
+        final long[] longs = new long[uuids.size() * 2];
+        for (int i = 0; i < uuids.size(); i++) {
+            longs[2 * i] = uuids.get(i).getMostSignificantBits();
+            longs[2 * i + 1] = uuids.get(i).getLeastSignificantBits();
+        }
+        return longs;
+    }
+}
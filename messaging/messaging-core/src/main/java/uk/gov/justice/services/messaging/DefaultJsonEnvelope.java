@@ -20,6 +20,13 @@ public class DefaultJsonEnvelope implements JsonEnvelope {
 
     private JsonValue payload;
 
+    /**
+     * JSON text of the metadata and payload, set by the {@link JsonEnvelopeWriter} the first time
+     * they are written so that later writes of the same envelope reuse them.
+     */
+    String metadataJson;
+    String payloadJson;
+
     private DefaultJsonEnvelope(final Metadata metadata, final JsonValue payload) {
         this.metadata = metadata;
         this.payload = payload;
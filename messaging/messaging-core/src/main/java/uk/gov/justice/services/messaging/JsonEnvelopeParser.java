@@ -0,0 +1,152 @@
+package uk.gov.justice.services.messaging;
+
+import static java.lang.String.format;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonEnvelope.METADATA;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataFrom;
+
+import java.io.StringReader;
+import java.util.function.Supplier;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Parses the JSON text of an envelope straight into a {@link JsonEnvelope} in a single pass.
+ *
+ * The <code>_metadata</code> field is read into the metadata while every other field is added
+ * directly to the payload, so there is no intermediate JsonObject of the whole envelope and no
+ * copy of the payload fields.
+ */
+public class JsonEnvelopeParser {
+
+    /**
+     * Parse the JSON text of an envelope.
+     *
+     * @param json the JSON text of the envelope, including its <code>_metadata</code>
+     * @return the envelope
+     */
+    public JsonEnvelope asEnvelope(final String json) {
+        return asEnvelope(json, () -> {
+            throw new IllegalArgumentException(format("Missing %s field", METADATA));
+        });
+    }
+
+    /**
+     * Parse the JSON text of an envelope, using the given metadata if the text has none.
+     *
+     * @param json              the JSON text of the envelope
+     * @param metadataIfMissing supplies the metadata JSON when there is no <code>_metadata</code>
+     *                          field
+     * @return the envelope
+     */
+    public JsonEnvelope asEnvelope(final String json, final Supplier<JsonObject> metadataIfMissing) {
+        try (final JsonParser parser = Json.createParser(new StringReader(json))) {
+            if (!parser.hasNext() || parser.next() != Event.START_OBJECT) {
+                throw new JsonException("Envelope is not a JSON object");
+            }
+
+            final JsonObjectBuilder payload = Json.createObjectBuilder();
+            JsonObject metadata = null;
+
+            Event event = parser.next();
+            while (event != Event.END_OBJECT) {
+                final String key = parser.getString();
+                event = parser.next();
+                if (METADATA.equals(key) && event == Event.START_OBJECT) {
+                    metadata = readObject(parser);
+                } else {
+                    add(payload, key, event, parser);
+                }
+                event = parser.next();
+            }
+
+            return envelopeFrom(
+                    metadataFrom(metadata != null ? metadata : metadataIfMissing.get()),
+                    payload.build());
+        }
+    }
+
+    private static JsonObject readObject(final JsonParser parser) {
+        final JsonObjectBuilder builder = Json.createObjectBuilder();
+        Event event = parser.next();
+        while (event != Event.END_OBJECT) {
+            final String key = parser.getString();
+            add(builder, key, parser.next(), parser);
+            event = parser.next();
+        }
+        return builder.build();
+    }
+
+    private static JsonArray readArray(final JsonParser parser) {
+        final JsonArrayBuilder builder = Json.createArrayBuilder();
+        Event event = parser.next();
+        while (event != Event.END_ARRAY) {
+            add(builder, event, parser);
+            event = parser.next();
+        }
+        return builder.build();
+    }
+
+    private static void add(final JsonObjectBuilder builder, final String key, final Event event, final JsonParser parser) {
+        switch (event) {
+            case START_OBJECT:
+                builder.add(key, readObject(parser));
+                break;
+            case START_ARRAY:
+                builder.add(key, readArray(parser));
+                break;
+            case VALUE_STRING:
+                builder.add(key, parser.getString());
+                break;
+            case VALUE_NUMBER:
+                builder.add(key, parser.getBigDecimal());
+                break;
+            case VALUE_TRUE:
+                builder.add(key, true);
+                break;
+            case VALUE_FALSE:
+                builder.add(key, false);
+                break;
+            case VALUE_NULL:
+                builder.addNull(key);
+                break;
+            default:
+                throw new JsonException(format("Unexpected JSON event %s", event));
+        }
+    }
+
+    private static void add(final JsonArrayBuilder builder, final Event event, final JsonParser parser) {
+        switch (event) {
+            case START_OBJECT:
+                builder.add(readObject(parser));
+                break;
+            case START_ARRAY:
+                builder.add(readArray(parser));
+                break;
+            case VALUE_STRING:
+                builder.add(parser.getString());
+                break;
+            case VALUE_NUMBER:
+                builder.add(parser.getBigDecimal());
+                break;
+            case VALUE_TRUE:
+                builder.add(true);
+                break;
+            case VALUE_FALSE:
+                builder.add(false);
+                break;
+            case VALUE_NULL:
+                builder.addNull();
+                break;
+            default:
+                throw new JsonException(format("Unexpected JSON event %s", event));
+        }
+    }
+}
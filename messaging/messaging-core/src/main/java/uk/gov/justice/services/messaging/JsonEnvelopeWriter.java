@@ -0,0 +1,256 @@
+package uk.gov.justice.services.messaging;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
+import static javax.json.JsonValue.ValueType.OBJECT;
+import static uk.gov.justice.services.messaging.JsonEnvelope.METADATA;
+
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import javax.json.JsonValue.ValueType;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+
+/**
+ * Writes a {@link JsonEnvelope} as JSON text by streaming the metadata and the payload fields
+ * straight to a {@link JsonGenerator}, without first merging them into a new JsonObject.
+ *
+ * Object fields with a null value are written as null, as they are by {@link JsonObject#toString()},
+ * except by {@link #asJsonStringWithoutNulls}, which leaves them out as the ObjectMapper that used
+ * to write JMS messages did. Null array elements are always written. Strings are built in a buffer kept per thread, so writing a message does not grow a new buffer
+ * each time.
+ *
+ * The JSON text of the metadata and payload of a {@link DefaultJsonEnvelope} is kept on the
+ * envelope once written, so an event that is both stored in the event log and published is only
+ * serialized once.
+ */
+public class JsonEnvelopeWriter {
+
+    private static final JsonGeneratorFactory GENERATOR_FACTORY = Json.createGeneratorFactory(emptyMap());
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<StringWriter> BUFFER = ThreadLocal.withInitial(StringWriter::new);
+    private static final String METADATA_PREFIX = "{\"" + METADATA + "\":";
+    private static final String NULL = "null";
+
+    /**
+     * Write the envelope as a JSON string.
+     *
+     * @param envelope the envelope to write
+     * @return the JSON text of the envelope
+     */
+    public String asJsonString(final JsonEnvelope envelope) {
+        if (envelope instanceof DefaultJsonEnvelope) {
+            final String payloadJson = payloadAsJsonString(envelope);
+            return envelopeJsonOf(metadataAsJsonString(envelope), payloadJson);
+        }
+        return writeToBuffer(generator -> writeEnvelope(generator, envelope, true));
+    }
+
+    /**
+     * Write the envelope as a JSON string, leaving out object fields with a null value, as JMS
+     * messages are written. The JSON text already kept on a {@link DefaultJsonEnvelope} is reused
+     * when it has no null value in it.
+     *
+     * @param envelope the envelope to write
+     * @return the JSON text of the envelope without null fields
+     */
+    public String asJsonStringWithoutNulls(final JsonEnvelope envelope) {
+        if (envelope instanceof DefaultJsonEnvelope) {
+            final DefaultJsonEnvelope defaultJsonEnvelope = (DefaultJsonEnvelope) envelope;
+            if (hasNoNulls(defaultJsonEnvelope.metadataJson) && hasNoNulls(defaultJsonEnvelope.payloadJson)) {
+                return envelopeJsonOf(defaultJsonEnvelope.metadataJson, defaultJsonEnvelope.payloadJson);
+            }
+        }
+        return writeToBuffer(generator -> writeEnvelope(generator, envelope, false));
+    }
+
+    /**
+     * Write the metadata of the envelope as a JSON string.
+     *
+     * @param envelope the envelope whose metadata to write
+     * @return the JSON text of the metadata
+     */
+    public String metadataAsJsonString(final JsonEnvelope envelope) {
+        if (envelope instanceof DefaultJsonEnvelope) {
+            final DefaultJsonEnvelope defaultJsonEnvelope = (DefaultJsonEnvelope) envelope;
+            if (defaultJsonEnvelope.metadataJson == null) {
+                defaultJsonEnvelope.metadataJson = writeMetadata(envelope);
+            }
+            return defaultJsonEnvelope.metadataJson;
+        }
+        return writeMetadata(envelope);
+    }
+
+    /**
+     * Write the payload of the envelope as a JSON string.
+     *
+     * @param envelope the envelope whose payload to write
+     * @return the JSON text of the payload
+     */
+    public String payloadAsJsonString(final JsonEnvelope envelope) {
+        if (envelope instanceof DefaultJsonEnvelope) {
+            final DefaultJsonEnvelope defaultJsonEnvelope = (DefaultJsonEnvelope) envelope;
+            if (defaultJsonEnvelope.payloadJson == null) {
+                defaultJsonEnvelope.payloadJson = writeObject(payloadOf(envelope));
+            }
+            return defaultJsonEnvelope.payloadJson;
+        }
+        return writeObject(payloadOf(envelope));
+    }
+
+    /**
+     * Write the envelope as JSON to the given writer. The writer is not closed.
+     *
+     * @param envelope the envelope to write
+     * @param writer   the writer to write to
+     */
+    public void write(final JsonEnvelope envelope, final Writer writer) {
+        final JsonGenerator generator = GENERATOR_FACTORY.createGenerator(writer);
+        writeEnvelope(generator, envelope, true);
+        generator.flush();
+    }
+
+    /**
+     * Write the envelope as UTF-8 encoded JSON to the given stream. The stream is not closed.
+     *
+     * @param envelope     the envelope to write
+     * @param outputStream the stream to write to
+     */
+    public void write(final JsonEnvelope envelope, final OutputStream outputStream) {
+        final JsonGenerator generator = GENERATOR_FACTORY.createGenerator(outputStream, UTF_8);
+        writeEnvelope(generator, envelope, true);
+        generator.flush();
+    }
+
+    private static String envelopeJsonOf(final String metadataJson, final String payloadJson) {
+        final StringBuilder json = new StringBuilder(METADATA_PREFIX.length() + metadataJson.length() + payloadJson.length())
+                .append(METADATA_PREFIX)
+                .append(metadataJson);
+        if (payloadJson.length() > 2) {
+            json.append(',').append(payloadJson, 1, payloadJson.length());
+        } else {
+            json.append('}');
+        }
+        return json.toString();
+    }
+
+    /**
+     * A text without <code>null</code> anywhere in it, even inside a string, has no null fields.
+     */
+    private static boolean hasNoNulls(final String json) {
+        return json != null && !json.contains(NULL);
+    }
+
+    private static void writeEnvelope(final JsonGenerator generator, final JsonEnvelope envelope, final boolean writeNulls) {
+        final JsonObject metadata = metadataOf(envelope);
+        final JsonObject payload = payloadOf(envelope);
+
+        generator.writeStartObject();
+        generator.writeStartObject(METADATA);
+        writeMembers(generator, metadata, writeNulls);
+        generator.writeEnd();
+        writeMembers(generator, payload, writeNulls);
+        generator.writeEnd();
+    }
+
+    private static String writeMetadata(final JsonEnvelope envelope) {
+        return writeObject(metadataOf(envelope));
+    }
+
+    private static String writeObject(final JsonObject jsonObject) {
+        return writeToBuffer(generator -> {
+            generator.writeStartObject();
+            writeMembers(generator, jsonObject, true);
+            generator.writeEnd();
+        });
+    }
+
+    private static JsonObject metadataOf(final JsonEnvelope envelope) {
+        final Metadata metadata = envelope.metadata();
+        if (metadata == null) {
+            throw new IllegalArgumentException("Failed to convert envelope, no metadata present.");
+        }
+        return metadata.asJsonObject();
+    }
+
+    private static JsonObject payloadOf(final JsonEnvelope envelope) {
+        final ValueType payloadType = envelope.payload().getValueType();
+        if (payloadType != OBJECT) {
+            throw new IllegalArgumentException(format("Payload type %s not supported.", payloadType));
+        }
+        return envelope.payloadAsJsonObject();
+    }
+
+    private static void writeMembers(final JsonGenerator generator, final JsonObject jsonObject, final boolean writeNulls) {
+        for (final Map.Entry<String, JsonValue> entry : jsonObject.entrySet()) {
+            final JsonValue value = entry.getValue();
+            switch (value.getValueType()) {
+                case NULL:
+                    if (writeNulls) {
+                        generator.writeNull(entry.getKey());
+                    }
+                    break;
+                case OBJECT:
+                    generator.writeStartObject(entry.getKey());
+                    writeMembers(generator, (JsonObject) value, writeNulls);
+                    generator.writeEnd();
+                    break;
+                case ARRAY:
+                    generator.writeStartArray(entry.getKey());
+                    writeElements(generator, (JsonArray) value, writeNulls);
+                    generator.writeEnd();
+                    break;
+                default:
+                    generator.write(entry.getKey(), value);
+            }
+        }
+    }
+
+    private static void writeElements(final JsonGenerator generator, final JsonArray jsonArray, final boolean writeNulls) {
+        for (final JsonValue value : jsonArray) {
+            switch (value.getValueType()) {
+                case OBJECT:
+                    generator.writeStartObject();
+                    writeMembers(generator, (JsonObject) value, writeNulls);
+                    generator.writeEnd();
+                    break;
+                case ARRAY:
+                    generator.writeStartArray();
+                    writeElements(generator, (JsonArray) value, writeNulls);
+                    generator.writeEnd();
+                    break;
+                default:
+                    generator.write(value);
+            }
+        }
+    }
+
+    private static String writeToBuffer(final Consumer<JsonGenerator> content) {
+        final StringWriter buffer = BUFFER.get();
+        try {
+            try (final JsonGenerator generator = GENERATOR_FACTORY.createGenerator(buffer)) {
+                content.accept(generator);
+            }
+            return buffer.toString();
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private static void release(final StringWriter buffer) {
+        if (buffer.getBuffer().capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            BUFFER.remove();
+        } else {
+            buffer.getBuffer().setLength(0);
+        }
+    }
+}
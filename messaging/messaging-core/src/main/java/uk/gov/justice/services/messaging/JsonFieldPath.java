@@ -0,0 +1,161 @@
+package uk.gov.justice.services.messaging;
+
+import static java.lang.String.format;
+import static javax.json.JsonValue.ValueType.ARRAY;
+import static javax.json.JsonValue.ValueType.NULL;
+import static javax.json.JsonValue.ValueType.NUMBER;
+import static javax.json.JsonValue.ValueType.OBJECT;
+import static javax.json.JsonValue.ValueType.STRING;
+
+import java.util.Arrays;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.JsonValue.ValueType;
+
+/**
+ * A path of field names through nested {@link JsonObject}s, such as <code>stream.id</code>. The
+ * names are checked once when the path is created, so a path held in a constant can be resolved
+ * against many objects by walking the nested objects directly, with nothing allocated but the
+ * result.
+ *
+ * A missing or null field anywhere on the path resolves to null. A field on the path that is not
+ * of the expected type throws an {@link IllegalStateException}.
+ */
+public final class JsonFieldPath {
+
+    static final String FIELD_IS_NOT_A_TYPE = "Field %s is not a %s";
+
+    private final String[] names;
+
+    private JsonFieldPath(final String[] names) {
+        this.names = names;
+    }
+
+    /**
+     * @param names the field names of the path, outermost first
+     * @return the path
+     * @throws IllegalArgumentException if there are no names or a name is null or empty
+     */
+    public static JsonFieldPath path(final String... names) {
+        checkNames(names);
+        for (final String name : names) {
+            checkName(name);
+        }
+        return new JsonFieldPath(names.clone());
+    }
+
+    /**
+     * @param object the object to resolve the path in
+     * @return the value at the path, or null if there is none
+     */
+    public JsonValue valueIn(final JsonObject object) {
+        return resolve(object, names, false);
+    }
+
+    public JsonObject jsonObjectIn(final JsonObject object) {
+        return resolve(object, names, false, OBJECT);
+    }
+
+    public JsonArray jsonArrayIn(final JsonObject object) {
+        return resolve(object, names, false, ARRAY);
+    }
+
+    public JsonNumber jsonNumberIn(final JsonObject object) {
+        return resolve(object, names, false, NUMBER);
+    }
+
+    public JsonString jsonStringIn(final JsonObject object) {
+        return resolve(object, names, false, STRING);
+    }
+
+    /**
+     * @param object the object to resolve the path in
+     * @return the string at the path, or null if there is none
+     */
+    public String stringIn(final JsonObject object) {
+        final JsonString jsonString = jsonStringIn(object);
+        return jsonString == null ? null : jsonString.getString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || (o instanceof JsonFieldPath && Arrays.equals(names, ((JsonFieldPath) o).names));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(names);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(".", names);
+    }
+
+    /**
+     * Resolve the value of the given type at the path of the given names.
+     *
+     * @param object     the object to resolve the path in
+     * @param names      the field names of the path
+     * @param checkNames true if the names have not been checked yet, in which case each name is
+     *                   checked as it is reached
+     * @param valueType  the expected type of the value
+     * @param <T>        the type of the value
+     * @return the value, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends JsonValue> T resolve(final JsonObject object, final String[] names, final boolean checkNames, final ValueType valueType) {
+        final JsonValue value = resolve(object, names, checkNames);
+        if (value != null && value.getValueType() != valueType) {
+            throw new IllegalStateException(format(FIELD_IS_NOT_A_TYPE, names[names.length - 1], valueType));
+        }
+        return (T) value;
+    }
+
+    private static JsonValue resolve(final JsonObject object, final String[] names, final boolean checkNames) {
+        if (object == null) {
+            throw new IllegalArgumentException("Json object cannot be null");
+        }
+        if (checkNames) {
+            checkNames(names);
+        }
+
+        JsonObject current = object;
+        final int last = names.length - 1;
+        for (int i = 0; i < last; i++) {
+            if (checkNames) {
+                checkName(names[i]);
+            }
+            final JsonValue value = current.get(names[i]);
+            if (value == null || value.getValueType() == NULL) {
+                return null;
+            }
+            if (value.getValueType() != OBJECT) {
+                throw new IllegalStateException(format(FIELD_IS_NOT_A_TYPE, names[i], OBJECT));
+            }
+            current = (JsonObject) value;
+        }
+
+        if (checkNames) {
+            checkName(names[last]);
+        }
+        final JsonValue value = current.get(names[last]);
+        return value == null || value.getValueType() == NULL ? null : value;
+    }
+
+    private static void checkNames(final String[] names) {
+        if (names.length == 0) {
+            throw new IllegalArgumentException("At least one level of field name must be provided");
+        }
+    }
+
+    private static void checkName(final String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Field name cannot be null or empty");
+        }
+    }
+}
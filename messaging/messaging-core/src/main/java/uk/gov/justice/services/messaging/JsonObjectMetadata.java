@@ -1,27 +1,23 @@
 package uk.gov.justice.services.messaging;
 
-import static java.util.UUID.randomUUID;
+import static java.util.Arrays.asList;
+import static uk.gov.justice.services.messaging.JsonFieldPath.path;
 import static uk.gov.justice.services.messaging.JsonObjects.getJsonString;
-import static uk.gov.justice.services.messaging.JsonObjects.getLong;
-import static uk.gov.justice.services.messaging.JsonObjects.getString;
-import static uk.gov.justice.services.messaging.JsonObjects.getUUID;
-import static uk.gov.justice.services.messaging.JsonObjects.getUUIDs;
 
-import java.math.BigDecimal;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
-import javax.json.Json;
-import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
 import javax.json.JsonString;
 
 /**
- * Implementation of metadata that uses a JsonObject internally to store the metadata.
+ * Implementation of metadata backed by its JSON representation, created from JSON or with a {@link
+ * Builder}. The metadata created decodes its well-known fields once, see {@link CompactMetadata}.
+ * Metadata derived from other metadata only holds the fields that change, see {@link
+ * OverlayMetadata}. Metadata is equal to other metadata of this class with equal JSON.
  */
-public class JsonObjectMetadata implements Metadata {
+public abstract class JsonObjectMetadata implements Metadata {
 
     public static final String ID = "id";
     public static final String NAME = "name";
@@ -35,29 +31,28 @@ public class JsonObjectMetadata implements Metadata {
     public static final String VERSION = "version";
     public static final String CAUSATION = "causation";
 
-    private static final String[] USER_ID_PATH = {CONTEXT, USER_ID};
-    private static final String[] CLIENT_CORRELATION_PATH = {CORRELATION, CLIENT_ID};
-    private static final String[] VERSION_PATH = {STREAM, VERSION};
-    private static final String[] SESSION_ID_PATH = {CONTEXT, SESSION_ID};
-    private static final String[] STREAM_ID_PATH = {STREAM, STREAM_ID};
+    static final JsonFieldPath USER_ID_PATH = path(CONTEXT, USER_ID);
+    static final JsonFieldPath CLIENT_CORRELATION_PATH = path(CORRELATION, CLIENT_ID);
+    static final JsonFieldPath VERSION_PATH = path(STREAM, VERSION);
+    static final JsonFieldPath SESSION_ID_PATH = path(CONTEXT, SESSION_ID);
+    static final JsonFieldPath STREAM_ID_PATH = path(STREAM, STREAM_ID);
 
-    private final JsonObject metadata;
-
-    private JsonObjectMetadata(final JsonObject metadata) {
-        this.metadata = metadata;
+    JsonObjectMetadata() {
     }
 
     /**
-     * Instantiate a {@link JsonObjectMetadata} object from a {@link JsonObject}.
+     * Instantiate a {@link Metadata} object from a {@link JsonObject}. The id and name are checked
+     * and decoded straight away; the other fields are only reported as invalid when accessed.
      *
      * @param jsonObject the {@link JsonObject} to build the metadata from
-     * @return the {@link JsonObjectMetadata}
+     * @return the {@link Metadata}
+     * @throws IllegalArgumentException if the id is missing or is not a UUID, or the name is missing
+     *                                  or empty
      */
     public static Metadata metadataFrom(final JsonObject jsonObject) {
 
-        JsonString id = getJsonString(jsonObject, ID)
+        getJsonString(jsonObject, ID)
                 .orElseThrow(() -> new IllegalArgumentException("Missing id field"));
-        UUID.fromString(id.getString());
 
         JsonString name = getJsonString(jsonObject, NAME)
                 .orElseThrow(() -> new IllegalArgumentException("Missing name field"));
@@ -65,7 +60,60 @@ public class JsonObjectMetadata implements Metadata {
             throw new IllegalArgumentException("Name field cannot be empty");
         }
 
-        return new JsonObjectMetadata(jsonObject);
+        return CompactMetadata.decode(jsonObject);
+    }
+
+    /**
+     * Derive the metadata of a message caused by the message with the given metadata. The derived
+     * metadata has the given id and name, and the causation of the given metadata followed by its
+     * id; all other fields are shared with the given metadata.
+     *
+     * @param metadata the metadata of the causing message
+     * @param id       the id of the new message
+     * @param name     the name of the new message
+     * @return the derived metadata
+     */
+    public static Metadata metadataCausedBy(final Metadata metadata, final UUID id, final String name) {
+        return metadataCausedBy(metadata, id, name, CausationPolicy.unbounded());
+    }
+
+    /**
+     * Derive the metadata of a message caused by the message with the given metadata, applying
+     * the given policy to its causation.
+     *
+     * @param metadata        the metadata of the causing message
+     * @param id              the id of the new message
+     * @param name            the name of the new message
+     * @param causationPolicy the policy applied to the causation
+     * @return the derived metadata
+     */
+    public static Metadata metadataCausedBy(final Metadata metadata, final UUID id, final String name, final CausationPolicy causationPolicy) {
+        if (id == null) {
+            throw new IllegalArgumentException("Missing id field");
+        }
+        if (name == null) {
+            throw new IllegalArgumentException("Missing name field");
+        }
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Name field cannot be empty");
+        }
+        return OverlayMetadata.causedBy(metadata, id, name, causationPolicy);
+    }
+
+    /**
+     * Derive metadata positioned at the given version of the given stream. Any existing stream
+     * fields are replaced; all other fields are shared with the given metadata.
+     *
+     * @param metadata the metadata to position
+     * @param streamId UUID of the stream
+     * @param version  version of the message in the stream
+     * @return the derived metadata
+     */
+    public static Metadata metadataWithStream(final Metadata metadata, final UUID streamId, final long version) {
+        if (streamId == null) {
+            throw new IllegalArgumentException("Missing stream id");
+        }
+        return OverlayMetadata.withStream(metadata, streamId, version);
     }
 
     /**
@@ -78,12 +126,13 @@ public class JsonObjectMetadata implements Metadata {
     }
 
     /**
-     * Create metadata builder with random id
+     * Create metadata builder with a random id from the {@link MetadataIdGenerator#random()}
+     * generator
      *
      * @return metadata builder
      */
     public static Builder metadataWithRandomUUID(final String name) {
-        return metadataOf(randomUUID(), name);
+        return metadataOf(MetadataIdGenerator.random().nextId(), name);
     }
 
     /**
@@ -93,74 +142,31 @@ public class JsonObjectMetadata implements Metadata {
      * @return metadata builder
      */
     public static Builder metadataWithDefaults() {
-        return metadataOf(randomUUID(), "dummyName");
-    }
-
-    @Override
-    public UUID id() {
-        return getUUID(metadata, ID)
-                .orElseThrow(() -> new IllegalStateException("Missing id field"));
-    }
-
-    @Override
-    public String name() {
-        return getString(metadata, NAME)
-                .orElseThrow(() -> new IllegalStateException("Missing name field"));
-    }
-
-    @Override
-    public Optional<String> clientCorrelationId() {
-        return getString(metadata, CLIENT_CORRELATION_PATH);
-    }
-
-    @Override
-    public List<UUID> causation() {
-        return getUUIDs(metadata, CAUSATION);
-    }
-
-    @Override
-    public Optional<String> userId() {
-        return getString(metadata, USER_ID_PATH);
-    }
-
-    @Override
-    public Optional<String> sessionId() {
-        return getString(metadata, SESSION_ID_PATH);
-    }
-
-    @Override
-    public Optional<UUID> streamId() {
-        return getUUID(metadata, STREAM_ID_PATH);
+        return metadataOf(MetadataIdGenerator.random().nextId(), "dummyName");
     }
 
     @Override
-    public Optional<Long> version() {
-        return getLong(metadata, VERSION_PATH);
-    }
-
-    @Override
-    public JsonObject asJsonObject() {
-        return metadata;
-    }
-
-    @Override
-    @SuppressWarnings({"squid:MethodCyclomaticComplexity", "squid:S1067", "squid:S00122"})
     public boolean equals(final Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        JsonObjectMetadata that = (JsonObjectMetadata) o;
-        return Objects.equals(metadata, that.metadata);
+        if (!(o instanceof JsonObjectMetadata)) return false;
+        return asJsonObject().equals(((JsonObjectMetadata) o).asJsonObject());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(metadata);
+        return asJsonObject().hashCode();
     }
 
-
     public static class Builder {
 
-        private JsonObjectBuilderWrapper json = new JsonObjectBuilderWrapper();
+        private UUID id;
+        private String name;
+        private String clientCorrelationId;
+        private List<UUID> causation;
+        private String userId;
+        private String sessionId;
+        private UUID streamId;
+        private Long version;
 
         private Builder() {
         }
@@ -170,7 +176,7 @@ public class JsonObjectMetadata implements Metadata {
          * @return metadata builder
          */
         public Builder withId(final UUID id) {
-            json.add(id.toString(), ID);
+            this.id = id;
             return this;
         }
 
@@ -179,7 +185,7 @@ public class JsonObjectMetadata implements Metadata {
          * @return metadata builder
          */
         public Builder withName(final String name) {
-            json.add(name, NAME);
+            this.name = name;
             return this;
         }
 
@@ -189,11 +195,7 @@ public class JsonObjectMetadata implements Metadata {
          * @return metadata builder
          */
         public Builder withCausation(final UUID... uuid) {
-            final JsonArrayBuilder causationArray = Json.createArrayBuilder();
-            for (UUID id : uuid) {
-                causationArray.add(id.toString());
-            }
-            json.add(causationArray, CAUSATION);
+            this.causation = asList(uuid);
             return this;
         }
 
@@ -202,7 +204,7 @@ public class JsonObjectMetadata implements Metadata {
          * @return metadata builder
          */
         public Builder withClientCorrelationId(final String clientId) {
-            json.add(clientId, CLIENT_CORRELATION_PATH);
+            this.clientCorrelationId = clientId;
             return this;
         }
 
@@ -211,7 +213,7 @@ public class JsonObjectMetadata implements Metadata {
          * @return metadata builder
          */
         public Builder withUserId(final String userId) {
-            json.add(userId, USER_ID_PATH);
+            this.userId = userId;
             return this;
         }
 
@@ -220,7 +222,7 @@ public class JsonObjectMetadata implements Metadata {
          * @return metadata builder
          */
         public Builder withSessionId(final String sessionId) {
-            json.add(sessionId, SESSION_ID_PATH);
+            this.sessionId = sessionId;
             return this;
         }
 
@@ -229,7 +231,7 @@ public class JsonObjectMetadata implements Metadata {
          * @return metadata builder
          */
         public Builder withStreamId(final UUID streamId) {
-            json.add(streamId.toString(), STREAM_ID_PATH);
+            this.streamId = streamId;
             return this;
         }
         /**
@@ -238,14 +240,28 @@ public class JsonObjectMetadata implements Metadata {
          * @return metadata builder
          */
         public Builder withVersion(final Long version) {
-            json.add(BigDecimal.valueOf(version), VERSION_PATH);
+            this.version = version;
             return this;
         }
 
         public Metadata build() {
-            return metadataFrom(json.build());
-        }
-
+            if (id == null) {
+                throw new IllegalArgumentException("Missing id field");
+            }
+            if (name == null) {
+                throw new IllegalArgumentException("Missing name field");
+            }
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Name field cannot be empty");
+            }
 
+            return new CompactMetadata(id, name,
+                    Optional.ofNullable(clientCorrelationId),
+                    causation,
+                    Optional.ofNullable(userId),
+                    Optional.ofNullable(sessionId),
+                    Optional.ofNullable(streamId),
+                    Optional.ofNullable(version));
+        }
     }
 }
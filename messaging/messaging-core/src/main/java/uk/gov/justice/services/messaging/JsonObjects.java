@@ -1,13 +1,12 @@
 package uk.gov.justice.services.messaging;
 
 import static javax.json.JsonValue.ValueType;
+import static uk.gov.justice.services.messaging.JsonFieldPath.FIELD_IS_NOT_A_TYPE;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -23,11 +22,12 @@ import com.google.common.collect.ImmutableList;
 
 /**
  * Collection of static utility methods for getting deep values from a {@link JsonObject}.
+ *
+ * Paths read often, such as the metadata fields, should be held as a constant {@link
+ * JsonFieldPath} and passed to the overloads that take one, so the path is only checked once.
  */
 public final class JsonObjects {
 
-    private static final String FIELD_IS_NOT_A_TYPE = "Field %s is not a %s";
-
     /**
      * Private constructor to prevent misuse of utility class.
      */
@@ -44,7 +44,7 @@ public final class JsonObjects {
      * @throws IllegalStateException if the value is not assignable to JsonArray type
      */
     public static Optional<JsonArray> getJsonArray(final JsonObject object, final String... names) {
-        return getJsonValue(object, ValueType.ARRAY, JsonObject::getJsonArray, names);
+        return getJsonValue(object, ValueType.ARRAY, names);
     }
 
     /**
@@ -58,7 +58,7 @@ public final class JsonObjects {
      * @throws IllegalStateException if the value is not assignable to JsonObject type
      */
     public static Optional<JsonObject> getJsonObject(final JsonObject object, final String... names) {
-        return getJsonValue(object, ValueType.OBJECT, JsonObject::getJsonObject, names);
+        return getJsonValue(object, ValueType.OBJECT, names);
     }
 
     /**
@@ -71,7 +71,7 @@ public final class JsonObjects {
      * @throws IllegalStateException if the value is not assignable to JsonNumber type
      */
     public static Optional<JsonNumber> getJsonNumber(final JsonObject object, final String... names) {
-        return getJsonValue(object, ValueType.NUMBER, JsonObject::getJsonNumber, names);
+        return getJsonValue(object, ValueType.NUMBER, names);
     }
 
     /**
@@ -84,7 +84,7 @@ public final class JsonObjects {
      * @throws IllegalStateException if the value is not assignable to JsonString type
      */
     public static Optional<JsonString> getJsonString(final JsonObject object, final String... names) {
-        return getJsonValue(object, ValueType.STRING, JsonObject::getJsonString, names);
+        return getJsonValue(object, ValueType.STRING, names);
     }
 
     /**
@@ -92,36 +92,14 @@ public final class JsonObjects {
      *
      * @param object    the JsonObject from which to retrieve the value
      * @param valueType the type of JsonValue we need to return
-     * @param function  the function to use to get the correct type of JsonValue from the
-     *                  JsonObject
      * @param names     the field name path whose associated value is to be returned
      * @param <T>       the type of JsonValue that will be returned
      * @return an optional value found at the specified location in the JsonObject
      */
     private static <T extends JsonValue> Optional<T> getJsonValue(final JsonObject object,
                                                                   final ValueType valueType,
-                                                                  final BiFunction<JsonObject, String, T> function,
                                                                   final String... names) {
-        checkArguments(object, names);
-        if (names.length == 1) {
-            if (!object.containsKey(names[0])) {
-                return Optional.empty();
-            }
-            ValueType actualValueType = object.get(names[0]).getValueType();
-
-            if (ValueType.NULL.equals(actualValueType)) {
-                return Optional.empty();
-            }
-
-            if (!valueType.equals(actualValueType)) {
-                throw new IllegalStateException(String.format(FIELD_IS_NOT_A_TYPE, names[0], valueType.toString()));
-            }
-
-            return Optional.of(function.apply(object, names[0]));
-        } else {
-            return getJsonObject(object, names[0])
-                    .flatMap(subObject -> getJsonValue(subObject, valueType, function, Arrays.copyOfRange(names, 1, names.length)));
-        }
+        return Optional.ofNullable(JsonFieldPath.resolve(object, names, true, valueType));
     }
 
     /**
@@ -133,7 +111,7 @@ public final class JsonObjects {
      * @throws IllegalStateException if the value is not assignable to JsonString type
      */
     public static Optional<String> getString(final JsonObject object, final String... names) {
-        return getJsonValue(object, ValueType.STRING, JsonObject::getJsonString, names)
+        return getJsonString(object, names)
                 .map(JsonString::getString);
     }
 
@@ -147,14 +125,7 @@ public final class JsonObjects {
      * @throws IllegalArgumentException if the value is not assignable to a UUID
      */
     public static Optional<UUID> getUUID(final JsonObject object, final String... names) {
-        return getString(object, names)
-                .map(string -> {
-                    try {
-                        return UUID.fromString(string);
-                    } catch (IllegalArgumentException ex) {
-                        throw new IllegalStateException(String.format("Retrieved string '%s' is not a UUID", string), ex);
-                    }
-                });
+        return getString(object, names).map(JsonObjects::toUUID);
     }
 
     /**
@@ -167,10 +138,97 @@ public final class JsonObjects {
      * @throws IllegalArgumentException if the value is not assignable to a Long
      */
     public static Optional<Long> getLong(final JsonObject object, final String... names) {
-        return getJsonValue(object, ValueType.NUMBER, JsonObject::getJsonNumber, names)
+        return getJsonNumber(object, names)
                 .map(JsonNumber::longValue);
     }
 
+    /**
+     * Returns the array value at the given path, if it exists.
+     *
+     * @param object the JsonObject from which to retrieve the value
+     * @param path   the path of the value
+     * @return the array value at the path
+     * @throws IllegalStateException if the value is not assignable to JsonArray type
+     */
+    public static Optional<JsonArray> getJsonArray(final JsonObject object, final JsonFieldPath path) {
+        return Optional.ofNullable(path.jsonArrayIn(object));
+    }
+
+    /**
+     * Returns the object value at the given path, if it exists.
+     *
+     * @param object the JsonObject from which to retrieve the value
+     * @param path   the path of the value
+     * @return the object value at the path
+     * @throws IllegalStateException if the value is not assignable to JsonObject type
+     */
+    public static Optional<JsonObject> getJsonObject(final JsonObject object, final JsonFieldPath path) {
+        return Optional.ofNullable(path.jsonObjectIn(object));
+    }
+
+    /**
+     * Returns the number value at the given path, if it exists.
+     *
+     * @param object the JsonObject from which to retrieve the value
+     * @param path   the path of the value
+     * @return the number value at the path
+     * @throws IllegalStateException if the value is not assignable to JsonNumber type
+     */
+    public static Optional<JsonNumber> getJsonNumber(final JsonObject object, final JsonFieldPath path) {
+        return Optional.ofNullable(path.jsonNumberIn(object));
+    }
+
+    /**
+     * Returns the string value at the given path, if it exists.
+     *
+     * @param object the JsonObject from which to retrieve the value
+     * @param path   the path of the value
+     * @return the string value at the path
+     * @throws IllegalStateException if the value is not assignable to JsonString type
+     */
+    public static Optional<JsonString> getJsonString(final JsonObject object, final JsonFieldPath path) {
+        return Optional.ofNullable(path.jsonStringIn(object));
+    }
+
+    /**
+     * Returns the String at the given path, if it exists.
+     *
+     * @param object the JsonObject from which to retrieve the value
+     * @param path   the path of the value
+     * @return the String value at the path
+     * @throws IllegalStateException if the value is not assignable to JsonString type
+     */
+    public static Optional<String> getString(final JsonObject object, final JsonFieldPath path) {
+        return Optional.ofNullable(path.stringIn(object));
+    }
+
+    /**
+     * Returns the UUID at the given path, if it exists.
+     *
+     * @param object the JsonObject from which to retrieve the value
+     * @param path   the path of the value
+     * @return the UUID value at the path
+     * @throws IllegalStateException if the value is not assignable to JsonString type or is not a
+     *                               UUID
+     */
+    public static Optional<UUID> getUUID(final JsonObject object, final JsonFieldPath path) {
+        final String string = path.stringIn(object);
+        return string == null ? Optional.empty() : Optional.of(toUUID(string));
+    }
+
+    /**
+     * Returns the Long at the given path, if it exists.
+     *
+     * @param object the JsonObject from which to retrieve the value
+     * @param path   the path of the value
+     * @return the Long value at the path
+     * @throws IllegalStateException if the value is not assignable to JsonNumber type
+     */
+    public static Optional<Long> getLong(final JsonObject object, final JsonFieldPath path) {
+        final JsonNumber number = path.jsonNumberIn(object);
+        return number == null ? Optional.empty() : Optional.of(number.longValue());
+    }
+
     /**
      * A convenience method to retrieve a Boolean value
      *
@@ -200,7 +258,7 @@ public final class JsonObjects {
      * @throws IllegalArgumentException if the value is not assignable to a Long
      */
     public static <R extends JsonValue> Optional<List<R>> getList(final JsonObject object, final Class<R> clazz, final String... names) {
-        return getJsonValue(object, ValueType.ARRAY, JsonObject::getJsonArray, names)
+        return getJsonArray(object, names)
                 .map(jsonArray -> jsonArray.getValuesAs(clazz))
                 .map(ImmutableList::copyOf);
     }
@@ -262,24 +320,11 @@ public final class JsonObjects {
         return createObjectBuilderWithFilter(source, x -> true);
     }
 
-    /**
-     * Assert that the provided arguments are valid. The object must not be null, and the next field
-     * name must be non-empty.
-     *
-     * @param object the JsonObject from which to retrieve the value
-     * @param names  the field names
-     */
-    private static void checkArguments(final JsonObject object, final String... names) {
-        if (object == null) {
-            throw new IllegalArgumentException("Json object cannot be null");
-        }
-        if (names.length == 0) {
-            throw new IllegalArgumentException("At least one level of field name must be provided");
-        }
-        if (names[0] == null || names[0].isEmpty()) {
-            throw new IllegalArgumentException("Field name cannot be null or empty");
+    private static UUID toUUID(final String string) {
+        try {
+            return UUID.fromString(string);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalStateException(String.format("Retrieved string '%s' is not a UUID", string), ex);
         }
     }
-
-
 }
@@ -0,0 +1,44 @@
+package uk.gov.justice.services.messaging;
+
+import java.util.UUID;
+
+/**
+ * Generates the ids of new metadata.
+ *
+ * {@link UUID#randomUUID()} draws from a {@link java.security.SecureRandom} shared by every
+ * thread, which becomes a point of contention when many envelopes are created concurrently. The
+ * generators given here draw from a secure random generator of each thread instead, seeded from the
+ * shared one, so that they do not contend and their ids are as hard to guess.
+ */
+@FunctionalInterface
+public interface MetadataIdGenerator {
+
+    /**
+     * @return a new id
+     */
+    UUID nextId();
+
+    /**
+     * @return a generator of random (version 4) UUIDs from the shared secure random generator, as
+     * {@link UUID#randomUUID()}
+     */
+    static MetadataIdGenerator secureRandom() {
+        return UUID::randomUUID;
+    }
+
+    /**
+     * @return a generator of random (version 4) UUIDs from the secure random generator of each
+     * thread
+     */
+    static MetadataIdGenerator random() {
+        return RandomIdGenerator.INSTANCE;
+    }
+
+    /**
+     * @return a generator of time ordered (version 7) UUIDs from the clock and the secure random
+     * generator of each thread
+     */
+    static MetadataIdGenerator timeOrdered() {
+        return TimeOrderedIdGenerator.INSTANCE;
+    }
+}
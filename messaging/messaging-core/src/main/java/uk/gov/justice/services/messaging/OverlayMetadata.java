@@ -0,0 +1,211 @@
+package uk.gov.justice.services.messaging;
+
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.CAUSATION;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.NAME;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.STREAM;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.STREAM_ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.VERSION;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+
+/**
+ * Metadata derived from a parent metadata that holds only the fields that differ from the parent,
+ * and reads every other field from it.
+ *
+ * A message caused by the parent message has a new id and name, and a causation of the parent
+ * causation followed by the parent id, bounded and encoded by a {@link CausationPolicy}; the
+ * causation is not copied until it is asked for. Metadata with a stream position replaces the
+ * stream id and version. The JSON form is only built, by flattening the overlay onto the parent
+ * JSON, on the first call to {@link #asJsonObject()}.
+ *
+ * Overlays of overlays are chained at most {@link #MAX_DEPTH} deep; a message caused by an overlay
+ * at that depth is overlaid on a decoded copy of its JSON, so that long chains of caused messages
+ * do not read each field through every ancestor or hold on to every ancestor.
+ */
+final class OverlayMetadata extends JsonObjectMetadata {
+
+    static final int MAX_DEPTH = 4;
+
+    private final Metadata parent;
+    private final int depth;
+    private final UUID id;
+    private final String name;
+    private final boolean causedByParent;
+    private final CausationPolicy causationPolicy;
+    private final UUID streamId;
+    private final Long version;
+
+    private volatile JsonObject jsonObject;
+
+    private OverlayMetadata(final Metadata parent,
+                            final UUID id,
+                            final String name,
+                            final boolean causedByParent,
+                            final CausationPolicy causationPolicy,
+                            final UUID streamId,
+                            final Long version) {
+        this.parent = parent;
+        this.depth = parent instanceof OverlayMetadata ? ((OverlayMetadata) parent).depth + 1 : 1;
+        this.id = id;
+        this.name = name;
+        this.causedByParent = causedByParent;
+        this.causationPolicy = causationPolicy;
+        this.streamId = streamId;
+        this.version = version;
+    }
+
+    /**
+     * Overlay the metadata of a message caused by the message with the given metadata.
+     *
+     * @param parent          the metadata of the causing message
+     * @param id              the id of the new message
+     * @param name            the name of the new message
+     * @param causationPolicy the policy applied to the causation
+     * @return the derived metadata
+     */
+    static Metadata causedBy(final Metadata parent, final UUID id, final String name, final CausationPolicy causationPolicy) {
+        return new OverlayMetadata(flattenedIfDeep(parent), id, name, true, causationPolicy, null, null);
+    }
+
+    /**
+     * Overlay the given stream position onto the metadata. If the metadata is itself an overlay
+     * its stream position is replaced rather than overlaid again.
+     *
+     * @param metadata the metadata to position
+     * @param streamId the id of the stream
+     * @param version  the version of the message in the stream
+     * @return the derived metadata
+     */
+    static Metadata withStream(final Metadata metadata, final UUID streamId, final long version) {
+        if (metadata instanceof OverlayMetadata) {
+            final OverlayMetadata overlay = (OverlayMetadata) metadata;
+            return new OverlayMetadata(overlay.parent, overlay.id, overlay.name, overlay.causedByParent, overlay.causationPolicy, streamId, version);
+        }
+        return new OverlayMetadata(metadata, null, null, false, null, streamId, version);
+    }
+
+    /**
+     * @return the number of overlays from this one to the first metadata that is not an overlay
+     */
+    int depth() {
+        return depth;
+    }
+
+    @Override
+    public UUID id() {
+        return id != null ? id : parent.id();
+    }
+
+    @Override
+    public String name() {
+        return name != null ? name : parent.name();
+    }
+
+    @Override
+    public Optional<String> clientCorrelationId() {
+        return parent.clientCorrelationId();
+    }
+
+    @Override
+    public List<UUID> causation() {
+        if (!causedByParent) {
+            return parent.causation();
+        }
+        final List<UUID> parentCausation = parent.causation();
+        final List<UUID> causation = new ArrayList<>(parentCausation.size() + 1);
+        causation.addAll(parentCausation);
+        causation.add(parent.id());
+        return Collections.unmodifiableList(causationPolicy.apply(causation));
+    }
+
+    @Override
+    public Optional<String> userId() {
+        return parent.userId();
+    }
+
+    @Override
+    public Optional<String> sessionId() {
+        return parent.sessionId();
+    }
+
+    @Override
+    public Optional<UUID> streamId() {
+        return streamId != null ? Optional.of(streamId) : parent.streamId();
+    }
+
+    @Override
+    public Optional<Long> version() {
+        return streamId != null ? Optional.of(version) : parent.version();
+    }
+
+    @Override
+    public JsonObject asJsonObject() {
+        JsonObject result = jsonObject;
+        if (result == null) {
+            result = flatten();
+            jsonObject = result;
+        }
+        return result;
+    }
+
+    private static Metadata flattenedIfDeep(final Metadata metadata) {
+        if (metadata instanceof OverlayMetadata && ((OverlayMetadata) metadata).depth >= MAX_DEPTH) {
+            return CompactMetadata.decode(metadata.asJsonObject());
+        }
+        return metadata;
+    }
+
+    private JsonObject flatten() {
+        final JsonObject parentJson = parent.asJsonObject();
+        final JsonObjectBuilder builder = Json.createObjectBuilder();
+        parentJson.forEach((key, value) -> {
+            if (!isOverlaid(key)) {
+                builder.add(key, value);
+            }
+        });
+
+        if (id != null) {
+            builder.add(ID, id.toString())
+                    .add(NAME, name);
+        }
+
+        if (causedByParent) {
+            final JsonArrayBuilder causation = Json.createArrayBuilder();
+            if (causationPolicy.isDefault()) {
+                final JsonArray parentCausation = parentJson.getJsonArray(CAUSATION);
+                if (parentCausation != null) {
+                    parentCausation.forEach(causation::add);
+                }
+                causation.add(parent.id().toString());
+            } else {
+                causation().forEach(uuid -> causation.add(causationPolicy.encode(uuid)));
+            }
+            builder.add(CAUSATION, causation);
+        }
+
+        if (streamId != null) {
+            builder.add(STREAM, Json.createObjectBuilder()
+                    .add(STREAM_ID, streamId.toString())
+                    .add(VERSION, version));
+        }
+
+        return builder.build();
+    }
+
+    private boolean isOverlaid(final String key) {
+        return (id != null && (ID.equals(key) || NAME.equals(key)))
+                || (causedByParent && CAUSATION.equals(key))
+                || (streamId != null && STREAM.equals(key));
+    }
+}
@@ -0,0 +1,64 @@
+package uk.gov.justice.services.messaging;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.UUID;
+
+import javax.enterprise.inject.Vetoed;
+
+/**
+ * Generates random (version 4) UUIDs from a secure random generator of the calling thread, so that
+ * concurrent callers do not contend.
+ *
+ * The generator of each thread is seeded with 256 bits from the shared secure random generator
+ * when the thread first generates an id, so that its ids keep the 122 random bits of
+ * {@link UUID#randomUUID()} and cannot be predicted from earlier ids.
+ *
+ * Vetoed, so that it is not discovered as a bean of the same type as the {@link
+ * MetadataIdGenerator} produced for the deployment.
+ */
+@Vetoed
+final class RandomIdGenerator implements MetadataIdGenerator {
+
+    static final RandomIdGenerator INSTANCE = new RandomIdGenerator();
+
+    static final long VERSION_MASK = 0xF000L;
+    static final long VARIANT_MASK = 0xC000000000000000L;
+    static final long VARIANT = 0x8000000000000000L;
+
+    private static final String ALGORITHM = "SHA1PRNG";
+    private static final int SEED_BYTES = 32;
+    private static final SecureRandom SEED_GENERATOR = new SecureRandom();
+    private static final ThreadLocal<Random> THREAD_RANDOM = ThreadLocal.withInitial(RandomIdGenerator::newThreadRandom);
+
+    private RandomIdGenerator() {
+    }
+
+    @Override
+    public UUID nextId() {
+        final Random random = threadRandom();
+        final long mostSigBits = (random.nextLong() & ~VERSION_MASK) | 0x4000L;
+        final long leastSigBits = (random.nextLong() & ~VARIANT_MASK) | VARIANT;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * @return the secure random generator of the calling thread
+     */
+    static Random threadRandom() {
+        return THREAD_RANDOM.get();
+    }
+
+    private static Random newThreadRandom() {
+        try {
+            final byte[] seed = new byte[SEED_BYTES];
+            SEED_GENERATOR.nextBytes(seed);
+            final SecureRandom random = SecureRandom.getInstance(ALGORITHM);
+            random.setSeed(seed);
+            return random;
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No secure random generator of the metadata ids", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package uk.gov.justice.services.messaging;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.CAUSATION;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataCausedBy;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataOf;
+
+import java.util.List;
+import java.util.UUID;
+
+import javax.json.JsonArray;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link CausationPolicy} class.
+ */
+public class CausationPolicyTest {
+
+    private static final UUID ROOT = UUID.randomUUID();
+    private static final UUID FIRST = UUID.randomUUID();
+    private static final UUID SECOND = UUID.randomUUID();
+    private static final UUID PARENT = UUID.randomUUID();
+
+    private final Metadata parent = metadataOf(PARENT, "command.name")
+            .withCausation(ROOT, FIRST, SECOND)
+            .build();
+
+    @Test
+    public void shouldKeepEveryAncestorWhenUnbounded() {
+        final List<UUID> causation = ImmutableList.of(ROOT, FIRST, SECOND, PARENT);
+
+        assertThat(CausationPolicy.unbounded().apply(causation), sameInstance(causation));
+    }
+
+    @Test
+    public void shouldKeepRootAndMostRecentAncestors() {
+        final Metadata metadata = metadataCausedBy(parent, UUID.randomUUID(), "event.name", CausationPolicy.lastAncestors(2));
+
+        assertThat(metadata.causation(), equalTo(ImmutableList.of(ROOT, SECOND, PARENT)));
+        assertThat(metadataFrom(metadata.asJsonObject()).causation(), equalTo(ImmutableList.of(ROOT, SECOND, PARENT)));
+    }
+
+    @Test
+    public void shouldKeepOnlyRootWithNoAncestors() {
+        final Metadata metadata = metadataCausedBy(parent, UUID.randomUUID(), "event.name", CausationPolicy.lastAncestors(0));
+
+        assertThat(metadata.causation(), equalTo(ImmutableList.of(ROOT)));
+    }
+
+    @Test
+    public void shouldNotBoundShortCausation() {
+        final Metadata metadata = metadataCausedBy(parent, UUID.randomUUID(), "event.name", CausationPolicy.lastAncestors(3));
+
+        assertThat(metadata.causation(), equalTo(ImmutableList.of(ROOT, FIRST, SECOND, PARENT)));
+    }
+
+    @Test
+    public void shouldWriteAndReadCompactCausation() {
+        final Metadata metadata = metadataCausedBy(parent, UUID.randomUUID(), "event.name", CausationPolicy.unbounded().withCompactEncoding());
+
+        final JsonArray causation = metadata.asJsonObject().getJsonArray(CAUSATION);
+
+        assertThat(causation.getString(0).length(), equalTo(22));
+        assertThat(metadataFrom(metadata.asJsonObject()).causation(), equalTo(ImmutableList.of(ROOT, FIRST, SECOND, PARENT)));
+    }
+
+    @Test
+    public void shouldDecodeBothEncodings() {
+        final CausationPolicy compact = CausationPolicy.unbounded().withCompactEncoding();
+
+        assertThat(CausationPolicy.decode(compact.encode(ROOT)), equalTo(ROOT));
+        assertThat(CausationPolicy.decode(ROOT.toString()), equalTo(ROOT));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionOnNegativeMaximum() {
+        CausationPolicy.lastAncestors(-1);
+    }
+}
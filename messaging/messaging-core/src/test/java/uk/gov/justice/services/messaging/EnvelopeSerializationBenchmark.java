@@ -0,0 +1,77 @@
+package uk.gov.justice.services.messaging;
+
+import static javax.json.Json.createObjectBuilder;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataOf;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the serialization done for each appended event, which is written once as the metadata
+ * and payload columns of the event log and once as the JMS message that publishes it.
+ *
+ * Run from the IDE, or with the JMH runner on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EnvelopeSerializationBenchmark {
+
+    private final JsonEnvelopeWriter writer = new JsonEnvelopeWriter();
+
+    private Metadata metadata;
+    private JsonObject payload;
+
+    @Setup
+    public void setup() {
+        metadata = metadataOf(UUID.randomUUID(), "people.events.person-added")
+                .withCausation(UUID.randomUUID())
+                .withStreamId(UUID.randomUUID())
+                .withVersion(1L)
+                .build();
+        payload = createObjectBuilder()
+                .add("personId", UUID.randomUUID().toString())
+                .add("firstName", "Alan")
+                .add("lastName", "Turing")
+                .add("address", createObjectBuilder()
+                        .add("line1", "Bletchley Park")
+                        .add("postcode", "MK3 6EB"))
+                .build();
+    }
+
+    @Benchmark
+    public void storeAndPublishSerializingEachTime(final Blackhole blackhole) {
+        final JsonEnvelope event = envelopeFrom(metadata, payload);
+
+        blackhole.consume(event.metadata().asJsonObject().toString());
+        blackhole.consume(event.payloadAsJsonObject().toString());
+        blackhole.consume(new JsonObjectEnvelopeConverter().fromEnvelope(event).toString());
+    }
+
+    @Benchmark
+    public void storeAndPublishSerializingOnce(final Blackhole blackhole) {
+        final JsonEnvelope event = envelopeFrom(metadata, payload);
+
+        blackhole.consume(writer.metadataAsJsonString(event));
+        blackhole.consume(writer.payloadAsJsonString(event));
+        blackhole.consume(writer.asJsonString(event));
+    }
+}
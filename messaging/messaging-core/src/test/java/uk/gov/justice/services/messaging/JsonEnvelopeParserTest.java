@@ -0,0 +1,75 @@
+package uk.gov.justice.services.messaging;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.NAME;
+
+import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
+
+import java.util.UUID;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link JsonEnvelopeParser} class.
+ */
+public class JsonEnvelopeParserTest {
+
+    private static final String ENVELOPE_JSON = "{" +
+            "\"_metadata\": {" +
+            "\"id\": \"861c9430-7bc6-4bf0-b549-6534394b8d65\"," +
+            "\"name\": \"test.command.do-something\"," +
+            "\"causation\": [\"49ef76bc-df4f-4b91-8ca7-21972c30ee4c\"]," +
+            "\"stream\": {\"id\": \"f29e0415-3a3b-48d8-b301-d34faa58662a\", \"version\": 3}" +
+            "}," +
+            "\"someField\": \"value\"," +
+            "\"count\": 12345678901234," +
+            "\"amount\": 12.50," +
+            "\"active\": true," +
+            "\"deleted\": false," +
+            "\"missing\": null," +
+            "\"nested\": {\"items\": [1, \"two\", {\"three\": 3}, [4], null, true]}" +
+            "}";
+
+    private final JsonEnvelopeParser parser = new JsonEnvelopeParser();
+
+    @Test
+    public void shouldParseEnvelopeEqualToEnvelopeConvertedFromJsonObject() {
+        final JsonEnvelope expected = new JsonObjectEnvelopeConverter()
+                .asEnvelope(new StringToJsonObjectConverter().convert(ENVELOPE_JSON));
+
+        final JsonEnvelope envelope = parser.asEnvelope(ENVELOPE_JSON);
+
+        assertThat(envelope.metadata(), is(expected.metadata()));
+        assertThat(envelope.payloadAsJsonObject(), is(expected.payloadAsJsonObject()));
+        assertThat(envelope.payloadAsJsonObject().containsKey(JsonEnvelope.METADATA), is(false));
+    }
+
+    @Test
+    public void shouldUseSuppliedMetadataIfMissing() {
+        final UUID id = UUID.randomUUID();
+        final JsonObject metadata = Json.createObjectBuilder()
+                .add(ID, id.toString())
+                .add(NAME, "test.query.response")
+                .build();
+
+        final JsonEnvelope envelope = parser.asEnvelope("{\"someField\": \"value\"}", () -> metadata);
+
+        assertThat(envelope.metadata().id(), is(id));
+        assertThat(envelope.payloadAsJsonObject().getString("someField"), is("value"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionIfMetadataIsMissing() {
+        parser.asEnvelope("{\"someField\": \"value\"}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionIfMetadataIsInvalid() {
+        parser.asEnvelope("{\"_metadata\": {\"name\": \"test.command.do-something\"}}");
+    }
+}
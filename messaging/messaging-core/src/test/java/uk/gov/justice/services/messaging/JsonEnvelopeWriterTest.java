@@ -0,0 +1,155 @@
+package uk.gov.justice.services.messaging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.json.Json.createArrayBuilder;
+import static javax.json.Json.createObjectBuilder;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.skyscreamer.jsonassert.JSONAssert.assertEquals;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelope;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithDefaults;
+
+import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+
+import com.google.common.io.Resources;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link JsonEnvelopeWriter} class.
+ */
+public class JsonEnvelopeWriterTest {
+
+    private final JsonEnvelopeWriter writer = new JsonEnvelopeWriter();
+
+    @Test
+    public void shouldWriteEnvelopeAsJsonString() throws Exception {
+        assertEquals(jsonFromFile("envelope"), writer.asJsonString(envelopeFromFile("envelope")), true);
+    }
+
+    @Test
+    public void shouldWriteNullFields() throws Exception {
+        assertEquals(jsonFromFile("envelope-with-null"), writer.asJsonString(envelopeFromFile("envelope-with-null")), true);
+    }
+
+    @Test
+    public void shouldWriteNestedNullFieldsAndNullArrayElements() throws Exception {
+        final JsonEnvelope envelope = envelopeFrom(metadataWithDefaults(), createObjectBuilder()
+                .add("nested", createObjectBuilder()
+                        .addNull("missing")
+                        .add("present", 1))
+                .add("items", createArrayBuilder()
+                        .addNull()
+                        .add(createObjectBuilder().addNull("missing").add("flag", true)))
+                .build());
+
+        assertEquals("{\"nested\":{\"missing\":null,\"present\":1},\"items\":[null,{\"missing\":null,\"flag\":true}]}", writer.payloadAsJsonString(envelope), true);
+    }
+
+    @Test
+    public void shouldLeaveOutNullFields() throws Exception {
+        assertEquals(jsonFromFile("envelope-with-field-not-present"), writer.asJsonStringWithoutNulls(envelopeFromFile("envelope-with-null")), true);
+    }
+
+    @Test
+    public void shouldLeaveOutNestedNullFieldsButKeepNullArrayElements() throws Exception {
+        final JsonEnvelope envelope = envelopeFrom(metadataWithDefaults(), createObjectBuilder()
+                .add("nested", createObjectBuilder()
+                        .addNull("missing")
+                        .add("present", 1))
+                .add("items", createArrayBuilder()
+                        .addNull()
+                        .add(createObjectBuilder().addNull("missing").add("flag", true)))
+                .build());
+
+        final String json = writer.asJsonStringWithoutNulls(envelope);
+
+        assertThat(json.contains("missing"), is(false));
+        assertEquals("{\"nested\":{\"present\":1},\"items\":[null,{\"flag\":true}]}", json, false);
+    }
+
+    @Test
+    public void shouldLeaveOutNullFieldsOfEnvelopeAlreadyWrittenWithNulls() throws Exception {
+        final JsonEnvelope envelope = envelopeFromFile("envelope-with-null");
+
+        writer.asJsonString(envelope);
+
+        assertEquals(jsonFromFile("envelope-with-field-not-present"), writer.asJsonStringWithoutNulls(envelope), true);
+    }
+
+    @Test
+    public void shouldReuseSerializedFormOfEnvelopeWithoutNulls() throws Exception {
+        final JsonEnvelope envelope = envelopeFromFile("envelope");
+
+        final String json = writer.asJsonString(envelope);
+
+        assertThat(writer.asJsonStringWithoutNulls(envelope), is(json));
+    }
+
+    @Test
+    public void shouldWriteSameJsonToWriterAndStream() throws Exception {
+        final JsonEnvelope envelope = envelopeFromFile("envelope");
+        final StringWriter stringWriter = new StringWriter();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        writer.write(envelope, stringWriter);
+        writer.write(envelope, outputStream);
+
+        assertEquals(jsonFromFile("envelope"), stringWriter.toString(), true);
+        assertEquals(jsonFromFile("envelope"), new String(outputStream.toByteArray(), UTF_8), true);
+    }
+
+    @Test
+    public void shouldReuseBufferBetweenWrites() throws Exception {
+        final JsonEnvelope envelope = envelopeFromFile("envelope");
+
+        writer.asJsonString(envelope);
+
+        assertEquals(jsonFromFile("envelope"), writer.asJsonString(envelope), true);
+    }
+
+    @Test
+    public void shouldReuseSerializedFormOfEnvelope() throws Exception {
+        final JsonEnvelope envelope = envelopeFromFile("envelope");
+
+        final String payloadJson = writer.payloadAsJsonString(envelope);
+        final String metadataJson = writer.metadataAsJsonString(envelope);
+
+        assertThat(writer.payloadAsJsonString(envelope), sameInstance(payloadJson));
+        assertThat(writer.metadataAsJsonString(envelope), sameInstance(metadataJson));
+        assertEquals(jsonFromFile("envelope"), writer.asJsonString(envelope), true);
+    }
+
+    @Test
+    public void shouldWriteEnvelopeWithEmptyPayload() throws Exception {
+        final JsonEnvelope envelope = envelopeFrom(metadataWithDefaults(), createObjectBuilder().build());
+
+        final String json = writer.asJsonString(envelope);
+
+        assertEquals(new JsonObjectEnvelopeConverter().fromEnvelope(envelope).toString(), json, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionOnArrayPayloadType() {
+        writer.asJsonString(envelopeFrom(metadataWithDefaults(), createArrayBuilder().add("item").build()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenProvidedEnvelopeWithoutMetadata() {
+        writer.asJsonString(envelope().build());
+    }
+
+    private JsonEnvelope envelopeFromFile(final String name) throws IOException {
+        return new JsonObjectEnvelopeConverter().asEnvelope(new StringToJsonObjectConverter().convert(jsonFromFile(name)));
+    }
+
+    private String jsonFromFile(final String name) throws IOException {
+        return Resources.toString(Resources.getResource(String.format("json/%s.json", name)), Charset.defaultCharset());
+    }
+}
@@ -0,0 +1,90 @@
+package uk.gov.justice.services.messaging;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static uk.gov.justice.services.messaging.JsonFieldPath.path;
+
+import java.util.UUID;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link JsonFieldPath} class.
+ */
+public class JsonFieldPathTest {
+
+    private static final JsonFieldPath STREAM_ID = path("stream", "id");
+    private static final JsonFieldPath STREAM_VERSION = path("stream", "version");
+    private static final JsonFieldPath NAME = path("name");
+
+    private final UUID streamId = UUID.randomUUID();
+
+    private final JsonObject object = Json.createObjectBuilder()
+            .add("name", "test.event")
+            .add("stream", Json.createObjectBuilder()
+                    .add("id", streamId.toString())
+                    .add("version", 5L))
+            .add("context", JsonValue.NULL)
+            .build();
+
+    @Test
+    public void shouldResolveNestedValues() {
+        assertThat(STREAM_ID.stringIn(object), is(streamId.toString()));
+        assertThat(STREAM_VERSION.jsonNumberIn(object).longValue(), is(5L));
+        assertThat(NAME.stringIn(object), is("test.event"));
+        assertThat(path("stream").jsonObjectIn(object), equalTo(object.getJsonObject("stream")));
+    }
+
+    @Test
+    public void shouldResolveMissingOrNullFieldsToNull() {
+        assertThat(path("missing", "id").valueIn(object), nullValue());
+        assertThat(path("context", "user").valueIn(object), nullValue());
+        assertThat(path("stream", "missing").stringIn(object), nullValue());
+        assertThat(path("context").valueIn(object), nullValue());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldThrowExceptionIfValueIsNotOfExpectedType() {
+        STREAM_VERSION.stringIn(object);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldThrowExceptionIfFieldOnPathIsNotAnObject() {
+        path("name", "id").valueIn(object);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreateEmptyPath() {
+        path();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreatePathWithEmptyName() {
+        path("stream", "");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionForNullObject() {
+        NAME.valueIn(null);
+    }
+
+    @Test
+    public void shouldReadThroughJsonObjectsOverloads() {
+        assertThat(JsonObjects.getUUID(object, STREAM_ID).get(), is(streamId));
+        assertThat(JsonObjects.getLong(object, STREAM_VERSION).get(), is(5L));
+        assertThat(JsonObjects.getString(object, path("context", "user")).isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldBeEqualForSameNames() {
+        assertThat(path("stream", "id"), equalTo(STREAM_ID));
+        assertThat(path("stream", "id").hashCode(), equalTo(STREAM_ID.hashCode()));
+        assertThat(STREAM_ID.toString(), is("stream.id"));
+    }
+}
@@ -3,6 +3,7 @@ package uk.gov.justice.services.messaging;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataFrom;
 import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataOf;
 
 import java.util.UUID;
@@ -81,6 +82,33 @@ public class JsonObjectMetadataBuilderTest {
 
     }
 
+    @Test
+    public void shouldBuildJsonObjectEqualToMetadataReadFromJson() {
+        final Metadata metadata = metadataWithDefaults()
+                .withCausation(UUID.randomUUID())
+                .withClientCorrelationId("d51597dc-2526-4c71-bd08-5031c79f11e1")
+                .withUserId("userId")
+                .withSessionId("sessionId")
+                .withStreamId(UUID.randomUUID())
+                .withVersion(5L)
+                .build();
+
+        final Metadata metadataFromJson = metadataFrom(metadata.asJsonObject());
+
+        assertThat(metadataFromJson, is(metadata));
+        assertThat(metadataFromJson.causation(), is(metadata.causation()));
+        assertThat(metadataFromJson.clientCorrelationId(), is(metadata.clientCorrelationId()));
+        assertThat(metadataFromJson.userId(), is(metadata.userId()));
+        assertThat(metadataFromJson.sessionId(), is(metadata.sessionId()));
+        assertThat(metadataFromJson.streamId(), is(metadata.streamId()));
+        assertThat(metadataFromJson.version(), is(metadata.version()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionIfNameIsEmpty() {
+        metadataOf(UUID.randomUUID(), "").build();
+    }
+
     private JsonObjectMetadata.Builder metadataWithDefaults() {
         return metadataOf(UUID.randomUUID(), "defaultName");
     }
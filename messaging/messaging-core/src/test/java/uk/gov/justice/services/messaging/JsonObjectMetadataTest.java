@@ -184,6 +184,33 @@ public class JsonObjectMetadataTest {
         );
     }
 
+    @Test
+    public void shouldReturnEmptyOptionalFieldsIfAbsent() throws Exception {
+        final Metadata metadata = metadataFrom(Json.createObjectBuilder()
+                .add(ID, UUID_ID)
+                .add(NAME, MESSAGE_NAME)
+                .build());
+
+        assertThat(metadata.clientCorrelationId().isPresent(), is(false));
+        assertThat(metadata.causation().isEmpty(), is(true));
+        assertThat(metadata.userId().isPresent(), is(false));
+        assertThat(metadata.sessionId().isPresent(), is(false));
+        assertThat(metadata.streamId().isPresent(), is(false));
+        assertThat(metadata.version().isPresent(), is(false));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldThrowExceptionOnAccessIfStreamIdIsNotUUID() throws Exception {
+        final Metadata metadata = metadataFrom(Json.createObjectBuilder()
+                .add(ID, UUID_ID)
+                .add(NAME, MESSAGE_NAME)
+                .add(STREAM, Json.createObjectBuilder()
+                        .add(STREAM_ID, "blah"))
+                .build());
+
+        metadata.streamId();
+    }
+
     @SuppressWarnings({"squid:MethodCyclomaticComplexity", "squid:S1067", "squid:S00122"})
     @Test
     public void shouldTestEqualsAndHashCode() {
@@ -212,6 +239,25 @@ public class JsonObjectMetadataTest {
                 .testEquals();
     }
 
+    @Test
+    public void shouldBeEqualToBuiltAndDerivedMetadataWithTheSameJson() throws Exception {
+        final Metadata built = JsonObjectMetadata.metadataOf(UUID.fromString(UUID_ID), MESSAGE_NAME)
+                .withClientCorrelationId(UUID_CLIENT_CORRELATION)
+                .withCausation(UUID.fromString(UUID_CAUSATION))
+                .withUserId(UUID_USER_ID)
+                .withSessionId(UUID_SESSION_ID)
+                .withStreamId(UUID.fromString(UUID_STREAM_ID))
+                .withVersion(STREAM_VERSION)
+                .build();
+        final Metadata derived = JsonObjectMetadata.metadataWithStream(metadata, UUID.fromString(UUID_STREAM_ID), STREAM_VERSION);
+
+        assertThat(metadata instanceof JsonObjectMetadata, is(true));
+        assertThat(derived instanceof JsonObjectMetadata, is(true));
+        new EqualsTester()
+                .addEqualityGroup(metadata, built, derived)
+                .testEquals();
+    }
+
     private Metadata metadata(String id, String uuidClientCorrelation, String uuidCausation, String uuidUserId,
                               String uuidSessionId, String uuidStreamId, String messageName, Long streamVersion) {
         return metadataFrom(Json.createObjectBuilder()
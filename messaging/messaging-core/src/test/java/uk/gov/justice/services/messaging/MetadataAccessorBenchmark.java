@@ -0,0 +1,86 @@
+package uk.gov.justice.services.messaging;
+
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.CAUSATION;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.NAME;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.STREAM_ID_PATH;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.USER_ID_PATH;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.VERSION_PATH;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataOf;
+import static uk.gov.justice.services.messaging.JsonObjects.getLong;
+import static uk.gov.justice.services.messaging.JsonObjects.getString;
+import static uk.gov.justice.services.messaging.JsonObjects.getUUID;
+import static uk.gov.justice.services.messaging.JsonObjects.getUUIDs;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares reading the well-known metadata fields by walking the metadata JSON, as every accessor
+ * call used to, with the accessors of the decoded {@link Metadata}.
+ *
+ * Run from the IDE, or with the JMH runner on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MetadataAccessorBenchmark {
+
+    private JsonObject jsonObject;
+    private Metadata metadata;
+
+    @Setup
+    public void setup() {
+        jsonObject = metadataOf(UUID.randomUUID(), "people.events.person-added")
+                .withCausation(UUID.randomUUID(), UUID.randomUUID())
+                .withUserId(UUID.randomUUID().toString())
+                .withStreamId(UUID.randomUUID())
+                .withVersion(42L)
+                .build()
+                .asJsonObject();
+        metadata = metadataFrom(jsonObject);
+    }
+
+    @Benchmark
+    public void readFieldsFromJson(final Blackhole blackhole) {
+        blackhole.consume(UUID.fromString(jsonObject.getString(ID)));
+        blackhole.consume(jsonObject.getString(NAME));
+        blackhole.consume(getUUID(jsonObject, STREAM_ID_PATH));
+        blackhole.consume(getLong(jsonObject, VERSION_PATH));
+        blackhole.consume(getString(jsonObject, USER_ID_PATH));
+        blackhole.consume(getUUIDs(jsonObject, CAUSATION));
+    }
+
+    @Benchmark
+    public void readFieldsFromMetadata(final Blackhole blackhole) {
+        blackhole.consume(metadata.id());
+        blackhole.consume(metadata.name());
+        blackhole.consume(metadata.streamId());
+        blackhole.consume(metadata.version());
+        blackhole.consume(metadata.userId());
+        blackhole.consume(metadata.causation());
+    }
+
+    @Benchmark
+    public Metadata decodeMetadata() {
+        return metadataFrom(jsonObject);
+    }
+}
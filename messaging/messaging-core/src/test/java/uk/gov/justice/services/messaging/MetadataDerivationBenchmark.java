@@ -0,0 +1,93 @@
+package uk.gov.justice.services.messaging;
+
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.CAUSATION;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.NAME;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.STREAM;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.STREAM_ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.VERSION;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataCausedBy;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataOf;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithStream;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares deriving the metadata of an appended event from the command metadata by rebuilding the
+ * metadata JSON at each step, as the Enveloper and EventStreamManager used to, with overlaying the
+ * changed fields.
+ *
+ * Run from the IDE, or with the JMH runner on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MetadataDerivationBenchmark {
+
+    private static final String EVENT_NAME = "people.events.person-added";
+
+    private Metadata command;
+    private UUID streamId;
+
+    @Setup
+    public void setup() {
+        command = metadataOf(UUID.randomUUID(), "people.add-person")
+                .withCausation(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID())
+                .withClientCorrelationId(UUID.randomUUID().toString())
+                .withUserId(UUID.randomUUID().toString())
+                .withSessionId(UUID.randomUUID().toString())
+                .build();
+        streamId = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public Metadata rebuildJson() {
+        final JsonArrayBuilder causation = Json.createArrayBuilder();
+        command.asJsonObject().getJsonArray(CAUSATION).forEach(causation::add);
+        causation.add(command.id().toString());
+
+        final Metadata event = metadataFrom(JsonObjects.createObjectBuilderWithFilter(command.asJsonObject(),
+                x -> !ID.equals(x) && !NAME.equals(x) && !CAUSATION.equals(x))
+                .add(ID, UUID.randomUUID().toString())
+                .add(NAME, EVENT_NAME)
+                .add(CAUSATION, causation)
+                .build());
+
+        final JsonObject withStream = JsonObjects.createObjectBuilderWithFilter(event.asJsonObject(), x -> !STREAM.equals(x))
+                .add(STREAM, Json.createObjectBuilder()
+                        .add(STREAM_ID, streamId.toString())
+                        .add(VERSION, 1L))
+                .build();
+        return metadataFrom(withStream);
+    }
+
+    @Benchmark
+    public Metadata overlay() {
+        return metadataWithStream(metadataCausedBy(command, UUID.randomUUID(), EVENT_NAME), streamId, 1L);
+    }
+
+    @Benchmark
+    public JsonObject overlayAndFlatten() {
+        return overlay().asJsonObject();
+    }
+}
@@ -0,0 +1,51 @@
+package uk.gov.justice.services.messaging;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares generating metadata ids from the shared secure random generator, as
+ * <code>UUID.randomUUID</code> does, with the random and time ordered generators that use a random
+ * generator per thread, with every available thread generating ids at once.
+ *
+ * Run from the IDE, or with the JMH runner on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Threads(Threads.MAX)
+@Fork(1)
+public class MetadataIdGeneratorBenchmark {
+
+    private final MetadataIdGenerator secureRandom = MetadataIdGenerator.secureRandom();
+    private final MetadataIdGenerator random = MetadataIdGenerator.random();
+    private final MetadataIdGenerator timeOrdered = MetadataIdGenerator.timeOrdered();
+
+    @Benchmark
+    public UUID secureRandom() {
+        return secureRandom.nextId();
+    }
+
+    @Benchmark
+    public UUID random() {
+        return random.nextId();
+    }
+
+    @Benchmark
+    public UUID timeOrdered() {
+        return timeOrdered.nextId();
+    }
+}
@@ -0,0 +1,65 @@
+package uk.gov.justice.services.messaging;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class MetadataIdGeneratorTest {
+
+    private static final int IETF_VARIANT = 2;
+
+    @Test
+    public void shouldGenerateRandomIds() throws Exception {
+        final UUID id = MetadataIdGenerator.random().nextId();
+
+        assertThat(id.version(), is(4));
+        assertThat(id.variant(), is(IETF_VARIANT));
+    }
+
+    @Test
+    public void shouldGenerateTimeOrderedIds() throws Exception {
+        final UUID id = MetadataIdGenerator.timeOrdered().nextId();
+
+        assertThat(id.version(), is(7));
+        assertThat(id.variant(), is(IETF_VARIANT));
+    }
+
+    @Test
+    public void shouldStartTimeOrderedIdsWithTheTimeInMilliseconds() throws Exception {
+        final long epochMillis = 1469700000000L;
+
+        final UUID id = TimeOrderedIdGenerator.INSTANCE.nextId(epochMillis);
+
+        assertThat(id.getMostSignificantBits() >>> 16, is(epochMillis));
+    }
+
+    @Test
+    public void shouldOrderTimeOrderedIdsByTheirTime() throws Exception {
+        final UUID earlier = TimeOrderedIdGenerator.INSTANCE.nextId(1469700000000L);
+        final UUID later = TimeOrderedIdGenerator.INSTANCE.nextId(1469700000001L);
+
+        assertThat(earlier.compareTo(later), is(lessThan(0)));
+        assertThat(later.toString().compareTo(earlier.toString()), is(greaterThan(0)));
+    }
+
+    @Test
+    public void shouldGenerateDistinctIds() throws Exception {
+        final Set<UUID> randomIds = new HashSet<>();
+        final Set<UUID> timeOrderedIds = new HashSet<>();
+
+        for (int i = 0; i < 10000; i++) {
+            randomIds.add(MetadataIdGenerator.random().nextId());
+            timeOrderedIds.add(MetadataIdGenerator.timeOrdered().nextId());
+        }
+
+        assertThat(randomIds.size(), is(10000));
+        assertThat(timeOrderedIds.size(), is(10000));
+    }
+}
@@ -0,0 +1,135 @@
+package uk.gov.justice.services.messaging;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.CAUSATION;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.NAME;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.STREAM;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.STREAM_ID;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.VERSION;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataCausedBy;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataOf;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.json.JsonObject;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.EqualsTester;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link OverlayMetadata} class.
+ */
+public class OverlayMetadataTest {
+
+    private static final UUID PARENT_ID = UUID.randomUUID();
+    private static final UUID CHILD_ID = UUID.randomUUID();
+    private static final UUID OLD_CAUSATION = UUID.randomUUID();
+    private static final UUID STREAM_UUID = UUID.randomUUID();
+
+    private final Metadata parent = metadataOf(PARENT_ID, "command.name")
+            .withCausation(OLD_CAUSATION)
+            .withUserId("user")
+            .withSessionId("session")
+            .withClientCorrelationId("client")
+            .build();
+
+    @Test
+    public void shouldOverlayIdAndNameAndAppendParentToCausation() {
+        final Metadata metadata = metadataCausedBy(parent, CHILD_ID, "event.name");
+
+        assertThat(metadata.id(), equalTo(CHILD_ID));
+        assertThat(metadata.name(), equalTo("event.name"));
+        assertThat(metadata.causation(), equalTo(ImmutableList.of(OLD_CAUSATION, PARENT_ID)));
+        assertThat(metadata.userId().get(), equalTo("user"));
+        assertThat(metadata.sessionId().get(), equalTo("session"));
+        assertThat(metadata.clientCorrelationId().get(), equalTo("client"));
+        assertThat(metadata.streamId().isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldOverlayStreamPosition() {
+        final Metadata metadata = metadataWithStream(metadataCausedBy(parent, CHILD_ID, "event.name"), STREAM_UUID, 3L);
+
+        assertThat(metadata.id(), equalTo(CHILD_ID));
+        assertThat(metadata.streamId().get(), equalTo(STREAM_UUID));
+        assertThat(metadata.version().get(), equalTo(3L));
+        assertThat(metadata.causation(), equalTo(ImmutableList.of(OLD_CAUSATION, PARENT_ID)));
+    }
+
+    @Test
+    public void shouldReplaceExistingStreamPosition() {
+        final Metadata positioned = metadataWithStream(parent, UUID.randomUUID(), 1L);
+
+        final Metadata metadata = metadataWithStream(positioned, STREAM_UUID, 2L);
+
+        assertThat(metadata.streamId().get(), equalTo(STREAM_UUID));
+        assertThat(metadata.version().get(), equalTo(2L));
+        assertThat(metadata.asJsonObject().getJsonObject(STREAM).size(), equalTo(2));
+    }
+
+    @Test
+    public void shouldFlattenOntoParentJsonKeepingUnknownFields() {
+        final Metadata parentWithExtraField = metadataFrom(JsonObjects.createObjectBuilder(parent.asJsonObject())
+                .add("custom", "value")
+                .build());
+
+        final JsonObject jsonObject = metadataWithStream(metadataCausedBy(parentWithExtraField, CHILD_ID, "event.name"), STREAM_UUID, 5L)
+                .asJsonObject();
+
+        assertThat(jsonObject.getString(ID), equalTo(CHILD_ID.toString()));
+        assertThat(jsonObject.getString(NAME), equalTo("event.name"));
+        assertThat(jsonObject.getString("custom"), equalTo("value"));
+        assertThat(jsonObject.getJsonArray(CAUSATION).getString(0), equalTo(OLD_CAUSATION.toString()));
+        assertThat(jsonObject.getJsonArray(CAUSATION).getString(1), equalTo(PARENT_ID.toString()));
+        assertThat(jsonObject.getJsonObject(STREAM).getString(STREAM_ID), equalTo(STREAM_UUID.toString()));
+        assertThat(jsonObject.getJsonObject(STREAM).getJsonNumber(VERSION).longValue(), equalTo(5L));
+    }
+
+    @Test
+    public void shouldFlattenChainsOfCausedMessagesPastTheMaximumDepth() {
+        final List<UUID> expectedCausation = new ArrayList<>(ImmutableList.of(OLD_CAUSATION));
+        Metadata metadata = parent;
+        for (int i = 0; i < 3 * OverlayMetadata.MAX_DEPTH; i++) {
+            expectedCausation.add(metadata.id());
+            metadata = metadataCausedBy(metadata, UUID.randomUUID(), "event.name");
+
+            assertThat(((OverlayMetadata) metadata).depth() <= OverlayMetadata.MAX_DEPTH, is(true));
+        }
+
+        assertThat(metadata.causation(), equalTo(expectedCausation));
+        assertThat(metadata.userId().get(), equalTo("user"));
+        assertThat(metadata.clientCorrelationId().get(), equalTo("client"));
+    }
+
+    @Test
+    public void shouldFlattenOnlyOnce() {
+        final Metadata metadata = metadataCausedBy(parent, CHILD_ID, "event.name");
+
+        assertThat(metadata.asJsonObject(), sameInstance(metadata.asJsonObject()));
+    }
+
+    @Test
+    public void shouldEqualDecodedMetadataWithSameJson() {
+        final Metadata overlay = metadataCausedBy(parent, CHILD_ID, "event.name");
+        final Metadata decoded = metadataFrom(overlay.asJsonObject());
+
+        new EqualsTester()
+                .addEqualityGroup(overlay, decoded)
+                .addEqualityGroup(metadataCausedBy(parent, UUID.randomUUID(), "event.name"))
+                .testEquals();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionOnEmptyName() {
+        metadataCausedBy(parent, CHILD_ID, "");
+    }
+}
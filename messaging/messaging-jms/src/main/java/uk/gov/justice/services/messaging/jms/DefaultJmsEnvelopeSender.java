@@ -7,15 +7,22 @@ import static uk.gov.justice.services.messaging.logging.LoggerUtils.trace;
 
 import uk.gov.justice.services.messaging.JsonEnvelope;
 import uk.gov.justice.services.messaging.jms.exception.JmsEnvelopeSenderException;
+import uk.gov.justice.services.messaging.jms.transport.EnvelopeTransport;
+
+import java.util.Optional;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Resource;
+import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.MessageProducer;
+import javax.jms.Queue;
 import javax.jms.Session;
+import javax.jms.Topic;
 import javax.naming.Context;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
@@ -26,6 +33,9 @@ import org.slf4j.LoggerFactory;
 /**
  * An envelope producer that sends or publishes an envelope to a queue or topic respectively
  * depending on the destination type.
+ *
+ * If an {@link EnvelopeTransport} handles the destination, the envelope is sent through that
+ * transport instead of JMS.
  */
 public class DefaultJmsEnvelopeSender implements JmsEnvelopeSender {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultJmsEnvelopeSender.class);
@@ -36,19 +46,31 @@ public class DefaultJmsEnvelopeSender implements JmsEnvelopeSender {
     @Inject
     EnvelopeConverter envelopeConverter;
 
+    @Inject
+    Instance<EnvelopeTransport> envelopeTransports;
+
     Context namingContext = new InitialContext();
 
     public DefaultJmsEnvelopeSender() throws NamingException {
     }
 
     /**
-     * Sends envelope to the destination via JMS.
+     * Sends envelope to the destination via JMS, or via the transport that handles the destination.
      *
      * @param envelope    envelope to be sent.
      * @param destination JMS destination for the envelope.
      */
     @Override
     public void send(final JsonEnvelope envelope, final Destination destination) {
+        if (!envelopeTransports.isUnsatisfied()) {
+            final String destinationName = destinationNameOf(destination);
+            final Optional<EnvelopeTransport> envelopeTransport = envelopeTransportFor(destinationName);
+            if (envelopeTransport.isPresent()) {
+                envelopeTransport.get().send(envelope, destinationName);
+                return;
+            }
+        }
+
         trace(LOGGER, () -> format("Sending JMS message: %s to %s", toEnvelopeTraceString(envelope),
                 destination.toString()));
         try (Connection connection = connectionFactory.createConnection();
@@ -65,13 +87,19 @@ public class DefaultJmsEnvelopeSender implements JmsEnvelopeSender {
     }
 
     /**
-     * Sends envelope to the destination via JMS.
+     * Sends envelope to the destination via JMS, or via the transport that handles the destination.
      *
      * @param envelope    envelope to be sent.
      * @param destinationName JNDI name of the JMS destination.
      */
     @Override
     public void send(final JsonEnvelope envelope, final String destinationName) {
+        final Optional<EnvelopeTransport> envelopeTransport = envelopeTransportFor(destinationName);
+        if (envelopeTransport.isPresent()) {
+            envelopeTransport.get().send(envelope, destinationName);
+            return;
+        }
+
         try {
             final Destination destination = (Destination) namingContext.lookup(destinationName);
             send(envelope, destination);
@@ -79,4 +107,27 @@ public class DefaultJmsEnvelopeSender implements JmsEnvelopeSender {
             throw new JmsEnvelopeSenderException(format("Exception while looking up JMS destination name %s", destinationName), e);
         }
     }
-}
\ No newline at end of file
+
+    private Optional<EnvelopeTransport> envelopeTransportFor(final String destinationName) {
+        if (envelopeTransports.isUnsatisfied()) {
+            return Optional.empty();
+        }
+        return StreamSupport.stream(envelopeTransports.spliterator(), false)
+                .filter(envelopeTransport -> envelopeTransport.handles(destinationName))
+                .findFirst();
+    }
+
+    private String destinationNameOf(final Destination destination) {
+        try {
+            if (destination instanceof Queue) {
+                return ((Queue) destination).getQueueName();
+            }
+            if (destination instanceof Topic) {
+                return ((Topic) destination).getTopicName();
+            }
+            return destination.toString();
+        } catch (JMSException e) {
+            throw new JmsEnvelopeSenderException(format("Exception while reading name of JMS destination %s", destination), e);
+        }
+    }
+}
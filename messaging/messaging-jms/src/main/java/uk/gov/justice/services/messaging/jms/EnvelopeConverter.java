@@ -1,12 +1,16 @@
 package uk.gov.justice.services.messaging.jms;
 
 import static uk.gov.justice.services.messaging.jms.HeaderConstants.JMS_HEADER_CPPNAME;
+import static uk.gov.justice.services.messaging.jms.HeaderConstants.JMS_HEADER_GROUP_ID;
 
-import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
 import uk.gov.justice.services.messaging.JsonEnvelope;
-import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+import uk.gov.justice.services.messaging.JsonEnvelopeParser;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
 import uk.gov.justice.services.messaging.jms.exception.JmsConverterException;
 
+import java.util.Optional;
+import java.util.UUID;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.jms.JMSException;
@@ -20,10 +24,10 @@ import javax.jms.TextMessage;
 public class EnvelopeConverter implements MessageConverter<JsonEnvelope, TextMessage> {
 
     @Inject
-    StringToJsonObjectConverter stringToJsonObjectConverter;
+    JsonEnvelopeParser jsonEnvelopeParser;
 
     @Inject
-    JsonObjectEnvelopeConverter jsonObjectEnvelopeConverter;
+    JsonEnvelopeWriter jsonEnvelopeWriter;
 
     @Override
     public JsonEnvelope fromMessage(final TextMessage message) {
@@ -31,19 +35,34 @@ public class EnvelopeConverter implements MessageConverter<JsonEnvelope, TextMes
 
         try {
             messageAsString = message.getText();
-            return jsonObjectEnvelopeConverter.asEnvelope(stringToJsonObjectConverter.convert(messageAsString));
+            return jsonEnvelopeParser.asEnvelope(messageAsString);
         } catch (JMSException e) {
             throw createJmsConverterException(message, e);
         }
     }
 
+    /**
+     * Converts the envelope to a text message. If the envelope belongs to a stream, the stream id
+     * is set as the JMS message group so that consumers running with multiple sessions still
+     * receive the events of any one stream in order.
+     *
+     * @param envelope the envelope to convert
+     * @param session  used to create the message
+     * @return the text message
+     */
     @Override
     public TextMessage toMessage(final JsonEnvelope envelope, final Session session) {
-        final String envelopeAsString = jsonObjectEnvelopeConverter.asJsonString(envelope);
+        final String envelopeAsString = jsonEnvelopeWriter.asJsonStringWithoutNulls(envelope);
 
         try {
             final TextMessage textMessage = session.createTextMessage(envelopeAsString);
             textMessage.setStringProperty(JMS_HEADER_CPPNAME, envelope.metadata().name());
+
+            final Optional<UUID> streamId = envelope.metadata().streamId();
+            if (streamId.isPresent()) {
+                textMessage.setStringProperty(JMS_HEADER_GROUP_ID, streamId.get().toString());
+            }
+
             return textMessage;
         } catch (JMSException e) {
             throw new JmsConverterException(String.format("Exception while creating message from envelope %s", envelopeAsString), e);
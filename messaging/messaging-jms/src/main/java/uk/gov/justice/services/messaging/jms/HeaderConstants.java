@@ -7,6 +7,12 @@ public final class HeaderConstants {
 
     public static final String JMS_HEADER_CPPNAME = "CPPNAME";
 
+    /**
+     * Standard JMS message group property. Messages sharing a group id are delivered in order to a
+     * single consumer, while different groups can be spread across concurrent consumers.
+     */
+    public static final String JMS_HEADER_GROUP_ID = "JMSXGroupID";
+
     private HeaderConstants() {
 
     }
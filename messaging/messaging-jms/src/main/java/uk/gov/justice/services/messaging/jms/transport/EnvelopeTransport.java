@@ -0,0 +1,31 @@
+package uk.gov.justice.services.messaging.jms.transport;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.jms.DefaultJmsEnvelopeSender;
+
+/**
+ * A transport that delivers envelopes to a destination without going through the JMS broker.
+ *
+ * Implementations are discovered by the {@link DefaultJmsEnvelopeSender}, which hands an envelope
+ * to the first transport that handles its destination and sends it via JMS otherwise. This allows a
+ * transport to be selected per destination without changing the senders and publishers that use
+ * the {@link uk.gov.justice.services.messaging.jms.JmsEnvelopeSender}.
+ */
+public interface EnvelopeTransport {
+
+    /**
+     * Check if this transport delivers envelopes sent to the destination.
+     *
+     * @param destinationName the name of the destination
+     * @return true if envelopes for the destination should be sent through this transport
+     */
+    boolean handles(final String destinationName);
+
+    /**
+     * Send the envelope to the destination.
+     *
+     * @param envelope        envelope to be sent
+     * @param destinationName the name of the destination
+     */
+    void send(final JsonEnvelope envelope, final String destinationName);
+}
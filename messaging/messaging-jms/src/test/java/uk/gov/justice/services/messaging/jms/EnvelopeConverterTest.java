@@ -1,26 +1,38 @@
 package uk.gov.justice.services.messaging.jms;
 
+import static javax.json.Json.createObjectBuilder;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.services.messaging.jms.HeaderConstants.JMS_HEADER_CPPNAME;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithDefaults;
+import static uk.gov.justice.services.messaging.jms.HeaderConstants.JMS_HEADER_GROUP_ID;
 
-import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
 import uk.gov.justice.services.messaging.JsonEnvelope;
-import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+import uk.gov.justice.services.messaging.JsonEnvelopeParser;
+import uk.gov.justice.services.messaging.JsonEnvelopeWriter;
 import uk.gov.justice.services.messaging.Metadata;
 import uk.gov.justice.services.messaging.jms.exception.JmsConverterException;
 
+import java.util.Optional;
+import java.util.UUID;
+
 import javax.jms.JMSException;
 import javax.jms.Session;
 import javax.jms.TextMessage;
-import javax.json.JsonObject;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -33,10 +45,10 @@ public class EnvelopeConverterTest {
     private EnvelopeConverter envelopeConverter;
 
     @Mock
-    private StringToJsonObjectConverter stringToJsonObjectConverter;
+    private JsonEnvelopeParser jsonEnvelopeParser;
 
     @Mock
-    private JsonObjectEnvelopeConverter jsonObjectEnvelopeConverter;
+    private JsonEnvelopeWriter jsonEnvelopeWriter;
 
     @Mock
     private TextMessage textMessage;
@@ -47,24 +59,20 @@ public class EnvelopeConverterTest {
     @Mock
     private Metadata metadata;
 
-    @Mock
-    private JsonObject messageAsJsonObject;
-
     @Mock
     private Session session;
 
     @Before
     public void setup() {
         envelopeConverter = new EnvelopeConverter();
-        envelopeConverter.stringToJsonObjectConverter = stringToJsonObjectConverter;
-        envelopeConverter.jsonObjectEnvelopeConverter = jsonObjectEnvelopeConverter;
+        envelopeConverter.jsonEnvelopeParser = jsonEnvelopeParser;
+        envelopeConverter.jsonEnvelopeWriter = jsonEnvelopeWriter;
     }
 
     @Test
     public void shouldReturnEnvelope() throws Exception {
         when(textMessage.getText()).thenReturn(MESSAGE_TEXT);
-        when(stringToJsonObjectConverter.convert(MESSAGE_TEXT)).thenReturn(messageAsJsonObject);
-        when(jsonObjectEnvelopeConverter.asEnvelope(messageAsJsonObject)).thenReturn(envelope);
+        when(jsonEnvelopeParser.asEnvelope(MESSAGE_TEXT)).thenReturn(envelope);
 
         JsonEnvelope actualEnvelope = envelopeConverter.fromMessage(textMessage);
 
@@ -73,15 +81,31 @@ public class EnvelopeConverterTest {
 
     @Test
     public void shouldReturnMessage() throws Exception {
-        when(jsonObjectEnvelopeConverter.asJsonString(envelope)).thenReturn(MESSAGE_TEXT);
+        when(jsonEnvelopeWriter.asJsonStringWithoutNulls(envelope)).thenReturn(MESSAGE_TEXT);
         when(session.createTextMessage(MESSAGE_TEXT)).thenReturn(textMessage);
         when(envelope.metadata()).thenReturn(metadata);
         when(metadata.name()).thenReturn(NAME);
+        when(metadata.streamId()).thenReturn(Optional.empty());
 
         TextMessage actualTextMessage = envelopeConverter.toMessage(envelope, session);
 
         assertThat(actualTextMessage, equalTo(textMessage));
         verify(textMessage).setStringProperty(JMS_HEADER_CPPNAME, NAME);
+        verify(textMessage, never()).setStringProperty(eq(JMS_HEADER_GROUP_ID), anyString());
+    }
+
+    @Test
+    public void shouldSetMessageGroupToStreamId() throws Exception {
+        final UUID streamId = UUID.randomUUID();
+        when(jsonEnvelopeWriter.asJsonStringWithoutNulls(envelope)).thenReturn(MESSAGE_TEXT);
+        when(session.createTextMessage(MESSAGE_TEXT)).thenReturn(textMessage);
+        when(envelope.metadata()).thenReturn(metadata);
+        when(metadata.name()).thenReturn(NAME);
+        when(metadata.streamId()).thenReturn(Optional.of(streamId));
+
+        envelopeConverter.toMessage(envelope, session);
+
+        verify(textMessage).setStringProperty(JMS_HEADER_GROUP_ID, streamId.toString());
     }
 
     @Test(expected = JmsConverterException.class)
@@ -99,9 +123,24 @@ public class EnvelopeConverterTest {
         envelopeConverter.fromMessage(textMessage);
     }
 
+    @Test
+    public void shouldLeaveOutNullFieldsOfMessage() throws Exception {
+        final ArgumentCaptor<String> text = ArgumentCaptor.forClass(String.class);
+        envelopeConverter.jsonEnvelopeWriter = new JsonEnvelopeWriter();
+        when(session.createTextMessage(text.capture())).thenReturn(textMessage);
+
+        envelopeConverter.toMessage(envelopeFrom(metadataWithDefaults(), createObjectBuilder()
+                .add("present", "value")
+                .addNull("missing")
+                .build()), session);
+
+        assertThat(text.getValue(), containsString("\"present\":\"value\""));
+        assertThat(text.getValue(), not(containsString("missing")));
+    }
+
     @Test(expected = JmsConverterException.class)
     public void shouldThrowExceptionWhenFailToCreateTextMessage() throws JMSException {
-        when(jsonObjectEnvelopeConverter.asJsonString(envelope)).thenReturn(MESSAGE_TEXT);
+        when(jsonEnvelopeWriter.asJsonStringWithoutNulls(envelope)).thenReturn(MESSAGE_TEXT);
         doThrow(JMSException.class).when(session).createTextMessage(MESSAGE_TEXT);
 
         envelopeConverter.toMessage(envelope, session);
@@ -1,9 +1,11 @@
 package uk.gov.justice.services.messaging.jms;
 
 
+import static java.util.Collections.singletonList;
 import static javax.jms.Session.AUTO_ACKNOWLEDGE;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,12 +13,15 @@ import static org.mockito.Mockito.when;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 import uk.gov.justice.services.messaging.Metadata;
 import uk.gov.justice.services.messaging.jms.exception.JmsEnvelopeSenderException;
+import uk.gov.justice.services.messaging.jms.transport.EnvelopeTransport;
 
+import javax.enterprise.inject.Instance;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.MessageProducer;
+import javax.jms.Queue;
 import javax.jms.Session;
 import javax.jms.TextMessage;
 import javax.json.JsonObject;
@@ -70,6 +75,15 @@ public class JmsEnvelopeSenderTest {
     @Mock
     private Context namingContext;
 
+    @Mock
+    private Instance<EnvelopeTransport> envelopeTransports;
+
+    @Mock
+    private EnvelopeTransport envelopeTransport;
+
+    @Mock
+    private Queue queue;
+
     private DefaultJmsEnvelopeSender jmsEnvelopeSender;
 
     @Before
@@ -78,12 +92,14 @@ public class JmsEnvelopeSenderTest {
         jmsEnvelopeSender.connectionFactory = connectionFactory;
         jmsEnvelopeSender.envelopeConverter = envelopeConverter;
         jmsEnvelopeSender.namingContext = namingContext;
+        jmsEnvelopeSender.envelopeTransports = envelopeTransports;
 
         when(connectionFactory.createConnection()).thenReturn(connection);
         when(envelope.metadata()).thenReturn(metadata);
         when(metadata.name()).thenReturn(NAME);
         when(session.createProducer(destination)).thenReturn(messageProducer);
         when(session.createTextMessage(anyString())).thenReturn(textMessage);
+        when(envelopeTransports.isUnsatisfied()).thenReturn(true);
     }
 
     @Test
@@ -135,4 +151,50 @@ public class JmsEnvelopeSenderTest {
         jmsEnvelopeSender.send(envelope, destination);
     }
 
+    @Test
+    public void shouldSendToNamedDestinationThroughTransportThatHandlesIt() throws Exception {
+        final String destinationName = "some.queue.name";
+        givenTransportHandling(destinationName);
+
+        jmsEnvelopeSender.send(envelope, destinationName);
+
+        verify(envelopeTransport).send(envelope, destinationName);
+        verify(namingContext, never()).lookup(destinationName);
+        verify(connectionFactory, never()).createConnection();
+    }
+
+    @Test
+    public void shouldSendToDestinationThroughTransportThatHandlesIt() throws Exception {
+        final String destinationName = "some.queue.name";
+        givenTransportHandling(destinationName);
+        when(queue.getQueueName()).thenReturn(destinationName);
+
+        jmsEnvelopeSender.send(envelope, queue);
+
+        verify(envelopeTransport).send(envelope, destinationName);
+        verify(connectionFactory, never()).createConnection();
+    }
+
+    @Test
+    public void shouldSendViaJmsIfNoTransportHandlesDestination() throws Exception {
+        final String destinationName = "some.queue.name";
+        when(envelopeTransports.isUnsatisfied()).thenReturn(false);
+        when(envelopeTransports.spliterator()).thenReturn(singletonList(envelopeTransport).spliterator());
+        when(envelopeTransport.handles(destinationName)).thenReturn(false);
+        when(queue.getQueueName()).thenReturn(destinationName);
+        when(connection.createSession(false, AUTO_ACKNOWLEDGE)).thenReturn(session);
+        when(session.createProducer(queue)).thenReturn(messageProducer);
+        when(envelopeConverter.toMessage(envelope, session)).thenReturn(textMessage);
+
+        jmsEnvelopeSender.send(envelope, queue);
+
+        verify(messageProducer).send(textMessage);
+        verify(envelopeTransport, never()).send(envelope, destinationName);
+    }
+
+    private void givenTransportHandling(final String destinationName) {
+        when(envelopeTransports.isUnsatisfied()).thenReturn(false);
+        when(envelopeTransports.spliterator()).thenReturn(singletonList(envelopeTransport).spliterator());
+        when(envelopeTransport.handles(destinationName)).thenReturn(true);
+    }
 }
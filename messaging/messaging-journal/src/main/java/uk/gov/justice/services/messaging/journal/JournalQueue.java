@@ -0,0 +1,346 @@
+package uk.gov.justice.services.messaging.journal;
+
+import static java.lang.String.format;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only queue of records for one destination, stored in memory-mapped segment files.
+ *
+ * Each record is written as its length, a CRC32 checksum and the payload. Offsets are logical
+ * positions across all segments; when a record does not fit in the active segment, a new segment
+ * named after its base offset is started. When the queue is opened, the segments are scanned and
+ * the queue ends at the first record that is incomplete or fails its checksum, which discards a
+ * record torn by a crash.
+ *
+ * Records are only durable once {@link #flush()} has forced them to disk, and are only read once
+ * they are durable. Consumers keep their own committed offset, so unacknowledged records are
+ * replayed after a restart.
+ *
+ * Once every registered consumer has committed past the end of a segment, other than the active
+ * one, the segment is closed and its file deleted; its mapping is released when the buffer is
+ * garbage collected. A queue with no registered consumers keeps all of its segments.
+ */
+public class JournalQueue implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String OFFSET_SUFFIX = ".offset";
+    private static final int HEADER_SIZE = 8;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<String, FileChannel> offsetFiles = new HashMap<>();
+    private final Map<String, Long> committedOffsets = new HashMap<>();
+
+    private long endOffset;
+    private long flushedOffset;
+
+    public JournalQueue(final Path directory, final int segmentSize) throws IOException {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException(format("Journal segment size must be greater than %d", HEADER_SIZE));
+        }
+
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+
+        final List<Long> baseOffsets = new ArrayList<>();
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            files.forEach(file -> baseOffsets.add(baseOffsetOf(file)));
+        }
+        baseOffsets.sort(Long::compare);
+
+        for (final Long baseOffset : baseOffsets) {
+            final Segment segment = openSegment(baseOffset);
+            segment.recover();
+            segments.add(segment);
+        }
+
+        if (segments.isEmpty()) {
+            segments.add(openSegment(0L));
+        }
+
+        endOffset = activeSegment().endOffset();
+        flushedOffset = endOffset;
+    }
+
+    /**
+     * Append a record to the queue. The record is not durable until the queue is flushed.
+     *
+     * @param payload the record payload
+     * @return the offset following the appended record
+     * @throws IOException if a new segment cannot be created
+     */
+    public synchronized long append(final byte[] payload) throws IOException {
+        final int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException(format("Record of %d bytes does not fit in a journal segment of %d bytes",
+                    payload.length, segmentSize));
+        }
+
+        if (activeSegment().limit + recordSize > segmentSize) {
+            activeSegment().buffer.force();
+            segments.add(openSegment(endOffset));
+        }
+
+        activeSegment().write(payload);
+        endOffset = activeSegment().endOffset();
+        return endOffset;
+    }
+
+    /**
+     * Read the record at the given offset, if it has been flushed. Records that have been appended
+     * but not yet forced to disk are not read, so that a consumer never commits an offset past a
+     * record that a crash could lose.
+     *
+     * @param offset the offset of the record
+     * @return the record, or empty if there is no flushed record at the offset yet
+     */
+    public synchronized Optional<JournalRecord> read(final long offset) {
+        if (offset >= flushedOffset) {
+            return Optional.empty();
+        }
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            final Segment segment = segments.get(i);
+            if (segment.baseOffset <= offset) {
+                if (offset < segment.endOffset()) {
+                    return Optional.of(segment.read(offset));
+                }
+                if (i + 1 < segments.size()) {
+                    final Segment next = segments.get(i + 1);
+                    return next.limit > 0 ? Optional.of(next.read(next.baseOffset)) : Optional.empty();
+                }
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Read the record at the given offset, waiting for it to be flushed.
+     *
+     * @param offset        the offset of the record
+     * @param timeoutMillis the longest time to wait
+     * @return the record, or empty if there is no flushed record at the offset within the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized Optional<JournalRecord> awaitRead(final long offset, final long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remainingMillis = timeoutMillis;
+        while (offset >= flushedOffset && remainingMillis > 0) {
+            wait(remainingMillis);
+            remainingMillis = deadline - System.currentTimeMillis();
+        }
+        return read(offset);
+    }
+
+    /**
+     * Force all appended records to disk and wake any thread waiting for them to be durable.
+     */
+    public synchronized void flush() {
+        if (flushedOffset < endOffset) {
+            activeSegment().buffer.force();
+            flushedOffset = endOffset;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Wait until the records up to the given offset have been flushed.
+     *
+     * @param offset the offset that must be durable
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized void awaitFlushed(final long offset) throws InterruptedException {
+        while (flushedOffset < offset) {
+            wait();
+        }
+    }
+
+    /**
+     * Register a consumer of the queue, so that segments are kept until it has committed past them.
+     * Every consumer must be registered before any consumer commits.
+     *
+     * @param consumerName the name of the consumer
+     * @throws IOException if the offset file cannot be read
+     */
+    public synchronized void register(final String consumerName) throws IOException {
+        committedOffsets.put(consumerName, committedOffset(consumerName));
+    }
+
+    /**
+     * @param consumerName the name of the consumer
+     * @return the offset after the last record the consumer has committed
+     * @throws IOException if the offset file cannot be read
+     */
+    public synchronized long committedOffset(final String consumerName) throws IOException {
+        final FileChannel offsetFile = offsetFileOf(consumerName);
+        if (offsetFile.size() < Long.BYTES) {
+            return 0L;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        offsetFile.read(buffer, 0);
+        buffer.flip();
+        return buffer.getLong();
+    }
+
+    /**
+     * Durably record that the consumer has processed the records before the given offset.
+     *
+     * @param consumerName the name of the consumer
+     * @param offset       the offset after the last processed record
+     * @throws IOException if the offset file cannot be written
+     */
+    public synchronized void commit(final String consumerName, final long offset) throws IOException {
+        final FileChannel offsetFile = offsetFileOf(consumerName);
+        final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        buffer.putLong(offset).flip();
+        offsetFile.write(buffer, 0);
+        offsetFile.force(false);
+
+        if (committedOffsets.containsKey(consumerName)) {
+            committedOffsets.put(consumerName, offset);
+            deleteSegmentsBefore(committedOffsets.values().stream().min(Long::compare).get());
+        }
+    }
+
+    public synchronized long endOffset() {
+        return endOffset;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        for (final Segment segment : segments) {
+            segment.channel.close();
+        }
+        for (final FileChannel offsetFile : offsetFiles.values()) {
+            offsetFile.close();
+        }
+    }
+
+    private Segment activeSegment() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private void deleteSegmentsBefore(final long offset) throws IOException {
+        while (segments.size() > 1 && segments.get(0).endOffset() <= offset) {
+            final Segment segment = segments.remove(0);
+            segment.channel.close();
+            Files.deleteIfExists(segmentFileOf(segment.baseOffset));
+        }
+    }
+
+    private FileChannel offsetFileOf(final String consumerName) throws IOException {
+        FileChannel offsetFile = offsetFiles.get(consumerName);
+        if (offsetFile == null) {
+            offsetFile = FileChannel.open(directory.resolve(consumerName + OFFSET_SUFFIX), CREATE, READ, WRITE);
+            offsetFiles.put(consumerName, offsetFile);
+        }
+        return offsetFile;
+    }
+
+    private Segment openSegment(final long baseOffset) throws IOException {
+        final FileChannel channel = FileChannel.open(segmentFileOf(baseOffset), CREATE, READ, WRITE);
+        return new Segment(baseOffset, channel, channel.map(READ_WRITE, 0, segmentSize));
+    }
+
+    private Path segmentFileOf(final long baseOffset) {
+        return directory.resolve(format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+    }
+
+    private static long baseOffsetOf(final Path file) {
+        final String fileName = file.getFileName().toString();
+        return Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int checksumOf(final byte[] payload) {
+        final CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+
+        private final long baseOffset;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int limit;
+
+        private Segment(final long baseOffset, final FileChannel channel, final MappedByteBuffer buffer) {
+            this.baseOffset = baseOffset;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private long endOffset() {
+            return baseOffset + limit;
+        }
+
+        private void recover() {
+            int position = 0;
+            while (position + HEADER_SIZE <= buffer.capacity()) {
+                final int length = buffer.getInt(position);
+                if (length <= 0 || position + HEADER_SIZE + length > buffer.capacity()) {
+                    break;
+                }
+                final byte[] payload = payloadAt(position, length);
+                if (buffer.getInt(position + Integer.BYTES) != checksumOf(payload)) {
+                    break;
+                }
+                position += HEADER_SIZE + length;
+            }
+            limit = position;
+        }
+
+        private void write(final byte[] payload) {
+            buffer.putInt(limit + Integer.BYTES, checksumOf(payload));
+            final ByteBuffer target = buffer.duplicate();
+            target.position(limit + HEADER_SIZE);
+            target.put(payload);
+            buffer.putInt(limit, payload.length);
+            limit += HEADER_SIZE + payload.length;
+            if (limit + Integer.BYTES <= buffer.capacity()) {
+                buffer.putInt(limit, 0);
+            }
+        }
+
+        private JournalRecord read(final long offset) {
+            final int position = (int) (offset - baseOffset);
+            final int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > limit) {
+                throw new IllegalStateException(format("Corrupt journal record length %d at offset %d", length, offset));
+            }
+            final byte[] payload = payloadAt(position, length);
+            if (buffer.getInt(position + Integer.BYTES) != checksumOf(payload)) {
+                throw new IllegalStateException(format("Corrupt journal record at offset %d, checksum does not match", offset));
+            }
+            return new JournalRecord(offset, offset + HEADER_SIZE + length, payload);
+        }
+
+        private byte[] payloadAt(final int position, final int length) {
+            final byte[] payload = new byte[length];
+            final ByteBuffer source = buffer.duplicate();
+            source.position(position + HEADER_SIZE);
+            source.get(payload);
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package uk.gov.justice.services.messaging.journal;
+
+/**
+ * A record read from a {@link JournalQueue}.
+ */
+public class JournalRecord {
+
+    private final long offset;
+    private final long nextOffset;
+    private final byte[] payload;
+
+    JournalRecord(final long offset, final long nextOffset, final byte[] payload) {
+        this.offset = offset;
+        this.nextOffset = nextOffset;
+        this.payload = payload;
+    }
+
+    /**
+     * @return the offset of this record in the queue
+     */
+    public long offset() {
+        return offset;
+    }
+
+    /**
+     * @return the offset of the record following this one
+     */
+    public long nextOffset() {
+        return nextOffset;
+    }
+
+    public byte[] payload() {
+        return payload;
+    }
+}
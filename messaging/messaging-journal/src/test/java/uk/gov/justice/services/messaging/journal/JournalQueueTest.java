@@ -0,0 +1,209 @@
+package uk.gov.justice.services.messaging.journal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JournalQueueTest {
+
+    private static final int SEGMENT_SIZE = 64;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void setup() {
+        directory = temporaryFolder.getRoot().toPath().resolve("people.event");
+    }
+
+    @Test
+    public void shouldReadAppendedRecordsInOrder() throws Exception {
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            final long first = queue.append(bytes("first"));
+            queue.append(bytes("second"));
+            queue.flush();
+
+            final JournalRecord firstRecord = queue.read(0L).get();
+            final JournalRecord secondRecord = queue.read(first).get();
+
+            assertThat(string(firstRecord.payload()), is("first"));
+            assertThat(firstRecord.nextOffset(), is(first));
+            assertThat(string(secondRecord.payload()), is("second"));
+            assertThat(queue.read(secondRecord.nextOffset()).isPresent(), is(false));
+        }
+    }
+
+    @Test
+    public void shouldRollToNewSegmentWhenSegmentIsFull() throws Exception {
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            long offset = 0L;
+            for (int i = 0; i < 10; i++) {
+                queue.append(bytes("record-" + i));
+            }
+            queue.flush();
+
+            for (int i = 0; i < 10; i++) {
+                final JournalRecord record = queue.read(offset).get();
+                assertThat(string(record.payload()), is("record-" + i));
+                offset = record.nextOffset();
+            }
+            assertThat(directory.toFile().list((dir, name) -> name.endsWith(".log")).length > 1, is(true));
+        }
+    }
+
+    @Test
+    public void shouldNotReadRecordsUntilFlushed() throws Exception {
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            queue.append(bytes("first"));
+
+            assertThat(queue.read(0L).isPresent(), is(false));
+
+            queue.flush();
+
+            assertThat(string(queue.read(0L).get().payload()), is("first"));
+        }
+    }
+
+    @Test
+    public void shouldWaitForRecordToBeFlushed() throws Exception {
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            queue.append(bytes("first"));
+            final Thread flusher = new Thread(queue::flush);
+            flusher.start();
+
+            assertThat(string(queue.awaitRead(0L, 5000L).get().payload()), is("first"));
+            flusher.join();
+        }
+    }
+
+    @Test
+    public void shouldRecoverRecordsWhenReopened() throws Exception {
+        final long end;
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 10; i++) {
+                queue.append(bytes("record-" + i));
+            }
+            end = queue.endOffset();
+        }
+
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            assertThat(queue.endOffset(), is(end));
+            assertThat(string(queue.read(0L).get().payload()), is("record-0"));
+        }
+    }
+
+    @Test
+    public void shouldDiscardTornRecordWhenReopened() throws Exception {
+        final long first;
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            first = queue.append(bytes("first"));
+            queue.append(bytes("second"));
+        }
+
+        try (final FileChannel segment = FileChannel.open(directory.resolve(String.format("%020d.log", 0L)), READ, WRITE)) {
+            segment.write(ByteBuffer.wrap(bytes("X")), first + 8);
+        }
+
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            assertThat(queue.endOffset(), is(first));
+            assertThat(queue.read(first).isPresent(), is(false));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldFailToReadRecordThatFailsItsChecksum() throws Exception {
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            queue.append(bytes("first"));
+            queue.flush();
+
+            try (final FileChannel segment = FileChannel.open(directory.resolve(String.format("%020d.log", 0L)), READ, WRITE)) {
+                segment.write(ByteBuffer.wrap(bytes("X")), 8);
+            }
+
+            queue.read(0L);
+        }
+    }
+
+    @Test
+    public void shouldPersistCommittedOffsetsPerConsumer() throws Exception {
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            assertThat(queue.committedOffset("EVENT_LISTENER"), is(0L));
+
+            queue.commit("EVENT_LISTENER", 42L);
+            queue.commit("EVENT_PROCESSOR", 7L);
+        }
+
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            assertThat(queue.committedOffset("EVENT_LISTENER"), is(42L));
+            assertThat(queue.committedOffset("EVENT_PROCESSOR"), is(7L));
+        }
+    }
+
+    @Test
+    public void shouldDeleteSegmentsOnceEveryConsumerHasCommittedPastThem() throws Exception {
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            queue.register("EVENT_LISTENER");
+            queue.register("EVENT_PROCESSOR");
+            for (int i = 0; i < 10; i++) {
+                queue.append(bytes("record-" + i));
+            }
+            queue.flush();
+            final int segmentsWritten = segmentCount();
+
+            queue.commit("EVENT_LISTENER", queue.endOffset());
+            assertThat(segmentCount(), is(segmentsWritten));
+
+            queue.commit("EVENT_PROCESSOR", queue.endOffset());
+            assertThat(segmentCount(), is(1));
+
+            final long offset = queue.endOffset();
+            queue.append(bytes("record-10"));
+            queue.flush();
+            assertThat(string(queue.read(offset).get().payload()), is("record-10"));
+        }
+    }
+
+    @Test
+    public void shouldReleaseWaitersOnceFlushed() throws Exception {
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            final long offset = queue.append(bytes("first"));
+            final Thread flusher = new Thread(queue::flush);
+            flusher.start();
+
+            queue.awaitFlushed(offset);
+            flusher.join();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectRecordLargerThanSegment() throws Exception {
+        try (final JournalQueue queue = new JournalQueue(directory, SEGMENT_SIZE)) {
+            queue.append(new byte[SEGMENT_SIZE]);
+        }
+    }
+
+    private int segmentCount() {
+        return directory.toFile().list((dir, name) -> name.endsWith(".log")).length;
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(UTF_8);
+    }
+
+    private static String string(final byte[] value) {
+        return new String(value, UTF_8);
+    }
+}